@@ -0,0 +1,48 @@
+package com.filestreamer.spreadsheetgenerator.benchmark;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductDataFormatter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+
+
+/**
+ * Dados sintéticos no formato da tabela de produtos, gerados com semente fixa para que
+ * execuções diferentes meçam exatamente o mesmo conteúdo
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2025, 6, 23, 10, 40);
+
+    private BenchmarkData() {
+    }
+
+    static Product[] products(int count) {
+        Random random = new Random(42);
+        Product[] products = new Product[count];
+        for (int i = 0; i < count; i++) {
+            Product product = new Product(
+                    "Produto Ação " + random.nextInt(100_000),
+                    "Descrição do produto com \"aspas\", vírgulas e acentuação " + random.nextInt(),
+                    BigDecimal.valueOf(random.nextInt(10_000_000), 2));
+            product.setId(new UUID(random.nextLong(), random.nextLong()));
+            product.setCreatedAt(BASE_DATE.plusSeconds(random.nextInt(31_536_000)));
+            product.setUpdatedAt(product.getCreatedAt().plusMinutes(random.nextInt(1_000)));
+            products[i] = product;
+        }
+        return products;
+    }
+
+    static String[][] rows(int count) {
+        ProductDataFormatter formatter = new ProductDataFormatter();
+        Product[] products = products(count);
+        String[][] rows = new String[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = formatter.formatToRow(products[i]);
+        }
+        return rows;
+    }
+}
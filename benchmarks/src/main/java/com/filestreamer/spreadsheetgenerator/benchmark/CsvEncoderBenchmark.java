@@ -0,0 +1,86 @@
+package com.filestreamer.spreadsheetgenerator.benchmark;
+
+import com.filestreamer.spreadsheetgenerator.service.export.CsvEncoder;
+import com.filestreamer.spreadsheetgenerator.service.export.RowWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compara o custo por linha dos encoders CSV com linhas no formato da exportação de produtos.
+ * O throughput principal é reportado em linhas/s e o contador auxiliar {@code bytes} em
+ * bytes/s; com {@code -prof gc}, {@code gc.alloc.rate.norm} mostra os bytes alocados por linha.
+ * <p>
+ * Execução: {@code make bench BENCH=CsvEncoder}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvEncoderBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"UTF8_DIRECT", "OPENCSV"})
+    private CsvEncoder encoder;
+
+    private String[][] rows;
+
+    /**
+     * Bytes escritos, reportados pelo JMH como taxa (bytes/s) ao lado do throughput em linhas
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class WrittenBytes {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkData.rows(ROWS);
+    }
+
+    /**
+     * Escreve {@value #ROWS} linhas; o throughput é reportado em linhas/s
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeRows(WrittenBytes writtenBytes) throws IOException {
+        CountingNullOutputStream outputStream = new CountingNullOutputStream();
+        try (RowWriter writer = encoder.newWriter(outputStream)) {
+            for (String[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        writtenBytes.bytes += outputStream.count;
+    }
+
+    /**
+     * Descarta os bytes contando o total, sem custo de I/O
+     */
+    private static final class CountingNullOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
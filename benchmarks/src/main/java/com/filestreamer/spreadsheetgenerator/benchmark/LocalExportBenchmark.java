@@ -0,0 +1,92 @@
+package com.filestreamer.spreadsheetgenerator.benchmark;
+
+import com.filestreamer.spreadsheetgenerator.service.export.CompressionCodec;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportConfig;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportFormat;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportResult;
+import com.filestreamer.spreadsheetgenerator.service.export.GenericLocalStreamExporter;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductDataFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+
+/**
+ * Exportação completa via {@link GenericLocalStreamExporter#exportData} de um stream sintético
+ * de linhas já formatadas para um arquivo local: inclui escrita CSV, compressão, contagem de
+ * registros e flush por lote. Cada execução é medida isoladamente (tempo por exportação).
+ * <p>
+ * Execução: {@code make bench BENCH=LocalExport}; para outros tamanhos ou codecs,
+ * {@code make bench BENCH=LocalExport BENCH_ARGS="-p rows=1000000 -p compression=GZIP,ZSTD"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LocalExportBenchmark {
+
+    /**
+     * Linhas distintas repetidas ao longo do stream, para que a geração não pese na medição
+     */
+    private static final int DISTINCT_ROWS = 1_024;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private long rows;
+
+    @Param({"NONE"})
+    private CompressionCodec compression;
+
+    private final GenericLocalStreamExporter exporter = new GenericLocalStreamExporter();
+
+    private String[][] rowPool;
+    private String[] headers;
+    private Path exportDirectory;
+    private ExportResult lastResult;
+
+    @Setup
+    public void setUp() throws IOException {
+        rowPool = BenchmarkData.rows(DISTINCT_ROWS);
+        headers = new ProductDataFormatter().getHeaders();
+        exportDirectory = Files.createTempDirectory("export-benchmark-");
+    }
+
+    @Benchmark
+    public ExportResult exportData() throws IOException {
+        Stream<String[]> dataStream = LongStream.range(0, rows)
+                .mapToObj(i -> rowPool[(int) (i % DISTINCT_ROWS)]);
+
+        ExportConfig exportConfig = ExportConfig.builder()
+                .fileName("products_benchmark." + compression.fileExtension(ExportFormat.CSV))
+                .basePath(exportDirectory.toString())
+                .headers(headers)
+                .compression(compression)
+                .batchSize(1000)
+                .build();
+
+        lastResult = exporter.exportData(dataStream, exportConfig);
+        return lastResult;
+    }
+
+    /**
+     * Confere o resultado e remove o arquivo, para que o disco não acumule exportações
+     */
+    @TearDown(Level.Invocation)
+    public void deleteExport() throws IOException {
+        if (!lastResult.isSuccess() || lastResult.getTotalRecords() != rows) {
+            throw new IllegalStateException("Exportação inválida: " + lastResult.getErrorMessage());
+        }
+        Files.deleteIfExists(Path.of(lastResult.getFilePath()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(exportDirectory);
+    }
+}
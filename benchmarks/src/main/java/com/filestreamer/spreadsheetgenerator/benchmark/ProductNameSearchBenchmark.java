@@ -0,0 +1,141 @@
+package com.filestreamer.spreadsheetgenerator.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Busca por parte do nome no PostgreSQL com a mesma consulta de
+ * {@code ProductRepository.searchByName} (LIKE sobre {@code lower(name)}, ordenação por
+ * relevância e limite), comparando o índice de trigramas com a leitura sequencial da tabela.
+ * Os dois casos rodam a mesma consulta; no sequencial o planejador fica proibido de usar índices.
+ * <p>
+ * Usa uma tabela própria ({@code products_search_benchmark}), criada e indexada na primeira
+ * execução e reaproveitada nas seguintes se tiver a quantidade de linhas pedida. Precisa de um
+ * PostgreSQL com a extensão pg_trgm disponível (o do {@code docker-compose.yml} serve).
+ * <p>
+ * Execução: {@code make bench BENCH=ProductNameSearch}; para outro banco,
+ * {@code make bench BENCH=ProductNameSearch BENCH_ARGS="-p jdbcUrl=jdbc:postgresql://host:5432/db"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductNameSearchBenchmark {
+
+    private static final String TABLE = "products_search_benchmark";
+
+    private static final int LIMIT = 50;
+
+    private static final String SEARCH = "SELECT id, name FROM " + TABLE + " " +
+            "WHERE lower(name) LIKE lower(?) ESCAPE '\\' " +
+            "ORDER BY CASE WHEN lower(name) = lower(?) THEN 0 WHEN lower(name) LIKE lower(?) ESCAPE '\\' THEN 1 ELSE 2 END, " +
+            "length(name), name LIMIT " + LIMIT;
+
+    @Param({"jdbc:postgresql://localhost:5432/spreadsheet_generator"})
+    private String jdbcUrl;
+
+    @Param({"postgres"})
+    private String user;
+
+    @Param({"postgres"})
+    private String password;
+
+    @Param({"10000000"})
+    private long rows;
+
+    /**
+     * Termo seletivo (poucas linhas) e termo presente em um quinto da tabela
+     */
+    @Param({"4242424", "monitor"})
+    private String term;
+
+    private Connection indexed;
+    private Connection sequential;
+
+    @Setup
+    public void setUp() throws SQLException {
+        indexed = DriverManager.getConnection(jdbcUrl, user, password);
+        sequential = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = sequential.createStatement()) {
+            statement.execute("SET enable_indexscan = off");
+            statement.execute("SET enable_bitmapscan = off");
+        }
+        if (countRows() != rows) {
+            createTable();
+        }
+    }
+
+    @Benchmark
+    public int trigramIndex(Blackhole blackhole) throws SQLException {
+        return search(indexed, blackhole);
+    }
+
+    @Benchmark
+    public int sequentialScan(Blackhole blackhole) throws SQLException {
+        return search(sequential, blackhole);
+    }
+
+    private int search(Connection connection, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SEARCH)) {
+            statement.setString(1, "%" + term + "%");
+            statement.setString(2, term);
+            statement.setString(3, term + "%");
+            int found = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getString(2));
+                    found++;
+                }
+            }
+            return found;
+        }
+    }
+
+    private long countRows() throws SQLException {
+        try (Statement statement = indexed.createStatement();
+             ResultSet exists = statement.executeQuery("SELECT to_regclass('" + TABLE + "') IS NOT NULL")) {
+            exists.next();
+            if (!exists.getBoolean(1)) {
+                return -1;
+            }
+        }
+        try (Statement statement = indexed.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+            count.next();
+            return count.getLong(1);
+        }
+    }
+
+    /**
+     * Nomes no formato dos produtos gerados: tipo do produto seguido de um número sequencial
+     */
+    private void createTable() throws SQLException {
+        try (Statement statement = indexed.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id UUID PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+            statement.execute("INSERT INTO " + TABLE + " (id, name) " +
+                    "SELECT gen_random_uuid(), (ARRAY['Notebook', 'Mouse', 'Teclado', 'Monitor', 'Cadeira'])[1 + g % 5] " +
+                    "|| ' Modelo ' || g FROM generate_series(1, " + rows + ") AS g");
+            statement.execute("CREATE INDEX ON " + TABLE + " USING gin (lower(name) gin_trgm_ops)");
+            statement.execute("ANALYZE " + TABLE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        indexed.close();
+        sequential.close();
+    }
+}
@@ -0,0 +1,109 @@
+package com.filestreamer.spreadsheetgenerator.benchmark;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.repository.ProductStreamRepositoryImpl;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductDataFormatter;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductExportRowFormatter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+
+/**
+ * Leitura completa da tabela de produtos já formatada em linhas, comparando o stream de
+ * entidades ({@code findAllByOrderByCreatedAtStream} + {@link ProductDataFormatter}) com a
+ * projeção usada pelas exportações ({@code findAllExportRowsOrderByCreatedAtStream} +
+ * {@link ProductExportRowFormatter}). Roda sobre um H2 em memória para medir o custo do
+ * Hibernate sem rede; com {@code -prof gc}, {@code gc.alloc.rate.norm} mostra os bytes
+ * alocados por leitura completa.
+ * <p>
+ * Execução: {@code make bench BENCH=ProductStream}; para outros tamanhos,
+ * {@code make bench BENCH=ProductStream BENCH_ARGS="-p rows=1000000"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductStreamBenchmark {
+
+    private static final int FETCH_SIZE = 1000;
+
+    @Param({"100000"})
+    private long rows;
+
+    private final ProductDataFormatter entityFormatter = new ProductDataFormatter();
+    private final ProductExportRowFormatter exportRowFormatter = new ProductExportRowFormatter();
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery(
+                        "INSERT INTO products (id, name, description, price, created_at, updated_at) " +
+                        "SELECT RANDOM_UUID(), CONCAT('Produto ', X), CONCAT('Descrição do produto ', X), " +
+                        "MOD(X, 100000) / 100.0 + 1, DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'), " +
+                        "TIMESTAMP '2025-01-02 00:00:00' FROM SYSTEM_RANGE(1, :rows)")
+                .setParameter("rows", rows)
+                .executeUpdate());
+    }
+
+    @Benchmark
+    public long entityStream(Blackhole blackhole) {
+        return readAll(repository -> entityFormatter.formatToRows(repository.findAllByOrderByCreatedAtStream()),
+                blackhole);
+    }
+
+    @Benchmark
+    public long projectionStream(Blackhole blackhole) {
+        return readAll(repository -> exportRowFormatter.formatToRows(repository.findAllExportRowsOrderByCreatedAtStream()),
+                blackhole);
+    }
+
+    /**
+     * Lê todas as linhas dentro de uma transação, como nas exportações, e confere o total
+     */
+    private long readAll(Function<ProductStreamRepositoryImpl, Stream<String[]>> query, Blackhole blackhole) {
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            long count = 0;
+            try (Stream<String[]> dataStream = query.apply(new ProductStreamRepositoryImpl(entityManager, FETCH_SIZE))) {
+                Iterator<String[]> iterator = dataStream.iterator();
+                while (iterator.hasNext()) {
+                    blackhole.consume(iterator.next());
+                    count++;
+                }
+            }
+            entityManager.getTransaction().commit();
+            if (count != rows) {
+                throw new IllegalStateException("Leitura incompleta: " + count + " de " + rows);
+            }
+            return count;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+}
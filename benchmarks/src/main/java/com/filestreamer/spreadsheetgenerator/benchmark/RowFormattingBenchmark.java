@@ -0,0 +1,84 @@
+package com.filestreamer.spreadsheetgenerator.benchmark;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductDataFormatter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Custo de {@link ProductDataFormatter#formatToRow} por produto e de cada conversão que o
+ * compõe (UUID, BigDecimal e LocalDateTime). Com {@code -prof gc}, {@code gc.alloc.rate.norm}
+ * mostra os bytes alocados por linha.
+ * <p>
+ * Execução: {@code make bench BENCH=RowFormatting}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowFormattingBenchmark {
+
+    private static final int PRODUCTS = 1_024;
+
+    /**
+     * Mesmo padrão usado pelo {@link ProductDataFormatter}
+     */
+    private static final DateTimeFormatter CSV_DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ProductDataFormatter formatter = new ProductDataFormatter();
+
+    private Product[] products;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(PRODUCTS);
+    }
+
+    /**
+     * Linha completa; o throughput é reportado em linhas/s. Os produtos são reutilizados,
+     * então o preço sai do cache do BigDecimal (ver {@link #bigDecimalToString}).
+     */
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void formatToRow(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(formatter.formatToRow(product));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void uuidToString(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(product.getId().toString());
+        }
+    }
+
+    /**
+     * O BigDecimal guarda a string gerada no primeiro toString, então cada iteração cria
+     * uma instância nova, como as lidas do banco a cada linha
+     */
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void bigDecimalToString(Blackhole blackhole) {
+        for (Product product : products) {
+            BigDecimal price = product.getPrice();
+            blackhole.consume(new BigDecimal(price.unscaledValue(), price.scale()).toString());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void localDateTimeFormat(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(product.getCreatedAt().format(CSV_DATETIME_FORMATTER));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.filestreamer.spreadsheetgenerator.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas ({@code @Scheduled}) de manutenção da aplicação
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
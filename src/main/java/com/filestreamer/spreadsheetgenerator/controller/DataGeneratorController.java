@@ -1,16 +1,22 @@
 package com.filestreamer.spreadsheetgenerator.controller;
 
+import com.filestreamer.spreadsheetgenerator.service.BulkLoadResult;
+import com.filestreamer.spreadsheetgenerator.service.DataGenerationMode;
 import com.filestreamer.spreadsheetgenerator.service.DataGeneratorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -18,6 +24,15 @@ import java.util.Map;
 @Tag(name = "Data Generator", description = "Geração de dados aleatórios para testes e desenvolvimento")
 public class DataGeneratorController {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorController.class);
+
+    private static final int MAX_QUANTITY = 1_000_000;
+
+    /**
+     * Limite maior no modo BULK, usado para popular o banco em testes de capacidade
+     */
+    private static final int MAX_BULK_QUANTITY = 100_000_000;
+
     @Autowired
     private DataGeneratorService dataGeneratorService;
 
@@ -26,23 +41,29 @@ public class DataGeneratorController {
         summary = "Gerar produtos aleatórios",
         description = "Gera uma quantidade específica de produtos com dados aleatórios realistas. " +
                 "Útil para popular o banco de dados para testes de performance, desenvolvimento e demonstrações. " +
-                "Os produtos gerados incluem nomes, descrições, preços, categorias e quantidades variadas."
+                "Os produtos gerados incluem nomes, descrições, preços, categorias e quantidades variadas. " +
+                "No modo BULK as linhas vão direto ao banco (COPY no PostgreSQL, INSERT em lote nos demais), " +
+                "com commit a cada bloco de DATA_GENERATOR_CHUNK_SIZE linhas e até 100.000.000 de produtos por requisição. " +
+                "Em ambos os modos os blocos são gravados em paralelo em virtual threads, limitados pelo pool de conexões."
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Produtos gerados com sucesso"),
-        @ApiResponse(responseCode = "400", description = "Quantidade inválida (deve ser entre 1 e 1.000.000)"),
+        @ApiResponse(responseCode = "400", description = "Quantidade inválida (deve ser entre 1 e 1.000.000, ou 100.000.000 no modo BULK)"),
         @ApiResponse(responseCode = "500", description = "Erro interno durante a geração dos dados")
     })
     public ResponseEntity<Map<String, Object>> generateProducts(
             @Parameter(
-                description = "Quantidade de produtos a serem gerados (máximo: 1.000.000)",
+                description = "Quantidade de produtos a serem gerados (máximo: 1.000.000, ou 100.000.000 no modo BULK)",
                 example = "100000"
             )
-            @PathVariable int quantity) {
+            @PathVariable int quantity,
+            @Parameter(description = "Caminho de escrita: JPA (saveAll) ou BULK (COPY / INSERT em lote)")
+            @RequestParam(defaultValue = "JPA") DataGenerationMode mode) {
         
-        if (quantity <= 0 || quantity > 1_000_000) {
+        int maxQuantity = mode == DataGenerationMode.BULK ? MAX_BULK_QUANTITY : MAX_QUANTITY;
+        if (quantity <= 0 || quantity > maxQuantity) {
             Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Quantidade deve estar entre 1 e 1.000.000");
+            errorResponse.put("error", String.format(Locale.of("pt", "BR"), "Quantidade deve estar entre 1 e %,d", maxQuantity));
             errorResponse.put("requested_quantity", quantity);
             return ResponseEntity.badRequest().body(errorResponse);
         }
@@ -50,16 +71,38 @@ public class DataGeneratorController {
         long startTime = System.currentTimeMillis();
         long initialCount = dataGeneratorService.getProductCount();
         
-        dataGeneratorService.generateRandomProducts(quantity);
+        BulkLoadResult bulkLoadResult = null;
+        if (mode == DataGenerationMode.BULK) {
+            try {
+                bulkLoadResult = dataGeneratorService.bulkLoadRandomProducts(quantity);
+            } catch (IOException e) {
+                logger.error("Erro durante carga em massa de produtos", e);
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Erro durante carga em massa: " + e.getMessage());
+                errorResponse.put("requested_quantity", quantity);
+                return ResponseEntity.internalServerError().body(errorResponse);
+            }
+        } else {
+            dataGeneratorService.generateRandomProducts(quantity);
+        }
         
         long endTime = System.currentTimeMillis();
         long finalCount = dataGeneratorService.getProductCount();
         
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Produtos gerados com sucesso");
+        response.put("mode", mode);
         response.put("generated_quantity", quantity);
         response.put("execution_time_ms", endTime - startTime);
         response.put("products_per_second", Math.round((double) quantity / (endTime - startTime) * 1000));
+        if (bulkLoadResult != null) {
+            // Taxa só da geração e carga, sem as contagens antes e depois
+            response.put("load_method", bulkLoadResult.method());
+            response.put("load_time_ms", bulkLoadResult.durationMs());
+            response.put("rows_per_second", bulkLoadResult.rowsPerSecond());
+            response.put("chunk_size", bulkLoadResult.chunkSize());
+            response.put("parallelism", bulkLoadResult.parallelism());
+        }
         response.put("initial_count", initialCount);
         response.put("final_count", finalCount);
         response.put("total_products_in_database", finalCount);
@@ -104,8 +147,11 @@ public class DataGeneratorController {
         Map<String, Object> response = new HashMap<>();
         response.put("service", "Data Generator API");
         response.put("description", "Gerador de dados aleatórios para produtos");
-        response.put("max_quantity_per_request", 1_000_000);
+        response.put("max_quantity_per_request", MAX_QUANTITY);
+        response.put("max_bulk_quantity_per_request", MAX_BULK_QUANTITY);
         response.put("batch_size", 1_000);
+        response.put("bulk_chunk_size", dataGeneratorService.getBulkChunkSize());
+        response.put("parallelism", dataGeneratorService.resolveParallelism());
         response.put("features", new String[]{
             "Nomes de produtos realistas",
             "Preços variados (R$ 10,00 - R$ 9.999,99)",
@@ -0,0 +1,181 @@
+package com.filestreamer.spreadsheetgenerator.controller;
+
+import com.filestreamer.spreadsheetgenerator.dto.ExportJobDto;
+import com.filestreamer.spreadsheetgenerator.exception.ExportJobNotFoundException;
+import com.filestreamer.spreadsheetgenerator.model.ExportJob;
+import com.filestreamer.spreadsheetgenerator.service.export.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+
+@RestController
+@RequestMapping("/api/v2/export/jobs")
+@Tag(name = "Export Jobs", description = "API para exportação assíncrona de dados")
+public class ExportJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobController.class);
+
+    /**
+     * Tempo sugerido ao cliente para tentar novamente quando a fila está cheia
+     */
+    static final String RETRY_AFTER_SECONDS = "30";
+
+    private final ExportJobService exportJobService;
+
+    public ExportJobController(ExportJobService exportJobService) {
+        this.exportJobService = exportJobService;
+    }
+
+    /**
+     * Endpoint para criar um job de exportação de todos os produtos
+     */
+    @PostMapping("/products/all")
+    @Operation(
+        summary = "Cria job de exportação de todos os produtos",
+        description = "Retorna o ID do job imediatamente; a exportação roda em segundo plano"
+    )
+    @ApiResponse(responseCode = "202", description = "Job criado")
+    @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    @ApiResponse(responseCode = "503", description = "Fila de exportações cheia")
+    public ResponseEntity<ExportJobDto> submitAllProducts(
+            @Parameter(description = "Tipo do exportador (LOCAL, AWS_S3, GCP_STORAGE)")
+            @RequestParam ExporterType exporterType,
+            @Parameter(description = "Caminho base para salvar o arquivo (opcional)")
+            @RequestParam(required = false) String basePath,
+            @Parameter(description = "Formato do arquivo (CSV, XLSX)")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compressão do arquivo (NONE, GZIP, ZSTD)")
+            @RequestParam(defaultValue = "NONE") CompressionCodec compression,
+            @Parameter(description = "Nível de compressão (opcional, padrão do codec)")
+            @RequestParam(required = false) Integer compressionLevel,
+            @Parameter(description = "Caminho de leitura (AUTO, JPA, COPY); COPY usa o CSV gerado pelo PostgreSQL")
+            @RequestParam(defaultValue = "AUTO") ExportMode mode,
+            @Parameter(description = "Faixas lidas em paralelo via COPY (opcional, escolhido pelo tamanho da tabela)")
+            @RequestParam(required = false) Integer parallelism,
+            @Parameter(description = "Gravação das faixas paralelas (MERGED: arquivo único, PARTS: um arquivo por faixa)")
+            @RequestParam(defaultValue = "MERGED") ParallelOutput parallelOutput,
+            @Parameter(description = "Divide em um arquivo a cada N registros, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxRowsPerFile,
+            @Parameter(description = "Divide em um arquivo a cada M bytes antes da compressão, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxBytesPerFile) {
+
+        try {
+            ExportJob job = exportJobService.submitAllProducts(exporterType, basePath,
+                    exportOptions(format, compression, compressionLevel, mode, parallelism, parallelOutput,
+                            maxRowsPerFile, maxBytesPerFile));
+            return accepted(job);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Job de exportação recusado: {}", e.getMessage());
+            return serviceUnavailable();
+        }
+    }
+
+    /**
+     * Endpoint para criar um job de exportação de produtos filtrados por preço
+     */
+    @PostMapping("/products/filtered")
+    @Operation(
+        summary = "Cria job de exportação de produtos filtrados por preço",
+        description = "Retorna o ID do job imediatamente; a exportação roda em segundo plano"
+    )
+    @ApiResponse(responseCode = "202", description = "Job criado")
+    @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    @ApiResponse(responseCode = "503", description = "Fila de exportações cheia")
+    public ResponseEntity<ExportJobDto> submitFilteredProducts(
+            @Parameter(description = "Tipo do exportador (LOCAL, AWS_S3, GCP_STORAGE)")
+            @RequestParam ExporterType exporterType,
+            @Parameter(description = "Preço mínimo para filtro")
+            @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Caminho base para salvar o arquivo (opcional)")
+            @RequestParam(required = false) String basePath,
+            @Parameter(description = "Formato do arquivo (CSV, XLSX)")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compressão do arquivo (NONE, GZIP, ZSTD)")
+            @RequestParam(defaultValue = "NONE") CompressionCodec compression,
+            @Parameter(description = "Nível de compressão (opcional, padrão do codec)")
+            @RequestParam(required = false) Integer compressionLevel,
+            @Parameter(description = "Caminho de leitura (AUTO, JPA, COPY); COPY usa o CSV gerado pelo PostgreSQL")
+            @RequestParam(defaultValue = "AUTO") ExportMode mode,
+            @Parameter(description = "Divide em um arquivo a cada N registros, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxRowsPerFile,
+            @Parameter(description = "Divide em um arquivo a cada M bytes antes da compressão, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxBytesPerFile) {
+
+        try {
+            ExportJob job = exportJobService.submitProductsByMinPrice(exporterType, minPrice, basePath,
+                    exportOptions(format, compression, compressionLevel, mode, null, ParallelOutput.MERGED,
+                            maxRowsPerFile, maxBytesPerFile));
+            return accepted(job);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Job de exportação recusado: {}", e.getMessage());
+            return serviceUnavailable();
+        }
+    }
+
+    /**
+     * Endpoint para consultar o estado de um job
+     */
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "Consulta job de exportação",
+        description = "Retorna estado, registros e bytes exportados até o momento e, ao final, o resultado da exportação"
+    )
+    @ApiResponse(responseCode = "200", description = "Job encontrado")
+    @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    public ResponseEntity<ExportJobDto> getJob(
+            @Parameter(description = "ID do job")
+            @PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(ExportJobDto.fromEntity(exportJobService.getJob(id)));
+        } catch (ExportJobNotFoundException e) {
+            logger.warn("Job de exportação não encontrado: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private ResponseEntity<ExportJobDto> accepted(ExportJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v2/export/jobs/" + job.getId()))
+                .body(ExportJobDto.fromEntity(job));
+    }
+
+    private ResponseEntity<ExportJobDto> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    private ExportOptions exportOptions(ExportFormat format, CompressionCodec compression, Integer compressionLevel,
+                                        ExportMode mode, Integer parallelism, ParallelOutput parallelOutput,
+                                        Long maxRowsPerFile, Long maxBytesPerFile) {
+        return ExportOptions.builder()
+                .format(format)
+                .compression(compression)
+                .compressionLevel(compressionLevel)
+                .mode(mode)
+                .parallelism(parallelism)
+                .parallelOutput(parallelOutput)
+                .maxRowsPerFile(maxRowsPerFile)
+                .maxBytesPerFile(maxBytesPerFile)
+                .build();
+    }
+}
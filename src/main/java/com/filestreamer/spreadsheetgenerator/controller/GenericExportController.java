@@ -1,14 +1,23 @@
 package com.filestreamer.spreadsheetgenerator.controller;
 
+import com.filestreamer.spreadsheetgenerator.exception.ExportRejectedException;
 import com.filestreamer.spreadsheetgenerator.service.export.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -24,9 +33,11 @@ public class GenericExportController {
     private static final Logger logger = LoggerFactory.getLogger(GenericExportController.class);
     
     private final GenericStreamExportService exportService;
+    private final ExportAdmission admission;
     
-    public GenericExportController(GenericStreamExportService exportService) {
+    public GenericExportController(GenericStreamExportService exportService, ExportAdmission admission) {
         this.exportService = exportService;
+        this.admission = admission;
     }
     
     /**
@@ -35,21 +46,45 @@ public class GenericExportController {
     @GetMapping("/products/all")
     @Operation(
         summary = "Exporta todos os produtos",
-        description = "Exporta todos os produtos usando streaming"
+        description = "Exporta todos os produtos usando streaming, em CSV ou XLSX"
     )
     @ApiResponse(responseCode = "200", description = "Exportação realizada com sucesso")
     @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido; ver Retry-After")
     @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     public ResponseEntity<ExportResult> exportAllProducts(
             @Parameter(description = "Tipo do exportador (LOCAL, AWS_S3, GCP_STORAGE)")
             @RequestParam ExporterType exporterType,
             @Parameter(description = "Caminho base para salvar o arquivo (opcional)")
-            @RequestParam(required = false) String basePath) {
+            @RequestParam(required = false) String basePath,
+            @Parameter(description = "Formato do arquivo (CSV, XLSX)")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compressão do arquivo (NONE, GZIP, ZSTD)")
+            @RequestParam(defaultValue = "NONE") CompressionCodec compression,
+            @Parameter(description = "Nível de compressão (opcional, padrão do codec)")
+            @RequestParam(required = false) Integer compressionLevel,
+            @Parameter(description = "Caminho de leitura (AUTO, JPA, COPY); COPY usa o CSV gerado pelo PostgreSQL")
+            @RequestParam(defaultValue = "AUTO") ExportMode mode,
+            @Parameter(description = "Faixas lidas em paralelo via COPY (opcional, escolhido pelo tamanho da tabela)")
+            @RequestParam(required = false) Integer parallelism,
+            @Parameter(description = "Gravação das faixas paralelas (MERGED: arquivo único, PARTS: um arquivo por faixa)")
+            @RequestParam(defaultValue = "MERGED") ParallelOutput parallelOutput,
+            @Parameter(description = "Divide em um arquivo a cada N registros, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxRowsPerFile,
+            @Parameter(description = "Divide em um arquivo a cada M bytes antes da compressão, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxBytesPerFile,
+            @Parameter(description = "Gera o arquivo de novo mesmo que a mesma exportação, sobre os mesmos dados, esteja em cache")
+            @RequestParam(defaultValue = "false") boolean bypassCache) {
         
         try {
-            logger.info("Iniciando exportação genérica de todos os produtos via {}", exporterType.getDisplayName());
+            logger.info("Iniciando exportação genérica de todos os produtos via {} ({})", exporterType.getDisplayName(), format);
             
-            ExportResult result = exportService.exportAllProducts(exporterType, basePath);
+            ExportResult result;
+            try (ExportAdmission.Permit permit = admission.acquire(exporterType)) {
+                result = exportService.exportAllProducts(exporterType, basePath,
+                        exportOptions(format, compression, compressionLevel, mode, parallelism, parallelOutput,
+                                maxRowsPerFile, maxBytesPerFile, bypassCache));
+            }
             
             if (result.isSuccess()) {
                 logger.info("Exportação genérica concluída com sucesso: {} registros", result.getTotalRecords());
@@ -59,10 +94,16 @@ public class GenericExportController {
                 return ResponseEntity.badRequest().body(result);
             }
             
+        } catch (ExportRejectedException e) {
+            return tooManyRequests(e, new ExportResult(exporterType, e.getMessage()));
         } catch (IllegalStateException e) {
             logger.error("Exportador não configurado: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(new ExportResult(exporterType, "Exportador não configurado: " + e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            logger.error("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ExportResult(exporterType, "Parâmetros inválidos: " + e.getMessage()));
         } catch (IOException e) {
             logger.error("Erro de I/O durante exportação genérica", e);
             return ResponseEntity.internalServerError()
@@ -80,10 +121,11 @@ public class GenericExportController {
     @GetMapping("/products/filtered")
     @Operation(
         summary = "Exporta produtos filtrados por preço",
-        description = "Exporta produtos com preço maior ou igual ao valor especificado usando streaming"
+        description = "Exporta produtos com preço maior ou igual ao valor especificado usando streaming, em CSV ou XLSX"
     )
     @ApiResponse(responseCode = "200", description = "Exportação realizada com sucesso")
     @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido; ver Retry-After")
     @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     public ResponseEntity<ExportResult> exportFilteredProducts(
             @Parameter(description = "Tipo do exportador (LOCAL, AWS_S3, GCP_STORAGE)")
@@ -91,13 +133,32 @@ public class GenericExportController {
             @Parameter(description = "Preço mínimo para filtro")
             @RequestParam BigDecimal minPrice,
             @Parameter(description = "Caminho base para salvar o arquivo (opcional)")
-            @RequestParam(required = false) String basePath) {
+            @RequestParam(required = false) String basePath,
+            @Parameter(description = "Formato do arquivo (CSV, XLSX)")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compressão do arquivo (NONE, GZIP, ZSTD)")
+            @RequestParam(defaultValue = "NONE") CompressionCodec compression,
+            @Parameter(description = "Nível de compressão (opcional, padrão do codec)")
+            @RequestParam(required = false) Integer compressionLevel,
+            @Parameter(description = "Caminho de leitura (AUTO, JPA, COPY); COPY usa o CSV gerado pelo PostgreSQL")
+            @RequestParam(defaultValue = "AUTO") ExportMode mode,
+            @Parameter(description = "Divide em um arquivo a cada N registros, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxRowsPerFile,
+            @Parameter(description = "Divide em um arquivo a cada M bytes antes da compressão, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxBytesPerFile,
+            @Parameter(description = "Gera o arquivo de novo mesmo que a mesma exportação, sobre os mesmos dados, esteja em cache")
+            @RequestParam(defaultValue = "false") boolean bypassCache) {
         
         try {
             logger.info("Iniciando exportação genérica filtrada (preço >= {}) via {}", 
                        minPrice, exporterType.getDisplayName());
             
-            ExportResult result = exportService.exportProductsByMinPrice(exporterType, minPrice, basePath);
+            ExportResult result;
+            try (ExportAdmission.Permit permit = admission.acquire(exporterType)) {
+                result = exportService.exportProductsByMinPrice(exporterType, minPrice, basePath,
+                        exportOptions(format, compression, compressionLevel, mode, null, ParallelOutput.MERGED,
+                                maxRowsPerFile, maxBytesPerFile, bypassCache));
+            }
             
             if (result.isSuccess()) {
                 logger.info("Exportação genérica filtrada concluída: {} registros", result.getTotalRecords());
@@ -107,10 +168,16 @@ public class GenericExportController {
                 return ResponseEntity.badRequest().body(result);
             }
             
+        } catch (ExportRejectedException e) {
+            return tooManyRequests(e, new ExportResult(exporterType, e.getMessage()));
         } catch (IllegalStateException e) {
             logger.error("Exportador não configurado: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(new ExportResult(exporterType, "Exportador não configurado: " + e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            logger.error("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ExportResult(exporterType, "Parâmetros inválidos: " + e.getMessage()));
         } catch (IOException e) {
             logger.error("Erro de I/O durante exportação genérica filtrada", e);
             return ResponseEntity.internalServerError()
@@ -122,6 +189,179 @@ public class GenericExportController {
         }
     }
     
+    /**
+     * Endpoint para exportar apenas os produtos alterados desde a última execução da definição
+     */
+    @GetMapping("/products/delta")
+    @Operation(
+        summary = "Exporta os produtos alterados desde a última exportação",
+        description = "Exporta, em ordem de atualização, os produtos alterados depois da marca d'água da definição " +
+                      "e avança a marca d'água se a exportação tiver sucesso; a primeira execução exporta tudo"
+    )
+    @ApiResponse(responseCode = "200", description = "Exportação realizada com sucesso")
+    @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    @ApiResponse(responseCode = "409", description = "Outra execução da mesma definição avançou a marca d'água antes")
+    @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido; ver Retry-After")
+    @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    public ResponseEntity<ExportResult> exportChangedProducts(
+            @Parameter(description = "Tipo do exportador (LOCAL, AWS_S3, GCP_STORAGE)")
+            @RequestParam ExporterType exporterType,
+            @Parameter(description = "Nome da definição de exportação incremental (letras, números, '_' e '-')")
+            @RequestParam String definition,
+            @Parameter(description = "Caminho base para salvar o arquivo (opcional)")
+            @RequestParam(required = false) String basePath,
+            @Parameter(description = "Formato do arquivo (CSV, XLSX)")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compressão do arquivo (NONE, GZIP, ZSTD)")
+            @RequestParam(defaultValue = "NONE") CompressionCodec compression,
+            @Parameter(description = "Nível de compressão (opcional, padrão do codec)")
+            @RequestParam(required = false) Integer compressionLevel,
+            @Parameter(description = "Divide em um arquivo a cada N registros, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxRowsPerFile,
+            @Parameter(description = "Divide em um arquivo a cada M bytes antes da compressão, com manifesto JSON das partes (opcional)")
+            @RequestParam(required = false) Long maxBytesPerFile) {
+        
+        try {
+            logger.info("Iniciando exportação incremental '{}' via {}", definition, exporterType.getDisplayName());
+            
+            ExportResult result;
+            try (ExportAdmission.Permit permit = admission.acquire(exporterType)) {
+                result = exportService.exportChangedProducts(exporterType, definition, basePath,
+                        exportOptions(format, compression, compressionLevel, ExportMode.JPA, null, ParallelOutput.MERGED,
+                                maxRowsPerFile, maxBytesPerFile, false));
+            }
+            
+            if (result.isSuccess()) {
+                logger.info("Exportação incremental '{}' concluída: {} registros", definition, result.getTotalRecords());
+                return ResponseEntity.ok(result);
+            } else {
+                logger.error("Falha na exportação incremental '{}': {}", definition, result.getErrorMessage());
+                return ResponseEntity.badRequest().body(result);
+            }
+            
+        } catch (ExportRejectedException e) {
+            return tooManyRequests(e, new ExportResult(exporterType, e.getMessage()));
+        } catch (IllegalStateException e) {
+            logger.error("Exportador não configurado: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ExportResult(exporterType, "Exportador não configurado: " + e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            logger.error("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ExportResult(exporterType, "Parâmetros inválidos: " + e.getMessage()));
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            logger.warn("Exportação incremental '{}' concorrente: {}", definition, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ExportResult(exporterType,
+                            "Outra execução da definição '" + definition + "' avançou a marca d'água; tente novamente"));
+        } catch (IOException e) {
+            logger.error("Erro de I/O durante exportação incremental", e);
+            return ResponseEntity.internalServerError()
+                    .body(new ExportResult(exporterType, "Erro de I/O: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Erro inesperado durante exportação incremental", e);
+            return ResponseEntity.internalServerError()
+                    .body(new ExportResult(exporterType, "Erro inesperado: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Endpoint para exportar todos os produtos para vários destinos com uma única leitura
+     */
+    @GetMapping("/products/all/targets")
+    @Operation(
+        summary = "Exporta todos os produtos para vários destinos",
+        description = "Lê e formata os produtos uma única vez e grava em todos os destinos ao mesmo tempo"
+    )
+    @ApiResponse(responseCode = "200", description = "Exportação realizada com sucesso em todos os destinos")
+    @ApiResponse(responseCode = "400", description = "Parâmetros inválidos ou falha em algum destino")
+    @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido; ver Retry-After")
+    @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    public ResponseEntity<List<ExportResult>> exportAllProductsToTargets(
+            @Parameter(description = "Destinos no formato EXPORTADOR[:FORMATO[:COMPRESSAO]], ex.: LOCAL:XLSX,AWS_S3:CSV:GZIP")
+            @RequestParam List<String> targets,
+            @Parameter(description = "Caminho base para salvar os arquivos (opcional)")
+            @RequestParam(required = false) String basePath) {
+        
+        try {
+            List<ExportTarget> exportTargets = targets.stream().map(ExportTarget::parse).toList();
+            logger.info("Iniciando exportação de todos os produtos para os destinos {}", exportTargets);
+            
+            List<ExportResult> results;
+            try (ExportAdmission.Permit permit = admission.acquire(
+                    exportTargets.stream().map(ExportTarget::exporterType).toList())) {
+                results = exportService.exportAllProductsToTargets(exportTargets, basePath);
+            }
+            
+            if (results.stream().allMatch(ExportResult::isSuccess)) {
+                logger.info("Exportação para {} destinos concluída com sucesso", results.size());
+                return ResponseEntity.ok(results);
+            } else {
+                logger.error("Falha em ao menos um destino da exportação");
+                return ResponseEntity.badRequest().body(results);
+            }
+            
+        } catch (ExportRejectedException e) {
+            return tooManyRequests(e, null);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            logger.error("Parâmetros de exportação inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Erro inesperado durante exportação para vários destinos", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Endpoint para baixar todos os produtos direto na resposta HTTP
+     */
+    @GetMapping("/products/stream")
+    @Operation(
+        summary = "Download direto de todos os produtos",
+        description = "Envia as linhas direto na resposta HTTP (transferência chunked), sem gerar arquivo intermediário"
+    )
+    @ApiResponse(responseCode = "200", description = "Arquivo enviado em streaming")
+    @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido")
+    public ResponseEntity<StreamingResponseBody> streamAllProducts(
+            @Parameter(description = "Formato do arquivo (CSV, XLSX)")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compressão do arquivo (NONE, GZIP, ZSTD)")
+            @RequestParam(defaultValue = "NONE") CompressionCodec compression,
+            @Parameter(description = "Nível de compressão (opcional, padrão do codec)")
+            @RequestParam(required = false) Integer compressionLevel) {
+        
+        ExportConfig exportConfig;
+        try {
+            exportConfig = exportService.createAllProductsDownloadConfig(exportOptions(format, compression, compressionLevel, ExportMode.AUTO));
+        } catch (IllegalArgumentException e) {
+            logger.error("Parâmetros de download inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        logger.info("Iniciando download direto de todos os produtos: {}", exportConfig.getFileName());
+        
+        // Executado fora da thread da requisição; a transação é aberta pelo serviço. A vaga é tomada
+        // aqui, na thread que ocupa a conexão, e uma recusa vira 429 no handler abaixo
+        StreamingResponseBody body = outputStream -> {
+            try (ExportAdmission.Permit permit = admission.acquireDownload()) {
+                exportService.streamAllProducts(outputStream, exportConfig);
+            }
+        };
+        
+        String contentType = compression != CompressionCodec.NONE
+                ? compression.getMediaType()
+                : exportConfig.getContentType();
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportConfig.getFileName())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+    
     /**
      * Endpoint para obter informações sobre os exportadores
      */
@@ -159,4 +399,43 @@ public class GenericExportController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    /**
+     * Recusa do controle de admissão dentro do download direto, antes de qualquer byte enviado.
+     * Os cabeçalhos do arquivo já estavam na resposta e são descartados.
+     */
+    @ExceptionHandler(ExportRejectedException.class)
+    public ResponseEntity<Void> handleDownloadRejected(ExportRejectedException e, HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+        return tooManyRequests(e, null);
+    }
+    
+    private static <T> ResponseEntity<T> tooManyRequests(ExportRejectedException e, T body) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(body);
+    }
+    
+    private ExportOptions exportOptions(ExportFormat format, CompressionCodec compression, Integer compressionLevel,
+                                        ExportMode mode) {
+        return exportOptions(format, compression, compressionLevel, mode, null, ParallelOutput.MERGED, null, null, false);
+    }
+    
+    private ExportOptions exportOptions(ExportFormat format, CompressionCodec compression, Integer compressionLevel,
+                                        ExportMode mode, Integer parallelism, ParallelOutput parallelOutput,
+                                        Long maxRowsPerFile, Long maxBytesPerFile, boolean bypassCache) {
+        return ExportOptions.builder()
+                .format(format)
+                .compression(compression)
+                .compressionLevel(compressionLevel)
+                .mode(mode)
+                .parallelism(parallelism)
+                .parallelOutput(parallelOutput)
+                .maxRowsPerFile(maxRowsPerFile)
+                .maxBytesPerFile(maxBytesPerFile)
+                .bypassCache(bypassCache)
+                .build();
+    }
 }
@@ -1,9 +1,13 @@
 package com.filestreamer.spreadsheetgenerator.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.filestreamer.spreadsheetgenerator.dto.ProductCreateDto;
+import com.filestreamer.spreadsheetgenerator.dto.ProductCursor;
 import com.filestreamer.spreadsheetgenerator.dto.ProductDto;
 import com.filestreamer.spreadsheetgenerator.dto.ProductUpdateDto;
 import com.filestreamer.spreadsheetgenerator.exception.ProductNotFoundException;
+import com.filestreamer.spreadsheetgenerator.service.JsonStreamFormat;
+import com.filestreamer.spreadsheetgenerator.service.ProductJsonStreamWriter;
 import com.filestreamer.spreadsheetgenerator.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,12 +22,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
@@ -40,10 +48,27 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    /**
+     * Tamanho máximo de página da listagem por cursor
+     */
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    /**
+     * Quantidade máxima de resultados da busca por nome
+     */
+    private static final int MAX_SEARCH_RESULTS = 500;
+
+    /**
+     * Quantidade máxima de resultados da busca por nome em stream
+     */
+    private static final int MAX_STREAMED_SEARCH_RESULTS = 100_000;
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -129,24 +154,66 @@ public class ProductController {
         }
     }
 
+    /**
+     * Endpoint para listar produtos por cursor
+     */
+    @Operation(summary = "Listar produtos por cursor",
+            description = "Lista os produtos do mais recente para o mais antigo sem offset nem contagem total; " +
+                          "a próxima página é pedida com o nextCursor da resposta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<Map<String, Object>> listProductsByCursor(
+            @Parameter(description = "Cursor devolvido em nextCursor pela página anterior (vazio na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (1 a 1000)") @RequestParam(defaultValue = "10") int size) {
+        
+        logger.debug("Recebida requisição para listar produtos por cursor - size: {}", size);
+        
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_CURSOR_PAGE_SIZE);
+        }
+        ProductCursor position = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        
+        Slice<ProductDto> products = productService.findAllByCursor(position, size);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", products.getContent());
+        response.put("size", products.getNumberOfElements());
+        response.put("hasNext", products.hasNext());
+        response.put("nextCursor", products.hasNext()
+                ? ProductCursor.after(products.getContent().getLast()).encode()
+                : null);
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint para buscar produtos por nome
      */
-    @Operation(summary = "Buscar produtos por nome", description = "Busca produtos que contenham o nome especificado (busca parcial, case-insensitive)")
+    @Operation(summary = "Buscar produtos por nome",
+            description = "Busca produtos que contenham o nome especificado (busca parcial, case-insensitive), " +
+                          "do mais relevante (nome igual, depois nome começando pelo termo) para o menos relevante")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de produtos encontrados"),
-            @ApiResponse(responseCode = "400", description = "Nome não pode estar vazio")
+            @ApiResponse(responseCode = "400", description = "Nome vazio ou limite inválido")
     })
     @GetMapping("/search")
     public ResponseEntity<List<ProductDto>> findByName(
-            @Parameter(description = "Nome ou parte do nome do produto", required = true) @RequestParam String name) {
+            @Parameter(description = "Nome ou parte do nome do produto", required = true) @RequestParam String name,
+            @Parameter(description = "Quantidade máxima de resultados (1 a 500)") @RequestParam(defaultValue = "50") int limit) {
         logger.debug("Recebida requisição para buscar produtos por nome: {}", name);
         
         if (name.trim().isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_SEARCH_RESULTS);
+        }
         
-        List<ProductDto> products = productService.findByName(name);
+        List<ProductDto> products = productService.findByName(name, limit);
         return ResponseEntity.ok(products);
     }
 
@@ -174,6 +241,77 @@ public class ProductController {
         }
     }
 
+    /**
+     * Endpoint para buscar produtos por nome com a resposta em stream
+     */
+    @Operation(summary = "Buscar produtos por nome em stream",
+            description = "Mesma busca de /search, com a resposta escrita conforme os produtos são lidos do banco: " +
+                          "NDJSON (um produto por linha) ou um array JSON. Um erro no meio do envio interrompe a " +
+                          "resposta, que fica incompleta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados, enviados em streaming"),
+            @ApiResponse(responseCode = "400", description = "Nome vazio ou limite inválido")
+    })
+    @GetMapping("/search/stream")
+    public ResponseEntity<StreamingResponseBody> streamByName(
+            @Parameter(description = "Nome ou parte do nome do produto", required = true) @RequestParam String name,
+            @Parameter(description = "Quantidade máxima de resultados (1 a 100.000)") @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "Formato da resposta (NDJSON, JSON_ARRAY)") @RequestParam(defaultValue = "NDJSON") JsonStreamFormat format) {
+        logger.debug("Recebida requisição para buscar produtos por nome em stream: {}", name);
+        
+        if (name.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (limit < 1 || limit > MAX_STREAMED_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_STREAMED_SEARCH_RESULTS);
+        }
+        
+        // Executado fora da thread da requisição; a transação é aberta pelo serviço
+        return streamResponse(format, writer -> productService.streamByName(name, limit, writer));
+    }
+
+    /**
+     * Endpoint para buscar produtos por faixa de preço com a resposta em stream
+     */
+    @Operation(summary = "Buscar produtos por faixa de preço em stream",
+            description = "Mesma busca de /price-range, com a resposta escrita conforme os produtos são lidos do banco " +
+                          "(cursor com fetch size): NDJSON (um produto por linha) ou um array JSON. A memória usada " +
+                          "não depende do tamanho da faixa. Um erro no meio do envio interrompe a resposta, que fica incompleta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos na faixa de preço, enviados em streaming"),
+            @ApiResponse(responseCode = "400", description = "Preço mínimo não pode ser maior que preço máximo")
+    })
+    @GetMapping("/price-range/stream")
+    public ResponseEntity<StreamingResponseBody> streamByPriceRange(
+            @Parameter(description = "Preço mínimo", required = true, example = "10.00") @RequestParam BigDecimal priceMin,
+            @Parameter(description = "Preço máximo", required = true, example = "100.00") @RequestParam BigDecimal priceMax,
+            @Parameter(description = "Formato da resposta (NDJSON, JSON_ARRAY)") @RequestParam(defaultValue = "NDJSON") JsonStreamFormat format) {
+        logger.debug("Recebida requisição para buscar produtos por faixa de preço em stream: {} - {}", priceMin, priceMax);
+        
+        // Validado aqui porque, depois que o stream começa, não é mais possível responder 400
+        ProductService.validatePriceRange(priceMin, priceMax);
+        
+        return streamResponse(format, writer -> productService.streamByPriceRange(priceMin, priceMax, writer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamResponse(JsonStreamFormat format, ProductStreamCall call) {
+        StreamingResponseBody body = outputStream -> {
+            long written = call.writeTo(new ProductJsonStreamWriter(outputStream, format, objectMapper));
+            logger.debug("{} produtos enviados em stream", written);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Consulta do serviço que escreve os produtos no writer
+     */
+    @FunctionalInterface
+    private interface ProductStreamCall {
+        long writeTo(ProductJsonStreamWriter writer) throws IOException;
+    }
+
     /**
      * Endpoint para atualizar produto existente
      */
@@ -0,0 +1,192 @@
+package com.filestreamer.spreadsheetgenerator.controller;
+
+import com.filestreamer.spreadsheetgenerator.service.importer.ImportFormatException;
+import com.filestreamer.spreadsheetgenerator.service.importer.ProductImportResult;
+import com.filestreamer.spreadsheetgenerator.service.importer.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/products/import")
+@Tag(name = "Product Import", description = "Importação de produtos em massa a partir de arquivos CSV e XLSX")
+public class ProductImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportController.class);
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    @Autowired
+    private ProductImportService importService;
+
+    @PostMapping(consumes = TEXT_CSV)
+    @Operation(
+        summary = "Importar produtos de um CSV enviado no corpo",
+        description = "Lê o CSV direto do corpo da requisição, sem guardar o arquivo em memória ou em disco. " +
+                "A primeira linha é o cabeçalho, com as colunas name/Nome e price/Preço e, opcionalmente, " +
+                "description/Descrição; um CSV exportado pela aplicação pode ser importado de volta. " +
+                "As linhas válidas são gravadas via COPY no PostgreSQL (INSERT em lote nos demais bancos), " +
+                "com commit a cada bloco de IMPORT_CHUNK_SIZE linhas; as inválidas vão para um relatório " +
+                "disponível em /api/products/import/reports/{importId}. A importação não é atômica: em caso de " +
+                "erro, os blocos já confirmados permanecem no banco."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída"),
+        @ApiResponse(responseCode = "400", description = "Arquivo vazio, sem as colunas obrigatórias ou malformado"),
+        @ApiResponse(responseCode = "500", description = "Erro durante a leitura ou a gravação")
+    })
+    public ResponseEntity<Map<String, Object>> importCsv(
+            InputStream body,
+            @Parameter(description = "Separador de campos (um caractere, ex.: , ou ;)")
+            @RequestParam(defaultValue = ",") String delimiter) {
+        return runCsvImport(body, delimiter);
+    }
+
+    @PostMapping(consumes = XLSX)
+    @Operation(
+        summary = "Importar produtos de um XLSX enviado no corpo",
+        description = "Lê a primeira planilha com as mesmas colunas e regras do CSV. O arquivo é copiado para um " +
+                "temporário (o zip precisa de acesso aleatório) e a planilha é lida em streaming; a tabela de " +
+                "strings compartilhadas vai para o disco acima de IMPORT_XLSX_SHARED_STRINGS_MEMORY."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída"),
+        @ApiResponse(responseCode = "400", description = "Arquivo vazio, sem as colunas obrigatórias ou malformado"),
+        @ApiResponse(responseCode = "500", description = "Erro durante a leitura ou a gravação")
+    })
+    public ResponseEntity<Map<String, Object>> importXlsx(InputStream body) {
+        return runImport(() -> importService.importXlsx(body));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Importar produtos de um CSV ou XLSX enviado por formulário",
+        description = "Mesmo processamento do envio no corpo, para clientes que só enviam arquivos via multipart. " +
+                "Arquivos com extensão .xlsx são lidos como XLSX; os demais, como CSV. " +
+                "O servidor guarda o arquivo em disco temporário antes da leitura; o tamanho máximo é IMPORT_MAX_FILE_SIZE."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída"),
+        @ApiResponse(responseCode = "400", description = "Arquivo vazio, sem as colunas obrigatórias ou malformado"),
+        @ApiResponse(responseCode = "500", description = "Erro durante a leitura ou a gravação")
+    })
+    public ResponseEntity<Map<String, Object>> importFile(
+            @Parameter(description = "Arquivo CSV em UTF-8 ou XLSX, com cabeçalho")
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "Separador de campos do CSV (um caractere, ex.: , ou ;)")
+            @RequestParam(defaultValue = ",") String delimiter) {
+        try (InputStream inputStream = file.getInputStream()) {
+            if (isXlsx(file)) {
+                return runImport(() -> importService.importXlsx(inputStream));
+            }
+            return runCsvImport(inputStream, delimiter);
+        } catch (IOException e) {
+            logger.error("Erro ao abrir o arquivo enviado {}", file.getOriginalFilename(), e);
+            return errorResponse(500, "Erro ao ler o arquivo enviado: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/reports/{importId}")
+    @Operation(
+        summary = "Baixar relatório de linhas rejeitadas",
+        description = "CSV com o número da linha, os motivos da rejeição e os campos originais de cada linha inválida"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Relatório enviado"),
+        @ApiResponse(responseCode = "404", description = "Importação sem linhas rejeitadas ou inexistente")
+    })
+    public ResponseEntity<Resource> downloadRejectedReport(
+            @Parameter(description = "Identificador retornado pela importação")
+            @PathVariable String importId) {
+        Optional<Path> report = importService.findRejectedReport(importId);
+        if (report.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(report.get().getFileName().toString())
+                        .build()
+                        .toString())
+                .body(new FileSystemResource(report.get()));
+    }
+
+    private static boolean isXlsx(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        return XLSX.equals(file.getContentType())
+                || fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    private ResponseEntity<Map<String, Object>> runCsvImport(InputStream inputStream, String delimiter) {
+        if (delimiter.length() != 1) {
+            return errorResponse(400, "Separador deve ser um único caractere");
+        }
+        return runImport(() -> importService.importCsv(inputStream, delimiter.charAt(0)));
+    }
+
+    private ResponseEntity<Map<String, Object>> runImport(ImportCall importCall) {
+        ProductImportResult result;
+        try {
+            result = importCall.run();
+        } catch (IllegalArgumentException | ImportFormatException e) {
+            logger.warn("Arquivo de importação inválido: {}", e.getMessage());
+            return errorResponse(400, e.getMessage());
+        } catch (IOException e) {
+            logger.error("Erro durante importação de produtos", e);
+            return errorResponse(500, "Erro durante importação: " + e.getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Importação concluída");
+        response.put("import_id", result.importId());
+        response.put("rows_read", result.rowsRead());
+        response.put("accepted", result.accepted());
+        response.put("rejected", result.rejected());
+        response.put("execution_time_ms", result.durationMs());
+        response.put("rows_per_second", result.rowsPerSecond());
+        response.put("load_method", result.method());
+        response.put("chunk_size", result.chunkSize());
+        response.put("rejected_report", result.hasRejectedReport()
+                ? "/api/products/import/reports/" + result.importId()
+                : null);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Chamada ao serviço de importação de um dos formatos
+     */
+    @FunctionalInterface
+    private interface ImportCall {
+        ProductImportResult run() throws IOException;
+    }
+
+    private static ResponseEntity<Map<String, Object>> errorResponse(int status, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,96 @@
+package com.filestreamer.spreadsheetgenerator.dto;
+
+import com.filestreamer.spreadsheetgenerator.model.ExportJob;
+import com.filestreamer.spreadsheetgenerator.model.ExportJobStatus;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportResult;
+import com.filestreamer.spreadsheetgenerator.service.export.ExporterType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+@Schema(description = "Estado de um job de exportação assíncrona")
+public class ExportJobDto {
+    
+    @Schema(description = "Identificador do job", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID id;
+    
+    @Schema(description = "Estado do job (PENDING, RUNNING, COMPLETED, FAILED)", example = "RUNNING")
+    private ExportJobStatus status;
+    
+    @Schema(description = "Tipo do exportador", example = "AWS_S3")
+    private ExporterType exporterType;
+    
+    @Schema(description = "Registros exportados até o momento", example = "250000")
+    private long rowsExported;
+    
+    @Schema(description = "Bytes gerados até o momento, antes da compressão", example = "31457280")
+    private long bytesWritten;
+    
+    @Schema(description = "Data e hora de criação do job")
+    private LocalDateTime createdAt;
+    
+    @Schema(description = "Data e hora de início da exportação")
+    private LocalDateTime startedAt;
+    
+    @Schema(description = "Data e hora de término da exportação")
+    private LocalDateTime finishedAt;
+    
+    @Schema(description = "Resultado final da exportação (apenas para jobs finalizados)")
+    private ExportResult result;
+
+    // Construtores
+    public ExportJobDto() {}
+
+    public static ExportJobDto fromEntity(ExportJob job) {
+        ExportJobDto dto = new ExportJobDto();
+        dto.id = job.getId();
+        dto.status = job.getStatus();
+        dto.exporterType = job.getExporterType();
+        dto.rowsExported = job.getRowsExported();
+        dto.bytesWritten = job.getBytesWritten();
+        dto.createdAt = job.getCreatedAt();
+        dto.startedAt = job.getStartedAt();
+        dto.finishedAt = job.getFinishedAt();
+        dto.result = job.toResult();
+        return dto;
+    }
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    public ExporterType getExporterType() {
+        return exporterType;
+    }
+
+    public long getRowsExported() {
+        return rowsExported;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public ExportResult getResult() {
+        return result;
+    }
+}
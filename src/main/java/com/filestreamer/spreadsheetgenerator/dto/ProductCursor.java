@@ -0,0 +1,57 @@
+package com.filestreamer.spreadsheetgenerator.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+
+/**
+ * Posição na listagem de produtos por cursor: o {@code (createdAt, id)} do último produto
+ * devolvido. Vai para o cliente como token opaco em Base64 URL-safe, que ele apenas repassa
+ * no pedido da próxima página.
+ */
+public record ProductCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Cursor que continua a listagem depois do produto informado
+     */
+    public static ProductCursor after(ProductDto product) {
+        return new ProductCursor(product.getCreatedAt(), product.getId());
+    }
+
+    /**
+     * Token opaco do cursor
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lê um token gerado por {@link #encode()}
+     *
+     * @throws IllegalArgumentException se o token não for um cursor válido
+     */
+    public static ProductCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        try {
+            return new ProductCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                     UUID.fromString(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
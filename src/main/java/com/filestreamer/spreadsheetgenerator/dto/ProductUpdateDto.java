@@ -1,9 +1,12 @@
 package com.filestreamer.spreadsheetgenerator.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 
@@ -13,6 +16,7 @@ public class ProductUpdateDto {
     
     @Schema(description = "Nome do produto", example = "Smartphone Samsung Galaxy S21", requiredMode = Schema.RequiredMode.REQUIRED)
     @NotBlank(message = "Nome é obrigatório")
+    @Size(max = 255, message = "Nome deve ter no máximo 255 caracteres")
     private String name;
     
     @Schema(description = "Descrição detalhada do produto", example = "Smartphone com tela de 6.2 polegadas, câmera de 108MP e 5G")
@@ -21,6 +25,8 @@ public class ProductUpdateDto {
     @Schema(description = "Preço do produto", example = "1199.99", requiredMode = Schema.RequiredMode.REQUIRED)
     @NotNull(message = "Preço é obrigatório")
     @DecimalMin(value = "0.0", inclusive = false, message = "Preço deve ser maior que zero")
+    @DecimalMax(value = "99999999.99", message = "Preço deve ser no máximo 99999999.99")
+    @Digits(integer = 8, fraction = 2, message = "Preço deve ter no máximo 2 casas decimais")
     private BigDecimal price;
 
     // Construtores
@@ -0,0 +1,9 @@
+package com.filestreamer.spreadsheetgenerator.exception;
+
+
+public class ExportJobNotFoundException extends RuntimeException {
+    
+    public ExportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.filestreamer.spreadsheetgenerator.exception;
+
+
+/**
+ * Exportação recusada pelo controle de admissão: limite de exportações simultâneas atingido e
+ * fila de espera cheia, ou tempo de espera esgotado
+ */
+public class ExportRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExportRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Tempo sugerido ao cliente antes de tentar novamente
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,308 @@
+package com.filestreamer.spreadsheetgenerator.model;
+
+import com.filestreamer.spreadsheetgenerator.service.export.CompressionCodec;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportFormat;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportMode;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportOptions;
+import com.filestreamer.spreadsheetgenerator.service.export.ExportResult;
+import com.filestreamer.spreadsheetgenerator.service.export.ExporterType;
+import com.filestreamer.spreadsheetgenerator.service.export.ParallelOutput;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+/**
+ * Job de exportação assíncrona. Guarda os parâmetros da exportação, o progresso
+ * e o resultado final, para que o estado sobreviva a um reinício da aplicação.
+ */
+@Entity
+@Table(name = "export_jobs")
+public class ExportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ExportJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "exporter_type", nullable = false, length = 20)
+    private ExporterType exporterType;
+
+    /**
+     * Preço mínimo do filtro; null exporta todos os produtos
+     */
+    @Column(name = "min_price", precision = 10, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "base_path", length = 1024)
+    private String basePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ExportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private CompressionCodec compression;
+
+    @Column(name = "compression_level")
+    private Integer compressionLevel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ExportMode mode;
+
+    @Column(name = "parallelism")
+    private Integer parallelism;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "parallel_output", nullable = false, length = 10)
+    private ParallelOutput parallelOutput;
+
+    @Column(name = "max_rows_per_file")
+    private Long maxRowsPerFile;
+
+    @Column(name = "max_bytes_per_file")
+    private Long maxBytesPerFile;
+
+    @Column(name = "rows_exported", nullable = false)
+    private long rowsExported;
+
+    @Column(name = "bytes_written", nullable = false)
+    private long bytesWritten;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "file_path", length = 1024)
+    private String filePath;
+
+    @Column(name = "file_url", length = 1024)
+    private String fileUrl;
+
+    @Column(name = "manifest_path", length = 1024)
+    private String manifestPath;
+
+    @Column(name = "manifest_url", length = 1024)
+    private String manifestUrl;
+
+    @Column(name = "file_size_bytes")
+    private Long fileSizeBytes;
+
+    @Column(name = "raw_size_bytes")
+    private Long rawSizeBytes;
+
+    @Column(name = "execution_time_ms")
+    private Long executionTimeMs;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public ExportJob() {}
+
+    public ExportJob(ExporterType exporterType, BigDecimal minPrice, String basePath, ExportOptions options) {
+        this.status = ExportJobStatus.PENDING;
+        this.exporterType = exporterType;
+        this.minPrice = minPrice;
+        this.basePath = basePath;
+        this.format = options.getFormat();
+        this.compression = options.getCompression();
+        this.compressionLevel = options.getCompressionLevel();
+        this.mode = options.getMode();
+        this.parallelism = options.getParallelism();
+        this.parallelOutput = options.getParallelOutput();
+        this.maxRowsPerFile = options.getMaxRowsPerFile();
+        this.maxBytesPerFile = options.getMaxBytesPerFile();
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    // Transições de estado
+    public void markRunning() {
+        this.status = ExportJobStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = this.startedAt;
+    }
+
+    public void updateProgress(long rowsExported, long bytesWritten) {
+        this.rowsExported = rowsExported;
+        this.bytesWritten = bytesWritten;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void markCompleted(ExportResult result) {
+        this.status = ExportJobStatus.COMPLETED;
+        this.rowsExported = result.getTotalRecords();
+        this.bytesWritten = result.getRawSizeBytes();
+        this.fileName = result.getFileName();
+        this.filePath = result.getFilePath();
+        this.fileUrl = result.getFileUrl();
+        this.manifestPath = result.getManifestPath();
+        this.manifestUrl = result.getManifestUrl();
+        this.fileSizeBytes = result.getFileSizeBytes();
+        this.rawSizeBytes = result.getRawSizeBytes();
+        this.executionTimeMs = result.getExecutionTimeMs();
+        this.finishedAt = LocalDateTime.now();
+        this.updatedAt = this.finishedAt;
+    }
+
+    public void markFailed(String errorMessage) {
+        this.status = ExportJobStatus.FAILED;
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+        this.updatedAt = this.finishedAt;
+    }
+
+    /**
+     * Opções de exportação escolhidas na criação do job
+     */
+    public ExportOptions getOptions() {
+        return ExportOptions.builder()
+                .format(format)
+                .compression(compression)
+                .compressionLevel(compressionLevel)
+                .mode(mode)
+                .parallelism(parallelism)
+                .parallelOutput(parallelOutput)
+                .maxRowsPerFile(maxRowsPerFile)
+                .maxBytesPerFile(maxBytesPerFile)
+                .build();
+    }
+
+    /**
+     * Resultado final da exportação: presente apenas para jobs concluídos ou que falharam
+     */
+    public ExportResult toResult() {
+        return switch (status) {
+            case COMPLETED -> manifestPath != null
+                    ? completedResult().withManifest(manifestPath, manifestUrl)
+                    : completedResult();
+            case FAILED -> new ExportResult(exporterType, errorMessage);
+            default -> null;
+        };
+    }
+
+    private ExportResult completedResult() {
+        return new ExportResult(fileName, filePath, fileUrl, rowsExported, fileSizeBytes, rawSizeBytes,
+                executionTimeMs, exporterType);
+    }
+
+    // Getters e Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    public ExporterType getExporterType() {
+        return exporterType;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public String getBasePath() {
+        return basePath;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public CompressionCodec getCompression() {
+        return compression;
+    }
+
+    public Integer getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public ExportMode getMode() {
+        return mode;
+    }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public ParallelOutput getParallelOutput() {
+        return parallelOutput;
+    }
+
+    public Long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+
+    public Long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+
+    public String getManifestPath() {
+        return manifestPath;
+    }
+
+    public long getRowsExported() {
+        return rowsExported;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportJob{" +
+                "id=" + id +
+                ", status=" + status +
+                ", exporterType=" + exporterType +
+                ", minPrice=" + minPrice +
+                ", rowsExported=" + rowsExported +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.filestreamer.spreadsheetgenerator.model;
+
+
+/**
+ * Estados de um job de exportação assíncrona
+ */
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+    
+    /**
+     * Indica se o job já terminou, com sucesso ou não
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,92 @@
+package com.filestreamer.spreadsheetgenerator.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+/**
+ * Marca d'água de uma definição de exportação incremental: o último produto exportado,
+ * em ordem de {@code (updated_at, id)}. A próxima execução exporta apenas os produtos
+ * alterados depois dele.
+ * <p>
+ * O {@link Version} impede que duas execuções simultâneas da mesma definição avancem a
+ * marca d'água uma sobre a outra: a segunda a confirmar falha com conflito de versão.
+ */
+@Entity
+@Table(name = "export_watermarks")
+public class ExportWatermark {
+
+    @Id
+    @Column(name = "definition_name", length = 100)
+    private String definitionName;
+
+    @Column(name = "last_updated_at", nullable = false)
+    private LocalDateTime lastUpdatedAt;
+
+    @Column(name = "last_id", nullable = false)
+    private UUID lastId;
+
+    /**
+     * Registros exportados na última execução que avançou a marca d'água
+     */
+    @Column(name = "rows_exported", nullable = false)
+    private long rowsExported;
+
+    @Column(name = "exported_at", nullable = false)
+    private LocalDateTime exportedAt;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Construtores
+    public ExportWatermark() {}
+
+    public ExportWatermark(String definitionName) {
+        this.definitionName = definitionName;
+    }
+
+    /**
+     * Avança a marca d'água para o último produto exportado com sucesso
+     */
+    public void advance(LocalDateTime lastUpdatedAt, UUID lastId, long rowsExported) {
+        this.lastUpdatedAt = lastUpdatedAt;
+        this.lastId = lastId;
+        this.rowsExported = rowsExported;
+        this.exportedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Se a definição ainda não exportou nada; a primeira execução exporta todos os produtos
+     */
+    public boolean isEmpty() {
+        return lastUpdatedAt == null;
+    }
+
+    // Getters
+    public String getDefinitionName() {
+        return definitionName;
+    }
+
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    public UUID getLastId() {
+        return lastId;
+    }
+
+    public long getRowsExported() {
+        return rowsExported;
+    }
+
+    public LocalDateTime getExportedAt() {
+        return exportedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
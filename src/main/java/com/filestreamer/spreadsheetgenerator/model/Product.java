@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -36,7 +38,13 @@ public class Product {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
+    /**
+     * Início da transação que gravou o produto, no relógio do banco: o Hibernate grava
+     * {@code localtimestamp} e lê o valor de volta, e as cargas em massa usam o padrão da
+     * coluna. As exportações incrementais dependem disso (ver ProductCopyRepository.findDeltaCutoff).
+     */
+    @UpdateTimestamp(source = SourceType.DB)
+    @ColumnDefault("localtimestamp")
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
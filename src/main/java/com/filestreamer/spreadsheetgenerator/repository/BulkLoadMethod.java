@@ -0,0 +1,18 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+
+/**
+ * Forma como a carga em massa envia as linhas ao banco
+ */
+public enum BulkLoadMethod {
+    
+    /**
+     * Linhas em CSV enviadas via {@code COPY ... FROM STDIN} (apenas PostgreSQL)
+     */
+    COPY,
+    
+    /**
+     * INSERTs em lote via JDBC, para bancos sem COPY (ex.: H2 nos testes)
+     */
+    JDBC_BATCH
+}
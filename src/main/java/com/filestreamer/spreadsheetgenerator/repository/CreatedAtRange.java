@@ -0,0 +1,48 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Faixa de datas de criação de produtos: início inclusivo e fim exclusivo, onde null
+ * significa sem limite. Faixas consecutivas cobrem a tabela inteira sem sobreposição.
+ */
+public record CreatedAtRange(LocalDateTime from, LocalDateTime to) {
+
+    /**
+     * Divide a tabela em faixas consecutivas a partir dos limites informados (em ordem
+     * crescente); a primeira e a última faixa ficam abertas
+     */
+    public static List<CreatedAtRange> fromBounds(List<LocalDateTime> bounds) {
+        List<CreatedAtRange> ranges = new ArrayList<>(bounds.size() + 1);
+        LocalDateTime from = null;
+        for (LocalDateTime bound : bounds) {
+            ranges.add(new CreatedAtRange(from, bound));
+            from = bound;
+        }
+        ranges.add(new CreatedAtRange(from, null));
+        return ranges;
+    }
+
+    /**
+     * Condição SQL da faixa, com as datas como literais (o COPY não aceita parâmetros)
+     */
+    String toSqlCondition() {
+        if (from == null && to == null) {
+            return "TRUE";
+        }
+        if (from == null) {
+            return "created_at < " + literal(to);
+        }
+        if (to == null) {
+            return "created_at >= " + literal(from);
+        }
+        return "created_at >= " + literal(from) + " AND created_at < " + literal(to);
+    }
+
+    private static String literal(LocalDateTime dateTime) {
+        return "TIMESTAMP '" + dateTime + "'";
+    }
+}
@@ -0,0 +1,38 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.ExportJob;
+import com.filestreamer.spreadsheetgenerator.model.ExportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, UUID> {
+
+    /**
+     * Busca jobs por estado, do mais antigo para o mais recente
+     */
+    List<ExportJob> findByStatusOrderByCreatedAt(ExportJobStatus status);
+
+    /**
+     * Atualiza o progresso de um job em andamento. Roda em transação própria porque é
+     * chamado de dentro da transação somente leitura da exportação.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE ExportJob j SET j.rowsExported = :rowsExported, j.bytesWritten = :bytesWritten, " +
+           "j.updatedAt = :updatedAt WHERE j.id = :id")
+    int updateProgress(@Param("id") UUID id,
+                       @Param("rowsExported") long rowsExported,
+                       @Param("bytesWritten") long bytesWritten,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,10 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.ExportWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+
+@Repository
+public interface ExportWatermarkRepository extends JpaRepository<ExportWatermark, String> {
+}
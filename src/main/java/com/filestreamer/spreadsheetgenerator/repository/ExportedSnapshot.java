@@ -0,0 +1,39 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+
+/**
+ * Snapshot do PostgreSQL exportado via {@code pg_export_snapshot()}. A transação que o
+ * exportou fica aberta até o fechamento, para que outras conexões possam importá-lo
+ * com {@code SET TRANSACTION SNAPSHOT} e enxergar exatamente os mesmos dados.
+ */
+public class ExportedSnapshot implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportedSnapshot.class);
+
+    private final String id;
+    private final Connection connection;
+
+    ExportedSnapshot(String id, Connection connection) {
+        this.id = id;
+        this.connection = connection;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void close() {
+        try (connection) {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Erro ao encerrar transação do snapshot {}: {}", id, e.getMessage());
+        }
+    }
+}
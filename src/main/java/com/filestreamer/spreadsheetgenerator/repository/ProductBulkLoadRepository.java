@@ -0,0 +1,175 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.service.export.RowWriter;
+import com.filestreamer.spreadsheetgenerator.service.export.Utf8CsvRowWriter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.UUID;
+
+
+/**
+ * Carga em massa de produtos sem passar pelo JPA. No PostgreSQL as linhas são enviadas em
+ * CSV via {@code COPY ... FROM STDIN} conforme são lidas do iterator; nos demais bancos
+ * (H2 nos testes) usa INSERTs em lote via JDBC.
+ * <p>
+ * Usa uma conexão própria e faz commit a cada bloco de linhas, para que a carga não
+ * fique numa única transação gigante; uma falha desfaz apenas o bloco corrente. O updated_at
+ * não é enviado: o padrão da coluna grava o início da transação de cada bloco.
+ */
+@Repository
+public class ProductBulkLoadRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkLoadRepository.class);
+
+    private static final String PRODUCT_COLUMNS = "id, name, description, price, created_at";
+
+    static final String COPY_PRODUCTS_IN = "COPY products (" + PRODUCT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    static final String INSERT_PRODUCT = "INSERT INTO products (" + PRODUCT_COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Linhas por {@code executeBatch} no caminho JDBC
+     */
+    static final int JDBC_BATCH_SIZE = 1000;
+
+    private final DataSource dataSource;
+
+    private volatile BulkLoadMethod loadMethod;
+
+    public ProductBulkLoadRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Forma de carga usada pelo banco configurado: COPY no PostgreSQL, INSERT em lote nos demais
+     */
+    public BulkLoadMethod getLoadMethod() throws IOException {
+        BulkLoadMethod method = loadMethod;
+        if (method == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                method = loadMethod(connection);
+            } catch (SQLException e) {
+                throw new IOException("Erro ao verificar suporte a COPY: " + e.getMessage(), e);
+            }
+            loadMethod = method;
+        }
+        return method;
+    }
+
+    /**
+     * Insere todos os produtos do iterator, com commit a cada {@code chunkSize} linhas.
+     * Produtos sem id recebem um UUID aleatório.
+     *
+     * @return quantidade de linhas inseridas
+     */
+    public long load(Iterator<Product> products, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do bloco deve ser maior que zero");
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                BulkLoadMethod method = loadMethod(connection);
+                long total = 0;
+                while (products.hasNext()) {
+                    total += method == BulkLoadMethod.COPY
+                            ? copyChunk(connection, products, chunkSize)
+                            : insertChunk(connection, products, chunkSize);
+                    connection.commit();
+                    logger.debug("Bloco confirmado: {} produtos inseridos via {}", total, method);
+                }
+                return total;
+            } catch (SQLException | IOException | RuntimeException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Erro durante carga de produtos: " + e.getMessage(), e);
+        }
+    }
+
+    private static BulkLoadMethod loadMethod(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class) ? BulkLoadMethod.COPY : BulkLoadMethod.JDBC_BATCH;
+    }
+
+    /**
+     * Envia até {@code chunkSize} linhas num único COPY; fechar o escritor encerra o COPY
+     */
+    private static long copyChunk(Connection connection, Iterator<Product> products, int chunkSize)
+            throws SQLException, IOException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long rows = 0;
+        try (RowWriter writer = new Utf8CsvRowWriter(new PGCopyOutputStream(pgConnection, COPY_PRODUCTS_IN))) {
+            while (rows < chunkSize && products.hasNext()) {
+                writer.writeRow(toCsvRow(products.next()));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static long insertChunk(Connection connection, Iterator<Product> products, int chunkSize)
+            throws SQLException {
+        long rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_PRODUCT)) {
+            while (rows < chunkSize && products.hasNext()) {
+                Product product = products.next();
+                statement.setObject(1, idOf(product));
+                statement.setString(2, product.getName());
+                statement.setString(3, product.getDescription());
+                statement.setBigDecimal(4, product.getPrice());
+                statement.setObject(5, product.getCreatedAt());
+                statement.addBatch();
+                rows++;
+                if (rows % JDBC_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            if (rows % JDBC_BATCH_SIZE != 0) {
+                statement.executeBatch();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Linha CSV na ordem de {@link #PRODUCT_COLUMNS}. A descrição nula vira campo vazio sem
+     * aspas, que o COPY lê como NULL; a data de criação segue o formato ISO aceito pelo PostgreSQL.
+     */
+    static String[] toCsvRow(Product product) {
+        return new String[]{
+            idOf(product).toString(),
+            product.getName(),
+            product.getDescription(),
+            product.getPrice().toPlainString(),
+            product.getCreatedAt().toString()
+        };
+    }
+
+    private static UUID idOf(Product product) {
+        return product.getId() != null ? product.getId() : UUID.randomUUID();
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Erro ao desfazer bloco da carga: {}", e.getMessage());
+        }
+    }
+}
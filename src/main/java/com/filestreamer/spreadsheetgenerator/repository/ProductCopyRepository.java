@@ -0,0 +1,401 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.service.export.ProductExportColumns;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Exportação de produtos em CSV gerado pelo próprio PostgreSQL ({@code COPY ... TO STDOUT}),
+ * sem materializar entidades. As colunas e a formatação vêm de {@link ProductExportColumns},
+ * as mesmas dos formatadores do caminho via JPA, com todos os valores entre aspas como nos
+ * encoders CSV, de modo que a saída é idêntica.
+ * <p>
+ * As cópias simples usam a conexão da transação corrente, quando houver. As cópias por
+ * faixa de data usam conexões próprias que importam um snapshot exportado, para que
+ * várias faixas sejam lidas em paralelo vendo os mesmos dados.
+ */
+@Repository
+public class ProductCopyRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCopyRepository.class);
+
+    private static final String PRODUCT_COLUMNS = ProductExportColumns.COPY_SELECT_LIST;
+
+    private static final String COPY_OPTIONS = " TO STDOUT WITH (FORMAT csv, FORCE_QUOTE *)";
+
+    static final String COPY_ALL_PRODUCTS =
+            "COPY (SELECT " + PRODUCT_COLUMNS + " FROM products ORDER BY created_at)" + COPY_OPTIONS;
+
+    private static final String ESTIMATE_ROW_COUNT =
+            "SELECT reltuples::bigint FROM pg_class WHERE oid = 'products'::regclass";
+
+    private static final String CREATED_AT_HISTOGRAM =
+            "SELECT unnest(histogram_bounds::text::timestamp[]) FROM pg_stats " +
+            "WHERE schemaname = current_schema() AND tablename = 'products' AND attname = 'created_at'";
+
+    private static final String CREATED_AT_LIMITS = "SELECT min(created_at), max(created_at) FROM products";
+
+    /**
+     * Limite e quantidade de transações de escrita cujo início o usuário não pode ver: sem
+     * {@code pg_read_all_stats}, sessões de outros usuários mostram o backend_xid, mas não o xact_start
+     */
+    static final String DELTA_CUTOFF =
+            "SELECT LEAST(clock_timestamp() - make_interval(secs => ?), min(xact_start) - interval '1 microsecond')" +
+            "::timestamp, count(*) FILTER (WHERE xact_start IS NULL) FROM pg_stat_activity " +
+            "WHERE backend_xid IS NOT NULL AND datname = current_database() AND pid <> pg_backend_pid()";
+
+    static final String CAN_READ_ALL_STATS = "SELECT pg_has_role('pg_read_all_stats', 'USAGE')";
+
+    private static final String DATA_VERSION = "SELECT COALESCE(SUM(changes), 0) FROM products_changes";
+
+    /**
+     * Troca as linhas de alteração confirmadas por uma só com a soma delas. Linhas de transações
+     * ainda abertas não são vistas pelo DELETE e continuam na tabela, e uma compactação
+     * concorrente só soma as linhas que ela mesma removeu, então a versão não muda.
+     */
+    static final String COMPACT_DATA_VERSION =
+            "WITH compacted AS (DELETE FROM products_changes RETURNING changes) " +
+            "INSERT INTO products_changes (changes) SELECT SUM(changes) FROM compacted HAVING COUNT(*) > 1";
+
+    private final DataSource dataSource;
+
+    private volatile Boolean copySupported;
+
+    public ProductCopyRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Indica se o banco configurado suporta COPY (apenas PostgreSQL)
+     */
+    public boolean isCopySupported() {
+        Boolean supported = copySupported;
+        if (supported == null) {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                supported = connection.isWrapperFor(PGConnection.class);
+            } catch (SQLException e) {
+                logger.warn("Não foi possível verificar suporte a COPY: {}", e.getMessage());
+                supported = false;
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+            copySupported = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Copia todos os produtos, ordenados por data de criação, para o stream
+     *
+     * @return quantidade de linhas copiadas
+     */
+    public long copyAllProducts(OutputStream outputStream) throws IOException {
+        return copyOut(COPY_ALL_PRODUCTS, outputStream);
+    }
+
+    /**
+     * Copia os produtos com preço maior ou igual ao mínimo, ordenados por preço, para o stream
+     *
+     * @return quantidade de linhas copiadas
+     */
+    public long copyProductsByMinPrice(BigDecimal minPrice, OutputStream outputStream) throws IOException {
+        return copyOut(copyProductsByMinPriceSql(minPrice), outputStream);
+    }
+
+    /**
+     * O COPY não aceita parâmetros, então o preço é incluído como literal numérico
+     */
+    static String copyProductsByMinPriceSql(BigDecimal minPrice) {
+        return "COPY (SELECT " + PRODUCT_COLUMNS + " FROM products WHERE price >= " + minPrice.toPlainString()
+                + " ORDER BY price)" + COPY_OPTIONS;
+    }
+
+    /**
+     * Estimativa da quantidade de produtos pelas estatísticas do planejador, sem varrer a
+     * tabela. Retorna 0 se a tabela ainda não foi analisada.
+     */
+    public long estimateRowCount() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(ESTIMATE_ROW_COUNT)) {
+            return resultSet.next() ? Math.max(resultSet.getLong(1), 0) : 0;
+        } catch (SQLException e) {
+            logger.warn("Não foi possível estimar a quantidade de produtos: {}", e.getMessage());
+            return 0;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Versão atual dos dados de produtos: a soma das alterações registradas pelo trigger de
+     * products em {@code products_changes}. Vazia fora do PostgreSQL ou se a tabela não existir,
+     * casos em que não há como saber se os dados mudaram.
+     */
+    public Optional<ProductDataVersion> findDataVersion() {
+        if (!isCopySupported()) {
+            return Optional.empty();
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(DATA_VERSION)) {
+            return resultSet.next() ? Optional.of(new ProductDataVersion(resultSet.getLong(1))) : Optional.empty();
+        } catch (SQLException e) {
+            logger.warn("Não foi possível ler a versão dos dados de produtos: {}", e.getMessage());
+            return Optional.empty();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Compacta o registro de alterações que forma a versão dos dados, que ganha uma linha por
+     * instrução de escrita em products. Não faz nada fora do PostgreSQL.
+     *
+     * @return se havia mais de uma linha para juntar
+     */
+    @Scheduled(fixedDelayString = "${EXPORT_CACHE_VERSION_COMPACT_INTERVAL:10m}",
+            initialDelayString = "${EXPORT_CACHE_VERSION_COMPACT_INTERVAL:10m}")
+    public boolean compactDataVersion() {
+        if (!isCopySupported()) {
+            return false;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement()) {
+            boolean compacted = statement.executeUpdate(COMPACT_DATA_VERSION) > 0;
+            if (compacted) {
+                logger.debug("Registro de alterações de produtos compactado");
+            }
+            return compacted;
+        } catch (SQLException e) {
+            logger.warn("Não foi possível compactar a versão dos dados de produtos: {}", e.getMessage());
+            return false;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Avisa na inicialização se o usuário do banco não pode ver o início das transações de outros
+     * usuários, do que dependem as exportações incrementais ({@link #findDeltaCutoff})
+     *
+     * @return se o usuário pode ver as transações de todos (sempre verdadeiro fora do PostgreSQL)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public boolean checkDeltaCutoffPrivilege() {
+        if (!isCopySupported()) {
+            return true;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(CAN_READ_ALL_STATS)) {
+            if (resultSet.next() && resultSet.getBoolean(1)) {
+                return true;
+            }
+            logger.warn("O usuário do banco não tem o papel pg_read_all_stats: exportações incrementais falham "
+                    + "enquanto outro usuário tiver uma transação de escrita aberta");
+            return false;
+        } catch (SQLException e) {
+            logger.warn("Não foi possível verificar o papel pg_read_all_stats: {}", e.getMessage());
+            return false;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Limite seguro de updated_at para exportações incrementais: o relógio do banco menos a
+     * folga, recuado para antes do início da transação de escrita aberta mais antiga. Como o
+     * updated_at de products é o início da transação que grava a linha, linhas ainda não
+     * confirmadas ficam sempre depois do limite, por mais longa que seja a transação (ex.: blocos
+     * da importação em massa), e entram numa execução seguinte. Uma transação só conta como de
+     * escrita depois da primeira alteração; a folga cobre as que começaram há menos tempo que ela
+     * e ainda não escreveram. Vazio fora do PostgreSQL.
+     * <p>
+     * O usuário do banco só vê o início das transações de outros usuários com o papel
+     * {@code pg_read_all_stats} (ou sendo superusuário). Sem ele, se outro usuário tiver uma
+     * transação de escrita aberta, o limite não pode ser calculado e a exportação falha, em vez
+     * de pular as linhas dela.
+     */
+    public Optional<LocalDateTime> findDeltaCutoff(Duration safetyLag) throws IOException {
+        if (!isCopySupported()) {
+            return Optional.empty();
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(DELTA_CUTOFF)) {
+            statement.setDouble(1, safetyLag.toNanos() / 1_000_000_000.0);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                long hiddenWriters = resultSet.getLong(2);
+                if (hiddenWriters > 0) {
+                    throw new IOException("Não é possível calcular o limite da exportação incremental: " + hiddenWriters
+                            + " transação(ões) de escrita de outros usuários sem início visível em pg_stat_activity. "
+                            + "Conceda o papel pg_read_all_stats ao usuário da aplicação");
+                }
+                return Optional.of(resultSet.getObject(1, LocalDateTime.class));
+            }
+        } catch (SQLException e) {
+            throw new IOException("Erro ao calcular limite da exportação incremental: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Limites de data de criação que dividem a tabela em até {@code partitions} faixas de
+     * tamanho parecido. Usa o histograma de estatísticas da coluna (equi-profundidade) e,
+     * sem estatísticas, divide o intervalo entre a menor e a maior data em partes iguais.
+     *
+     * @return limites em ordem crescente, sem repetições (no máximo {@code partitions - 1})
+     */
+    public List<LocalDateTime> findCreatedAtBounds(int partitions) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement()) {
+            List<LocalDateTime> histogram = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery(CREATED_AT_HISTOGRAM)) {
+                while (resultSet.next()) {
+                    histogram.add(resultSet.getObject(1, LocalDateTime.class));
+                }
+            }
+            if (histogram.size() >= 2) {
+                return pickBounds(histogram, partitions);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery(CREATED_AT_LIMITS)) {
+                if (!resultSet.next() || resultSet.getObject(1) == null) {
+                    return List.of();
+                }
+                return splitEvenly(resultSet.getObject(1, LocalDateTime.class),
+                        resultSet.getObject(2, LocalDateTime.class), partitions);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Erro ao calcular faixas de exportação: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Exporta o snapshot atual do banco numa transação REPEATABLE READ em conexão própria
+     */
+    public ExportedSnapshot exportSnapshot() throws IOException {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                resultSet.next();
+                return new ExportedSnapshot(resultSet.getString(1), connection);
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IOException("Erro ao exportar snapshot: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copia os produtos da faixa, ordenados por data de criação, numa conexão própria que
+     * enxerga o snapshot informado
+     *
+     * @return quantidade de linhas copiadas
+     */
+    public long copyCreatedAtRange(ExportedSnapshot snapshot, CreatedAtRange range, OutputStream outputStream)
+            throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot.getId() + "'");
+                }
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut(copyCreatedAtRangeSql(range), outputStream);
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Erro durante COPY da faixa " + range + ": " + e.getMessage(), e);
+        }
+    }
+
+    static String copyCreatedAtRangeSql(CreatedAtRange range) {
+        return "COPY (SELECT " + PRODUCT_COLUMNS + " FROM products WHERE " + range.toSqlCondition()
+                + " ORDER BY created_at)" + COPY_OPTIONS;
+    }
+
+    /**
+     * Escolhe limites igualmente espaçados dentro do histograma
+     */
+    static List<LocalDateTime> pickBounds(List<LocalDateTime> histogram, int partitions) {
+        List<LocalDateTime> bounds = new ArrayList<>();
+        int last = histogram.size() - 1;
+        for (int i = 1; i < partitions; i++) {
+            LocalDateTime bound = histogram.get((int) Math.round((double) i * last / partitions));
+            if (bounds.isEmpty() || bound.isAfter(bounds.get(bounds.size() - 1))) {
+                bounds.add(bound);
+            }
+        }
+        return bounds;
+    }
+
+    static List<LocalDateTime> splitEvenly(LocalDateTime min, LocalDateTime max, int partitions) {
+        long spanNanos = java.time.Duration.between(min, max).toNanos();
+        List<LocalDateTime> bounds = new ArrayList<>();
+        for (int i = 1; i < partitions; i++) {
+            LocalDateTime bound = min.plusNanos(spanNanos / partitions * i);
+            if (bound.isAfter(min) && (bounds.isEmpty() || bound.isAfter(bounds.get(bounds.size() - 1)))) {
+                bounds.add(bound);
+            }
+        }
+        return bounds;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Erro ao fechar conexão: {}", e.getMessage());
+        }
+    }
+
+    private long copyOut(String sql, OutputStream outputStream) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, outputStream);
+        } catch (SQLException e) {
+            throw new IOException("Erro durante COPY: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
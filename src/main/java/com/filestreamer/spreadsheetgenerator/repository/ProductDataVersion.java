@@ -0,0 +1,10 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+
+/**
+ * Versão dos dados da tabela de produtos: quantidade de instruções confirmadas que inseriram,
+ * alteraram ou removeram produtos (inclusive COPY e TRUNCATE), registradas no banco na mesma
+ * transação. É usada para saber se uma exportação anterior ainda corresponde aos dados atuais.
+ */
+public record ProductDataVersion(long changes) {
+}
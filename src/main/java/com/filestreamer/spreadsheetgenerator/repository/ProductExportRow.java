@@ -0,0 +1,14 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+
+/**
+ * Projeção de um produto com apenas as colunas exportadas. Montada direto das colunas
+ * do resultado, sem entidade gerenciada, snapshot de dirty checking ou detach.
+ */
+public record ProductExportRow(UUID id, String name, String description, BigDecimal price,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -3,49 +3,67 @@ package com.filestreamer.spreadsheetgenerator.repository;
 import com.filestreamer.spreadsheetgenerator.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductStreamRepository {
 
     /**
-     * Busca produtos por nome
+     * Consulta de {@link #searchByName}, compartilhada com a variante em stream
      */
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Product> findByNameContainingIgnoreCase(@Param("name") String name);
+    String SEARCH_BY_NAME = "SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(:containsPattern) ESCAPE '\\' " +
+            "ORDER BY CASE WHEN LOWER(p.name) = LOWER(:term) THEN 0 " +
+            "WHEN LOWER(p.name) LIKE LOWER(:prefixPattern) ESCAPE '\\' THEN 1 ELSE 2 END, " +
+            "LENGTH(p.name), p.name";
 
     /**
-     * Busca produtos dentro de uma faixa de preço
+     * Consulta de {@link #findByPriceRange}, compartilhada com a variante em stream
      */
-    @Query("SELECT p FROM Product p WHERE p.price BETWEEN :priceMin AND :priceMax ORDER BY p.price")
-    List<Product> findByPriceRange(@Param("priceMin") BigDecimal priceMin, @Param("priceMax") BigDecimal priceMax);
+    String FIND_BY_PRICE_RANGE = "SELECT p FROM Product p WHERE p.price BETWEEN :priceMin AND :priceMax ORDER BY p.price";
 
     /**
-     * Busca produtos por nome com paginação
+     * Busca por parte do nome, ignorando maiúsculas, do mais relevante para o menos relevante:
+     * nome igual ao termo, nome começando pelo termo e, dentro de cada grupo, nomes mais curtos.
+     * Os padrões são montados pelo chamador com {@code \} como escape de {@code %} e {@code _}.
+     * <p>
+     * A condição {@code LOWER(name) LIKE LOWER(:containsPattern)} é servida pelo índice de trigramas
+     * sobre {@code lower(name)} no PostgreSQL, então o custo acompanha o número de resultados
+     * e não o tamanho da tabela; o {@link Pageable} limita a quantidade devolvida, sem COUNT.
+     * O limite não reduz o trabalho: a ordenação por relevância classifica todas as
+     * correspondências antes de devolver a primeira página, e um termo comum, presente em boa
+     * parte dos nomes, custa quase o mesmo que varrer a tabela.
+     *
+     * @param term Termo buscado
+     * @param prefixPattern Termo escapado seguido de {@code %}
+     * @param containsPattern Termo escapado entre {@code %}
      */
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query(SEARCH_BY_NAME)
+    List<Product> searchByName(@Param("term") String term,
+                               @Param("prefixPattern") String prefixPattern,
+                               @Param("containsPattern") String containsPattern,
+                               Pageable pageable);
 
     /**
-     * Stream de todos os produtos para processamento em lote (export CSV)
+     * Busca produtos dentro de uma faixa de preço
      */
-    @Query("SELECT p FROM Product p ORDER BY p.createdAt")
-    Stream<Product> findAllByOrderByCreatedAtStream();
+    @Query(FIND_BY_PRICE_RANGE)
+    List<Product> findByPriceRange(@Param("priceMin") BigDecimal priceMin, @Param("priceMax") BigDecimal priceMax);
 
     /**
-     * Stream de produtos com preço maior ou igual ao valor especificado
+     * Busca produtos por nome com paginação
      */
-    @Query("SELECT p FROM Product p WHERE p.price >= :priceMin ORDER BY p.price")
-    Stream<Product> findByPriceGreaterThanEqualStream(@Param("priceMin") BigDecimal priceMin);
+    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
     /**
      * Conta produtos dentro de uma faixa de preço
@@ -80,4 +98,21 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
      */
     @Query("SELECT p FROM Product p ORDER BY p.price ASC")
     List<Product> findTop10ByOrderByPriceAsc(Pageable pageable);
+
+    /**
+     * Primeira página da listagem por cursor, do produto mais recente para o mais antigo.
+     * O {@link Slice} busca uma linha a mais para saber se há próxima página, sem COUNT.
+     */
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Product> findFirstByCursor(Pageable pageable);
+
+    /**
+     * Página da listagem por cursor que continua depois da posição {@code (createdAt, id)}.
+     * Servida pelo índice em {@code (created_at, id)} a partir da posição, então o custo não
+     * depende de quantas páginas vieram antes.
+     */
+    @Query("SELECT p FROM Product p WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Product> findAfterCursor(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                   Pageable pageable);
 }
@@ -0,0 +1,63 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+
+/**
+ * Consultas em stream para exportações de grande volume, com memória constante:
+ * cursor somente para frente, fetch size configurável, entidades somente leitura e
+ * desanexadas do contexto de persistência assim que lidas.
+ * <p>
+ * As variantes que retornam {@link ProductExportRow} leem só as colunas exportadas e não
+ * criam entidades; são as usadas pelas exportações.
+ * <p>
+ * Devem ser consumidas dentro de uma transação e o stream deve ser fechado ao final.
+ */
+public interface ProductStreamRepository {
+
+    /**
+     * Stream de todos os produtos, ordenados por data de criação
+     */
+    Stream<Product> findAllByOrderByCreatedAtStream();
+
+    /**
+     * Stream de produtos com preço maior ou igual ao valor especificado, ordenados por preço
+     */
+    Stream<Product> findByPriceGreaterThanEqualStream(BigDecimal priceMin);
+
+    /**
+     * Stream de {@link ProductRepository#searchByName}: produtos com o termo no nome, dos mais
+     * relevantes para os menos relevantes, até {@code limit} produtos
+     */
+    Stream<Product> searchByNameStream(String term, String prefixPattern, String containsPattern, int limit);
+
+    /**
+     * Stream de {@link ProductRepository#findByPriceRange}: produtos dentro da faixa de preço,
+     * ordenados por preço
+     */
+    Stream<Product> findByPriceRangeStream(BigDecimal priceMin, BigDecimal priceMax);
+
+    /**
+     * Stream das colunas exportadas de todos os produtos, ordenados por data de criação
+     */
+    Stream<ProductExportRow> findAllExportRowsOrderByCreatedAtStream();
+
+    /**
+     * Stream das colunas exportadas dos produtos com preço maior ou igual ao valor
+     * especificado, ordenados por preço
+     */
+    Stream<ProductExportRow> findExportRowsByPriceGreaterThanEqualStream(BigDecimal priceMin);
+
+    /**
+     * Stream das colunas exportadas dos produtos alterados depois da posição
+     * {@code (updatedAfter, idAfter)} e até {@code updatedUntil}, ordenados por
+     * {@code (updated_at, id)}. Sem posição ({@code updatedAfter} nulo), lê desde o início.
+     */
+    Stream<ProductExportRow> findExportRowsChangedSinceStream(LocalDateTime updatedAfter, UUID idAfter,
+                                                             LocalDateTime updatedUntil);
+}
@@ -0,0 +1,129 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+
+/**
+ * Implementação das consultas em stream do {@link ProductRepository}.
+ * <p>
+ * Cada produto é desanexado logo após ser lido, então o contexto de persistência não
+ * cresce com o volume exportado. O hint de somente leitura evita a cópia de estado
+ * usada no dirty checking, e o fetch size faz o driver buscar as linhas em lotes
+ * (no PostgreSQL isso só vale com autocommit desligado, ou seja, dentro de uma transação).
+ * O stream do Hibernate usa cursor {@code FORWARD_ONLY}.
+ * <p>
+ * As projeções em {@link ProductExportRow} usam expressão construtora no JPQL: o Hibernate
+ * monta o record direto do {@code ResultSet}, sem entidade, proxy ou entrada no contexto
+ * de persistência, então não há detach nem snapshot de somente leitura.
+ */
+public class ProductStreamRepositoryImpl implements ProductStreamRepository {
+
+    private static final String EXPORT_ROW_SELECT = "SELECT new " + ProductExportRow.class.getName() +
+            "(p.id, p.name, p.description, p.price, p.createdAt, p.updatedAt) FROM Product p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Quantidade de linhas buscadas por ida ao banco
+     */
+    @Value("${EXPORT_FETCH_SIZE:1000}")
+    private int fetchSize = 1000;
+
+    public ProductStreamRepositoryImpl() {
+    }
+
+    /**
+     * Para uso fora do contexto Spring (ex.: benchmarks)
+     */
+    public ProductStreamRepositoryImpl(EntityManager entityManager, int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<Product> findAllByOrderByCreatedAtStream() {
+        return stream(entityManager.createQuery("SELECT p FROM Product p ORDER BY p.createdAt", Product.class));
+    }
+
+    @Override
+    public Stream<Product> findByPriceGreaterThanEqualStream(BigDecimal priceMin) {
+        return stream(entityManager.createQuery("SELECT p FROM Product p WHERE p.price >= :priceMin ORDER BY p.price",
+                        Product.class)
+                .setParameter("priceMin", priceMin));
+    }
+
+    @Override
+    public Stream<Product> searchByNameStream(String term, String prefixPattern, String containsPattern, int limit) {
+        return stream(entityManager.createQuery(ProductRepository.SEARCH_BY_NAME, Product.class)
+                .setParameter("term", term)
+                .setParameter("prefixPattern", prefixPattern)
+                .setParameter("containsPattern", containsPattern)
+                .setMaxResults(limit));
+    }
+
+    @Override
+    public Stream<Product> findByPriceRangeStream(BigDecimal priceMin, BigDecimal priceMax) {
+        return stream(entityManager.createQuery(ProductRepository.FIND_BY_PRICE_RANGE, Product.class)
+                .setParameter("priceMin", priceMin)
+                .setParameter("priceMax", priceMax));
+    }
+
+    @Override
+    public Stream<ProductExportRow> findAllExportRowsOrderByCreatedAtStream() {
+        return entityManager.createQuery(EXPORT_ROW_SELECT + " ORDER BY p.createdAt", ProductExportRow.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<ProductExportRow> findExportRowsByPriceGreaterThanEqualStream(BigDecimal priceMin) {
+        return entityManager.createQuery(EXPORT_ROW_SELECT + " WHERE p.price >= :priceMin ORDER BY p.price",
+                        ProductExportRow.class)
+                .setParameter("priceMin", priceMin)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * A condição de posição é escrita como {@code updatedAt >= :after AND (updatedAt > :after OR id > :id)}
+     * em vez de um OR simples para que o índice em {@code (updated_at, id)} seja percorrido a
+     * partir da marca d'água, e não do começo.
+     */
+    @Override
+    public Stream<ProductExportRow> findExportRowsChangedSinceStream(LocalDateTime updatedAfter, UUID idAfter,
+                                                                    LocalDateTime updatedUntil) {
+        String where = updatedAfter == null
+                ? " WHERE p.updatedAt <= :updatedUntil"
+                : " WHERE p.updatedAt >= :updatedAfter AND (p.updatedAt > :updatedAfter OR p.id > :idAfter)" +
+                  " AND p.updatedAt <= :updatedUntil";
+        TypedQuery<ProductExportRow> query = entityManager.createQuery(
+                        EXPORT_ROW_SELECT + where + " ORDER BY p.updatedAt, p.id", ProductExportRow.class)
+                .setParameter("updatedUntil", updatedUntil);
+        if (updatedAfter != null) {
+            query.setParameter("updatedAfter", updatedAfter)
+                    .setParameter("idAfter", idAfter);
+        }
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private Stream<Product> stream(TypedQuery<Product> query) {
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+}
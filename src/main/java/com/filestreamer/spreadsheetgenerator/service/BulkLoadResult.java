@@ -0,0 +1,17 @@
+package com.filestreamer.spreadsheetgenerator.service;
+
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+
+
+/**
+ * Resultado de uma carga em massa de produtos gerados
+ */
+public record BulkLoadResult(long rows, long durationMs, BulkLoadMethod method, int chunkSize, int parallelism) {
+    
+    /**
+     * Linhas inseridas por segundo, considerando apenas o tempo de geração e carga
+     */
+    public long rowsPerSecond() {
+        return durationMs > 0 ? Math.round((double) rows / durationMs * 1000) : rows;
+    }
+}
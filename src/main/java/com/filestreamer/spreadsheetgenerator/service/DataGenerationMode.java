@@ -0,0 +1,19 @@
+package com.filestreamer.spreadsheetgenerator.service;
+
+
+/**
+ * Caminho de escrita dos produtos gerados
+ */
+public enum DataGenerationMode {
+    
+    /**
+     * Entidades salvas via JPA ({@code saveAll}) numa única transação
+     */
+    JPA,
+    
+    /**
+     * Linhas enviadas direto ao banco (COPY no PostgreSQL, INSERT em lote nos demais),
+     * com commit a cada bloco de linhas
+     */
+    BULK
+}
@@ -1,20 +1,34 @@
 package com.filestreamer.spreadsheetgenerator.service;
 
 import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+import com.filestreamer.spreadsheetgenerator.repository.ProductBulkLoadRepository;
 import com.filestreamer.spreadsheetgenerator.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 
 @Service
@@ -22,9 +36,32 @@ public class DataGeneratorService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataGeneratorService.class);
     
+    /**
+     * Produtos por {@code saveAll} no modo JPA, igual ao {@code hibernate.jdbc.batch_size}
+     */
+    static final int JPA_BATCH_SIZE = 1000;
+    
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductBulkLoadRepository productBulkLoadRepository;
+    
+    /**
+     * Linhas por transação na carga em massa
+     */
+    @Value("${DATA_GENERATOR_CHUNK_SIZE:50000}")
+    private int bulkChunkSize = 50_000;
+    
+    /**
+     * Limite de blocos gravados em paralelo; 0 usa metade do pool de conexões
+     */
+    @Value("${DATA_GENERATOR_PARALLELISM:0}")
+    private int parallelism = 0;
+    
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize = 10;
+    
     // Arrays para gerar nomes aleatórios
     private static final String[] PRODUCT_PREFIXES = {
         "Smartphone", "Notebook", "Tablet", "Monitor", "Teclado", "Mouse", "Headset", "Webcam",
@@ -52,44 +89,172 @@ public class DataGeneratorService {
         "Smartphones", "Acessórios", "Componentes", "Periféricos", "Notebooks", "Monitores"
     };
 
-    @Transactional
+    /**
+     * Gera os produtos em lotes de {@value #JPA_BATCH_SIZE} salvos via JPA ({@code saveAll}),
+     * cada lote na sua transação, com até {@link #resolveParallelism()} lotes em paralelo
+     */
     public void generateRandomProducts(int quantity) {
-        logger.info("Iniciando geração de {} produtos aleatórios", quantity);
+        int parallelism = resolveParallelism();
+        logger.info("Iniciando geração de {} produtos aleatórios ({} lotes em paralelo)", quantity, parallelism);
         
         long startTime = System.currentTimeMillis();
-        int batchSize = 1000;
-        
-        for (int i = 0; i < quantity; i += batchSize) {
-            int currentBatchSize = Math.min(batchSize, quantity - i);
-            List<Product> products = generateProductBatch(currentBatchSize);
-            
-            productRepository.saveAll(products);
-            
-            if ((i + currentBatchSize) % 10000 == 0 || (i + currentBatchSize) == quantity) {
-                logger.info("Progresso: {}/{} produtos inseridos", i + currentBatchSize, quantity);
-            }
+        try {
+            loadInParallel(quantity, JPA_BATCH_SIZE, parallelism, rows -> {
+                productRepository.saveAll(generateProductBatch(rows));
+                return rows;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         
         long endTime = System.currentTimeMillis();
         long duration = endTime - startTime;
         
         logger.info("Geração concluída! {} produtos inseridos em {}ms ({} produtos/segundo)", 
-                quantity, duration, Math.round((double) quantity / duration * 1000));
+                quantity, duration, Math.round((double) quantity / Math.max(duration, 1) * 1000));
+    }
+    
+    /**
+     * Gera e insere os produtos via {@link ProductBulkLoadRepository} em blocos de
+     * {@code DATA_GENERATOR_CHUNK_SIZE} linhas. Cada bloco é gerado sob demanda enquanto as
+     * linhas são enviadas ao banco, numa transação própria, com até
+     * {@link #resolveParallelism()} blocos em paralelo.
+     */
+    public BulkLoadResult bulkLoadRandomProducts(int quantity) throws IOException {
+        BulkLoadMethod method = productBulkLoadRepository.getLoadMethod();
+        int parallelism = resolveParallelism();
+        logger.info("Iniciando carga em massa de {} produtos aleatórios via {} (blocos de {}, {} em paralelo)",
+                quantity, method, bulkChunkSize, parallelism);
+        
+        long startTime = System.currentTimeMillis();
+        long rows = loadInParallel(quantity, bulkChunkSize, parallelism, chunkRows -> {
+            Random random = ThreadLocalRandom.current();
+            LocalDateTime now = LocalDateTime.now();
+            return productBulkLoadRepository.load(
+                    Stream.generate(() -> generateRandomProduct(random, now)).limit(chunkRows).iterator(), chunkRows);
+        });
+        
+        BulkLoadResult result = new BulkLoadResult(rows, System.currentTimeMillis() - startTime, method,
+                bulkChunkSize, parallelism);
+        logger.info("Carga concluída! {} produtos inseridos em {}ms ({} produtos/segundo)",
+                result.rows(), result.durationMs(), result.rowsPerSecond());
+        return result;
+    }
+    
+    public int getBulkChunkSize() {
+        return bulkChunkSize;
+    }
+    
+    /**
+     * Quantidade de blocos gravados ao mesmo tempo: {@code DATA_GENERATOR_PARALLELISM} ou,
+     * se não configurado, metade do pool de conexões. Nunca passa do tamanho do pool, já que
+     * cada bloco ocupa uma conexão enquanto é gravado.
+     */
+    public int resolveParallelism() {
+        int poolSize = Math.max(1, connectionPoolSize);
+        int requested = parallelism > 0 ? parallelism : poolSize / 2;
+        return Math.max(1, Math.min(requested, poolSize));
+    }
+    
+    /**
+     * Divide a quantidade em blocos de até {@code chunkSize} linhas e grava cada um numa
+     * virtual thread, com no máximo {@code parallelism} blocos em andamento. Na primeira
+     * falha nenhum bloco novo é iniciado e os pendentes são cancelados; os blocos já
+     * confirmados permanecem no banco.
+     *
+     * @return quantidade total de linhas gravadas
+     */
+    private long loadInParallel(int quantity, int chunkSize, int parallelism, ChunkLoader loader) throws IOException {
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicLong loaded = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Long>> chunks = new ArrayList<>();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (int offset = 0; offset < quantity; offset += chunkSize) {
+                    int rows = Math.min(chunkSize, quantity - offset);
+                    permits.acquire();
+                    if (failed.get()) {
+                        permits.release();
+                        break;
+                    }
+                    chunks.add(executor.submit(() -> {
+                        try {
+                            long chunkLoaded = loader.load(rows);
+                            logProgress(loaded.addAndGet(chunkLoaded), quantity, chunkSize);
+                            return chunkLoaded;
+                        } catch (IOException | RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+                
+                long total = 0;
+                for (Future<Long> chunk : chunks) {
+                    total += await(chunk);
+                }
+                return total;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Geração de produtos interrompida");
+            } finally {
+                chunks.forEach(chunk -> chunk.cancel(true));
+            }
+        }
+    }
+    
+    /**
+     * Registra o progresso a cada 10 blocos e ao final
+     */
+    private static void logProgress(long loaded, int quantity, int chunkSize) {
+        if (loaded == quantity || (loaded / chunkSize) % 10 == 0) {
+            logger.info("Progresso: {}/{} produtos inseridos", loaded, quantity);
+        }
+    }
+    
+    private static long await(Future<Long> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Geração de produtos interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Erro na geração de produtos: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
+    /**
+     * Gera e grava um bloco de linhas, retornando quantas foram gravadas
+     */
+    @FunctionalInterface
+    private interface ChunkLoader {
+        long load(int rows) throws IOException;
     }
     
     private List<Product> generateProductBatch(int batchSize) {
         List<Product> products = new ArrayList<>(batchSize);
         Random random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
         
         for (int i = 0; i < batchSize; i++) {
-            Product product = generateRandomProduct(random);
+            Product product = generateRandomProduct(random, now);
             products.add(product);
         }
         
         return products;
     }
     
-    private Product generateRandomProduct(Random random) {
+    private Product generateRandomProduct(Random random, LocalDateTime now) {
         Product product = new Product();
         
         // Gera nome do produto
@@ -99,23 +264,19 @@ public class DataGeneratorService {
         
         product.setName(brand + " " + prefix + " " + suffix);
         
-        // Gera descrição com categoria
+        // Gera descrição com categoria (concatenação em vez de String.format, que domina o custo por produto)
         String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
-        product.setDescription(String.format("%s de alta qualidade da categoria %s. " +
+        product.setDescription(prefix + " de alta qualidade da categoria " + category + ". " +
                 "Produto inovador com tecnologia avançada e design moderno. " +
-                "Ideal para uso profissional e pessoal. Marca %s com garantia estendida.", 
-                prefix, category, brand));
+                "Ideal para uso profissional e pessoal. Marca " + brand + " com garantia estendida.");
         
         // Gera preço entre R$ 10,00 e R$ 9.999,99
         double price = 10.0 + (random.nextDouble() * 9989.99);
         product.setPrice(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP));
         
-        LocalDateTime now = LocalDateTime.now();
-        // Cria produtos com datas variadas nos últimos 30 dias
-        LocalDateTime createdAt = now.minusDays(random.nextInt(30));
-        
-        product.setCreatedAt(createdAt);
-        product.setUpdatedAt(createdAt.plusHours(random.nextInt(24)));
+        // Cria produtos com datas de criação variadas nos últimos 30 dias; o updated_at é
+        // gravado pelo banco
+        product.setCreatedAt(now.minusDays(random.nextInt(30)));
         
         return product;
     }
@@ -0,0 +1,28 @@
+package com.filestreamer.spreadsheetgenerator.service;
+
+
+/**
+ * Formato das respostas JSON enviadas em streaming
+ */
+public enum JsonStreamFormat {
+    
+    /**
+     * Um objeto JSON por linha (newline-delimited JSON)
+     */
+    NDJSON("application/x-ndjson"),
+    
+    /**
+     * Um único array JSON, escrito elemento a elemento
+     */
+    JSON_ARRAY("application/json");
+    
+    private final String contentType;
+    
+    JsonStreamFormat(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,71 @@
+package com.filestreamer.spreadsheetgenerator.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filestreamer.spreadsheetgenerator.dto.ProductDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * Escreve produtos em JSON direto no stream de saída com o {@link JsonGenerator} do Jackson,
+ * um por vez, sem montar a lista inteira em memória. Usa o {@link ObjectMapper} da aplicação,
+ * então cada produto sai no mesmo formato das respostas JSON comuns.
+ * <p>
+ * A saída é descarregada logo após o primeiro produto, para que o cliente receba as primeiras
+ * linhas sem esperar o fim da consulta, e depois a cada {@value #FLUSH_INTERVAL} produtos.
+ * O array (formato {@link JsonStreamFormat#JSON_ARRAY}) só é fechado em {@link #finish()}:
+ * se a escrita for interrompida por um erro, a resposta fica incompleta e o cliente percebe.
+ * O stream de saída não é fechado.
+ */
+public class ProductJsonStreamWriter {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final JsonGenerator generator;
+    private final JsonStreamFormat format;
+    private long count;
+
+    public ProductJsonStreamWriter(OutputStream outputStream, JsonStreamFormat format, ObjectMapper objectMapper)
+            throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        this.format = format;
+        if (format == JsonStreamFormat.JSON_ARRAY) {
+            generator.writeStartArray();
+        } else {
+            // As linhas são separadas explicitamente, inclusive a última
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    public void write(ProductDto product) throws IOException {
+        generator.writeObject(product);
+        if (format == JsonStreamFormat.NDJSON) {
+            generator.writeRaw('\n');
+        }
+        count++;
+        if (count == 1 || count % FLUSH_INTERVAL == 0) {
+            generator.flush();
+        }
+    }
+
+    /**
+     * Fecha o array, se houver, e descarrega o que falta
+     */
+    public void finish() throws IOException {
+        if (format == JsonStreamFormat.JSON_ARRAY) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+
+    /**
+     * Quantidade de produtos escritos
+     */
+    public long getCount() {
+        return count;
+    }
+}
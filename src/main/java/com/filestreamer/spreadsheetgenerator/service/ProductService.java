@@ -1,6 +1,7 @@
 package com.filestreamer.spreadsheetgenerator.service;
 
 import com.filestreamer.spreadsheetgenerator.dto.ProductCreateDto;
+import com.filestreamer.spreadsheetgenerator.dto.ProductCursor;
 import com.filestreamer.spreadsheetgenerator.dto.ProductDto;
 import com.filestreamer.spreadsheetgenerator.dto.ProductUpdateDto;
 import com.filestreamer.spreadsheetgenerator.exception.ProductNotFoundException;
@@ -11,14 +12,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -53,7 +59,8 @@ public class ProductService {
             createDto.getPrice()
         );
 
-        Product savedProduct = productRepository.save(product);
+        // Flush para que o DTO tenha o updated_at gravado pelo banco
+        Product savedProduct = productRepository.saveAndFlush(product);
         logger.info("Produto criado com sucesso, ID: {}", savedProduct.getId());
         
         return convertToDto(savedProduct);
@@ -88,18 +95,60 @@ public class ProductService {
     }
 
     /**
-     * Busca produtos por nome
+     * Lista produtos do mais recente para o mais antigo a partir de um cursor, sem offset
+     * nem contagem total: qualquer página custa o mesmo
+     * 
+     * @param cursor Posição do último produto da página anterior; null para a primeira página
+     * @param size Quantidade de produtos da página
      */
     @Transactional(readOnly = true)
-    public List<ProductDto> findByName(String name) {
-        logger.debug("Buscando produtos por nome: {}", name);
+    public Slice<ProductDto> findAllByCursor(ProductCursor cursor, int size) {
+        logger.debug("Listando produtos por cursor: {} (tamanho {})", cursor, size);
         
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(name.trim());
+        Pageable limit = PageRequest.ofSize(size);
+        Slice<Product> products = cursor == null
+            ? productRepository.findFirstByCursor(limit)
+            : productRepository.findAfterCursor(cursor.createdAt(), cursor.id(), limit);
+        return products.map(this::convertToDto);
+    }
+
+    /**
+     * Busca produtos por parte do nome, dos mais relevantes para os menos relevantes.
+     * {@code %}, {@code _} e {@code \} no nome são buscados literalmente.
+     * 
+     * @param limit Quantidade máxima de produtos devolvidos
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDto> findByName(String name, int limit) {
+        logger.debug("Buscando produtos por nome: {} (limite {})", name, limit);
+        
+        String term = name.trim();
+        String escaped = escapeLike(term);
+        List<Product> products = productRepository.searchByName(term, escaped + "%", "%" + escaped + "%",
+                                                                PageRequest.ofSize(limit));
         return products.stream()
             .map(this::convertToDto)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Mesma busca de {@link #findByName}, escrevendo cada produto no {@code writer} conforme é
+     * lido do banco, sem montar a lista
+     * 
+     * @return Quantidade de produtos escritos
+     */
+    @Transactional(readOnly = true)
+    public long streamByName(String name, int limit, ProductJsonStreamWriter writer) throws IOException {
+        logger.debug("Enviando em stream produtos por nome: {} (limite {})", name, limit);
+        
+        String term = name.trim();
+        String escaped = escapeLike(term);
+        try (Stream<Product> products = productRepository.searchByNameStream(term, escaped + "%",
+                                                                             "%" + escaped + "%", limit)) {
+            return writeAll(products, writer);
+        }
+    }
+
     /**
      * Busca produtos por faixa de preço
      */
@@ -107,9 +156,7 @@ public class ProductService {
     public List<ProductDto> findByPriceRange(BigDecimal priceMin, BigDecimal priceMax) {
         logger.debug("Buscando produtos por faixa de preço: {} - {}", priceMin, priceMax);
         
-        if (priceMin.compareTo(priceMax) > 0) {
-            throw new IllegalArgumentException("Preço mínimo não pode ser maior que preço máximo");
-        }
+        validatePriceRange(priceMin, priceMax);
         
         List<Product> products = productRepository.findByPriceRange(priceMin, priceMax);
         return products.stream()
@@ -117,6 +164,34 @@ public class ProductService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Mesma busca de {@link #findByPriceRange}, escrevendo cada produto no {@code writer}
+     * conforme é lido do banco: a memória usada não depende do tamanho da faixa
+     * 
+     * @return Quantidade de produtos escritos
+     */
+    @Transactional(readOnly = true)
+    public long streamByPriceRange(BigDecimal priceMin, BigDecimal priceMax, ProductJsonStreamWriter writer)
+            throws IOException {
+        logger.debug("Enviando em stream produtos por faixa de preço: {} - {}", priceMin, priceMax);
+        
+        validatePriceRange(priceMin, priceMax);
+        
+        try (Stream<Product> products = productRepository.findByPriceRangeStream(priceMin, priceMax)) {
+            return writeAll(products, writer);
+        }
+    }
+
+    /**
+     * Valida a faixa de preço; usada também antes de iniciar uma resposta em stream, quando
+     * ainda é possível responder 400
+     */
+    public static void validatePriceRange(BigDecimal priceMin, BigDecimal priceMax) {
+        if (priceMin.compareTo(priceMax) > 0) {
+            throw new IllegalArgumentException("Preço mínimo não pode ser maior que preço máximo");
+        }
+    }
+
     /**
      * Atualiza um produto existente
      */
@@ -137,7 +212,7 @@ public class ProductService {
         product.setDescription(updateDto.getDescription() != null ? updateDto.getDescription().trim() : null);
         product.setPrice(updateDto.getPrice());
 
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = productRepository.saveAndFlush(product);
         logger.info("Produto atualizado com sucesso, ID: {}", updatedProduct.getId());
         
         return convertToDto(updatedProduct);
@@ -166,6 +241,22 @@ public class ProductService {
         return productRepository.count();
     }
 
+    private long writeAll(Stream<Product> products, ProductJsonStreamWriter writer) throws IOException {
+        Iterator<Product> iterator = products.iterator();
+        while (iterator.hasNext()) {
+            writer.write(convertToDto(iterator.next()));
+        }
+        writer.finish();
+        return writer.getCount();
+    }
+
+    /**
+     * Escapa {@code \}, {@code %} e {@code _} para o LIKE com {@code \} como escape
+     */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * Converte Product para ProductDto
      */
@@ -0,0 +1,300 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Base para OutputStreams que enviam dados para armazenamento em nuvem em partes.
+ * <p>
+ * Os bytes são acumulados em buffers de tamanho fixo obtidos de um {@link PartBufferPool}.
+ * Cada buffer cheio é enviado em paralelo por até {@code concurrency} threads de upload
+ * e devolvido ao pool quando o envio termina. O pool tem {@code concurrency + 1} buffers:
+ * quando todos estão ocupados, a escrita bloqueia (backpressure) em vez de alocar mais memória.
+ * Conteúdos menores que uma parte são enviados em uma única requisição.
+ */
+public abstract class AbstractPartUploadOutputStream extends OutputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractPartUploadOutputStream.class);
+
+    private static final long ABORT_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Parte já enviada: número sequencial (a partir de 1), identificador retornado pelo
+     * armazenamento (ETag, nome do objeto temporário, etc.) e tamanho em bytes
+     */
+    public record UploadedPart(int partNumber, String id, int size) {}
+
+    private final String target;
+    private final int partSize;
+    private final PartBufferPool bufferPool;
+    private final ExecutorService uploadExecutor;
+    private final List<Future<UploadedPart>> uploads = new ArrayList<>();
+
+    private byte[] currentBuffer;
+    private int position;
+    private int nextPartNumber = 1;
+    private long bytesWritten;
+    private boolean started;
+    private boolean closed;
+    private boolean aborted;
+    private volatile Throwable uploadFailure;
+    private Timer partUploadTimer;
+
+    protected AbstractPartUploadOutputStream(String target, int partSize, int concurrency) {
+        if (partSize <= 0) {
+            throw new IllegalArgumentException("Tamanho da parte deve ser maior que zero");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concorrência de upload deve ser maior que zero");
+        }
+        this.target = target;
+        this.partSize = partSize;
+        this.bufferPool = new PartBufferPool(partSize, concurrency + 1);
+        this.uploadExecutor = Executors.newFixedThreadPool(concurrency, new UploadThreadFactory(target));
+    }
+
+    /**
+     * Inicia o upload em partes (chamado antes do envio da primeira parte)
+     */
+    protected abstract void initiateUpload() throws IOException;
+
+    /**
+     * Envia uma parte. Chamado em paralelo pelas threads de upload; o buffer só é
+     * reutilizado depois que este método retorna.
+     *
+     * @return identificador da parte enviada
+     */
+    protected abstract String uploadPart(int partNumber, byte[] data, int length) throws IOException;
+
+    /**
+     * Conclui o upload com as partes enviadas, ordenadas pelo número da parte
+     */
+    protected abstract void completeUpload(List<UploadedPart> parts) throws IOException;
+
+    /**
+     * Envia todo o conteúdo em uma única requisição (quando não chegou a encher uma parte)
+     */
+    protected abstract void uploadSingleObject(byte[] data, int length) throws IOException;
+
+    /**
+     * Descarta o upload em andamento e as partes já enviadas
+     */
+    protected abstract void abortUpload();
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (currentBuffer == null) {
+            currentBuffer = bufferPool.acquire();
+        }
+        currentBuffer[position++] = (byte) b;
+        bytesWritten++;
+        if (position == partSize) {
+            submitCurrentPart();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureOpen();
+
+        while (len > 0) {
+            if (currentBuffer == null) {
+                currentBuffer = bufferPool.acquire();
+            }
+            int chunk = Math.min(len, partSize - position);
+            System.arraycopy(b, off, currentBuffer, position, chunk);
+            position += chunk;
+            off += chunk;
+            len -= chunk;
+            bytesWritten += chunk;
+
+            if (position == partSize) {
+                submitCurrentPart();
+            }
+        }
+    }
+
+    /**
+     * Finaliza o upload: envia a última parte, aguarda todas as partes e conclui o upload.
+     * Se nenhuma parte tiver sido enviada, envia o conteúdo em uma única requisição.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (!started) {
+                uploadSingleObject(currentBuffer != null ? currentBuffer : new byte[0], position);
+            } else {
+                if (position > 0) {
+                    submitCurrentPart();
+                }
+                completeUpload(awaitUploads());
+            }
+        } catch (IOException | RuntimeException e) {
+            abort();
+            throw e instanceof IOException ioException
+                    ? ioException
+                    : new IOException("Falha no upload para " + target + ": " + e.getMessage(), e);
+        } finally {
+            uploadExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cancela o upload em andamento, descartando as partes já enviadas.
+     * Após o cancelamento, {@link #close()} não envia mais nada.
+     */
+    public void abort() {
+        if (aborted) {
+            return;
+        }
+        aborted = true;
+        closed = true;
+
+        uploads.forEach(upload -> upload.cancel(true));
+        uploadExecutor.shutdownNow();
+
+        if (started) {
+            // Aguarda as partes em voo para que nenhuma seja gravada depois do cancelamento
+            try {
+                if (!uploadExecutor.awaitTermination(ABORT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Partes ainda em envio para {} após {}s de espera", target, ABORT_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            abortUpload();
+            logger.warn("Upload em partes cancelado para {}", target);
+        }
+    }
+
+    /**
+     * Registra a latência do envio de cada parte no timer informado
+     */
+    public void setPartUploadTimer(Timer partUploadTimer) {
+        this.partUploadTimer = partUploadTimer;
+    }
+
+    /**
+     * Total de bytes escritos no stream (tamanho final do objeto)
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Número de partes enviadas (0 quando o conteúdo foi enviado em uma única requisição)
+     */
+    public int getUploadedParts() {
+        return started ? nextPartNumber - 1 : 0;
+    }
+
+    protected String getTarget() {
+        return target;
+    }
+
+    private void submitCurrentPart() throws IOException {
+        throwIfUploadFailed();
+
+        if (!started) {
+            initiateUpload();
+            started = true;
+        }
+
+        byte[] data = currentBuffer;
+        int length = position;
+        int partNumber = nextPartNumber++;
+        currentBuffer = null;
+        position = 0;
+
+        Timer timer = partUploadTimer;
+        uploads.add(uploadExecutor.submit(() -> {
+            long uploadStart = System.nanoTime();
+            try {
+                String id = uploadPart(partNumber, data, length);
+                if (timer != null) {
+                    timer.record(System.nanoTime() - uploadStart, TimeUnit.NANOSECONDS);
+                }
+                logger.debug("Parte {} enviada para {} ({} bytes)", partNumber, target, length);
+                return new UploadedPart(partNumber, id, length);
+            } catch (Exception | Error e) {
+                uploadFailure = e;
+                throw e;
+            } finally {
+                bufferPool.release(data);
+            }
+        }));
+    }
+
+    private List<UploadedPart> awaitUploads() throws IOException {
+        List<UploadedPart> parts = new ArrayList<>(uploads.size());
+        try {
+            for (Future<UploadedPart> upload : uploads) {
+                parts.add(upload.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Upload interrompido para " + target, e);
+        } catch (ExecutionException e) {
+            throw uploadException(e.getCause());
+        }
+        parts.sort(Comparator.comparingInt(UploadedPart::partNumber));
+        return parts;
+    }
+
+    private void throwIfUploadFailed() throws IOException {
+        Throwable failure = uploadFailure;
+        if (failure != null) {
+            throw uploadException(failure);
+        }
+    }
+
+    private IOException uploadException(Throwable cause) {
+        return new IOException("Falha no upload de parte para " + target + ": " + cause.getMessage(), cause);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream de upload para " + target + " já foi fechado");
+        }
+        throwIfUploadFailed();
+    }
+
+    private static final class UploadThreadFactory implements ThreadFactory {
+        private final String target;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private UploadThreadFactory(String target) {
+            this.target = target;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "part-upload-" + counter.incrementAndGet() + "-" + target);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
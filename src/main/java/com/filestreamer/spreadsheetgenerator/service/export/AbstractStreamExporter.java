@@ -0,0 +1,38 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+
+/**
+ * Base dos exportadores: as linhas são escritas pelo {@link ExportWriter} no stream
+ * de destino aberto por cada exportador em {@link #exportContent}. Quando a configuração
+ * limita registros ou bytes por arquivo, a exportação é dividida em partes pelo {@link RollingExport}.
+ */
+public abstract class AbstractStreamExporter implements StreamExporter {
+    
+    private ExportMetrics metrics = ExportMetrics.noop();
+    
+    @Override
+    public ExportResult exportData(Stream<String[]> dataStream, ExportConfig exportConfig) throws IOException {
+        if (exportConfig.isRolling()) {
+            return RollingExport.export(this, dataStream, exportConfig);
+        }
+        return exportContent((outputStream, totalExported) ->
+                ExportWriter.write(dataStream, exportConfig, outputStream, totalExported), exportConfig);
+    }
+    
+    /**
+     * Métricas do pipeline; fora do contexto Spring as métricas não são publicadas
+     */
+    @Autowired
+    public void setMetrics(ExportMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    protected ExportMetrics getMetrics() {
+        return metrics;
+    }
+}
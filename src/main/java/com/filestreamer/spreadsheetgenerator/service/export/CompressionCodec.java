@@ -0,0 +1,105 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Enum que define os codecs de compressão aplicados em streaming entre o escritor
+ * de linhas e o destino da exportação
+ */
+public enum CompressionCodec {
+    NONE(null, null, null, 0, 0, 0),
+    GZIP("gz", "gzip", "application/gzip", 1, 9, 6),
+    ZSTD("zst", "zstd", "application/zstd", 1, 22, 3);
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final String extension;
+    private final String contentEncoding;
+    private final String mediaType;
+    private final int minLevel;
+    private final int maxLevel;
+    private final int defaultLevel;
+    
+    CompressionCodec(String extension, String contentEncoding, String mediaType,
+                     int minLevel, int maxLevel, int defaultLevel) {
+        this.extension = extension;
+        this.contentEncoding = contentEncoding;
+        this.mediaType = mediaType;
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+        this.defaultLevel = defaultLevel;
+    }
+    
+    /**
+     * Extensão acrescentada ao nome do arquivo (sem o ponto), ou null sem compressão
+     */
+    public String getExtension() {
+        return extension;
+    }
+    
+    /**
+     * Valor do cabeçalho Content-Encoding, ou null sem compressão
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+    
+    /**
+     * Content type do arquivo comprimido quando baixado como anexo (ex.: "application/gzip"),
+     * ou null sem compressão
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+    
+    public int getMinLevel() {
+        return minLevel;
+    }
+    
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+    
+    public int getDefaultLevel() {
+        return defaultLevel;
+    }
+    
+    public boolean isValidLevel(int level) {
+        return level >= minLevel && level <= maxLevel;
+    }
+    
+    /**
+     * Extensão completa do arquivo para o formato informado (ex.: "csv.gz")
+     */
+    public String fileExtension(ExportFormat format) {
+        return extension != null ? format.getExtension() + "." + extension : format.getExtension();
+    }
+    
+    /**
+     * Envolve o stream de destino com o compressor do codec. Fechar o stream retornado
+     * finaliza a compressão e fecha o destino.
+     */
+    public OutputStream wrap(OutputStream outputStream, int level) throws IOException {
+        return switch (this) {
+            case NONE -> outputStream;
+            case GZIP -> new LeveledGzipOutputStream(outputStream, level);
+            case ZSTD -> new ZstdOutputStream(outputStream, level);
+        };
+    }
+    
+    /**
+     * GZIPOutputStream com nível de compressão configurável
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        
+        private LeveledGzipOutputStream(OutputStream outputStream, int level) throws IOException {
+            super(outputStream, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * OutputStream que conta os bytes que passam por ele
+ */
+public class CountingOutputStream extends FilterOutputStream {
+    
+    private long count;
+    
+    public CountingOutputStream(OutputStream outputStream) {
+        super(outputStream);
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+}
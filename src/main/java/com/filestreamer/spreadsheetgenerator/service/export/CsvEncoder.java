@@ -0,0 +1,39 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.OutputStream;
+
+
+/**
+ * Enum que define as implementações de escrita CSV disponíveis.
+ * Ambas geram a mesma saída; mudam apenas o custo de CPU e de alocação por linha.
+ */
+public enum CsvEncoder {
+    UTF8_DIRECT("UTF-8 direto", "Codifica os campos direto em bytes UTF-8 num buffer reutilizável"),
+    OPENCSV("opencsv", "Usa o CSVWriter do opencsv sobre um Writer UTF-8");
+    
+    private final String displayName;
+    private final String description;
+    
+    CsvEncoder(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Cria um escritor CSV sobre o stream de destino
+     */
+    public RowWriter newWriter(OutputStream outputStream) {
+        return switch (this) {
+            case UTF8_DIRECT -> new Utf8CsvRowWriter(outputStream);
+            case OPENCSV -> new OpenCsvRowWriter(outputStream);
+        };
+    }
+}
@@ -0,0 +1,300 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.exception.ExportRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Controle de admissão das exportações, na frente do {@link GenericStreamExportService}.
+ * <p>
+ * Cada exportação ocupa uma thread e uma conexão com o banco até terminar. Para que
+ * exportações simultâneas não esgotem o pool e travem o restante da API, cada uma precisa de uma
+ * vaga no limite do seu exportador ({@code EXPORT_MAX_CONCURRENT_PER_EXPORTER}, assim um destino
+ * lento não ocupa as vagas dos outros) e de uma vaga no limite global
+ * ({@code EXPORT_MAX_CONCURRENT}). Sem vaga, a requisição espera em fila justa até
+ * {@code EXPORT_ADMISSION_TIMEOUT}; com {@code EXPORT_ADMISSION_QUEUE_CAPACITY} requisições já
+ * esperando, ou se o tempo esgotar, a exportação é recusada com {@link ExportRejectedException}.
+ * <p>
+ * As vagas são tomadas sempre na mesma ordem (exportadores na ordem do enum, depois a global),
+ * então pedidos com vários destinos não travam uns aos outros. A vaga deve ser tomada na thread
+ * que executa a exportação: na requisição para as exportações síncronas, dentro do corpo da
+ * resposta para o download direto ({@link #acquireDownload()}) e na thread do executor para os
+ * jobs assíncronos ({@link #acquireForJob(ExporterType)}).
+ */
+@Component
+public class ExportAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportAdmission.class);
+
+    static final String GLOBAL = "global";
+    static final String QUEUE_FULL = "queue_full";
+    static final String TIMEOUT = "timeout";
+    static final String INTERRUPTED = "interrupted";
+
+    private final Bulkhead global;
+    private final Map<ExporterType, Bulkhead> exporterBulkheads = new EnumMap<>(ExporterType.class);
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+    private final ExportMetrics metrics;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * @param maxConcurrent            exportações simultâneas no total
+     * @param maxConcurrentPerExporter exportações simultâneas por exportador
+     * @param exporterLimits           limites próprios de alguns exportadores, ex.: {@code AWS_S3=4,LOCAL=1}
+     * @param queueCapacity            exportações esperando vaga; além disso novas exportações são recusadas
+     * @param timeout                  espera máxima por vaga
+     * @param retryAfter               tempo sugerido ao cliente para tentar novamente
+     */
+    @Autowired
+    public ExportAdmission(ExportMetrics metrics,
+                           @Value("${EXPORT_MAX_CONCURRENT:4}") int maxConcurrent,
+                           @Value("${EXPORT_MAX_CONCURRENT_PER_EXPORTER:2}") int maxConcurrentPerExporter,
+                           @Value("${EXPORT_MAX_CONCURRENT_BY_EXPORTER:}") String exporterLimits,
+                           @Value("${EXPORT_ADMISSION_QUEUE_CAPACITY:8}") int queueCapacity,
+                           @Value("${EXPORT_ADMISSION_TIMEOUT:30s}") Duration timeout,
+                           @Value("${EXPORT_ADMISSION_RETRY_AFTER:30s}") Duration retryAfter) {
+        if (maxConcurrent < 1 || maxConcurrentPerExporter < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Limites de exportações simultâneas devem ser positivos e a fila não pode ser negativa");
+        }
+        this.global = new Bulkhead(GLOBAL, maxConcurrent);
+        Map<ExporterType, Integer> limits = parseExporterLimits(exporterLimits);
+        for (ExporterType exporterType : ExporterType.values()) {
+            int limit = limits.getOrDefault(exporterType, maxConcurrentPerExporter);
+            exporterBulkheads.put(exporterType, new Bulkhead(exporterType.name(), limit));
+        }
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.metrics = metrics;
+
+        metrics.registerAdmissionQueue(queued);
+        metrics.registerAdmissionInUse(GLOBAL, global::inUse);
+        exporterBulkheads.values().forEach(bulkhead -> metrics.registerAdmissionInUse(bulkhead.name, bulkhead::inUse));
+        logger.info("Controle de admissão de exportações: {} simultâneas, por exportador {}, fila de {}, espera de {}",
+                maxConcurrent, limitsDescription(), queueCapacity, timeout);
+    }
+
+    /**
+     * Aguarda vaga para uma exportação com o exportador
+     *
+     * @throws ExportRejectedException se a fila de espera estiver cheia ou o tempo de espera esgotar
+     */
+    public Permit acquire(ExporterType exporterType) {
+        return acquire(List.of(exporterType));
+    }
+
+    /**
+     * Aguarda vaga para uma exportação que grava em todos os exportadores ao mesmo tempo
+     *
+     * @throws ExportRejectedException se a fila de espera estiver cheia ou o tempo de espera esgotar
+     */
+    public Permit acquire(Collection<ExporterType> exporterTypes) {
+        return acquire(required(exporterTypes));
+    }
+
+    /**
+     * Aguarda vaga no limite global para um download direto, que não grava em exportador
+     *
+     * @throws ExportRejectedException se a fila de espera estiver cheia ou o tempo de espera esgotar
+     */
+    public Permit acquireDownload() {
+        return acquire(List.of(global));
+    }
+
+    /**
+     * Aguarda vaga para um job assíncrono, sem limite de tempo e fora da fila das requisições:
+     * a quantidade de jobs esperando já é limitada pelas threads do executor de jobs, e recusar
+     * um job já aceito só obrigaria o cliente a criá-lo de novo.
+     *
+     * @throws ExportRejectedException se a thread for interrompida enquanto espera
+     */
+    public Permit acquireForJob(ExporterType exporterType) {
+        long startNanos = System.nanoTime();
+        Permit permit = new Permit();
+        for (Bulkhead bulkhead : required(List.of(exporterType))) {
+            try {
+                bulkhead.semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                permit.close();
+                throw reject(bulkhead, INTERRUPTED, "Espera por vaga para exportação interrompida");
+            }
+            permit.held.add(bulkhead);
+        }
+        metrics.recordAdmissionWait(System.nanoTime() - startNanos);
+        return permit;
+    }
+
+    private List<Bulkhead> required(Collection<ExporterType> exporterTypes) {
+        List<Bulkhead> required = new ArrayList<>();
+        EnumSet.copyOf(exporterTypes).forEach(exporterType -> required.add(exporterBulkheads.get(exporterType)));
+        required.add(global);
+        return required;
+    }
+
+    private Permit acquire(List<Bulkhead> required) {
+        long startNanos = System.nanoTime();
+        Permit permit = new Permit();
+        int next = permit.tryAcquireAvailable(required);
+        if (next < required.size()) {
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                permit.close();
+                throw reject(required.get(next), QUEUE_FULL,
+                        "Limite de exportações simultâneas atingido e fila de espera cheia; tente novamente mais tarde");
+            }
+            try {
+                waitForRemaining(permit, required, next, startNanos + timeout.toNanos());
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        metrics.recordAdmissionWait(System.nanoTime() - startNanos);
+        return permit;
+    }
+
+    private void waitForRemaining(Permit permit, List<Bulkhead> required, int next, long deadlineNanos) {
+        for (int i = next; i < required.size(); i++) {
+            Bulkhead bulkhead = required.get(i);
+            boolean acquired;
+            try {
+                acquired = bulkhead.semaphore.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                permit.close();
+                throw reject(bulkhead, TIMEOUT,
+                        "Nenhuma vaga para exportação liberada em " + timeout.toMillis() + " ms; tente novamente mais tarde");
+            }
+            permit.held.add(bulkhead);
+        }
+    }
+
+    private ExportRejectedException reject(Bulkhead bulkhead, String reason, String message) {
+        logger.warn("Exportação recusada pelo controle de admissão ({}, limite {}): {}", reason, bulkhead.name, message);
+        metrics.recordAdmissionRejection(bulkhead.name, reason);
+        return new ExportRejectedException(message, retryAfterSeconds);
+    }
+
+    /**
+     * Exportações aguardando vaga no momento
+     */
+    int getQueued() {
+        return queued.get();
+    }
+
+    private String limitsDescription() {
+        StringBuilder description = new StringBuilder();
+        exporterBulkheads.forEach((exporterType, bulkhead) ->
+                description.append(description.isEmpty() ? "" : ", ").append(exporterType).append('=').append(bulkhead.limit));
+        return description.toString();
+    }
+
+    /**
+     * Lê limites no formato {@code EXPORTADOR=N[,EXPORTADOR=N...]}
+     */
+    static Map<ExporterType, Integer> parseExporterLimits(String spec) {
+        Map<ExporterType, Integer> limits = new EnumMap<>(ExporterType.class);
+        if (spec == null || spec.isBlank()) {
+            return limits;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Limite por exportador inválido: '" + entry.trim() + "' (use EXPORTADOR=N)");
+            }
+            ExporterType exporterType = ExporterType.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            int limit = Integer.parseInt(parts[1].trim());
+            if (limit < 1) {
+                throw new IllegalArgumentException("Limite do exportador " + exporterType + " deve ser positivo");
+            }
+            limits.put(exporterType, limit);
+        }
+        return limits;
+    }
+
+    /**
+     * Limite de exportações simultâneas, com fila justa para quem espera
+     */
+    private static final class Bulkhead {
+
+        private final String name;
+        private final int limit;
+        private final Semaphore semaphore;
+
+        Bulkhead(String name, int limit) {
+            this.name = name;
+            this.limit = limit;
+            this.semaphore = new Semaphore(limit, true);
+        }
+
+        int inUse() {
+            return limit - semaphore.availablePermits();
+        }
+    }
+
+    /**
+     * Vagas de uma exportação admitida, devolvidas no {@link #close()}; chamadas seguintes são ignoradas
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final List<Bulkhead> held = new ArrayList<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        /**
+         * Toma, sem esperar, as vagas livres na ordem; devolve a posição da primeira que faltou.
+         * O tryAcquire com tempo zero respeita a fila justa, então não passa na frente de quem espera.
+         */
+        private int tryAcquireAvailable(List<Bulkhead> required) {
+            for (int i = 0; i < required.size(); i++) {
+                Bulkhead bulkhead = required.get(i);
+                boolean acquired;
+                try {
+                    acquired = bulkhead.semaphore.tryAcquire(0, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    acquired = false;
+                }
+                if (!acquired) {
+                    return i;
+                }
+                held.add(bulkhead);
+            }
+            return required.size();
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    held.get(i).semaphore.release();
+                }
+            }
+        }
+    }
+}
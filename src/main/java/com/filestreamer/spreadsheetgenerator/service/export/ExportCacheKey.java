@@ -0,0 +1,25 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.repository.ProductDataVersion;
+
+
+/**
+ * Chave do cache de exportações: destino, consulta com seus parâmetros, opções que mudam o
+ * arquivo gerado e a versão dos dados. O caminho de leitura (JPA ou COPY) fica de fora,
+ * já que os dois geram o mesmo conteúdo.
+ *
+ * @param query consulta exportada com os parâmetros normalizados (ex.: "all", "price_min=10.5")
+ */
+public record ExportCacheKey(ExporterType exporterType, String basePath, String query,
+                             ExportFormat format, CompressionCodec compression, Integer compressionLevel,
+                             Integer parallelism, ParallelOutput parallelOutput,
+                             Long maxRowsPerFile, Long maxBytesPerFile, ProductDataVersion dataVersion) {
+
+    public static ExportCacheKey of(ExporterType exporterType, String basePath, String query, ExportOptions options,
+                                    ProductDataVersion dataVersion) {
+        return new ExportCacheKey(exporterType, basePath, query,
+                options.getFormat(), options.getCompression(), options.getCompressionLevel(),
+                options.getParallelism(), options.getParallelOutput(),
+                options.getMaxRowsPerFile(), options.getMaxBytesPerFile(), dataVersion);
+    }
+}
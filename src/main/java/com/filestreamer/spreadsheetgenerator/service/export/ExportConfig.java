@@ -7,11 +7,29 @@ package com.filestreamer.spreadsheetgenerator.service.export;
  */
 public class ExportConfig {
     
+    /**
+     * Tamanho mínimo de parte aceito pelo multipart upload do S3 (exceto a última parte)
+     */
+    public static final int MIN_UPLOAD_PART_SIZE = 5 * 1024 * 1024;
+    
+    public static final int DEFAULT_UPLOAD_PART_SIZE = 8 * 1024 * 1024;
+    
+    public static final int MAX_UPLOAD_CONCURRENCY = 64;
+    
     private final String fileName;
     private final String basePath;
     private final String contentType;
     private final String[] headers;
     private final int batchSize;
+    private final int uploadPartSize;
+    private final int uploadConcurrency;
+    private final CsvEncoder csvEncoder;
+    private final ExportFormat format;
+    private final CompressionCodec compression;
+    private final int compressionLevel;
+    private final ExportProgressListener progressListener;
+    private final long maxRowsPerFile;
+    private final long maxBytesPerFile;
     
     private ExportConfig(Builder builder) {
         this.fileName = builder.fileName;
@@ -19,6 +37,17 @@ public class ExportConfig {
         this.contentType = builder.contentType;
         this.headers = builder.headers;
         this.batchSize = builder.batchSize;
+        this.uploadPartSize = builder.uploadPartSize;
+        this.uploadConcurrency = builder.uploadConcurrency;
+        this.csvEncoder = builder.csvEncoder;
+        this.format = builder.format;
+        this.compression = builder.compression;
+        this.compressionLevel = builder.compressionLevel != null
+                ? builder.compressionLevel
+                : builder.compression.getDefaultLevel();
+        this.progressListener = builder.progressListener;
+        this.maxRowsPerFile = builder.maxRowsPerFile;
+        this.maxBytesPerFile = builder.maxBytesPerFile;
     }
     
     public String getFileName() {
@@ -29,8 +58,11 @@ public class ExportConfig {
         return basePath;
     }
     
+    /**
+     * Content type informado ou, se ausente, o do formato de exportação
+     */
     public String getContentType() {
-        return contentType;
+        return contentType != null ? contentType : format.getContentType();
     }
     
     public String[] getHeaders() {
@@ -41,16 +73,107 @@ public class ExportConfig {
         return batchSize;
     }
     
+    public int getUploadPartSize() {
+        return uploadPartSize;
+    }
+    
+    public int getUploadConcurrency() {
+        return uploadConcurrency;
+    }
+    
+    public CsvEncoder getCsvEncoder() {
+        return csvEncoder;
+    }
+    
+    public ExportFormat getFormat() {
+        return format;
+    }
+    
+    public CompressionCodec getCompression() {
+        return compression;
+    }
+    
+    /**
+     * Nível de compressão informado ou, se ausente, o padrão do codec
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+    
+    /**
+     * Content-Encoding do arquivo gerado, ou null quando não há compressão
+     */
+    public String getContentEncoding() {
+        return compression.getContentEncoding();
+    }
+    
+    public ExportProgressListener getProgressListener() {
+        return progressListener;
+    }
+    
+    /**
+     * Registros por arquivo antes de abrir uma nova parte, ou 0 para não dividir por registros
+     */
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+    
+    /**
+     * Bytes (antes da compressão) por arquivo antes de abrir uma nova parte, ou 0 para não
+     * dividir por tamanho
+     */
+    public long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+    
+    /**
+     * Indica se a exportação é dividida em várias partes com um manifesto
+     */
+    public boolean isRolling() {
+        return maxRowsPerFile > 0 || maxBytesPerFile > 0;
+    }
+    
     public static Builder builder() {
         return new Builder();
     }
     
+    /**
+     * Builder pré-preenchido com esta configuração, para derivar variações (ex.: partes de
+     * uma exportação paralela)
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .fileName(fileName)
+                .basePath(basePath)
+                .contentType(contentType)
+                .headers(headers)
+                .batchSize(batchSize)
+                .uploadPartSize(uploadPartSize)
+                .uploadConcurrency(uploadConcurrency)
+                .csvEncoder(csvEncoder)
+                .format(format)
+                .compression(compression)
+                .compressionLevel(compressionLevel)
+                .progressListener(progressListener)
+                .maxRowsPerFile(maxRowsPerFile)
+                .maxBytesPerFile(maxBytesPerFile);
+    }
+    
     public static class Builder {
         private String fileName;
         private String basePath;
-        private String contentType = "text/csv";
+        private String contentType;
         private String[] headers;
         private int batchSize = 1000;
+        private int uploadPartSize = DEFAULT_UPLOAD_PART_SIZE;
+        private int uploadConcurrency = 1;
+        private CsvEncoder csvEncoder = CsvEncoder.UTF8_DIRECT;
+        private ExportFormat format = ExportFormat.CSV;
+        private CompressionCodec compression = CompressionCodec.NONE;
+        private Integer compressionLevel;
+        private ExportProgressListener progressListener = ExportProgressListener.NONE;
+        private long maxRowsPerFile;
+        private long maxBytesPerFile;
         
         public Builder fileName(String fileName) {
             this.fileName = fileName;
@@ -77,10 +200,109 @@ public class ExportConfig {
             return this;
         }
         
+        /**
+         * Tamanho em bytes de cada parte enviada nos uploads em nuvem
+         */
+        public Builder uploadPartSize(int uploadPartSize) {
+            this.uploadPartSize = uploadPartSize;
+            return this;
+        }
+        
+        /**
+         * Quantidade de partes enviadas em paralelo nos uploads em nuvem.
+         * A memória usada é limitada a (concorrência + 1) buffers do tamanho da parte.
+         */
+        public Builder uploadConcurrency(int uploadConcurrency) {
+            this.uploadConcurrency = uploadConcurrency;
+            return this;
+        }
+        
+        /**
+         * Implementação usada para escrever o CSV (padrão: {@link CsvEncoder#UTF8_DIRECT})
+         */
+        public Builder csvEncoder(CsvEncoder csvEncoder) {
+            this.csvEncoder = csvEncoder;
+            return this;
+        }
+        
+        /**
+         * Formato do arquivo gerado (padrão: {@link ExportFormat#CSV})
+         */
+        public Builder format(ExportFormat format) {
+            this.format = format;
+            return this;
+        }
+        
+        /**
+         * Compressão aplicada em streaming ao arquivo gerado (padrão: {@link CompressionCodec#NONE})
+         */
+        public Builder compression(CompressionCodec compression) {
+            this.compression = compression;
+            return this;
+        }
+        
+        /**
+         * Nível de compressão; null usa o padrão do codec
+         */
+        public Builder compressionLevel(Integer compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+        
+        /**
+         * Listener notificado a cada lote escrito; null desativa a notificação
+         */
+        public Builder progressListener(ExportProgressListener progressListener) {
+            this.progressListener = progressListener != null ? progressListener : ExportProgressListener.NONE;
+            return this;
+        }
+        
+        /**
+         * Abre uma nova parte ({@code _part-00001}, ...) a cada N registros; 0 não divide
+         */
+        public Builder maxRowsPerFile(long maxRowsPerFile) {
+            this.maxRowsPerFile = maxRowsPerFile;
+            return this;
+        }
+        
+        /**
+         * Abre uma nova parte quando a atual passa de M bytes antes da compressão; 0 não divide
+         */
+        public Builder maxBytesPerFile(long maxBytesPerFile) {
+            this.maxBytesPerFile = maxBytesPerFile;
+            return this;
+        }
+        
         public ExportConfig build() {
             if (fileName == null || fileName.trim().isEmpty()) {
                 throw new IllegalArgumentException("Nome do arquivo é obrigatório");
             }
+            if (uploadPartSize < MIN_UPLOAD_PART_SIZE) {
+                throw new IllegalArgumentException("Tamanho da parte de upload deve ser de no mínimo 5 MB");
+            }
+            if (uploadConcurrency < 1 || uploadConcurrency > MAX_UPLOAD_CONCURRENCY) {
+                throw new IllegalArgumentException("Concorrência de upload deve estar entre 1 e " + MAX_UPLOAD_CONCURRENCY);
+            }
+            if (csvEncoder == null) {
+                throw new IllegalArgumentException("Encoder CSV é obrigatório");
+            }
+            if (format == null) {
+                throw new IllegalArgumentException("Formato de exportação é obrigatório");
+            }
+            if (compression == null) {
+                throw new IllegalArgumentException("Codec de compressão é obrigatório");
+            }
+            if (compression != CompressionCodec.NONE && compressionLevel != null
+                    && !compression.isValidLevel(compressionLevel)) {
+                throw new IllegalArgumentException(String.format("Nível de compressão %s deve estar entre %d e %d",
+                        compression, compression.getMinLevel(), compression.getMaxLevel()));
+            }
+            if (maxRowsPerFile < 0) {
+                throw new IllegalArgumentException("Máximo de registros por arquivo não pode ser negativo");
+            }
+            if (maxBytesPerFile < 0) {
+                throw new IllegalArgumentException("Máximo de bytes por arquivo não pode ser negativo");
+            }
             return new ExportConfig(this);
         }
     }
@@ -0,0 +1,25 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Conteúdo de uma exportação, escrito pelo exportador no stream do destino
+ * (arquivo, upload em nuvem, etc.)
+ */
+@FunctionalInterface
+public interface ExportContent {
+    
+    /**
+     * Escreve o conteúdo no stream de destino e o fecha ao final. O stream também é fechado
+     * quando a escrita falha no meio, para liberar o escritor e o compressor; destinos que
+     * publicam o arquivo no fechamento (uploads em nuvem) devem passar um stream que ignore o
+     * fechamento e concluir o upload só depois que este método retornar normalmente.
+     *
+     * @param totalExported contador de registros escritos (atualizado durante a escrita)
+     * @return quantidade de bytes gerados antes da compressão
+     */
+    long writeTo(OutputStream outputStream, AtomicLong totalExported) throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.OutputStream;
+
+
+/**
+ * Enum que define os formatos de arquivo gerados pela exportação
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv", "Arquivo CSV (RFC 4180, UTF-8)"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "Planilha Excel (Office Open XML)");
+    
+    private final String extension;
+    private final String contentType;
+    private final String description;
+    
+    ExportFormat(String extension, String contentType, String description) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.description = description;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Cria o escritor de linhas do formato sobre o stream de destino
+     */
+    public RowWriter newWriter(OutputStream outputStream, ExportConfig exportConfig) {
+        return switch (this) {
+            case CSV -> exportConfig.getCsvEncoder().newWriter(outputStream);
+            case XLSX -> new XlsxRowWriter(outputStream);
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.exception.ExportJobNotFoundException;
+import com.filestreamer.spreadsheetgenerator.exception.ExportRejectedException;
+import com.filestreamer.spreadsheetgenerator.model.ExportJob;
+import com.filestreamer.spreadsheetgenerator.model.ExportJobStatus;
+import com.filestreamer.spreadsheetgenerator.repository.ExportJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Gerencia os jobs de exportação assíncrona.
+ * <p>
+ * A criação do job só grava o estado inicial e devolve o ID; a exportação roda num
+ * executor próprio, com threads e fila limitadas, fora das threads do Tomcat. Estado,
+ * progresso e resultado ficam na tabela {@code export_jobs}. Antes de começar, cada job espera
+ * vaga no {@link ExportAdmission}, junto com as exportações síncronas. Na inicialização, jobs que
+ * estavam em execução são marcados como falhos e os pendentes são reenfileirados
+ * (considera uma única instância da aplicação por banco).
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    private final ExportJobRepository exportJobRepository;
+    private final GenericStreamExportService exportService;
+    private final ExportAdmission admission;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Intervalo mínimo entre gravações do progresso de um job no banco
+     */
+    @Value("${EXPORT_JOB_PROGRESS_INTERVAL_MS:2000}")
+    private long progressIntervalMs = 2000;
+
+    /**
+     * @param threads       quantidade de exportações simultâneas (cada uma ocupa uma conexão com o banco)
+     * @param queueCapacity quantidade de jobs aguardando execução; além disso novos jobs são recusados
+     */
+    @Autowired
+    public ExportJobService(ExportJobRepository exportJobRepository,
+                            GenericStreamExportService exportService,
+                            ExportAdmission admission,
+                            @Value("${EXPORT_JOB_THREADS:2}") int threads,
+                            @Value("${EXPORT_JOB_QUEUE_CAPACITY:20}") int queueCapacity) {
+        this(exportJobRepository, exportService, admission, new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("export-job-")));
+    }
+
+    ExportJobService(ExportJobRepository exportJobRepository, GenericStreamExportService exportService,
+                     ExportAdmission admission, Executor executor) {
+        this.exportJobRepository = exportJobRepository;
+        this.exportService = exportService;
+        this.admission = admission;
+        this.executor = executor;
+        this.ownedExecutor = executor instanceof ExecutorService executorService ? executorService : null;
+    }
+
+    /**
+     * Cria um job de exportação de todos os produtos
+     *
+     * @throws RejectedExecutionException se a fila de jobs estiver cheia
+     */
+    public ExportJob submitAllProducts(ExporterType exporterType, String basePath, ExportOptions options) {
+        return submit(new ExportJob(exporterType, null, basePath, options));
+    }
+
+    /**
+     * Cria um job de exportação de produtos com preço maior ou igual ao mínimo
+     *
+     * @throws RejectedExecutionException se a fila de jobs estiver cheia
+     */
+    public ExportJob submitProductsByMinPrice(ExporterType exporterType, BigDecimal minPrice, String basePath,
+                                              ExportOptions options) {
+        return submit(new ExportJob(exporterType, minPrice, basePath, options));
+    }
+
+    /**
+     * Busca um job pelo ID
+     */
+    public ExportJob getJob(UUID jobId) {
+        return exportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ExportJobNotFoundException("Job de exportação não encontrado com ID: " + jobId));
+    }
+
+    /**
+     * Marca como falhos os jobs interrompidos por um reinício e reenfileira os que não chegaram a iniciar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        for (ExportJob job : exportJobRepository.findByStatusOrderByCreatedAt(ExportJobStatus.RUNNING)) {
+            logger.warn("Job de exportação {} interrompido pelo reinício da aplicação", job.getId());
+            job.markFailed("Exportação interrompida pelo reinício da aplicação");
+            exportJobRepository.save(job);
+        }
+
+        for (ExportJob job : exportJobRepository.findByStatusOrderByCreatedAt(ExportJobStatus.PENDING)) {
+            logger.info("Reenfileirando job de exportação pendente {}", job.getId());
+            try {
+                enqueue(job);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Fila de exportações cheia ao reenfileirar job {}", job.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private ExportJob submit(ExportJob job) {
+        ExportJob savedJob = exportJobRepository.save(job);
+        logger.info("Job de exportação {} criado via {}", savedJob.getId(), savedJob.getExporterType().getDisplayName());
+        enqueue(savedJob);
+        return savedJob;
+    }
+
+    private void enqueue(ExportJob job) {
+        UUID jobId = job.getId();
+        try {
+            executor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            job.markFailed("Fila de exportações cheia");
+            exportJobRepository.save(job);
+            throw new RejectedExecutionException("Fila de exportações cheia, tente novamente mais tarde", e);
+        }
+    }
+
+    /**
+     * Espera vaga no controle de admissão, executa a exportação do job e grava o resultado.
+     * Chamado na thread do executor; enquanto espera vaga o job continua pendente.
+     */
+    void runJob(UUID jobId) {
+        ExportJob job = exportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ExportJobStatus.PENDING) {
+            logger.warn("Job de exportação {} não está pendente, ignorando", jobId);
+            return;
+        }
+
+        ExportAdmission.Permit permit;
+        try {
+            permit = admission.acquireForJob(job.getExporterType());
+        } catch (ExportRejectedException e) {
+            job.markFailed(e.getMessage());
+            exportJobRepository.save(job);
+            return;
+        }
+        try (permit) {
+            execute(job);
+        }
+    }
+
+    private void execute(ExportJob job) {
+        UUID jobId = job.getId();
+        job.markRunning();
+        exportJobRepository.save(job);
+        logger.info("Iniciando job de exportação {}", jobId);
+
+        try {
+            ExportProgressListener progressListener = progressListener(job);
+            ExportResult result = job.getMinPrice() == null
+                    ? exportService.exportAllProducts(job.getExporterType(), job.getBasePath(), job.getOptions(),
+                                                      progressListener)
+                    : exportService.exportProductsByMinPrice(job.getExporterType(), job.getMinPrice(),
+                                                             job.getBasePath(), job.getOptions(), progressListener);
+
+            if (result.isSuccess()) {
+                job.markCompleted(result);
+                logger.info("Job de exportação {} concluído: {} registros", jobId, result.getTotalRecords());
+            } else {
+                job.markFailed(result.getErrorMessage());
+                logger.error("Job de exportação {} falhou: {}", jobId, result.getErrorMessage());
+            }
+        } catch (Exception e) {
+            logger.error("Erro inesperado no job de exportação {}", jobId, e);
+            job.markFailed("Erro inesperado: " + e.getMessage());
+        }
+
+        exportJobRepository.save(job);
+    }
+
+    /**
+     * Atualiza o progresso do job em memória a cada lote e grava no banco no máximo uma vez
+     * por intervalo, para não gerar uma escrita por lote
+     */
+    private ExportProgressListener progressListener(ExportJob job) {
+        long[] lastPersistedAt = {System.currentTimeMillis()};
+        return (rowsExported, bytesWritten) -> {
+            job.updateProgress(rowsExported, bytesWritten);
+
+            long now = System.currentTimeMillis();
+            if (now - lastPersistedAt[0] < progressIntervalMs) {
+                return;
+            }
+            lastPersistedAt[0] = now;
+
+            try {
+                exportJobRepository.updateProgress(job.getId(), rowsExported, bytesWritten, job.getUpdatedAt());
+            } catch (RuntimeException e) {
+                // Falha ao gravar progresso não interrompe a exportação
+                logger.warn("Erro ao gravar progresso do job {}: {}", job.getId(), e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.util.List;
+
+
+/**
+ * Manifesto JSON de uma exportação dividida em vários arquivos, gravado ao lado das partes
+ * para que consumidores (Spark, cargas de data warehouse) leiam as partes em paralelo e
+ * confiram cada uma pelo checksum
+ *
+ * @param fileName nome lógico da exportação (sem o sufixo das partes)
+ * @param checksumAlgorithm algoritmo do checksum das partes
+ * @param createdAt data e hora de criação, em ISO-8601
+ * @param parts partes na ordem em que foram gravadas
+ */
+public record ExportManifest(String fileName,
+                             ExportFormat format,
+                             CompressionCodec compression,
+                             long totalRecords,
+                             long totalBytes,
+                             String checksumAlgorithm,
+                             String createdAt,
+                             List<Part> parts) {
+
+    /**
+     * Parte gravada: registros, tamanho gravado (após a compressão) e checksum em hexadecimal
+     */
+    public record Part(int partNumber, String fileName, String path, long records, long sizeBytes, String checksum) {}
+}
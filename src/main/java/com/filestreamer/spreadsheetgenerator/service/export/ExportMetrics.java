@@ -0,0 +1,297 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+
+/**
+ * Métricas Micrometer do pipeline de exportação, com tags de exportador e formato.
+ * <p>
+ * Cada exportação é acompanhada por um {@link Recording}: o stream de destino é envolvido
+ * para contar bytes e registros à medida que são gravados (a cada flush de lote) e medir
+ * o tempo até o primeiro byte; ao final são registradas a duração e, em caso de erro,
+ * a falha com a classe da exceção como causa.
+ */
+@Component
+public class ExportMetrics {
+
+    static final String ROWS = "export.rows";
+    static final String BYTES = "export.bytes";
+    static final String ACTIVE = "export.active";
+    static final String DURATION = "export.duration";
+    static final String TIME_TO_FIRST_BYTE = "export.time.to.first.byte";
+    static final String UPLOAD_PART = "export.upload.part";
+    static final String FAILURES = "export.failures";
+    static final String REQUESTS = "export.requests";
+    static final String ADMISSION_QUEUED = "export.admission.queued";
+    static final String ADMISSION_IN_USE = "export.admission.in.use";
+    static final String ADMISSION_WAIT = "export.admission.wait";
+    static final String ADMISSION_REJECTIONS = "export.admission.rejections";
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final Map<Tags, AtomicInteger> activeExports = new ConcurrentHashMap<>();
+
+    public ExportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Métricas que não publicam nada, para exportadores criados fora do contexto Spring
+     */
+    public static ExportMetrics noop() {
+        return new ExportMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Inicia o acompanhamento de uma exportação
+     */
+    public Recording start(ExporterType exporterType, ExportFormat format) {
+        return start(exporterType.name(), format);
+    }
+
+    /**
+     * Inicia o acompanhamento de uma exportação para um destino que não é um {@link StreamExporter}
+     * (ex.: download direto na resposta HTTP)
+     */
+    public Recording start(String exporter, ExportFormat format) {
+        return new Recording(tags(exporter, format));
+    }
+
+    /**
+     * Conta uma exportação pelo caminho de leitura usado (ex.: jpa, copy, parallel_copy)
+     */
+    public void recordRequest(ExporterType exporterType, ExportFormat format, String path) {
+        registry.counter(REQUESTS, tags(exporterType.name(), format).and("path", path)).increment();
+    }
+
+    /**
+     * Conta uma falha ocorrida fora de um {@link Recording} (ex.: validação antes da exportação)
+     */
+    public void recordFailure(ExporterType exporterType, ExportFormat format, Throwable cause) {
+        failureCounter(tags(exporterType.name(), format), cause).increment();
+    }
+
+    /**
+     * Timer da latência de envio de cada parte nos uploads em nuvem
+     */
+    public Timer partUploadTimer(ExporterType exporterType) {
+        return Timer.builder(UPLOAD_PART)
+                .description("Latência do envio de cada parte do upload")
+                .tag("exporter", exporterType.name())
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Publica a quantidade de exportações aguardando vaga no controle de admissão
+     */
+    public void registerAdmissionQueue(AtomicInteger queued) {
+        Gauge.builder(ADMISSION_QUEUED, queued, AtomicInteger::get)
+                .description("Exportações aguardando vaga no controle de admissão")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Publica as vagas ocupadas de um limite de exportações simultâneas ({@code global} ou o exportador)
+     */
+    public void registerAdmissionInUse(String bulkhead, IntSupplier inUse) {
+        Gauge.builder(ADMISSION_IN_USE, inUse, IntSupplier::getAsInt)
+                .description("Vagas ocupadas do limite de exportações simultâneas")
+                .tag("bulkhead", bulkhead)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Registra o tempo até a exportação ser admitida, inclusive as que não precisaram esperar
+     */
+    public void recordAdmissionWait(long nanos) {
+        Timer.builder(ADMISSION_WAIT)
+                .description("Espera por vaga no controle de admissão")
+                .publishPercentiles(PERCENTILES)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Conta uma exportação recusada, pelo limite esgotado e pelo motivo ({@code queue_full} ou {@code timeout})
+     */
+    public void recordAdmissionRejection(String bulkhead, String reason) {
+        Counter.builder(ADMISSION_REJECTIONS)
+                .description("Exportações recusadas pelo controle de admissão")
+                .tag("bulkhead", bulkhead)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    private Counter failureCounter(Tags tags, Throwable cause) {
+        return Counter.builder(FAILURES)
+                .description("Exportações que falharam, pela classe da exceção")
+                .tags(tags)
+                .tag("cause", cause.getClass().getSimpleName())
+                .register(registry);
+    }
+
+    private static Tags tags(String exporter, ExportFormat format) {
+        return Tags.of("exporter", exporter, "format", format.name());
+    }
+
+    /**
+     * Acompanhamento de uma exportação em andamento. Deve terminar com {@link #success()}
+     * ou {@link #failure(Throwable)}; chamadas seguintes são ignoradas.
+     */
+    public class Recording {
+
+        private final Tags tags;
+        private final long startNanos;
+        private final AtomicInteger active;
+        private final Counter rows;
+        private final Counter bytes;
+        private boolean finished;
+
+        private Recording(Tags tags) {
+            this.tags = tags;
+            this.startNanos = System.nanoTime();
+            this.active = activeExports.computeIfAbsent(tags,
+                    key -> registry.gauge(ACTIVE, key, new AtomicInteger()));
+            this.rows = Counter.builder(ROWS)
+                    .description("Registros gravados no destino")
+                    .tags(tags)
+                    .register(registry);
+            this.bytes = Counter.builder(BYTES)
+                    .description("Bytes gravados no destino, após a compressão")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry);
+            active.incrementAndGet();
+        }
+
+        /**
+         * Envolve o stream de destino para medir bytes, registros (lidos de {@code totalExported}
+         * a cada flush e no fechamento) e o tempo até o primeiro byte
+         */
+        public OutputStream meter(OutputStream outputStream, AtomicLong totalExported) {
+            return new MeteredOutputStream(outputStream, totalExported);
+        }
+
+        public void success() {
+            finish("success");
+        }
+
+        public void failure(Throwable cause) {
+            if (finish("failure")) {
+                failureCounter(tags, cause).increment();
+            }
+        }
+
+        private synchronized boolean finish(String outcome) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            active.decrementAndGet();
+            Timer.builder(DURATION)
+                    .description("Duração das exportações")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            return true;
+        }
+
+        private void recordFirstByte() {
+            Timer.builder(TIME_TO_FIRST_BYTE)
+                    .description("Tempo entre o início da exportação e o primeiro byte gravado no destino")
+                    .tags(tags)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Acumula os bytes localmente e publica nos contadores a cada flush, para não
+         * tocar nos contadores a cada escrita
+         */
+        private class MeteredOutputStream extends FilterOutputStream {
+
+            private final AtomicLong totalExported;
+            private long pendingBytes;
+            private long publishedRows;
+            private boolean firstByteWritten;
+
+            MeteredOutputStream(OutputStream outputStream, AtomicLong totalExported) {
+                super(outputStream);
+                this.totalExported = totalExported;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                written(1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                written(len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+                publish();
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    out.close();
+                } finally {
+                    publish();
+                }
+            }
+
+            private void written(int length) {
+                if (!firstByteWritten && length > 0) {
+                    firstByteWritten = true;
+                    recordFirstByte();
+                }
+                pendingBytes += length;
+            }
+
+            private void publish() {
+                if (pendingBytes > 0) {
+                    bytes.increment(pendingBytes);
+                    pendingBytes = 0;
+                }
+                long currentRows = totalExported.get();
+                if (currentRows > publishedRows) {
+                    rows.increment(currentRows - publishedRows);
+                    publishedRows = currentRows;
+                }
+            }
+        }
+    }
+}
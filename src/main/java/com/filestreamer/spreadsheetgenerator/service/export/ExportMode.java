@@ -0,0 +1,23 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+
+/**
+ * Caminho de leitura dos dados de uma exportação
+ */
+public enum ExportMode {
+    
+    /**
+     * COPY quando disponível (CSV no PostgreSQL), JPA nos demais casos
+     */
+    AUTO,
+    
+    /**
+     * Entidades lidas via JPA e formatadas em Java; suporta todos os formatos e bancos
+     */
+    JPA,
+    
+    /**
+     * CSV gerado pelo próprio PostgreSQL via {@code COPY ... TO STDOUT}, sem passar pelo JPA
+     */
+    COPY
+}
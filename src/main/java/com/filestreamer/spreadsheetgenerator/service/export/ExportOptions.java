@@ -0,0 +1,255 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.util.Objects;
+
+
+/**
+ * Opções de exportação escolhidas pelo cliente em cada requisição
+ */
+public class ExportOptions {
+    
+    private final ExportFormat format;
+    private final CompressionCodec compression;
+    private final Integer compressionLevel;
+    private final ExportMode mode;
+    private final Integer parallelism;
+    private final ParallelOutput parallelOutput;
+    private final Long maxRowsPerFile;
+    private final Long maxBytesPerFile;
+    private final boolean bypassCache;
+    
+    private ExportOptions(Builder builder) {
+        this.format = builder.format;
+        this.compression = builder.compression;
+        this.compressionLevel = builder.compressionLevel;
+        this.mode = builder.mode;
+        this.parallelism = builder.parallelism;
+        this.parallelOutput = builder.parallelOutput;
+        this.maxRowsPerFile = builder.maxRowsPerFile;
+        this.maxBytesPerFile = builder.maxBytesPerFile;
+        this.bypassCache = builder.bypassCache;
+    }
+    
+    public ExportFormat getFormat() {
+        return format;
+    }
+    
+    public CompressionCodec getCompression() {
+        return compression;
+    }
+    
+    /**
+     * Nível de compressão, ou null para o padrão do codec
+     */
+    public Integer getCompressionLevel() {
+        return compressionLevel;
+    }
+    
+    /**
+     * Caminho de leitura dos dados (JPA ou COPY do PostgreSQL)
+     */
+    public ExportMode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Quantidade de faixas lidas em paralelo, ou null para escolher pelo tamanho da tabela.
+     * Só se aplica a exportações via COPY.
+     */
+    public Integer getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Gravação das faixas de uma exportação paralela: arquivo único ou partes independentes
+     */
+    public ParallelOutput getParallelOutput() {
+        return parallelOutput;
+    }
+    
+    /**
+     * Registros por arquivo ao dividir a exportação em partes, ou null para não dividir por registros
+     */
+    public Long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+    
+    /**
+     * Bytes (antes da compressão) por arquivo ao dividir a exportação em partes, ou null para
+     * não dividir por tamanho
+     */
+    public Long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+    
+    /**
+     * Indica se a exportação deve ser gerada de novo mesmo que haja um resultado em cache
+     * para a mesma consulta e versão dos dados
+     */
+    public boolean isBypassCache() {
+        return bypassCache;
+    }
+    
+    /**
+     * Indica se a exportação é dividida em vários arquivos com um manifesto
+     */
+    public boolean isRolling() {
+        return maxRowsPerFile != null || maxBytesPerFile != null;
+    }
+    
+    /**
+     * Extensão do arquivo gerado, incluindo a da compressão (ex.: "csv.gz")
+     */
+    public String getFileExtension() {
+        return compression.fileExtension(format);
+    }
+    
+    /**
+     * Opções padrão: CSV sem compressão, com o caminho de leitura escolhido automaticamente
+     */
+    public static ExportOptions defaults() {
+        return builder().build();
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExportOptions that = (ExportOptions) o;
+        return format == that.format
+                && compression == that.compression
+                && Objects.equals(compressionLevel, that.compressionLevel)
+                && mode == that.mode
+                && Objects.equals(parallelism, that.parallelism)
+                && parallelOutput == that.parallelOutput
+                && Objects.equals(maxRowsPerFile, that.maxRowsPerFile)
+                && Objects.equals(maxBytesPerFile, that.maxBytesPerFile)
+                && bypassCache == that.bypassCache;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(format, compression, compressionLevel, mode, parallelism, parallelOutput,
+                maxRowsPerFile, maxBytesPerFile, bypassCache);
+    }
+    
+    @Override
+    public String toString() {
+        return "ExportOptions{" +
+                "format=" + format +
+                ", compression=" + compression +
+                ", compressionLevel=" + compressionLevel +
+                ", mode=" + mode +
+                ", parallelism=" + parallelism +
+                ", parallelOutput=" + parallelOutput +
+                ", maxRowsPerFile=" + maxRowsPerFile +
+                ", maxBytesPerFile=" + maxBytesPerFile +
+                ", bypassCache=" + bypassCache +
+                '}';
+    }
+    
+    public static class Builder {
+        private ExportFormat format = ExportFormat.CSV;
+        private CompressionCodec compression = CompressionCodec.NONE;
+        private Integer compressionLevel;
+        private ExportMode mode = ExportMode.AUTO;
+        private Integer parallelism;
+        private ParallelOutput parallelOutput = ParallelOutput.MERGED;
+        private Long maxRowsPerFile;
+        private Long maxBytesPerFile;
+        private boolean bypassCache;
+        
+        public Builder format(ExportFormat format) {
+            this.format = format != null ? format : ExportFormat.CSV;
+            return this;
+        }
+        
+        public Builder compression(CompressionCodec compression) {
+            this.compression = compression != null ? compression : CompressionCodec.NONE;
+            return this;
+        }
+        
+        public Builder compressionLevel(Integer compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+        
+        public Builder mode(ExportMode mode) {
+            this.mode = mode != null ? mode : ExportMode.AUTO;
+            return this;
+        }
+        
+        /**
+         * Quantidade de faixas lidas em paralelo; null escolhe automaticamente
+         */
+        public Builder parallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+        
+        public Builder parallelOutput(ParallelOutput parallelOutput) {
+            this.parallelOutput = parallelOutput != null ? parallelOutput : ParallelOutput.MERGED;
+            return this;
+        }
+        
+        /**
+         * Divide a exportação em um arquivo a cada N registros; null não divide por registros
+         */
+        public Builder maxRowsPerFile(Long maxRowsPerFile) {
+            this.maxRowsPerFile = maxRowsPerFile;
+            return this;
+        }
+        
+        /**
+         * Divide a exportação em um arquivo a cada M bytes antes da compressão; null não divide por tamanho
+         */
+        public Builder maxBytesPerFile(Long maxBytesPerFile) {
+            this.maxBytesPerFile = maxBytesPerFile;
+            return this;
+        }
+        
+        /**
+         * Ignora o cache de resultados e gera a exportação de novo (o novo resultado substitui o do cache)
+         */
+        public Builder bypassCache(boolean bypassCache) {
+            this.bypassCache = bypassCache;
+            return this;
+        }
+        
+        /**
+         * Valida as opções já na requisição, antes de qualquer exportação ser iniciada
+         */
+        public ExportOptions build() {
+            if (compression != CompressionCodec.NONE && compressionLevel != null
+                    && !compression.isValidLevel(compressionLevel)) {
+                throw new IllegalArgumentException(String.format("Nível de compressão %s deve estar entre %d e %d",
+                        compression, compression.getMinLevel(), compression.getMaxLevel()));
+            }
+            if (mode == ExportMode.COPY && format != ExportFormat.CSV) {
+                throw new IllegalArgumentException("Modo COPY suporta apenas o formato CSV");
+            }
+            if (parallelism != null && parallelism < 1) {
+                throw new IllegalArgumentException("Paralelismo deve ser maior ou igual a 1");
+            }
+            if (parallelism != null && parallelism > 1
+                    && (mode == ExportMode.JPA || format != ExportFormat.CSV)) {
+                throw new IllegalArgumentException("Exportação paralela suporta apenas CSV via COPY");
+            }
+            if (maxRowsPerFile != null && maxRowsPerFile < 1) {
+                throw new IllegalArgumentException("Máximo de registros por arquivo deve ser maior ou igual a 1");
+            }
+            if (maxBytesPerFile != null && maxBytesPerFile < 1) {
+                throw new IllegalArgumentException("Máximo de bytes por arquivo deve ser maior ou igual a 1");
+            }
+            if ((maxRowsPerFile != null || maxBytesPerFile != null)
+                    && (mode == ExportMode.COPY || (parallelism != null && parallelism > 1))) {
+                throw new IllegalArgumentException("Divisão em arquivos não suportada no modo COPY nem na exportação paralela");
+            }
+            return new ExportOptions(this);
+        }
+    }
+}
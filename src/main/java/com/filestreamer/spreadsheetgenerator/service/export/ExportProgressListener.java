@@ -0,0 +1,20 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+
+/**
+ * Recebe o progresso de uma exportação em andamento, a cada lote escrito e ao final
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+    
+    /**
+     * Listener que ignora o progresso
+     */
+    ExportProgressListener NONE = (rowsExported, bytesWritten) -> { };
+    
+    /**
+     * @param rowsExported quantidade de registros escritos até o momento
+     * @param bytesWritten quantidade de bytes gerados até o momento, antes da compressão
+     */
+    void onProgress(long rowsExported, long bytesWritten);
+}
@@ -1,6 +1,7 @@
 package com.filestreamer.spreadsheetgenerator.service.export;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 
 /**
@@ -12,26 +13,43 @@ public class ExportResult {
     private final String fileUrl;
     private final long totalRecords;
     private final long fileSizeBytes;
+    private final long rawSizeBytes;
     private final long executionTimeMs;
     private final ExporterType exporterType;
     private final LocalDateTime timestamp;
     private final boolean success;
     private final String errorMessage;
+    private final List<String> partFiles;
+    private final String manifestPath;
+    private final String manifestUrl;
+    private final boolean cached;
     
-    // Construtor para sucesso
+    // Construtor para sucesso (sem compressão)
     public ExportResult(String fileName, String filePath, String fileUrl, 
                        long totalRecords, long fileSizeBytes, long executionTimeMs, 
                        ExporterType exporterType) {
+        this(fileName, filePath, fileUrl, totalRecords, fileSizeBytes, fileSizeBytes, executionTimeMs, exporterType);
+    }
+    
+    // Construtor para sucesso, com tamanho gravado (comprimido) e tamanho original
+    public ExportResult(String fileName, String filePath, String fileUrl, 
+                       long totalRecords, long fileSizeBytes, long rawSizeBytes, long executionTimeMs, 
+                       ExporterType exporterType) {
         this.fileName = fileName;
         this.filePath = filePath;
         this.fileUrl = fileUrl;
         this.totalRecords = totalRecords;
         this.fileSizeBytes = fileSizeBytes;
+        this.rawSizeBytes = rawSizeBytes;
         this.executionTimeMs = executionTimeMs;
         this.exporterType = exporterType;
         this.timestamp = LocalDateTime.now();
         this.success = true;
         this.errorMessage = null;
+        this.partFiles = List.of();
+        this.manifestPath = null;
+        this.manifestUrl = null;
+        this.cached = false;
     }
     
     // Construtor para erro
@@ -41,11 +59,84 @@ public class ExportResult {
         this.fileUrl = null;
         this.totalRecords = 0;
         this.fileSizeBytes = 0;
+        this.rawSizeBytes = 0;
         this.executionTimeMs = 0;
         this.exporterType = exporterType;
         this.timestamp = LocalDateTime.now();
         this.success = false;
         this.errorMessage = errorMessage;
+        this.partFiles = List.of();
+        this.manifestPath = null;
+        this.manifestUrl = null;
+        this.cached = false;
+    }
+    
+    // Construtor para exportação em várias partes
+    private ExportResult(String fileName, List<ExportResult> parts, long executionTimeMs, ExporterType exporterType) {
+        ExportResult firstPart = parts.get(0);
+        this.fileName = fileName;
+        this.filePath = firstPart.getFilePath();
+        this.fileUrl = firstPart.getFileUrl();
+        this.totalRecords = parts.stream().mapToLong(ExportResult::getTotalRecords).sum();
+        this.fileSizeBytes = parts.stream().mapToLong(ExportResult::getFileSizeBytes).sum();
+        this.rawSizeBytes = parts.stream().mapToLong(ExportResult::getRawSizeBytes).sum();
+        this.executionTimeMs = executionTimeMs;
+        this.exporterType = exporterType;
+        this.timestamp = LocalDateTime.now();
+        this.success = true;
+        this.errorMessage = null;
+        this.partFiles = parts.stream().map(ExportResult::getFilePath).toList();
+        this.manifestPath = null;
+        this.manifestUrl = null;
+        this.cached = false;
+    }
+    
+    // Construtor de cópia com a localização do manifesto e a origem (cache ou não)
+    private ExportResult(ExportResult source, String manifestPath, String manifestUrl, boolean cached) {
+        this.fileName = source.fileName;
+        this.filePath = source.filePath;
+        this.fileUrl = source.fileUrl;
+        this.totalRecords = source.totalRecords;
+        this.fileSizeBytes = source.fileSizeBytes;
+        this.rawSizeBytes = source.rawSizeBytes;
+        this.executionTimeMs = source.executionTimeMs;
+        this.exporterType = source.exporterType;
+        this.timestamp = source.timestamp;
+        this.success = source.success;
+        this.errorMessage = source.errorMessage;
+        this.partFiles = source.partFiles;
+        this.manifestPath = manifestPath;
+        this.manifestUrl = manifestUrl;
+        this.cached = cached;
+    }
+    
+    /**
+     * Resultado agregado de uma exportação gravada em várias partes independentes: soma
+     * registros e tamanhos, e o caminho e a URL apontam para a primeira parte
+     * 
+     * @param fileName nome lógico da exportação (sem o sufixo das partes)
+     * @param parts resultados das partes, todos com sucesso, na ordem das partes
+     */
+    public static ExportResult ofParts(String fileName, List<ExportResult> parts, long executionTimeMs,
+                                       ExporterType exporterType) {
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("Exportação em partes sem nenhuma parte");
+        }
+        return new ExportResult(fileName, parts, executionTimeMs, exporterType);
+    }
+    
+    /**
+     * Cópia deste resultado com a localização do manifesto JSON das partes
+     */
+    public ExportResult withManifest(String manifestPath, String manifestUrl) {
+        return new ExportResult(this, manifestPath, manifestUrl, cached);
+    }
+    
+    /**
+     * Cópia deste resultado indicando que foi reaproveitado do cache de exportações
+     */
+    public ExportResult asCached() {
+        return new ExportResult(this, manifestPath, manifestUrl, true);
     }
     
     // Getters
@@ -54,12 +145,34 @@ public class ExportResult {
     public String getFileUrl() { return fileUrl; }
     public long getTotalRecords() { return totalRecords; }
     public long getFileSizeBytes() { return fileSizeBytes; }
+    public long getRawSizeBytes() { return rawSizeBytes; }
     public long getExecutionTimeMs() { return executionTimeMs; }
     public ExporterType getExporterType() { return exporterType; }
     public LocalDateTime getTimestamp() { return timestamp; }
     public boolean isSuccess() { return success; }
     public String getErrorMessage() { return errorMessage; }
     
+    /**
+     * Caminhos das partes quando a exportação foi gravada em vários arquivos; vazio caso contrário
+     */
+    public List<String> getPartFiles() { return partFiles; }
+    
+    /**
+     * Caminho do manifesto das partes (registros, tamanho e checksum de cada uma), ou null
+     * quando a exportação não foi dividida em arquivos
+     */
+    public String getManifestPath() { return manifestPath; }
+    
+    /**
+     * URL do manifesto das partes, ou null quando a exportação não foi dividida em arquivos
+     */
+    public String getManifestUrl() { return manifestUrl; }
+    
+    /**
+     * Indica se o resultado veio do cache, apontando para um arquivo gerado anteriormente
+     */
+    public boolean isCached() { return cached; }
+    
     public String getFormattedFileSize() {
         if (fileSizeBytes < 1024) return fileSizeBytes + " B";
         if (fileSizeBytes < 1024 * 1024) return String.format("%.1f KB", fileSizeBytes / 1024.0);
@@ -67,6 +180,13 @@ public class ExportResult {
         return String.format("%.1f GB", fileSizeBytes / (1024.0 * 1024.0 * 1024.0));
     }
     
+    /**
+     * Razão entre o tamanho original e o gravado (1.0 sem compressão)
+     */
+    public double getCompressionRatio() {
+        return fileSizeBytes > 0 ? (double) rawSizeBytes / fileSizeBytes : 1.0;
+    }
+    
     public String getFormattedExecutionTime() {
         if (executionTimeMs < 1000) return executionTimeMs + "ms";
         if (executionTimeMs < 60000) return String.format("%.1fs", executionTimeMs / 1000.0);
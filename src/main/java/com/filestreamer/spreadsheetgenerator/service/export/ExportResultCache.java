@@ -0,0 +1,120 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+
+/**
+ * Cache em memória dos resultados de exportações bem-sucedidas, para que pedidos repetidos
+ * sobre os mesmos dados devolvam o arquivo já gerado em vez de exportar e enviar tudo de novo.
+ * <p>
+ * As entradas expiram após o TTL e, acima do limite de entradas, a usada há mais tempo é
+ * removida (LRU). Como a chave inclui a versão dos dados, qualquer alteração na tabela faz
+ * o próximo pedido gerar um arquivo novo. Nas exportações locais, a entrada é descartada se
+ * o arquivo não existir mais; nos destinos em nuvem o arquivo é considerado disponível.
+ */
+@Component
+public class ExportResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportResultCache.class);
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<ExportCacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public ExportResultCache(@Value("${EXPORT_CACHE_MAX_ENTRIES:100}") int maxEntries,
+                             @Value("${EXPORT_CACHE_TTL:1h}") Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    ExportResultCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Indica se o cache está ativo ({@code EXPORT_CACHE_MAX_ENTRIES} maior que zero e TTL positivo)
+     */
+    public boolean isEnabled() {
+        return maxEntries > 0 && ttl.isPositive();
+    }
+
+    /**
+     * Resultado em cache para a chave, se ainda válido e com o arquivo disponível
+     */
+    public synchronized Optional<ExportResult> get(ExportCacheKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        if (!artifactExists(entry.result())) {
+            logger.info("Arquivo em cache não existe mais, exportando de novo: {}", entry.result().getFilePath());
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.result().asCached());
+    }
+
+    /**
+     * Guarda o resultado de uma exportação bem-sucedida, removendo as entradas expiradas e,
+     * acima do limite, as usadas há mais tempo
+     */
+    public synchronized void put(ExportCacheKey key, ExportResult result) {
+        if (!isEnabled() || !result.isSuccess()) {
+            return;
+        }
+        Instant now = clock.instant();
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        entries.put(key, new Entry(result, now.plus(ttl)));
+
+        Iterator<Map.Entry<ExportCacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove todas as entradas
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static boolean artifactExists(ExportResult result) {
+        if (result.getExporterType() != ExporterType.LOCAL) {
+            return true;
+        }
+        if (!result.getPartFiles().isEmpty()) {
+            return result.getPartFiles().stream().allMatch(part -> Files.exists(Path.of(part)));
+        }
+        return result.getFilePath() != null && Files.exists(Path.of(result.getFilePath()));
+    }
+
+    private record Entry(ExportResult result, Instant expiresAt) {
+    }
+}
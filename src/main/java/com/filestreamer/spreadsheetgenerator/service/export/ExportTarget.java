@@ -0,0 +1,43 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.util.Locale;
+
+
+/**
+ * Destino de uma exportação com vários destinos: exportador, formato e compressão
+ */
+public record ExportTarget(ExporterType exporterType, ExportFormat format, CompressionCodec compression) {
+
+    public ExportTarget {
+        if (exporterType == null) {
+            throw new IllegalArgumentException("Tipo do exportador é obrigatório");
+        }
+        format = format != null ? format : ExportFormat.CSV;
+        compression = compression != null ? compression : CompressionCodec.NONE;
+    }
+
+    /**
+     * Lê um destino no formato {@code EXPORTADOR[:FORMATO[:COMPRESSAO]]}, ex.: {@code AWS_S3:CSV:GZIP}
+     */
+    public static ExportTarget parse(String value) {
+        String[] parts = value.trim().toUpperCase(Locale.ROOT).split(":");
+        if (parts.length > 3) {
+            throw new IllegalArgumentException("Destino inválido: " + value);
+        }
+        try {
+            return new ExportTarget(
+                    ExporterType.valueOf(parts[0]),
+                    parts.length > 1 ? ExportFormat.valueOf(parts[1]) : null,
+                    parts.length > 2 ? CompressionCodec.valueOf(parts[2]) : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Destino inválido: " + value, e);
+        }
+    }
+
+    /**
+     * Extensão do arquivo gerado neste destino, incluindo a da compressão (ex.: "csv.gz")
+     */
+    public String fileExtension() {
+        return compression.fileExtension(format);
+    }
+}
@@ -0,0 +1,124 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+
+/**
+ * Escrita das linhas exportadas num stream qualquer (arquivo, upload em nuvem ou resposta HTTP),
+ * no formato e com a compressão definidos na configuração
+ */
+public final class ExportWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExportWriter.class);
+    
+    private ExportWriter() {
+    }
+    
+    /**
+     * Escreve cabeçalho e linhas no stream de destino no formato da configuração,
+     * com flush após o cabeçalho e a cada lote. A compressão da configuração é aplicada
+     * entre o escritor de linhas e o destino. O listener de progresso da configuração é
+     * notificado a cada lote e ao final. Fecha o stream ao final.
+     *
+     * @param totalExported contador de registros escritos (atualizado durante a escrita)
+     * @return quantidade de bytes gerados antes da compressão
+     */
+    public static long write(Stream<String[]> dataStream, ExportConfig exportConfig, OutputStream outputStream,
+                             AtomicLong totalExported) throws IOException {
+        return write(dataStream.iterator(), exportConfig, outputStream, totalExported, 0, 0);
+    }
+    
+    /**
+     * Escreve uma parte de uma exportação dividida em arquivos: cabeçalho e linhas do iterador até
+     * atingir o máximo de registros ou de bytes por arquivo da configuração. As linhas seguintes
+     * ficam no iterador para a próxima parte. O tamanho é verificado após cada registro sobre os
+     * bytes já entregues pelo escritor de linhas, então a parte pode passar do limite em até um
+     * buffer do escritor. Fecha o stream ao final.
+     *
+     * @param totalExported contador de registros escritos nesta parte
+     * @return quantidade de bytes gerados antes da compressão
+     */
+    static long writePart(Iterator<String[]> rows, ExportConfig exportConfig, OutputStream outputStream,
+                          AtomicLong totalExported) throws IOException {
+        return write(rows, exportConfig, outputStream, totalExported,
+                exportConfig.getMaxRowsPerFile(), exportConfig.getMaxBytesPerFile());
+    }
+    
+    private static long write(Iterator<String[]> rows, ExportConfig exportConfig, OutputStream outputStream,
+                              AtomicLong totalExported, long maxRows, long maxBytes) throws IOException {
+        CountingOutputStream rawOutputStream = new CountingOutputStream(
+                exportConfig.getCompression().wrap(outputStream, exportConfig.getCompressionLevel()));
+        
+        try (RowWriter rowWriter = exportConfig.getFormat().newWriter(rawOutputStream, exportConfig)) {
+            // Escreve cabeçalho se fornecido; o flush entrega os primeiros bytes sem esperar o primeiro lote
+            if (exportConfig.getHeaders() != null) {
+                rowWriter.writeHeader(exportConfig.getHeaders());
+                rowWriter.flush();
+            }
+            
+            // Processa dados
+            while (rows.hasNext()) {
+                rowWriter.writeRow(rows.next());
+                
+                long count = totalExported.incrementAndGet();
+                
+                // Flush periódico para garantir streaming
+                if (count % exportConfig.getBatchSize() == 0) {
+                    logger.debug("Processados {} registros via streaming...", count);
+                    rowWriter.flush();
+                    exportConfig.getProgressListener().onProgress(count, rawOutputStream.getCount());
+                }
+                
+                if ((maxRows > 0 && count >= maxRows) || (maxBytes > 0 && rawOutputStream.getCount() >= maxBytes)) {
+                    break;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            logger.error("Erro ao processar registro: {}", e.getMessage(), e);
+            throw e.getCause();
+        }
+        
+        exportConfig.getProgressListener().onProgress(totalExported.get(), rawOutputStream.getCount());
+        return rawOutputStream.getCount();
+    }
+    
+    /**
+     * Escreve o cabeçalho com o encoder CSV da configuração e em seguida as linhas já
+     * codificadas da origem, aplicando a compressão da configuração. O listener de
+     * progresso é notificado ao final. Fecha o stream ao final.
+     *
+     * @param totalExported contador de registros escritos (atualizado ao final da cópia)
+     * @return quantidade de bytes gerados antes da compressão
+     */
+    public static long writeCsv(RawCsvSource source, ExportConfig exportConfig, OutputStream outputStream,
+                                AtomicLong totalExported) throws IOException {
+        if (exportConfig.getFormat() != ExportFormat.CSV) {
+            throw new IllegalArgumentException("Cópia direta suporta apenas o formato CSV");
+        }
+        
+        CountingOutputStream rawOutputStream = new CountingOutputStream(
+                exportConfig.getCompression().wrap(outputStream, exportConfig.getCompressionLevel()));
+        
+        try (rawOutputStream) {
+            if (exportConfig.getHeaders() != null) {
+                try (RowWriter headerWriter = exportConfig.getCsvEncoder().newWriter(StreamUtils.nonClosing(rawOutputStream))) {
+                    headerWriter.writeHeader(exportConfig.getHeaders());
+                }
+            }
+            
+            totalExported.set(source.copyTo(rawOutputStream));
+        }
+        
+        exportConfig.getProgressListener().onProgress(totalExported.get(), rawOutputStream.getCount());
+        return rawOutputStream.getCount();
+    }
+}
@@ -0,0 +1,221 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Exportação de uma única leitura para vários destinos ao mesmo tempo (tee): as linhas já
+ * formatadas são lidas uma vez na thread que chama e distribuídas em lotes para uma fila
+ * limitada por destino. Cada destino roda em uma virtual thread com seu exportador e seu
+ * formato. Quando a fila de um destino enche, a leitura espera (backpressure): o destino mais
+ * lento dita o ritmo e a memória fica limitada a {@code queueCapacity} lotes por destino.
+ * Um destino que falha deixa de receber lotes sem interromper os demais.
+ */
+final class FanOutExport {
+
+    private static final Logger logger = LoggerFactory.getLogger(FanOutExport.class);
+
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private FanOutExport() {
+    }
+
+    /**
+     * Destino da distribuição: exportador e configuração do arquivo gerado
+     */
+    record Sink(StreamExporter exporter, ExportConfig exportConfig) {}
+
+    /**
+     * @param rows linhas formatadas, consumidas uma única vez na thread que chama
+     * @param batchSize linhas por lote enviado às filas
+     * @param queueCapacity lotes em espera por destino
+     * @return um resultado por destino, na ordem dos destinos
+     */
+    static List<ExportResult> export(Stream<String[]> rows, List<Sink> sinks, int batchSize, int queueCapacity)
+            throws IOException {
+        List<SinkQueue> queues = new ArrayList<>();
+        List<Future<ExportResult>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Sink sink : sinks) {
+                SinkQueue queue = new SinkQueue(queueCapacity);
+                queues.add(queue);
+                results.add(executor.submit(() -> consume(sink, queue)));
+            }
+
+            try {
+                distribute(rows, queues, batchSize);
+            } catch (RuntimeException e) {
+                queues.forEach(SinkQueue::fail);
+                throw e;
+            }
+
+            List<ExportResult> exportResults = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                exportResults.add(await(results.get(i), sinks.get(i)));
+            }
+            return exportResults;
+        }
+    }
+
+    private static void distribute(Stream<String[]> rows, List<SinkQueue> queues, int batchSize)
+            throws InterruptedIOException {
+        List<String[]> batch = new ArrayList<>(batchSize);
+        Iterator<String[]> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize) {
+                publish(queues, batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            publish(queues, batch);
+        }
+        publish(queues, SinkQueue.END);
+    }
+
+    private static void publish(List<SinkQueue> queues, List<String[]> batch) throws InterruptedIOException {
+        try {
+            // Os lotes são compartilhados entre os destinos: nenhum escritor altera as linhas
+            for (SinkQueue queue : queues) {
+                queue.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queues.forEach(SinkQueue::fail);
+            throw new InterruptedIOException("Exportação para vários destinos interrompida");
+        }
+    }
+
+    private static ExportResult consume(Sink sink, SinkQueue queue) throws IOException {
+        try {
+            return sink.exporter().exportData(queue.stream(), sink.exportConfig());
+        } finally {
+            // Libera a leitura mesmo se o exportador terminou antes do fim das linhas
+            queue.close();
+        }
+    }
+
+    private static ExportResult await(Future<ExportResult> result, Sink sink) throws IOException {
+        StreamExporter exporter = sink.exporter();
+        try {
+            ExportResult exportResult = result.get();
+            if (!exportResult.isSuccess()) {
+                logger.error("Falha no destino {} ({}): {}", exporter.getType().getDisplayName(),
+                        sink.exportConfig().getFileName(), exportResult.getErrorMessage());
+            }
+            return exportResult;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação para vários destinos interrompida");
+        } catch (ExecutionException e) {
+            logger.error("Erro no destino {}: {}", exporter.getType().getDisplayName(), e.getCause().getMessage(),
+                    e.getCause());
+            return new ExportResult(exporter.getType(), "Erro durante exportação: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Fila limitada de lotes de um destino. A leitura desiste de entregar lotes a um destino
+     * já encerrado, para que um destino com falha não bloqueie os demais.
+     */
+    private static final class SinkQueue {
+
+        // Marcadores comparados por identidade (List.of() devolve sempre a mesma instância)
+        static final List<String[]> END = new ArrayList<>(0);
+        private static final List<String[]> FAILED = new ArrayList<>(0);
+
+        private final BlockingQueue<List<String[]>> batches;
+        private volatile boolean closed;
+
+        SinkQueue(int capacity) {
+            this.batches = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void put(List<String[]> batch) throws InterruptedException {
+            while (!closed) {
+                if (batches.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Sinaliza ao destino que a leitura falhou; a exportação do destino termina com erro
+         */
+        void fail() {
+            batches.clear();
+            batches.offer(FAILED);
+        }
+
+        void close() {
+            closed = true;
+            batches.clear();
+        }
+
+        Stream<String[]> stream() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new BatchIterator(), Spliterator.ORDERED),
+                    false);
+        }
+
+        private final class BatchIterator implements Iterator<String[]> {
+
+            private List<String[]> current = List.of();
+            private int position;
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                while (!finished && position == current.size()) {
+                    List<String[]> next = take();
+                    if (next == END) {
+                        finished = true;
+                    } else if (next == FAILED) {
+                        throw new IllegalStateException("Leitura dos produtos interrompida");
+                    } else {
+                        current = next;
+                        position = 0;
+                    }
+                }
+                return !finished;
+            }
+
+            @Override
+            public String[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.get(position++);
+            }
+
+            private List<String[]> take() {
+                try {
+                    return batches.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Exportação para vários destinos interrompida", e);
+                }
+            }
+        }
+    }
+}
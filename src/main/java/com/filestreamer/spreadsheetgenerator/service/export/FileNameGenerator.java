@@ -49,4 +49,34 @@ public class FileNameGenerator {
         String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
         return String.format("%s_%s_%s.%s", prefix, cleanFilter, timestamp, extension);
     }
+    
+    /**
+     * Nome de uma parte de uma exportação dividida em vários arquivos, com o número da
+     * parte antes da extensão (ex.: products_20250101_120000_part-00001.csv.gz)
+     * 
+     * @param fileName Nome do arquivo completo
+     * @param partNumber Número da parte, a partir de 1
+     * @return Nome do arquivo da parte
+     */
+    public static String partFileName(String fileName, int partNumber) {
+        int extensionStart = fileName.indexOf('.');
+        String suffix = String.format("_part-%05d", partNumber);
+        if (extensionStart < 0) {
+            return fileName + suffix;
+        }
+        return fileName.substring(0, extensionStart) + suffix + fileName.substring(extensionStart);
+    }
+    
+    /**
+     * Nome do manifesto de uma exportação dividida em vários arquivos, sem as extensões do
+     * arquivo (ex.: products_20250101_120000_manifest.json)
+     * 
+     * @param fileName Nome do arquivo completo
+     * @return Nome do arquivo do manifesto
+     */
+    public static String manifestFileName(String fileName) {
+        int extensionStart = fileName.indexOf('.');
+        String baseName = extensionStart < 0 ? fileName : fileName.substring(0, extensionStart);
+        return baseName + "_manifest.json";
+    }
 }
@@ -0,0 +1,117 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * OutputStream que envia os dados para o Google Cloud Storage usando upload composto
+ * paralelo: cada parte é gravada como um objeto temporário, com até {@code concurrency}
+ * partes em voo, e ao final as partes são combinadas no objeto de destino via compose.
+ * O compose aceita até 32 objetos por requisição, então exportações com mais partes são
+ * combinadas em níveis. Os objetos temporários são removidos ao final ou no cancelamento.
+ */
+public class GcsCompositeUploadOutputStream extends AbstractPartUploadOutputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(GcsCompositeUploadOutputStream.class);
+
+    static final int MAX_COMPOSE_SOURCES = 32;
+
+    private final Storage storage;
+    private final BlobInfo targetBlob;
+    private final String partPrefix;
+    private final Queue<String> temporaryObjects = new ConcurrentLinkedQueue<>();
+
+    public GcsCompositeUploadOutputStream(Storage storage, BlobInfo targetBlob, int partSize, int concurrency) {
+        super("gs://" + targetBlob.getBucket() + "/" + targetBlob.getName(), partSize, concurrency);
+        this.storage = storage;
+        this.targetBlob = targetBlob;
+        this.partPrefix = targetBlob.getName() + ".parts-" + UUID.randomUUID() + "/";
+    }
+
+    @Override
+    protected void initiateUpload() {
+        logger.info("Upload composto iniciado para {} (partes temporárias em {})", getTarget(), partPrefix);
+    }
+
+    @Override
+    protected String uploadPart(int partNumber, byte[] data, int length) {
+        String partName = partPrefix + String.format("part-%05d", partNumber);
+        temporaryObjects.add(partName);
+        storage.create(BlobInfo.newBuilder(targetBlob.getBucket(), partName).build(), data, 0, length);
+        return partName;
+    }
+
+    @Override
+    protected void completeUpload(List<UploadedPart> parts) {
+        try {
+            List<String> sources = parts.stream().map(UploadedPart::id).toList();
+
+            // Combina em níveis enquanto houver mais partes do que o compose aceita
+            int level = 0;
+            while (sources.size() > MAX_COMPOSE_SOURCES) {
+                List<String> composed = new ArrayList<>();
+                for (int i = 0; i < sources.size(); i += MAX_COMPOSE_SOURCES) {
+                    List<String> group = sources.subList(i, Math.min(i + MAX_COMPOSE_SOURCES, sources.size()));
+                    if (group.size() == 1) {
+                        composed.add(group.get(0));
+                        continue;
+                    }
+                    String intermediateName = partPrefix + String.format("compose-%d-%05d", level, i / MAX_COMPOSE_SOURCES);
+                    temporaryObjects.add(intermediateName);
+                    compose(group, BlobInfo.newBuilder(targetBlob.getBucket(), intermediateName).build());
+                    composed.add(intermediateName);
+                }
+                sources = composed;
+                level++;
+            }
+
+            compose(sources, targetBlob);
+            logger.info("Upload composto concluído para {}: {} partes, {} bytes", getTarget(), parts.size(), getBytesWritten());
+        } finally {
+            deleteTemporaryObjects();
+        }
+    }
+
+    @Override
+    protected void uploadSingleObject(byte[] data, int length) {
+        storage.create(targetBlob, data, 0, length);
+    }
+
+    @Override
+    protected void abortUpload() {
+        deleteTemporaryObjects();
+    }
+
+    private void compose(List<String> sources, BlobInfo target) {
+        storage.compose(Storage.ComposeRequest.newBuilder()
+                .addSource(sources)
+                .setTarget(target)
+                .build());
+    }
+
+    private void deleteTemporaryObjects() {
+        if (temporaryObjects.isEmpty()) {
+            return;
+        }
+        List<BlobId> blobIds = temporaryObjects.stream()
+                .map(name -> BlobId.of(targetBlob.getBucket(), name))
+                .toList();
+        temporaryObjects.clear();
+
+        try {
+            storage.delete(blobIds);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao remover partes temporárias de {}: {}", getTarget(), e.getMessage(), e);
+        }
+    }
+}
@@ -6,25 +6,25 @@ import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 import com.google.cloud.WriteChannel;
-import com.opencsv.CSVWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.nio.channels.Channels;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
 
 
 /**
- * Exportador genérico para Google Cloud Storage
+ * Exportador genérico para Google Cloud Storage.
+ * Com concorrência de upload maior que 1, usa upload composto paralelo;
+ * caso contrário, grava via WriteChannel (upload resumível).
  */
 @Component
-public class GenericGcpStreamExporter implements StreamExporter {
+public class GenericGcpStreamExporter extends AbstractStreamExporter {
     
     private static final Logger logger = LoggerFactory.getLogger(GenericGcpStreamExporter.class);
     
@@ -54,7 +54,7 @@ public class GenericGcpStreamExporter implements StreamExporter {
     }
     
     @Override
-    public ExportResult exportData(Stream<String[]> dataStream, ExportConfig exportConfig) throws IOException {
+    public ExportResult exportContent(ExportContent content, ExportConfig exportConfig) throws IOException {
         if (!isConfigured()) {
             logger.error("Exportador {} não está configurado.", getType().getDisplayName());
             return new ExportResult(getType(), "Exportador não configurado: " + getType().getDisplayName());
@@ -64,6 +64,7 @@ public class GenericGcpStreamExporter implements StreamExporter {
         
         long startTime = System.currentTimeMillis();
         AtomicLong totalExported = new AtomicLong(0);
+        ExportMetrics.Recording recording = getMetrics().start(getType(), exportConfig.getFormat());
         
         try {
             String objectName = buildObjectPath(exportConfig);
@@ -71,63 +72,54 @@ public class GenericGcpStreamExporter implements StreamExporter {
             BlobId blobId = BlobId.of(bucketName, objectName);
             BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
                     .setContentType(exportConfig.getContentType())
+                    .setContentEncoding(exportConfig.getContentEncoding())
                     .build();
             
-            // Usa WriteChannel para streaming ao GCS
-            try (WriteChannel writeChannel = getStorage().writer(blobInfo)) {
-                Writer writer = Channels.newWriter(writeChannel, StandardCharsets.UTF_8);
-                
-                try (CSVWriter csvWriter = new CSVWriter(writer)) {
-                    // Escreve cabeçalho se fornecido
-                    if (exportConfig.getHeaders() != null) {
-                        csvWriter.writeNext(exportConfig.getHeaders());
-                    }
-                    
-                    // Processa dados
-                    dataStream.forEach(row -> {
-                        try {
-                            csvWriter.writeNext(row);
-                            
-                            long count = totalExported.incrementAndGet();
-                            
-                            // Flush periódico para garantir streaming
-                            if (count % exportConfig.getBatchSize() == 0) {
-                                logger.info("Processados {} registros via streaming...", count);
-                                
-                                try {
-                                    csvWriter.flush();
-                                    writer.flush();
-                                } catch (IOException e) {
-                                    logger.error("Erro ao fazer flush durante streaming", e);
-                                }
-                            }
-                        } catch (Exception e) {
-                            logger.error("Erro ao processar registro: {}", e.getMessage(), e);
-                            throw new RuntimeException("Erro durante streaming", e);
-                        }
-                    });
-                    
-                    csvWriter.flush();
-                    writer.flush();
+            long fileSize;
+            long rawSize;
+            if (exportConfig.getUploadConcurrency() > 1) {
+                // Upload composto: partes enviadas em paralelo e combinadas ao final
+                GcsCompositeUploadOutputStream uploadStream = new GcsCompositeUploadOutputStream(
+                        getStorage(), blobInfo, exportConfig.getUploadPartSize(), exportConfig.getUploadConcurrency());
+                uploadStream.setPartUploadTimer(getMetrics().partUploadTimer(getType()));
+                try {
+                    // O compose só roda depois da última linha; uma falha no meio descarta as partes
+                    rawSize = content.writeTo(recording.meter(StreamUtils.nonClosing(uploadStream), totalExported),
+                            totalExported);
+                } catch (Exception e) {
+                    uploadStream.abort();
+                    throw e;
                 }
+                uploadStream.close();
+                fileSize = uploadStream.getBytesWritten();
+            } else {
+                // Usa WriteChannel para streaming ao GCS (upload resumível sequencial). Fechar o canal
+                // finaliza o objeto, então isso só acontece depois da última linha; numa falha o canal
+                // fica aberto e a sessão de upload expira sem criar o objeto
+                WriteChannel writeChannel = getStorage().writer(blobInfo);
+                rawSize = content.writeTo(recording.meter(StreamUtils.nonClosing(Channels.newOutputStream(writeChannel)),
+                        totalExported), totalExported);
+                writeChannel.close();
+                
+                // Obtém informações do arquivo criado
+                BlobInfo createdBlob = getStorage().get(blobId);
+                fileSize = createdBlob != null ? createdBlob.getSize() : 0;
             }
             
             long endTime = System.currentTimeMillis();
             long executionTime = endTime - startTime;
             
-            // Obtém informações do arquivo criado
-            BlobInfo createdBlob = getStorage().get(blobId);
-            long fileSize = createdBlob != null ? createdBlob.getSize() : 0;
-            
             logger.info("Exportação streaming {} concluída! {} registros exportados em {}ms para gs://{}/{}", 
                        getType().getDisplayName(), totalExported.get(), executionTime, bucketName, objectName);
             
             String fileUrl = generateFileUrl(objectName);
             
+            recording.success();
             return new ExportResult(exportConfig.getFileName(), objectName, fileUrl, totalExported.get(), 
-                                  fileSize, executionTime, getType());
+                                  fileSize, rawSize, executionTime, getType());
             
         } catch (Exception e) {
+            recording.failure(e);
             logger.error("Erro durante exportação streaming {}: {}", getType().getDisplayName(), e.getMessage(), e);
             return new ExportResult(getType(), "Erro durante exportação streaming: " + e.getMessage());
         }
@@ -1,22 +1,20 @@
 package com.filestreamer.spreadsheetgenerator.service.export;
 
-import com.opencsv.CSVWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
 
 
 @Component
-public class GenericLocalStreamExporter implements StreamExporter {
+public class GenericLocalStreamExporter extends AbstractStreamExporter {
     
     private static final Logger logger = LoggerFactory.getLogger(GenericLocalStreamExporter.class);
     
@@ -24,11 +22,12 @@ public class GenericLocalStreamExporter implements StreamExporter {
     private String defaultExportPath;
     
     @Override
-    public ExportResult exportData(Stream<String[]> dataStream, ExportConfig exportConfig) throws IOException {
+    public ExportResult exportContent(ExportContent content, ExportConfig exportConfig) throws IOException {
         logger.info("Iniciando exportação streaming {} para arquivo: {}", getType().getDisplayName(), exportConfig.getFileName());
         
         long startTime = System.currentTimeMillis();
         AtomicLong totalExported = new AtomicLong(0);
+        ExportMetrics.Recording recording = getMetrics().start(getType(), exportConfig.getFormat());
         
         try {
             Path filePath = buildFilePath(exportConfig);
@@ -40,41 +39,17 @@ public class GenericLocalStreamExporter implements StreamExporter {
                 logger.info("Diretório criado: {}", directory);
             }
             
-            // Usa FileWriter para streaming direto ao arquivo
-            try (FileWriter fileWriter = new FileWriter(filePath.toFile());
-                 CSVWriter csvWriter = new CSVWriter(fileWriter)) {
-                
-                // Escreve cabeçalho se fornecido
-                if (exportConfig.getHeaders() != null) {
-                    csvWriter.writeNext(exportConfig.getHeaders());
-                }
-                
-                // Processa dados
-                dataStream.forEach(row -> {
-                    try {
-                        csvWriter.writeNext(row);
-                        
-                        long count = totalExported.incrementAndGet();
-                        
-                        // Flush periódico para garantir streaming
-                        if (count % exportConfig.getBatchSize() == 0) {
-                            logger.info("Processados {} registros via streaming...", count);
-                            
-                            try {
-                                csvWriter.flush();
-                                fileWriter.flush();
-                            } catch (IOException e) {
-                                logger.error("Erro ao fazer flush durante streaming", e);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.error("Erro ao processar registro: {}", e.getMessage(), e);
-                        throw new RuntimeException("Erro durante streaming", e);
-                    }
-                });
-                
-                csvWriter.flush();
-                fileWriter.flush();
+            // Escreve em streaming num temporário do mesmo diretório, movido para o nome final só depois
+            // da última linha; uma falha no meio não deixa arquivo truncado no lugar do resultado
+            Path partialPath = Files.createTempFile(directory, "." + filePath.getFileName(), ".partial");
+            long rawSize;
+            try {
+                rawSize = content.writeTo(recording.meter(Files.newOutputStream(partialPath), totalExported),
+                        totalExported);
+                Files.move(partialPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) {
+                Files.deleteIfExists(partialPath);
+                throw e;
             }
             
             long endTime = System.currentTimeMillis();
@@ -86,10 +61,12 @@ public class GenericLocalStreamExporter implements StreamExporter {
             
             String fileUrl = filePath.toString();
             
+            recording.success();
             return new ExportResult(exportConfig.getFileName(), filePath.toString(), fileUrl, totalExported.get(), 
-                                  fileSize, executionTime, getType());
+                                  fileSize, rawSize, executionTime, getType());
             
         } catch (Exception e) {
+            recording.failure(e);
             logger.error("Erro durante exportação streaming {}: {}", getType().getDisplayName(), e.getMessage(), e);
             return new ExportResult(getType(), "Erro durante exportação streaming: " + e.getMessage());
         }
@@ -1,30 +1,26 @@
 package com.filestreamer.spreadsheetgenerator.service.export;
 
-import com.opencsv.CSVWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
 
 
 /**
- * Exportador para Amazon S3
+ * Exportador para Amazon S3.
+ * Os dados são enviados em partes via multipart upload enquanto o stream é lido,
+ * sem manter o arquivo inteiro em memória.
  */
 @Component
-public class GenericS3StreamExporter implements StreamExporter {
+public class GenericS3StreamExporter extends AbstractStreamExporter {
     
     private static final Logger logger = LoggerFactory.getLogger(GenericS3StreamExporter.class);
     
@@ -59,7 +55,7 @@ public class GenericS3StreamExporter implements StreamExporter {
     }
     
     @Override
-    public ExportResult exportData(Stream<String[]> dataStream, ExportConfig exportConfig) throws IOException {
+    public ExportResult exportContent(ExportContent content, ExportConfig exportConfig) throws IOException {
         if (!isConfigured()) {
             logger.error("Exportador {} não configurado.", getType().getDisplayName());
             return new ExportResult(getType(), "Exportador não configurado: " + getType().getDisplayName());
@@ -69,73 +65,46 @@ public class GenericS3StreamExporter implements StreamExporter {
         
         long startTime = System.currentTimeMillis();
         AtomicLong totalExported = new AtomicLong(0);
+        ExportMetrics.Recording recording = getMetrics().start(getType(), exportConfig.getFormat());
         
         try {
             String s3Key = buildS3Key(exportConfig);
             
-            // Usa ByteArrayOutputStream com buffer
-            try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                 OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-                 CSVWriter csvWriter = new CSVWriter(writer)) {
-                
-                // Escrever cabeçalho se fornecido
-                if (exportConfig.getHeaders() != null) {
-                    csvWriter.writeNext(exportConfig.getHeaders());
-                }
-                
-                // Processa os dados
-                dataStream.forEach(row -> {
-                    try {
-                        csvWriter.writeNext(row);
-                        
-                        long count = totalExported.incrementAndGet();
-                        
-                        // Log progresso a cada lote
-                        if (count % exportConfig.getBatchSize() == 0) {
-                            logger.info("Processados {} registros via streaming...", count);
-                            
-                            try {
-                                csvWriter.flush();
-                                writer.flush();
-                            } catch (IOException e) {
-                                logger.error("Erro ao fazer flush durante streaming", e);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.error("Erro ao processar registro: {}", e.getMessage(), e);
-                        throw new RuntimeException("Erro durante streaming", e);
-                    }
-                });
-                
-                csvWriter.flush();
-                writer.flush();
-                
-                // Upload usando o conteúdo do buffer
-                byte[] csvBytes = outputStream.toByteArray();
-                
-                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Key)
-                        .contentType(exportConfig.getContentType())
-                        .contentLength((long) csvBytes.length)
-                        .build();
-                
-                getS3Client().putObject(putObjectRequest, RequestBody.fromBytes(csvBytes));
-                
-                long endTime = System.currentTimeMillis();
-                long executionTime = endTime - startTime;
-                long fileSize = csvBytes.length;
-                
-                logger.info("Exportação streaming {} concluída! {} registros exportados em {}ms para s3://{}/{}", 
-                           getType().getDisplayName(), totalExported.get(), executionTime, bucketName, s3Key);
-                
-                String fileUrl = generateFileUrl(s3Key);
-                
-                return new ExportResult(exportConfig.getFileName(), s3Key, fileUrl, totalExported.get(), 
-                                      fileSize, executionTime, getType());
+            // Envia as partes para o S3 à medida que são preenchidas (multipart upload paralelo)
+            S3MultipartUploadOutputStream uploadStream = new S3MultipartUploadOutputStream(
+                    getS3Client(), bucketName, s3Key, exportConfig.getContentType(), exportConfig.getContentEncoding(),
+                    exportConfig.getUploadPartSize(), exportConfig.getUploadConcurrency());
+            uploadStream.setPartUploadTimer(getMetrics().partUploadTimer(getType()));
+            
+            long rawSize;
+            try {
+                // A escrita recebe o stream sem o fechamento: o upload só é completado depois da última
+                // linha, e uma falha no meio descarta as partes em vez de gravar um objeto truncado
+                rawSize = content.writeTo(recording.meter(StreamUtils.nonClosing(uploadStream), totalExported),
+                        totalExported);
+            } catch (Exception e) {
+                uploadStream.abort();
+                throw e;
             }
+            // Envia a última parte e completa o upload
+            uploadStream.close();
+            
+            long endTime = System.currentTimeMillis();
+            long executionTime = endTime - startTime;
+            long fileSize = uploadStream.getBytesWritten();
+            
+            logger.info("Exportação streaming {} concluída! {} registros exportados em {}ms para s3://{}/{} ({} partes)", 
+                       getType().getDisplayName(), totalExported.get(), executionTime, bucketName, s3Key,
+                       uploadStream.getUploadedParts());
+            
+            String fileUrl = generateFileUrl(s3Key);
+            
+            recording.success();
+            return new ExportResult(exportConfig.getFileName(), s3Key, fileUrl, totalExported.get(), 
+                                  fileSize, rawSize, executionTime, getType());
             
         } catch (Exception e) {
+            recording.failure(e);
             logger.error("Erro durante exportação streaming {}: {}", getType().getDisplayName(), e.getMessage(), e);
             return new ExportResult(getType(), "Erro durante exportação streaming: " + e.getMessage());
         }
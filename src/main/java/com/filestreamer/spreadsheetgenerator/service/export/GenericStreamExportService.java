@@ -1,16 +1,31 @@
 package com.filestreamer.spreadsheetgenerator.service.export;
 
-import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.model.ExportWatermark;
+import com.filestreamer.spreadsheetgenerator.repository.ExportWatermarkRepository;
+import com.filestreamer.spreadsheetgenerator.repository.ProductCopyRepository;
+import com.filestreamer.spreadsheetgenerator.repository.ProductDataVersion;
+import com.filestreamer.spreadsheetgenerator.repository.ProductExportRow;
 import com.filestreamer.spreadsheetgenerator.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -23,46 +38,140 @@ public class GenericStreamExportService {
     
     private static final Logger logger = LoggerFactory.getLogger(GenericStreamExportService.class);
     
+    /**
+     * Tag de exportador das métricas do download direto na resposta HTTP
+     */
+    private static final String DIRECT_DOWNLOAD = "HTTP";
+    
+    /**
+     * Nomes aceitos para definições de exportação incremental; também entram no nome do arquivo
+     */
+    private static final Pattern DEFINITION_NAME = Pattern.compile("[A-Za-z0-9_-]{1,100}");
+    
     private final ProductRepository productRepository;
-    private final ProductDataFormatter productFormatter;
+    private final ProductCopyRepository productCopyRepository;
+    private final ParallelCopyExportService parallelCopyExportService;
+    private final ProductExportRowFormatter productFormatter;
     private final FileNameGenerator fileNameGenerator;
     private final GenericLocalStreamExporter localExporter;
     private final GenericS3StreamExporter s3Exporter;
     private final GenericGcpStreamExporter gcpExporter;
+    private final ExportMetrics metrics;
+    private final ExportResultCache resultCache;
+    private final ExportWatermarkRepository watermarkRepository;
+    
+    /**
+     * Quantidade de partes enviadas em paralelo nos uploads para nuvem
+     */
+    @Value("${EXPORT_UPLOAD_CONCURRENCY:4}")
+    private int uploadConcurrency = 4;
+    
+    /**
+     * Lotes de linhas em espera por destino na exportação para vários destinos
+     */
+    @Value("${EXPORT_FANOUT_QUEUE_BATCHES:8}")
+    private int fanOutQueueBatches = 8;
+    
+    /**
+     * Atraso das exportações incrementais em relação ao relógio: produtos alterados há menos
+     * tempo que isso ficam para a próxima execução. No PostgreSQL o limite também recua para
+     * antes da transação de escrita aberta mais antiga ({@link ProductCopyRepository#findDeltaCutoff}),
+     * e a folga só precisa cobrir o tempo entre o início de uma transação e sua primeira escrita;
+     * nos demais bancos a folga precisa ser maior que a transação de escrita mais longa
+     * (ex.: um bloco de IMPORT_CHUNK_SIZE linhas), senão linhas confirmadas depois podem ser puladas
+     */
+    @Value("${EXPORT_DELTA_SAFETY_LAG:5s}")
+    private Duration deltaSafetyLag = Duration.ofSeconds(5);
     
     public GenericStreamExportService(ProductRepository productRepository,
-                                    ProductDataFormatter productFormatter,
+                                    ProductCopyRepository productCopyRepository,
+                                    ParallelCopyExportService parallelCopyExportService,
+                                    ProductExportRowFormatter productFormatter,
                                     FileNameGenerator fileNameGenerator,
                                     GenericLocalStreamExporter localExporter,
                                     GenericS3StreamExporter s3Exporter,
-                                    GenericGcpStreamExporter gcpExporter) {
+                                    GenericGcpStreamExporter gcpExporter,
+                                    ExportMetrics metrics,
+                                    ExportResultCache resultCache,
+                                    ExportWatermarkRepository watermarkRepository) {
         this.productRepository = productRepository;
+        this.productCopyRepository = productCopyRepository;
+        this.parallelCopyExportService = parallelCopyExportService;
         this.productFormatter = productFormatter;
         this.fileNameGenerator = fileNameGenerator;
         this.localExporter = localExporter;
         this.s3Exporter = s3Exporter;
         this.gcpExporter = gcpExporter;
+        this.metrics = metrics;
+        this.resultCache = resultCache;
+        this.watermarkRepository = watermarkRepository;
     }
     
     /**
-     * Exporta todos os produtos usando o exportador especificado
+     * Exporta todos os produtos usando o exportador especificado, em CSV
      */
     @Transactional(readOnly = true)
     public ExportResult exportAllProducts(ExporterType exporterType, String basePath) throws IOException {
-        logger.info("Iniciando exportação genérica de todos os produtos usando {}", exporterType.getDisplayName());
+        return exportAllProducts(exporterType, basePath, ExportOptions.defaults());
+    }
+    
+    /**
+     * Exporta todos os produtos usando o exportador e as opções especificados
+     */
+    @Transactional(readOnly = true)
+    public ExportResult exportAllProducts(ExporterType exporterType, String basePath, ExportOptions options) throws IOException {
+        return exportAllProducts(exporterType, basePath, options, ExportProgressListener.NONE);
+    }
+    
+    /**
+     * Exporta todos os produtos usando o exportador e as opções especificados,
+     * notificando o progresso a cada lote
+     */
+    @Transactional(readOnly = true)
+    public ExportResult exportAllProducts(ExporterType exporterType, String basePath, ExportOptions options,
+                                          ExportProgressListener progressListener) throws IOException {
+        logger.info("Iniciando exportação genérica de todos os produtos usando {} ({})", 
+                   exporterType.getDisplayName(), options);
         
+        return cached(exporterType, basePath, "all", options,
+                () -> measured(exporterType, options, () -> doExportAllProducts(exporterType, basePath, options,
+                                                                                progressListener)));
+    }
+    
+    private ExportResult doExportAllProducts(ExporterType exporterType, String basePath, ExportOptions options,
+                                             ExportProgressListener progressListener) throws IOException {
         StreamExporter exporter = getExporter(exporterType);
         validateExporter(exporter);
         
         // Configura exportação
         ExportConfig exportConfig = ExportConfig.builder()
-                .fileName(fileNameGenerator.generateCsvFileName("products_export"))
+                .fileName(fileNameGenerator.generateFileName("products_export", options.getFileExtension()))
                 .basePath(basePath)
+                .format(options.getFormat())
+                .compression(options.getCompression())
+                .compressionLevel(options.getCompressionLevel())
                 .headers(productFormatter.getHeaders())
                 .batchSize(1000)
+                .uploadConcurrency(uploadConcurrency)
+                .progressListener(progressListener)
+                .maxRowsPerFile(options.getMaxRowsPerFile() != null ? options.getMaxRowsPerFile() : 0)
+                .maxBytesPerFile(options.getMaxBytesPerFile() != null ? options.getMaxBytesPerFile() : 0)
                 .build();
         
-        try (Stream<Product> productStream = productRepository.findAllByOrderByCreatedAtStream()) {
+        if (useCopy(options)) {
+            int parallelism = parallelCopyExportService.resolveParallelism(options.getParallelism());
+            if (parallelism > 1) {
+                metrics.recordRequest(exporterType, options.getFormat(), "parallel_copy");
+                return parallelCopyExportService.exportAllProducts(exporter, exportConfig, parallelism,
+                                                                   options.getParallelOutput());
+            }
+            logger.info("Exportando via COPY do PostgreSQL");
+            metrics.recordRequest(exporterType, options.getFormat(), "copy");
+            return exporter.exportContent(copyContent(productCopyRepository::copyAllProducts, exportConfig), exportConfig);
+        }
+        
+        metrics.recordRequest(exporterType, options.getFormat(), "jpa");
+        try (Stream<ProductExportRow> productStream = productRepository.findAllExportRowsOrderByCreatedAtStream()) {
             // Converte produtos para dados formatados
             Stream<String[]> dataStream = productFormatter.formatToRows(productStream);
             
@@ -71,25 +180,109 @@ public class GenericStreamExportService {
     }
     
     /**
-     * Exporta produtos filtrados por preço mínimo usando o exportador especificado
+     * Exporta todos os produtos para vários destinos (exportador, formato e compressão) com uma
+     * única leitura da tabela: cada produto é formatado uma vez e as linhas são distribuídas para
+     * os destinos em paralelo, com fila limitada por destino
+     * 
+     * @return um resultado por destino, na ordem informada
+     */
+    @Transactional(readOnly = true)
+    public List<ExportResult> exportAllProductsToTargets(List<ExportTarget> targets, String basePath) throws IOException {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um destino");
+        }
+        if (new HashSet<>(targets).size() != targets.size()) {
+            throw new IllegalArgumentException("Destinos repetidos");
+        }
+        logger.info("Iniciando exportação de todos os produtos para {} destinos: {}", targets.size(), targets);
+        
+        List<FanOutExport.Sink> sinks = new ArrayList<>();
+        for (ExportTarget target : targets) {
+            StreamExporter exporter = getExporter(target.exporterType());
+            validateExporter(exporter);
+            
+            ExportConfig exportConfig = ExportConfig.builder()
+                    .fileName(fileNameGenerator.generateFileName("products_export", target.fileExtension()))
+                    .basePath(basePath)
+                    .format(target.format())
+                    .compression(target.compression())
+                    .headers(productFormatter.getHeaders())
+                    .batchSize(1000)
+                    .uploadConcurrency(uploadConcurrency)
+                    .build();
+            sinks.add(new FanOutExport.Sink(exporter, exportConfig));
+        }
+        targets.forEach(target -> metrics.recordRequest(target.exporterType(), target.format(), "fanout"));
+        
+        try (Stream<ProductExportRow> productStream = productRepository.findAllExportRowsOrderByCreatedAtStream()) {
+            return FanOutExport.export(productFormatter.formatToRows(productStream), sinks, 1000, fanOutQueueBatches);
+        }
+    }
+    
+    /**
+     * Exporta produtos filtrados por preço mínimo usando o exportador especificado, em CSV
      */
     @Transactional(readOnly = true)
     public ExportResult exportProductsByMinPrice(ExporterType exporterType, BigDecimal minPrice, String basePath) throws IOException {
-        logger.info("Iniciando exportação genérica de produtos com preço >= {} usando {}", 
-                   minPrice, exporterType.getDisplayName());
+        return exportProductsByMinPrice(exporterType, minPrice, basePath, ExportOptions.defaults());
+    }
+    
+    /**
+     * Exporta produtos filtrados por preço mínimo usando o exportador e as opções especificados
+     */
+    @Transactional(readOnly = true)
+    public ExportResult exportProductsByMinPrice(ExporterType exporterType, BigDecimal minPrice, String basePath,
+                                                 ExportOptions options) throws IOException {
+        return exportProductsByMinPrice(exporterType, minPrice, basePath, options, ExportProgressListener.NONE);
+    }
+    
+    /**
+     * Exporta produtos filtrados por preço mínimo usando o exportador e as opções especificados,
+     * notificando o progresso a cada lote
+     */
+    @Transactional(readOnly = true)
+    public ExportResult exportProductsByMinPrice(ExporterType exporterType, BigDecimal minPrice, String basePath,
+                                                 ExportOptions options, ExportProgressListener progressListener) throws IOException {
+        logger.info("Iniciando exportação genérica de produtos com preço >= {} usando {} ({})", 
+                   minPrice, exporterType.getDisplayName(), options);
         
+        return cached(exporterType, basePath, "price_min=" + minPrice.stripTrailingZeros().toPlainString(), options,
+                () -> measured(exporterType, options, () -> doExportProductsByMinPrice(exporterType, minPrice, basePath,
+                                                                                       options, progressListener)));
+    }
+    
+    private ExportResult doExportProductsByMinPrice(ExporterType exporterType, BigDecimal minPrice, String basePath,
+                                                    ExportOptions options, ExportProgressListener progressListener)
+            throws IOException {
         StreamExporter exporter = getExporter(exporterType);
         validateExporter(exporter);
         
         // Configura exportação com nome específico para filtro
         ExportConfig exportConfig = ExportConfig.builder()
-                .fileName(fileNameGenerator.generateFilteredFileName("products", "price_min_" + minPrice, "csv"))
+                .fileName(fileNameGenerator.generateFilteredFileName("products", "price_min_" + minPrice, 
+                                                                     options.getFileExtension()))
                 .basePath(basePath)
+                .format(options.getFormat())
+                .compression(options.getCompression())
+                .compressionLevel(options.getCompressionLevel())
                 .headers(productFormatter.getHeaders())
                 .batchSize(1000)
+                .uploadConcurrency(uploadConcurrency)
+                .progressListener(progressListener)
+                .maxRowsPerFile(options.getMaxRowsPerFile() != null ? options.getMaxRowsPerFile() : 0)
+                .maxBytesPerFile(options.getMaxBytesPerFile() != null ? options.getMaxBytesPerFile() : 0)
                 .build();
         
-        try (Stream<Product> productStream = productRepository.findByPriceGreaterThanEqualStream(minPrice)) {
+        if (useCopy(options)) {
+            logger.info("Exportando via COPY do PostgreSQL");
+            metrics.recordRequest(exporterType, options.getFormat(), "copy");
+            return exporter.exportContent(copyContent(
+                    outputStream -> productCopyRepository.copyProductsByMinPrice(minPrice, outputStream), exportConfig),
+                    exportConfig);
+        }
+        
+        metrics.recordRequest(exporterType, options.getFormat(), "jpa");
+        try (Stream<ProductExportRow> productStream = productRepository.findExportRowsByPriceGreaterThanEqualStream(minPrice)) {
             // Converte produtos para dados formatados
             Stream<String[]> dataStream = productFormatter.formatToRows(productStream);
             
@@ -97,6 +290,120 @@ public class GenericStreamExportService {
         }
     }
     
+    /**
+     * Exporta apenas os produtos alterados desde a última execução bem-sucedida da definição
+     * informada, em ordem de {@code (updated_at, id)}. A marca d'água da definição avança para
+     * o último produto exportado na mesma transação da leitura, e só se o exportador tiver
+     * sucesso; se a exportação falhar, a próxima execução repete o mesmo intervalo. A primeira
+     * execução de uma definição exporta todos os produtos.
+     * <p>
+     * Lê sempre pelo JPA: o COPY e a leitura em faixas paralelas não preservam a ordem usada
+     * pela marca d'água.
+     * 
+     * @param definition Nome da definição, que identifica a marca d'água e entra no nome do arquivo
+     */
+    @Transactional
+    public ExportResult exportChangedProducts(ExporterType exporterType, String definition, String basePath,
+                                              ExportOptions options) throws IOException {
+        if (definition == null || !DEFINITION_NAME.matcher(definition).matches()) {
+            throw new IllegalArgumentException(
+                    "Definição deve ter de 1 a 100 caracteres entre letras, números, '_' e '-'");
+        }
+        if (options.getMode() == ExportMode.COPY) {
+            throw new IllegalArgumentException("Exportação incremental não suporta o modo COPY");
+        }
+        logger.info("Iniciando exportação incremental '{}' usando {} ({})", 
+                   definition, exporterType.getDisplayName(), options);
+        
+        return measured(exporterType, options, () -> doExportChangedProducts(exporterType, definition, basePath, options));
+    }
+    
+    private ExportResult doExportChangedProducts(ExporterType exporterType, String definition, String basePath,
+                                                 ExportOptions options) throws IOException {
+        StreamExporter exporter = getExporter(exporterType);
+        validateExporter(exporter);
+        
+        ExportWatermark watermark = watermarkRepository.findById(definition)
+                .orElseGet(() -> new ExportWatermark(definition));
+        LocalDateTime updatedUntil = productCopyRepository.findDeltaCutoff(deltaSafetyLag)
+                .orElseGet(() -> LocalDateTime.now().minus(deltaSafetyLag));
+        
+        ExportConfig exportConfig = ExportConfig.builder()
+                .fileName(fileNameGenerator.generateFilteredFileName("products_delta", definition,
+                                                                     options.getFileExtension()))
+                .basePath(basePath)
+                .format(options.getFormat())
+                .compression(options.getCompression())
+                .compressionLevel(options.getCompressionLevel())
+                .headers(productFormatter.getHeaders())
+                .batchSize(1000)
+                .uploadConcurrency(uploadConcurrency)
+                .maxRowsPerFile(options.getMaxRowsPerFile() != null ? options.getMaxRowsPerFile() : 0)
+                .maxBytesPerFile(options.getMaxBytesPerFile() != null ? options.getMaxBytesPerFile() : 0)
+                .build();
+        
+        metrics.recordRequest(exporterType, options.getFormat(), "delta");
+        AtomicReference<ProductExportRow> lastRow = new AtomicReference<>();
+        ExportResult result;
+        try (Stream<ProductExportRow> productStream = productRepository.findExportRowsChangedSinceStream(
+                watermark.getLastUpdatedAt(), watermark.getLastId(), updatedUntil)) {
+            result = exporter.exportData(productFormatter.formatToRows(productStream.peek(lastRow::set)), exportConfig);
+        }
+        
+        ProductExportRow last = lastRow.get();
+        if (result.isSuccess() && last != null) {
+            watermark.advance(last.updatedAt(), last.id(), result.getTotalRecords());
+            watermarkRepository.save(watermark);
+            logger.info("Marca d'água de '{}' avançada para ({}, {})", definition, last.updatedAt(), last.id());
+        }
+        return result;
+    }
+    
+    /**
+     * Monta a configuração do download direto de todos os produtos. Chamado antes de a
+     * resposta começar a ser enviada, para que opções inválidas ainda possam virar erro 400.
+     */
+    public ExportConfig createAllProductsDownloadConfig(ExportOptions options) {
+        return ExportConfig.builder()
+                .fileName(fileNameGenerator.generateFileName("products_export", options.getFileExtension()))
+                .format(options.getFormat())
+                .compression(options.getCompression())
+                .compressionLevel(options.getCompressionLevel())
+                .headers(productFormatter.getHeaders())
+                .batchSize(1000)
+                .build();
+    }
+    
+    /**
+     * Escreve todos os produtos direto no stream informado (ex.: resposta HTTP), sem arquivo
+     * intermediário. O stream não é fechado.
+     * 
+     * @return Quantidade de registros escritos
+     */
+    @Transactional(readOnly = true)
+    public long streamAllProducts(OutputStream outputStream, ExportConfig exportConfig) throws IOException {
+        logger.info("Iniciando download direto de todos os produtos: {}", exportConfig.getFileName());
+        
+        long startTime = System.currentTimeMillis();
+        AtomicLong totalExported = new AtomicLong(0);
+        ExportMetrics.Recording recording = metrics.start(DIRECT_DOWNLOAD, exportConfig.getFormat());
+        
+        try (Stream<ProductExportRow> productStream = productRepository.findAllExportRowsOrderByCreatedAtStream()) {
+            Stream<String[]> dataStream = productFormatter.formatToRows(productStream);
+            
+            long rawSize = ExportWriter.write(dataStream, exportConfig,
+                    recording.meter(StreamUtils.nonClosing(outputStream), totalExported), totalExported);
+            
+            logger.info("Download direto concluído! {} registros ({} bytes) enviados em {}ms", 
+                       totalExported.get(), rawSize, System.currentTimeMillis() - startTime);
+            recording.success();
+            return totalExported.get();
+        } catch (IOException | RuntimeException e) {
+            recording.failure(e);
+            throw e;
+        }
+    }
+    
     /**
      * Exporta dados genéricos usando configuração customizada
      * 
@@ -142,6 +449,80 @@ public class GenericStreamExportService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Decide se a exportação usa o COPY do PostgreSQL: sempre no modo COPY (que exige
+     * PostgreSQL) e, no modo AUTO, para CSV sem divisão em arquivos quando o banco suporta
+     * (a divisão em partes é feita registro a registro, sobre o caminho JPA)
+     */
+    private boolean useCopy(ExportOptions options) {
+        return switch (options.getMode()) {
+            case JPA -> false;
+            case COPY -> {
+                if (!productCopyRepository.isCopySupported()) {
+                    throw new IllegalArgumentException("Modo COPY requer banco PostgreSQL");
+                }
+                yield true;
+            }
+            case AUTO -> options.getFormat() == ExportFormat.CSV && !options.isRolling()
+                    && productCopyRepository.isCopySupported();
+        };
+    }
+    
+    /**
+     * Devolve o resultado em cache da mesma consulta, com as mesmas opções e sobre a mesma
+     * versão dos dados, ou executa a exportação e guarda o resultado se ela tiver sucesso.
+     * A versão é lida antes da exportação: se os dados mudarem durante ela, o próximo pedido
+     * verá outra versão e exportará de novo. Sem versão disponível (banco sem o contador de
+     * alterações) o cache não é usado.
+     */
+    private ExportResult cached(ExporterType exporterType, String basePath, String query, ExportOptions options,
+                                ExportCall call) throws IOException {
+        if (!resultCache.isEnabled()) {
+            return call.execute();
+        }
+        Optional<ProductDataVersion> dataVersion = productCopyRepository.findDataVersion();
+        if (dataVersion.isEmpty()) {
+            return call.execute();
+        }
+        
+        ExportCacheKey key = ExportCacheKey.of(exporterType, basePath, query, options, dataVersion.get());
+        if (!options.isBypassCache()) {
+            Optional<ExportResult> hit = resultCache.get(key);
+            if (hit.isPresent()) {
+                logger.info("Exportação reaproveitada do cache: {}", hit.get().getFilePath());
+                metrics.recordRequest(exporterType, options.getFormat(), "cache");
+                return hit.get();
+            }
+        }
+        
+        ExportResult result = call.execute();
+        resultCache.put(key, result);
+        return result;
+    }
+    
+    /**
+     * Executa a exportação contando nas métricas as falhas lançadas antes ou fora do exportador
+     * (validação, exportador não configurado, erros do COPY paralelo). As falhas dentro do
+     * exportador viram um {@link ExportResult} de erro e são contadas por ele.
+     */
+    private ExportResult measured(ExporterType exporterType, ExportOptions options, ExportCall call) throws IOException {
+        try {
+            return call.execute();
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailure(exporterType, options.getFormat(), e);
+            throw e;
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ExportCall {
+        ExportResult execute() throws IOException;
+    }
+    
+    private ExportContent copyContent(RawCsvSource source, ExportConfig exportConfig) {
+        return (outputStream, totalExported) -> ExportWriter.writeCsv(source, exportConfig, outputStream, totalExported);
+    }
+    
     private StreamExporter getExporter(ExporterType type) {
         return switch (type) {
             case LOCAL -> localExporter;
@@ -0,0 +1,41 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.opencsv.CSVWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Escritor CSV baseado no {@link CSVWriter} do opencsv (UTF-8)
+ */
+public class OpenCsvRowWriter implements RowWriter {
+    
+    private final CSVWriter csvWriter;
+    
+    public OpenCsvRowWriter(OutputStream outputStream) {
+        this.csvWriter = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public void writeRow(String[] row) throws IOException {
+        csvWriter.writeNext(row);
+        
+        // O CSVWriter guarda erros de I/O em vez de lançá-los
+        if (csvWriter.getException() != null) {
+            throw new IOException("Erro ao escrever linha CSV", csvWriter.getException());
+        }
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        csvWriter.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        csvWriter.close();
+    }
+}
@@ -0,0 +1,239 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.repository.CreatedAtRange;
+import com.filestreamer.spreadsheetgenerator.repository.ExportedSnapshot;
+import com.filestreamer.spreadsheetgenerator.repository.ProductCopyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Exportação de todos os produtos via COPY dividida em faixas de data de criação lidas em
+ * paralelo, cada uma numa conexão própria.
+ * <p>
+ * Todas as conexões importam o mesmo snapshot ({@code pg_export_snapshot}), então as faixas
+ * enxergam exatamente os mesmos dados mesmo com escritas concorrentes. As faixas podem ser
+ * concatenadas num único arquivo em ordem de data de criação ({@link ParallelOutput#MERGED})
+ * ou gravadas como partes independentes ({@link ParallelOutput#PARTS}).
+ * <p>
+ * Uma exportação com N faixas usa até N + 1 conexões além da conexão da transação corrente;
+ * N é limitado para que isso não passe da metade do pool de conexões.
+ */
+@Service
+public class ParallelCopyExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelCopyExportService.class);
+
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+
+    private final ProductCopyRepository productCopyRepository;
+
+    /**
+     * Limite de faixas lidas em paralelo por exportação; é reduzido para caber no pool de conexões
+     */
+    @Value("${EXPORT_MAX_PARALLELISM:4}")
+    private int maxParallelism = 4;
+
+    /**
+     * Tamanho do pool de conexões; uma exportação paralela usa no máximo metade dele
+     */
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize = 10;
+
+    /**
+     * Quantidade aproximada de linhas por faixa quando o paralelismo é escolhido automaticamente
+     */
+    @Value("${EXPORT_ROWS_PER_PARTITION:1000000}")
+    private long rowsPerPartition = 1_000_000;
+
+    public ParallelCopyExportService(ProductCopyRepository productCopyRepository) {
+        this.productCopyRepository = productCopyRepository;
+    }
+
+    /**
+     * Define quantas faixas a exportação usa: o valor pedido ou, se ausente, um por
+     * {@code rowsPerPartition} linhas estimadas, sempre entre 1 e {@link #maxPartitions()}
+     */
+    public int resolveParallelism(Integer requested) {
+        long partitions;
+        if (requested != null) {
+            partitions = requested;
+        } else {
+            long estimatedRows = productCopyRepository.estimateRowCount();
+            partitions = (estimatedRows + rowsPerPartition - 1) / rowsPerPartition;
+        }
+        return (int) Math.max(1, Math.min(partitions, maxPartitions()));
+    }
+
+    /**
+     * Maior quantidade de faixas permitida: {@code maxParallelism}, reduzido para que as N + 2
+     * conexões da exportação (uma por faixa, a que segura o snapshot e a da transação corrente)
+     * ocupem no máximo metade do pool, deixando o restante para as demais requisições
+     */
+    int maxPartitions() {
+        int connectionBudget = Math.max(1, connectionPoolSize) / 2;
+        return Math.max(1, Math.min(maxParallelism, connectionBudget - 2));
+    }
+
+    /**
+     * Exporta todos os produtos em até {@code parallelism} faixas lidas em paralelo
+     */
+    public ExportResult exportAllProducts(StreamExporter exporter, ExportConfig exportConfig, int parallelism,
+                                          ParallelOutput output) throws IOException {
+        List<CreatedAtRange> ranges = CreatedAtRange.fromBounds(productCopyRepository.findCreatedAtBounds(parallelism));
+        logger.info("Exportação paralela via COPY em {} faixas ({})", ranges.size(), output);
+
+        try (ExportedSnapshot snapshot = productCopyRepository.exportSnapshot()) {
+            return switch (output) {
+                case MERGED -> exporter.exportContent((outputStream, totalExported) -> ExportWriter.writeCsv(
+                        target -> copyMerged(snapshot, ranges, target), exportConfig, outputStream, totalExported),
+                        exportConfig);
+                case PARTS -> exportParts(exporter, exportConfig, snapshot, ranges);
+            };
+        }
+    }
+
+    /**
+     * Copia a primeira faixa direto para o destino enquanto as demais são gravadas em
+     * arquivos temporários, que depois são anexados em ordem. O disco temporário usado
+     * chega ao tamanho das faixas ainda não anexadas.
+     *
+     * @return quantidade total de linhas copiadas
+     */
+    long copyMerged(ExportedSnapshot snapshot, List<CreatedAtRange> ranges, OutputStream outputStream) throws IOException {
+        List<Path> spoolFiles = new ArrayList<>();
+        List<Future<Long>> spooled = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (CreatedAtRange range : ranges.subList(1, ranges.size())) {
+                    Path spoolFile = Files.createTempFile("export-range-", ".csv");
+                    spoolFiles.add(spoolFile);
+                    spooled.add(executor.submit(() -> spool(snapshot, range, spoolFile)));
+                }
+
+                long rows = productCopyRepository.copyCreatedAtRange(snapshot, ranges.get(0), outputStream);
+                for (int i = 0; i < spooled.size(); i++) {
+                    rows += await(spooled.get(i));
+                    Files.copy(spoolFiles.get(i), outputStream);
+                    Files.delete(spoolFiles.get(i));
+                }
+                return rows;
+            } finally {
+                spooled.forEach(future -> future.cancel(true));
+            }
+        } finally {
+            spoolFiles.forEach(ParallelCopyExportService::deleteQuietly);
+        }
+    }
+
+    /**
+     * Grava cada faixa como um arquivo independente, com cabeçalho. Se alguma parte falhar,
+     * a exportação falha e as partes já gravadas permanecem no destino.
+     */
+    private ExportResult exportParts(StreamExporter exporter, ExportConfig exportConfig, ExportedSnapshot snapshot,
+                                     List<CreatedAtRange> ranges) throws IOException {
+        long startTime = System.currentTimeMillis();
+        PartsProgressListener progressListener = new PartsProgressListener(ranges.size(), exportConfig.getProgressListener());
+        List<Future<ExportResult>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ranges.size(); i++) {
+                CreatedAtRange range = ranges.get(i);
+                ExportConfig partConfig = exportConfig.toBuilder()
+                        .fileName(FileNameGenerator.partFileName(exportConfig.getFileName(), i + 1))
+                        .progressListener(progressListener.forPart(i))
+                        .build();
+                RawCsvSource source = outputStream -> productCopyRepository.copyCreatedAtRange(snapshot, range, outputStream);
+                futures.add(executor.submit(() -> exporter.exportContent((outputStream, totalExported) ->
+                        ExportWriter.writeCsv(source, partConfig, outputStream, totalExported), partConfig)));
+            }
+
+            List<ExportResult> parts = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                ExportResult part = await(futures.get(i));
+                if (!part.isSuccess()) {
+                    return new ExportResult(exporter.getType(),
+                            String.format("Falha na parte %d de %d: %s", i + 1, futures.size(), part.getErrorMessage()));
+                }
+                parts.add(part);
+            }
+
+            ExportResult result = ExportResult.ofParts(exportConfig.getFileName(), parts,
+                    System.currentTimeMillis() - startTime, exporter.getType());
+            logger.info("Exportação paralela concluída: {} registros em {} partes", result.getTotalRecords(), parts.size());
+            return result;
+        }
+    }
+
+    private long spool(ExportedSnapshot snapshot, CreatedAtRange range, Path spoolFile) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(spoolFile), SPOOL_BUFFER_SIZE)) {
+            return productCopyRepository.copyCreatedAtRange(snapshot, range, outputStream);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação paralela interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Erro na exportação paralela: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover arquivo temporário {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Soma o progresso das partes gravadas em paralelo e repassa ao listener da exportação,
+     * uma notificação por vez
+     */
+    private static class PartsProgressListener {
+
+        private final long[] rows;
+        private final long[] bytes;
+        private final ExportProgressListener delegate;
+
+        PartsProgressListener(int parts, ExportProgressListener delegate) {
+            this.rows = new long[parts];
+            this.bytes = new long[parts];
+            this.delegate = delegate;
+        }
+
+        ExportProgressListener forPart(int part) {
+            return (rowsExported, bytesWritten) -> {
+                synchronized (this) {
+                    rows[part] = rowsExported;
+                    bytes[part] = bytesWritten;
+                    delegate.onProgress(Arrays.stream(rows).sum(), Arrays.stream(bytes).sum());
+                }
+            };
+        }
+    }
+}
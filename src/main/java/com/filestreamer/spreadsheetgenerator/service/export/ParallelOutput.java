@@ -0,0 +1,18 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+
+/**
+ * Forma de gravação de uma exportação paralela
+ */
+public enum ParallelOutput {
+    
+    /**
+     * Um único arquivo com as faixas concatenadas em ordem de data de criação
+     */
+    MERGED,
+    
+    /**
+     * Um arquivo independente por faixa ({@code _part-00001}, {@code _part-00002}, ...), cada um com cabeçalho
+     */
+    PARTS
+}
@@ -0,0 +1,75 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+
+/**
+ * Pool fixo de buffers reutilizáveis para uploads em partes.
+ * Os buffers são alocados sob demanda até o limite do pool; quando todos estão
+ * em uso, {@link #acquire()} bloqueia até que um upload devolva seu buffer.
+ */
+public class PartBufferPool {
+
+    private final int bufferSize;
+    private final int capacity;
+    private final BlockingQueue<byte[]> available;
+    private int allocated;
+
+    public PartBufferPool(int bufferSize, int capacity) {
+        if (bufferSize <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Tamanho e capacidade do pool devem ser maiores que zero");
+        }
+        this.bufferSize = bufferSize;
+        this.capacity = capacity;
+        this.available = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Obtém um buffer livre, bloqueando enquanto todos estiverem em uso
+     */
+    public byte[] acquire() throws IOException {
+        byte[] buffer = available.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+
+        synchronized (this) {
+            if (allocated < capacity) {
+                allocated++;
+                return new byte[bufferSize];
+            }
+        }
+
+        try {
+            return available.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando buffer de upload livre");
+        }
+    }
+
+    /**
+     * Devolve um buffer ao pool
+     */
+    public void release(byte[] buffer) {
+        available.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Quantidade de buffers já alocados (nunca excede a capacidade)
+     */
+    public synchronized int getAllocated() {
+        return allocated;
+    }
+}
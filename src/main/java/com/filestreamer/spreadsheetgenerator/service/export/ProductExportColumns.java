@@ -0,0 +1,59 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+
+/**
+ * Colunas das exportações de produtos: cabeçalhos, ordem e formatação de cada valor.
+ * Os formatadores da entidade e da projeção montam as linhas com {@link #toRow}, e o COPY do
+ * PostgreSQL seleciona {@link #COPY_SELECT_LIST}, que aplica os mesmos formatos em SQL, de modo
+ * que todos os caminhos de exportação geram linhas idênticas.
+ */
+public final class ProductExportColumns {
+
+    /**
+     * Formato das datas (sem frações de segundo) e o equivalente para o {@code to_char} do PostgreSQL
+     */
+    static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    static final String SQL_DATE_TIME_PATTERN = "YYYY-MM-DD HH24:MI:SS";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
+
+    private static final String[] HEADERS = {
+        "ID", "Nome", "Descrição", "Preço", "Data Criação", "Data Atualização"
+    };
+
+    /**
+     * Colunas do SELECT usado pelo COPY, na ordem e com a formatação de {@link #toRow}
+     */
+    public static final String COPY_SELECT_LIST =
+            "id, name, COALESCE(description, ''), price, " +
+            "to_char(created_at, '" + SQL_DATE_TIME_PATTERN + "'), " +
+            "to_char(updated_at, '" + SQL_DATE_TIME_PATTERN + "')";
+
+    private ProductExportColumns() {
+    }
+
+    public static String[] headers() {
+        return HEADERS.clone();
+    }
+
+    /**
+     * Linha exportada de um produto: descrição nula vira texto vazio e o preço sai sem notação
+     * científica, como o {@code numeric} do PostgreSQL
+     */
+    public static String[] toRow(UUID id, String name, String description, BigDecimal price,
+                                 LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new String[]{
+            id.toString(),
+            name,
+            description != null ? description : "",
+            price.toPlainString(),
+            createdAt.format(DATE_TIME_FORMATTER),
+            updatedAt.format(DATE_TIME_FORMATTER)
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.repository.ProductExportRow;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Formatador da projeção {@link ProductExportRow}, com as colunas de {@link ProductExportColumns}
+ */
+@Component
+public class ProductExportRowFormatter implements DataFormatter<ProductExportRow> {
+
+    @Override
+    public String[] formatToRow(ProductExportRow product) {
+        return ProductExportColumns.toRow(product.id(), product.name(), product.description(), product.price(),
+                product.createdAt(), product.updatedAt());
+    }
+
+    @Override
+    public String[] getHeaders() {
+        return ProductExportColumns.headers();
+    }
+}
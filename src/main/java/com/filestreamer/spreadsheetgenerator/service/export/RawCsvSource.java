@@ -0,0 +1,19 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * Origem de linhas CSV já codificadas (ex.: COPY do PostgreSQL), sem cabeçalho
+ */
+@FunctionalInterface
+public interface RawCsvSource {
+    
+    /**
+     * Copia as linhas para o stream, sem fechá-lo
+     *
+     * @return quantidade de linhas copiadas
+     */
+    long copyTo(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,125 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+/**
+ * Exportação dividida em vários arquivos: abre uma nova parte ({@code _part-00001}, ...) a cada
+ * {@link ExportConfig#getMaxRowsPerFile()} registros ou {@link ExportConfig#getMaxBytesPerFile()}
+ * bytes, repetindo o cabeçalho em cada parte, e grava ao final um {@link ExportManifest} com
+ * registros, tamanho e checksum de cada parte. As partes são gravadas uma após a outra pelo
+ * próprio exportador, então funciona igual para arquivo local, S3 e GCS.
+ */
+final class RollingExport {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingExport.class);
+
+    static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private static final String MANIFEST_CONTENT_TYPE = "application/json";
+
+    private static final ObjectMapper MANIFEST_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private RollingExport() {
+    }
+
+    static ExportResult export(StreamExporter exporter, Stream<String[]> dataStream, ExportConfig exportConfig)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        Iterator<String[]> rows = dataStream.iterator();
+        List<ExportResult> parts = new ArrayList<>();
+        List<ExportManifest.Part> manifestParts = new ArrayList<>();
+        long previousRows = 0;
+        long previousBytes = 0;
+
+        // Sempre grava ao menos uma parte, para que uma exportação vazia ainda tenha o cabeçalho
+        do {
+            int partNumber = parts.size() + 1;
+            long rowsBefore = previousRows;
+            long bytesBefore = previousBytes;
+            ExportConfig partConfig = exportConfig.toBuilder()
+                    .fileName(FileNameGenerator.partFileName(exportConfig.getFileName(), partNumber))
+                    .progressListener((rowsExported, bytesWritten) -> exportConfig.getProgressListener()
+                            .onProgress(rowsBefore + rowsExported, bytesBefore + bytesWritten))
+                    .build();
+
+            MessageDigest digest = newDigest();
+            long[] writtenBytes = {0};
+            ExportResult part = exporter.exportContent((outputStream, totalExported) -> {
+                CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+                try {
+                    return ExportWriter.writePart(rows, partConfig,
+                            new DigestOutputStream(countingOutputStream, digest), totalExported);
+                } finally {
+                    writtenBytes[0] = countingOutputStream.getCount();
+                }
+            }, partConfig);
+
+            if (!part.isSuccess()) {
+                return new ExportResult(exporter.getType(),
+                        String.format("Falha na parte %d: %s", partNumber, part.getErrorMessage()));
+            }
+            parts.add(part);
+            manifestParts.add(new ExportManifest.Part(partNumber, part.getFileName(), part.getFilePath(),
+                    part.getTotalRecords(), writtenBytes[0], HexFormat.of().formatHex(digest.digest())));
+            previousRows += part.getTotalRecords();
+            previousBytes += part.getRawSizeBytes();
+        } while (rows.hasNext());
+
+        ExportResult result = ExportResult.ofParts(exportConfig.getFileName(), parts,
+                System.currentTimeMillis() - startTime, exporter.getType());
+        ExportManifest manifest = new ExportManifest(exportConfig.getFileName(), exportConfig.getFormat(),
+                exportConfig.getCompression(), result.getTotalRecords(),
+                manifestParts.stream().mapToLong(ExportManifest.Part::sizeBytes).sum(),
+                CHECKSUM_ALGORITHM, Instant.now().toString(), manifestParts);
+
+        ExportResult manifestResult = writeManifest(exporter, manifest, exportConfig);
+        if (!manifestResult.isSuccess()) {
+            return new ExportResult(exporter.getType(), "Falha ao gravar o manifesto: " + manifestResult.getErrorMessage());
+        }
+
+        logger.info("Exportação dividida concluída: {} registros em {} partes, manifesto em {}",
+                result.getTotalRecords(), parts.size(), manifestResult.getFilePath());
+        return result.withManifest(manifestResult.getFilePath(), manifestResult.getFileUrl());
+    }
+
+    private static ExportResult writeManifest(StreamExporter exporter, ExportManifest manifest,
+                                              ExportConfig exportConfig) throws IOException {
+        byte[] json = MANIFEST_MAPPER.writeValueAsBytes(manifest);
+        ExportConfig manifestConfig = ExportConfig.builder()
+                .fileName(FileNameGenerator.manifestFileName(exportConfig.getFileName()))
+                .basePath(exportConfig.getBasePath())
+                .contentType(MANIFEST_CONTENT_TYPE)
+                .build();
+
+        return exporter.exportContent((outputStream, totalExported) -> {
+            try (OutputStream manifestOutputStream = outputStream) {
+                manifestOutputStream.write(json);
+            }
+            return json.length;
+        }, manifestConfig);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo de checksum indisponível: " + CHECKSUM_ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+
+/**
+ * Escritor de linhas já formatadas (String[]) em um formato de arquivo.
+ * Fechar o escritor fecha também o stream de destino.
+ */
+public interface RowWriter extends Closeable, Flushable {
+    
+    /**
+     * Escreve uma linha. Valores nulos são escritos como campos vazios.
+     */
+    void writeRow(String[] row) throws IOException;
+    
+    /**
+     * Escreve o cabeçalho. Por padrão é uma linha como as demais; formatos que dividem
+     * a saída (ex.: planilhas XLSX) podem repeti-lo em cada parte.
+     */
+    default void writeHeader(String[] header) throws IOException {
+        writeRow(header);
+    }
+}
@@ -0,0 +1,130 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+
+/**
+ * OutputStream que envia os dados para o Amazon S3 usando multipart upload.
+ * Cada parte é enviada assim que fica cheia, com até {@code concurrency} partes em voo,
+ * enquanto a próxima parte é preenchida. Conteúdos menores que uma parte são enviados
+ * com um único PutObject.
+ */
+public class S3MultipartUploadOutputStream extends AbstractPartUploadOutputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3MultipartUploadOutputStream.class);
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String key;
+    private final String contentType;
+    private final String contentEncoding;
+
+    private volatile String uploadId;
+
+    /**
+     * @param contentEncoding Content-Encoding do objeto (ex.: "gzip"), ou null
+     */
+    public S3MultipartUploadOutputStream(S3Client s3Client, String bucketName, String key, String contentType,
+                                         String contentEncoding, int partSize, int concurrency) {
+        super("s3://" + bucketName + "/" + key, partSize, concurrency);
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.contentType = contentType != null ? contentType : "application/octet-stream";
+        this.contentEncoding = contentEncoding;
+    }
+
+    @Override
+    protected void initiateUpload() {
+        CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .build();
+
+        uploadId = s3Client.createMultipartUpload(request).uploadId();
+        logger.info("Multipart upload iniciado para {}", getTarget());
+    }
+
+    @Override
+    protected String uploadPart(int partNumber, byte[] data, int length) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) length)
+                .build();
+
+        return s3Client.uploadPart(request, requestBody(data, length)).eTag();
+    }
+
+    @Override
+    protected void completeUpload(List<UploadedPart> parts) {
+        List<CompletedPart> completedParts = parts.stream()
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.id()).build())
+                .toList();
+
+        CompleteMultipartUploadRequest request = CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build();
+
+        s3Client.completeMultipartUpload(request);
+        logger.info("Multipart upload concluído para {}: {} partes, {} bytes",
+                   getTarget(), completedParts.size(), getBytesWritten());
+    }
+
+    @Override
+    protected void uploadSingleObject(byte[] data, int length) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .contentLength((long) length)
+                .build();
+
+        s3Client.putObject(request, requestBody(data, length));
+    }
+
+    @Override
+    protected void abortUpload() {
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            logger.error("Erro ao cancelar multipart upload {} para {}", uploadId, getTarget(), e);
+        }
+    }
+
+    /**
+     * Cria o corpo da requisição lendo diretamente do buffer, sem cópia.
+     * O provider permite que o SDK releia os dados em caso de retry.
+     */
+    private RequestBody requestBody(byte[] data, int length) {
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(data, 0, length), length, contentType);
+    }
+}
@@ -19,6 +19,17 @@ public interface StreamExporter {
      */
     ExportResult exportData(Stream<String[]> dataStream, ExportConfig exportConfig) throws IOException;
     
+    /**
+     * Exporta um conteúdo que se escreve sozinho no destino, como bytes CSV já
+     * codificados pelo banco
+     * 
+     * @param content Conteúdo a ser escrito no destino
+     * @param exportConfig Configuração de exportação (nome arquivo, caminho, etc.)
+     * @return Resultado da exportação
+     * @throws IOException em caso de erro na exportação
+     */
+    ExportResult exportContent(ExportContent content, ExportConfig exportConfig) throws IOException;
+    
     /**
      * Retorna informações sobre a configuração do exportador
      * 
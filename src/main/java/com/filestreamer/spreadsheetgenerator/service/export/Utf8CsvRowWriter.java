@@ -0,0 +1,142 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Escritor CSV (RFC 4180) que codifica os campos diretamente em bytes UTF-8 num
+ * {@link ByteBuffer} reutilizável, sem criar objetos por linha.
+ * <p>
+ * Produz a mesma saída que o {@code CSVWriter} padrão do opencsv: todos os campos entre
+ * aspas, aspas internas duplicadas, campos nulos vazios (sem aspas) e linhas terminadas
+ * em {@code \n}. Caracteres substitutos (surrogates) sem par viram {@code ?}, como no
+ * encoder UTF-8 do JDK.
+ */
+public class Utf8CsvRowWriter implements RowWriter {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    private static final byte QUOTE = '"';
+    private static final byte SEPARATOR = ',';
+    private static final byte LINE_END = '\n';
+    private static final byte REPLACEMENT = '?';
+    
+    /**
+     * Maior quantidade de bytes gerada por um caractere: 4 bytes de um par de surrogates
+     * (ou 2 bytes de aspas duplicadas, 3 bytes de um caractere do plano básico)
+     */
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    
+    private final OutputStream outputStream;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int position;
+    
+    public Utf8CsvRowWriter(OutputStream outputStream) {
+        this(outputStream, DEFAULT_BUFFER_SIZE);
+    }
+    
+    public Utf8CsvRowWriter(OutputStream outputStream, int bufferSize) {
+        if (bufferSize < MAX_BYTES_PER_CHAR) {
+            throw new IllegalArgumentException("Tamanho do buffer deve ser de no mínimo " + MAX_BYTES_PER_CHAR + " bytes");
+        }
+        this.outputStream = outputStream;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        // Escreve direto no array do buffer para evitar as verificações de limite do ByteBuffer
+        this.bytes = buffer.array();
+    }
+    
+    @Override
+    public void writeRow(String[] row) throws IOException {
+        if (row == null) {
+            return;
+        }
+        
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                put(SEPARATOR);
+            }
+            if (row[i] != null) {
+                writeField(row[i]);
+            }
+        }
+        put(LINE_END);
+    }
+    
+    private void writeField(String value) throws IOException {
+        put(QUOTE);
+        
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            
+            if (bytes.length - position < MAX_BYTES_PER_CHAR) {
+                drain();
+            }
+            
+            if (c < 0x80) {
+                if (c == '"') {
+                    bytes[position++] = QUOTE;
+                }
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                char low = i + 1 < length ? value.charAt(i + 1) : 0;
+                if (Character.isHighSurrogate(c) && Character.isLowSurrogate(low)) {
+                    int codePoint = Character.toCodePoint(c, low);
+                    bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    i++;
+                } else {
+                    bytes[position++] = REPLACEMENT;
+                }
+            } else {
+                bytes[position++] = (byte) (0xE0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        
+        put(QUOTE);
+    }
+    
+    private void put(byte b) throws IOException {
+        if (position == bytes.length) {
+            drain();
+        }
+        bytes[position++] = b;
+    }
+    
+    /**
+     * Envia o conteúdo do buffer ao stream de destino e reinicia o buffer
+     */
+    private void drain() throws IOException {
+        buffer.position(position).flip();
+        if (buffer.hasRemaining()) {
+            outputStream.write(bytes, buffer.arrayOffset(), buffer.remaining());
+        }
+        buffer.clear();
+        position = 0;
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        drain();
+        outputStream.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            outputStream.close();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+
+/**
+ * Escritor XLSX em streaming.
+ * <p>
+ * O XML de cada planilha é escrito linha a linha direto numa entrada do zip, com as
+ * células como strings inline (sem tabela de strings compartilhadas em memória).
+ * Ao atingir o limite de linhas do Excel a planilha atual é fechada e uma nova é
+ * iniciada, repetindo o cabeçalho. Os arquivos de estrutura do workbook são gravados
+ * ao final, quando a quantidade de planilhas é conhecida. O uso de memória é constante,
+ * independente da quantidade de linhas.
+ */
+public class XlsxRowWriter implements RowWriter {
+
+    /**
+     * Limite de linhas por planilha do Excel
+     */
+    public static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final String SHEET_NAME_PREFIX = "Planilha";
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String SPREADSHEET_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream zipOutputStream;
+    private final Writer writer;
+    private final int maxRowsPerSheet;
+
+    private String[] header;
+    private int sheetCount;
+    private int rowsInSheet;
+    private boolean sheetOpen;
+    private boolean closed;
+
+    public XlsxRowWriter(OutputStream outputStream) {
+        this(outputStream, MAX_ROWS_PER_SHEET);
+    }
+
+    XlsxRowWriter(OutputStream outputStream, int maxRowsPerSheet) {
+        if (maxRowsPerSheet < 2) {
+            throw new IllegalArgumentException("Planilha deve comportar ao menos 2 linhas");
+        }
+        this.zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        // O writer nunca é fechado: as entradas e o zip são fechados explicitamente
+        this.writer = new BufferedWriter(new OutputStreamWriter(zipOutputStream, StandardCharsets.UTF_8));
+        this.maxRowsPerSheet = maxRowsPerSheet;
+    }
+
+    /**
+     * Escreve o cabeçalho, que é repetido no início de cada nova planilha
+     */
+    @Override
+    public void writeHeader(String[] header) throws IOException {
+        this.header = header;
+        writeRow(header);
+    }
+
+    @Override
+    public void writeRow(String[] row) throws IOException {
+        if (row == null) {
+            return;
+        }
+
+        if (!sheetOpen) {
+            startSheet();
+        } else if (rowsInSheet == maxRowsPerSheet) {
+            finishSheet();
+            startSheet();
+        }
+
+        appendRow(row);
+    }
+
+    private void startSheet() throws IOException {
+        sheetCount++;
+        rowsInSheet = 0;
+        sheetOpen = true;
+
+        zipOutputStream.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write(XML_DECLARATION);
+        writer.write("<worksheet xmlns=\"" + SPREADSHEET_NS + "\"><sheetData>");
+
+        if (sheetCount > 1 && header != null) {
+            appendRow(header);
+        }
+    }
+
+    private void appendRow(String[] row) throws IOException {
+        int rowNumber = ++rowsInSheet;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowNumber));
+        writer.write("\">");
+
+        for (String value : row) {
+            if (value == null || value.isEmpty()) {
+                writer.write("<c/>");
+                continue;
+            }
+            writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+            writeEscaped(value);
+            writer.write("</t></is></c>");
+        }
+
+        writer.write("</row>");
+    }
+
+    /**
+     * Escapa os caracteres especiais do XML e descarta os caracteres de controle
+     * que o XML 1.0 não permite
+     */
+    private void writeEscaped(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '\t', '\n', '\r' -> writer.write(c);
+                default -> {
+                    if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF) {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private void finishSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zipOutputStream.closeEntry();
+        sheetOpen = false;
+    }
+
+    /**
+     * Quantidade de planilhas criadas até o momento
+     */
+    public int getSheetCount() {
+        return sheetCount;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+        zipOutputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            // Um workbook precisa de ao menos uma planilha
+            if (!sheetOpen && sheetCount == 0) {
+                startSheet();
+            }
+            if (sheetOpen) {
+                finishSheet();
+            }
+            writePackageParts();
+        } finally {
+            zipOutputStream.close();
+        }
+    }
+
+    private void writePackageParts() throws IOException {
+        StringBuilder contentTypes = new StringBuilder(XML_DECLARATION)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetCount; i++) {
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        contentTypes.append("</Types>");
+        writeEntry("[Content_Types].xml", contentTypes.toString());
+
+        writeEntry("_rels/.rels", XML_DECLARATION
+                + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIPS_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+
+        StringBuilder workbook = new StringBuilder(XML_DECLARATION)
+                .append("<workbook xmlns=\"").append(SPREADSHEET_NS).append("\" xmlns:r=\"").append(RELATIONSHIPS_NS).append("\"><sheets>");
+        StringBuilder workbookRels = new StringBuilder(XML_DECLARATION)
+                .append("<Relationships xmlns=\"").append(PACKAGE_RELATIONSHIPS_NS).append("\">");
+        for (int i = 1; i <= sheetCount; i++) {
+            workbook.append("<sheet name=\"").append(SHEET_NAME_PREFIX).append(i)
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            workbookRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(RELATIONSHIPS_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        workbook.append("</sheets></workbook>");
+        workbookRels.append("<Relationship Id=\"rId").append(sheetCount + 1).append("\" Type=\"").append(RELATIONSHIPS_NS)
+                .append("/styles\" Target=\"styles.xml\"/>")
+                .append("</Relationships>");
+        writeEntry("xl/workbook.xml", workbook.toString());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRels.toString());
+
+        writeEntry("xl/styles.xml", XML_DECLARATION
+                + "<styleSheet xmlns=\"" + SPREADSHEET_NS + "\">"
+                + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+                + "</styleSheet>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zipOutputStream.closeEntry();
+    }
+
+}
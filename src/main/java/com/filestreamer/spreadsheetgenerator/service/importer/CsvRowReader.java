@@ -0,0 +1,103 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.RFC4180ParserBuilder;
+import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvMultilineLimitBrokenException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Leitor CSV (RFC 4180, UTF-8) sobre o {@link CSVReader} do opencsv, que lê um registro por
+ * vez do stream. Campos entre aspas podem conter o separador, aspas duplicadas e quebras de
+ * linha; barras invertidas não são tratadas como escape. O BOM UTF-8 do início do arquivo,
+ * comum em CSVs salvos pelo Excel, é descartado.
+ * <p>
+ * Um registro pode ocupar no máximo {@code maxLinesPerRow} linhas físicas. Sem esse limite, uma
+ * aspa que nunca fecha faria o leitor acumular o resto do arquivo em memória num único campo.
+ */
+public class CsvRowReader implements ImportRowReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * Linhas físicas por registro quando não informado
+     */
+    public static final int DEFAULT_MAX_LINES_PER_ROW = 100;
+
+    private final CSVReader csvReader;
+
+    private long rowNumber;
+
+    private boolean firstRow = true;
+
+    public CsvRowReader(InputStream inputStream, char separator) {
+        this(inputStream, separator, DEFAULT_MAX_LINES_PER_ROW);
+    }
+
+    /**
+     * @param maxLinesPerRow linhas físicas que um registro pode ocupar
+     */
+    public CsvRowReader(InputStream inputStream, char separator, int maxLinesPerRow) {
+        if (maxLinesPerRow < 1) {
+            throw new IllegalArgumentException("Limite de linhas por registro deve ser maior que zero");
+        }
+        this.csvReader = new CSVReaderBuilder(
+                        new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE))
+                .withCSVParser(new RFC4180ParserBuilder().withSeparator(separator).build())
+                .withMultilineLimit(maxLinesPerRow)
+                .build();
+    }
+
+    @Override
+    public String[] readRow() throws IOException {
+        while (true) {
+            long linesBefore = csvReader.getLinesRead();
+            String[] row;
+            try {
+                row = csvReader.readNext();
+            } catch (CsvMultilineLimitBrokenException e) {
+                throw new ImportFormatException("CSV malformado a partir da linha " + (linesBefore + 1) +
+                                                ": registro com mais de " + e.getMultilineLimit() +
+                                                " linhas (aspas sem fechamento?)", e);
+            } catch (CsvMalformedLineException | CsvException e) {
+                // Ex.: aspas abertas que não fecham até o fim do arquivo
+                throw new ImportFormatException("CSV malformado a partir da linha " + (linesBefore + 1) + ": " +
+                                                e.getMessage(), e);
+            }
+            if (row == null) {
+                return null;
+            }
+            if (firstRow) {
+                firstRow = false;
+                if (!row[0].isEmpty() && row[0].charAt(0) == BOM) {
+                    row[0] = row[0].substring(1);
+                }
+            }
+            if (row.length == 1 && row[0].isEmpty()) {
+                continue;
+            }
+            rowNumber = linesBefore + 1;
+            return row;
+        }
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        csvReader.close();
+    }
+}
@@ -0,0 +1,16 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import java.io.IOException;
+
+
+/**
+ * Arquivo importado malformado a ponto de a leitura não poder continuar (ex.: aspas não
+ * fechadas até o fim do arquivo). Linhas apenas inválidas não lançam esta exceção: são
+ * rejeitadas e seguem para o relatório de rejeitadas.
+ */
+public class ImportFormatException extends IOException {
+
+    public ImportFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
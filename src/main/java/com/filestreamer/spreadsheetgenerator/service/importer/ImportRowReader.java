@@ -0,0 +1,25 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+
+/**
+ * Leitura incremental das linhas de um arquivo importado: uma linha por chamada, sem
+ * carregar o arquivo inteiro em memória
+ */
+public interface ImportRowReader extends Closeable {
+
+    /**
+     * Próxima linha com os campos como texto, pulando linhas em branco
+     *
+     * @return campos da linha, ou null no fim do arquivo
+     * @throws ImportFormatException se o arquivo estiver malformado a ponto de a leitura não poder continuar
+     */
+    String[] readRow() throws IOException;
+
+    /**
+     * Número da linha do arquivo (a partir de 1) em que começa a última linha lida
+     */
+    long getRowNumber();
+}
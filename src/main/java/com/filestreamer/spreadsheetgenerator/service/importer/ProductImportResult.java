@@ -0,0 +1,30 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+
+
+/**
+ * Resultado de uma importação de produtos
+ *
+ * @param importId Identificador da importação, usado para baixar o relatório de rejeitadas
+ * @param rowsRead Linhas de dados lidas (sem o cabeçalho e as linhas em branco)
+ * @param accepted Linhas válidas gravadas no banco
+ * @param rejected Linhas inválidas, listadas no relatório de rejeitadas
+ */
+public record ProductImportResult(String importId, long rowsRead, long accepted, long rejected, long durationMs,
+                                  BulkLoadMethod method, int chunkSize) {
+
+    /**
+     * Linhas lidas por segundo, incluindo leitura, validação e gravação
+     */
+    public long rowsPerSecond() {
+        return durationMs > 0 ? Math.round((double) rowsRead / durationMs * 1000) : rowsRead;
+    }
+
+    /**
+     * Se há relatório de linhas rejeitadas para baixar
+     */
+    public boolean hasRejectedReport() {
+        return rejected > 0;
+    }
+}
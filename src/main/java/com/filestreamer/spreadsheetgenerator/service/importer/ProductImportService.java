@@ -0,0 +1,350 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import com.filestreamer.spreadsheetgenerator.dto.ProductCreateDto;
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+import com.filestreamer.spreadsheetgenerator.repository.ProductBulkLoadRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+
+/**
+ * Importação de produtos a partir de arquivos enviados pelos parceiros (CSV ou XLSX).
+ * <p>
+ * As linhas são lidas uma a uma, validadas com as mesmas restrições do
+ * {@link ProductCreateDto} e entregues ao {@link ProductBulkLoadRepository} conforme são lidas:
+ * COPY no PostgreSQL ou INSERT em lote nos demais bancos, com commit a cada bloco de
+ * {@code IMPORT_CHUNK_SIZE} linhas. A memória usada não depende do tamanho do arquivo. Linhas
+ * inválidas não interrompem a importação; vão para um relatório CSV em disco, removido
+ * periodicamente depois de {@code IMPORT_REPORT_TTL}.
+ * <p>
+ * A importação não é atômica: se a leitura ou a gravação falhar no meio, os blocos já
+ * confirmados permanecem no banco.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final String REPORT_SUFFIX = "_rejected.csv";
+
+    private final ProductBulkLoadRepository bulkLoadRepository;
+    private final Validator validator;
+
+    /**
+     * Linhas por transação na gravação
+     */
+    @Value("${IMPORT_CHUNK_SIZE:50000}")
+    private int chunkSize = 50_000;
+
+    /**
+     * Diretório dos relatórios de linhas rejeitadas
+     */
+    @Value("${IMPORT_REPORT_DIR:${java.io.tmpdir}/product-imports}")
+    private Path reportDirectory = Path.of(System.getProperty("java.io.tmpdir"), "product-imports");
+
+    /**
+     * Tempo que um relatório de linhas rejeitadas fica disponível depois da última gravação;
+     * zero mantém os relatórios
+     */
+    @Value("${IMPORT_REPORT_TTL:24h}")
+    private Duration reportTtl = Duration.ofHours(24);
+
+    /**
+     * Linhas físicas que um registro do CSV pode ocupar (campos entre aspas com quebras de linha)
+     */
+    @Value("${IMPORT_CSV_MAX_LINES_PER_ROW:100}")
+    private int csvMaxLinesPerRow = CsvRowReader.DEFAULT_MAX_LINES_PER_ROW;
+
+    /**
+     * Memória da tabela de strings compartilhadas de um XLSX; acima disso ela vai para o disco
+     */
+    @Value("${IMPORT_XLSX_SHARED_STRINGS_MEMORY:64MB}")
+    private DataSize sharedStringsMemory = DataSize.ofMegabytes(64);
+
+    public ProductImportService(ProductBulkLoadRepository bulkLoadRepository, Validator validator) {
+        this.bulkLoadRepository = bulkLoadRepository;
+        this.validator = validator;
+    }
+
+    /**
+     * Importa produtos de um CSV em UTF-8 com cabeçalho
+     *
+     * @param separator Separador de campos (ex.: ',' ou ';')
+     */
+    public ProductImportResult importCsv(InputStream inputStream, char separator) throws IOException {
+        try (CsvRowReader reader = new CsvRowReader(inputStream, separator, csvMaxLinesPerRow)) {
+            return importRows(reader);
+        }
+    }
+
+    /**
+     * Importa produtos da primeira planilha de um XLSX. O zip precisa de acesso aleatório, então
+     * o arquivo é copiado para um temporário, removido ao final; a planilha é lida em streaming.
+     */
+    public ProductImportResult importXlsx(InputStream inputStream) throws IOException {
+        Path file = Files.createTempFile("product-import-", ".xlsx");
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            try (XlsxRowReader reader = new XlsxRowReader(file, sharedStringsMemory.toBytes())) {
+                return importRows(reader);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Importa produtos de qualquer leitor de linhas. A primeira linha é o cabeçalho, que deve
+     * ter as colunas de nome e preço (name/Nome, price/Preço) e pode ter a de descrição
+     * (description/Descrição); as demais colunas são ignoradas, então um arquivo exportado pela
+     * aplicação pode ser importado de volta.
+     *
+     * @throws IllegalArgumentException se o arquivo estiver vazio ou faltar coluna obrigatória
+     * @throws ImportFormatException se o arquivo estiver malformado
+     */
+    public ProductImportResult importRows(ImportRowReader reader) throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        String[] header = reader.readRow();
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo vazio: o cabeçalho é obrigatório");
+        }
+        ProductColumns columns = ProductColumns.fromHeader(header);
+
+        String importId = UUID.randomUUID().toString();
+        BulkLoadMethod method = bulkLoadRepository.getLoadMethod();
+        logger.info("Iniciando importação {} via {} em blocos de {} linhas", importId, method, chunkSize);
+
+        try (RejectedRowsReport report = new RejectedRowsReport(reportPath(importId), header)) {
+            ValidatedProducts products = new ValidatedProducts(reader, columns, report);
+            long accepted;
+            try {
+                accepted = bulkLoadRepository.load(products, chunkSize);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            ProductImportResult result = new ProductImportResult(importId, products.rowsRead, accepted,
+                    report.getCount(), System.currentTimeMillis() - startTime, method, chunkSize);
+            logger.info("Importação {} concluída: {} linhas lidas, {} aceitas, {} rejeitadas em {}ms ({} linhas/s)",
+                    importId, result.rowsRead(), result.accepted(), result.rejected(), result.durationMs(),
+                    result.rowsPerSecond());
+            return result;
+        }
+    }
+
+    /**
+     * Relatório de linhas rejeitadas de uma importação, se ela teve rejeições
+     */
+    public Optional<Path> findRejectedReport(String importId) {
+        try {
+            UUID.fromString(importId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Path path = reportPath(importId);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Remove do diretório de relatórios os de linhas rejeitadas que não são alterados há mais de
+     * {@code IMPORT_REPORT_TTL}. Falhas ao remover um arquivo são registradas e não interrompem
+     * a limpeza dos demais.
+     *
+     * @return quantidade de relatórios removidos
+     */
+    @Scheduled(fixedDelayString = "${IMPORT_REPORT_CLEANUP_INTERVAL:1h}",
+            initialDelayString = "${IMPORT_REPORT_CLEANUP_INTERVAL:1h}")
+    public int deleteExpiredReports() {
+        if (!reportTtl.isPositive() || !Files.isDirectory(reportDirectory)) {
+            return 0;
+        }
+        Instant expiredBefore = Instant.now().minus(reportTtl);
+        int deleted = 0;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(reportDirectory, "*" + REPORT_SUFFIX)) {
+            for (Path report : reports) {
+                try {
+                    if (Files.getLastModifiedTime(report).toInstant().isBefore(expiredBefore)
+                            && Files.deleteIfExists(report)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Não foi possível remover o relatório {}: {}", report, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Não foi possível listar os relatórios de importação em {}: {}", reportDirectory,
+                    e.getMessage());
+        }
+        if (deleted > 0) {
+            logger.info("{} relatório(s) de linhas rejeitadas expirado(s) removido(s)", deleted);
+        }
+        return deleted;
+    }
+
+    private Path reportPath(String importId) {
+        return reportDirectory.resolve(importId + REPORT_SUFFIX);
+    }
+
+    /**
+     * Converte uma linha em produto, ou nos motivos da rejeição
+     */
+    private ParsedRow parse(String[] fields, ProductColumns columns) {
+        String priceText = columns.field(fields, columns.price());
+        BigDecimal price = null;
+        if (priceText != null && !priceText.isBlank()) {
+            try {
+                price = parsePrice(priceText.trim());
+            } catch (NumberFormatException e) {
+                return ParsedRow.rejected("Preço inválido: " + priceText);
+            }
+        }
+
+        String name = columns.field(fields, columns.name());
+        String description = columns.field(fields, columns.description());
+        ProductCreateDto dto = new ProductCreateDto(
+                name != null ? name.trim() : null,
+                description != null && !description.isBlank() ? description.trim() : null,
+                price);
+
+        Set<ConstraintViolation<ProductCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return ParsedRow.rejected(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        Product product = new Product(dto.getName(), dto.getDescription(), dto.getPrice());
+        product.setCreatedAt(LocalDateTime.now());
+        return new ParsedRow(product, null);
+    }
+
+    /**
+     * Aceita ponto ou, sem ponto, vírgula como separador decimal (ex.: 10.50 ou 10,50)
+     */
+    private static BigDecimal parsePrice(String text) {
+        if (text.indexOf('.') < 0) {
+            text = text.replace(',', '.');
+        }
+        return new BigDecimal(text);
+    }
+
+    /**
+     * Linha convertida: o produto, se válida, ou os motivos da rejeição
+     */
+    private record ParsedRow(Product product, String errors) {
+
+        static ParsedRow rejected(String errors) {
+            return new ParsedRow(null, errors);
+        }
+    }
+
+    /**
+     * Posição das colunas de produto no cabeçalho; -1 quando a coluna não existe
+     */
+    record ProductColumns(int name, int description, int price) {
+
+        static ProductColumns fromHeader(String[] header) {
+            int name = -1;
+            int description = -1;
+            int price = -1;
+            for (int i = 0; i < header.length; i++) {
+                switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                    case "name", "nome" -> name = i;
+                    case "description", "descrição", "descricao" -> description = i;
+                    case "price", "preço", "preco" -> price = i;
+                    default -> { }
+                }
+            }
+            if (name < 0 || price < 0) {
+                throw new IllegalArgumentException("Cabeçalho deve ter as colunas de nome (name) e preço (price)");
+            }
+            return new ProductColumns(name, description, price);
+        }
+
+        String field(String[] fields, int index) {
+            return index >= 0 && index < fields.length ? fields[index] : null;
+        }
+    }
+
+    /**
+     * Produtos válidos lidos sob demanda pelo carregador. As linhas inválidas vão para o
+     * relatório enquanto o iterator procura a próxima válida.
+     */
+    private class ValidatedProducts implements Iterator<Product> {
+
+        private final ImportRowReader reader;
+        private final ProductColumns columns;
+        private final RejectedRowsReport report;
+
+        private Product next;
+        private boolean finished;
+        private long rowsRead;
+
+        ValidatedProducts(ImportRowReader reader, ProductColumns columns, RejectedRowsReport report) {
+            this.reader = reader;
+            this.columns = columns;
+            this.report = report;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !finished) {
+                    String[] fields = reader.readRow();
+                    if (fields == null) {
+                        finished = true;
+                        break;
+                    }
+                    rowsRead++;
+                    ParsedRow row = parse(fields, columns);
+                    if (row.product() != null) {
+                        next = row.product();
+                    } else {
+                        report.reject(reader.getRowNumber(), row.errors(), fields);
+                    }
+                }
+                return next != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Product next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Product product = next;
+            next = null;
+            return product;
+        }
+    }
+}
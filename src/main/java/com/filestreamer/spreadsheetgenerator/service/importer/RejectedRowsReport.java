@@ -0,0 +1,58 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import com.filestreamer.spreadsheetgenerator.service.export.RowWriter;
+import com.filestreamer.spreadsheetgenerator.service.export.Utf8CsvRowWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Relatório CSV das linhas rejeitadas de uma importação, gravado em disco conforme as linhas
+ * são rejeitadas: número da linha no arquivo original, motivos e os campos originais. O
+ * arquivo só é criado na primeira rejeição.
+ */
+class RejectedRowsReport implements Closeable {
+
+    private final Path path;
+    private final String[] header;
+
+    private RowWriter writer;
+    private long count;
+
+    RejectedRowsReport(Path path, String[] header) {
+        this.path = path;
+        this.header = header;
+    }
+
+    void reject(long rowNumber, String errors, String[] fields) throws IOException {
+        if (writer == null) {
+            Files.createDirectories(path.getParent());
+            writer = new Utf8CsvRowWriter(Files.newOutputStream(path));
+            writer.writeRow(row("Linha", "Erros", header));
+        }
+        writer.writeRow(row(Long.toString(rowNumber), errors, fields));
+        count++;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    private static String[] row(String rowNumber, String errors, String[] fields) {
+        String[] row = new String[fields.length + 2];
+        row[0] = rowNumber;
+        row[1] = errors;
+        System.arraycopy(fields, 0, row, 2, fields.length);
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
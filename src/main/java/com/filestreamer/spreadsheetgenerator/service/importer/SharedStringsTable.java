@@ -0,0 +1,188 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/**
+ * Tabela de strings compartilhadas de um XLSX, consultada por índice durante a leitura da
+ * planilha.
+ * <p>
+ * As strings ficam concatenadas em bytes UTF-8 num único array, com a posição de início de
+ * cada uma num array de inteiros, sem um objeto por string. Se a tabela passar do limite de
+ * memória, o conteúdo vai para dois arquivos temporários (bytes e posições de 8 bytes) e as
+ * consultas passam a ler do disco por posição. Um cache pequeno de acesso direto guarda as
+ * strings consultadas recentemente, que costumam se repetir entre linhas próximas.
+ * <p>
+ * Uso: {@link #add(String)} para cada string na ordem do arquivo, {@link #finishLoading()} e
+ * então {@link #get(int)}.
+ */
+class SharedStringsTable implements Closeable {
+
+    private static final int CACHE_SIZE = 4096;
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    private final long memoryLimit;
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int[] offsets = new int[INITIAL_CAPACITY / 8];
+    private int dataLength;
+    private int count;
+
+    private Path dataFile;
+    private Path offsetsFile;
+    private BufferedOutputStream dataOut;
+    private DataOutputStream offsetsOut;
+    private FileChannel dataChannel;
+    private FileChannel offsetsChannel;
+    private long spilledLength;
+
+    private final int[] cacheKeys = new int[CACHE_SIZE];
+    private final String[] cacheValues = new String[CACHE_SIZE];
+
+    /**
+     * @param memoryLimit Bytes em memória (strings e posições) acima dos quais a tabela vai para o disco
+     */
+    SharedStringsTable(long memoryLimit) {
+        this.memoryLimit = Math.min(memoryLimit, Integer.MAX_VALUE - 8);
+        Arrays.fill(cacheKeys, -1);
+    }
+
+    void add(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (dataOut == null && (long) dataLength + bytes.length + 4L * (count + 2) > memoryLimit) {
+            spill();
+        }
+
+        if (dataOut != null) {
+            offsetsOut.writeLong(spilledLength);
+            dataOut.write(bytes);
+            spilledLength += bytes.length;
+        } else {
+            ensureCapacity(bytes.length);
+            offsets[count] = dataLength;
+            System.arraycopy(bytes, 0, data, dataLength, bytes.length);
+            dataLength += bytes.length;
+        }
+        count++;
+    }
+
+    /**
+     * Encerra a carga; a partir daqui a tabela só é consultada
+     */
+    void finishLoading() throws IOException {
+        if (dataOut != null) {
+            // Posição final, para que o fim de cada string seja o início da seguinte
+            offsetsOut.writeLong(spilledLength);
+            offsetsOut.close();
+            dataOut.close();
+            dataOut = null;
+            offsetsOut = null;
+            dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ);
+            offsetsChannel = FileChannel.open(offsetsFile, StandardOpenOption.READ);
+        } else {
+            offsets = Arrays.copyOf(offsets, count + 1);
+            offsets[count] = dataLength;
+        }
+    }
+
+    String get(int index) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new ImportFormatException("Índice de string compartilhada inválido: " + index, null);
+        }
+        int slot = index & (CACHE_SIZE - 1);
+        if (cacheKeys[slot] == index) {
+            return cacheValues[slot];
+        }
+
+        String value = dataChannel != null ? readSpilled(index) : new String(data, offsets[index],
+                offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+        cacheKeys[slot] = index;
+        cacheValues[slot] = value;
+        return value;
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean isSpilled() {
+        return dataFile != null;
+    }
+
+    private String readSpilled(int index) throws IOException {
+        ByteBuffer bounds = ByteBuffer.allocate(2 * Long.BYTES);
+        readFully(offsetsChannel, bounds, (long) index * Long.BYTES);
+        long start = bounds.getLong(0);
+        long end = bounds.getLong(Long.BYTES);
+
+        ByteBuffer bytes = ByteBuffer.allocate((int) (end - start));
+        readFully(dataChannel, bytes, start);
+        return new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Fim inesperado do arquivo temporário de strings compartilhadas");
+            }
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        int required = dataLength + length;
+        if (required > data.length) {
+            data = Arrays.copyOf(data, (int) Math.min(Math.max(required, 2L * data.length), memoryLimit));
+        }
+        if (count + 1 >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+    }
+
+    /**
+     * Move o que já foi carregado para os arquivos temporários e libera os arrays
+     */
+    private void spill() throws IOException {
+        dataFile = Files.createTempFile("shared-strings-", ".bin");
+        offsetsFile = Files.createTempFile("shared-strings-", ".idx");
+        dataOut = new BufferedOutputStream(Files.newOutputStream(dataFile));
+        offsetsOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(offsetsFile)));
+
+        dataOut.write(data, 0, dataLength);
+        for (int i = 0; i < count; i++) {
+            offsetsOut.writeLong(offsets[i]);
+        }
+        spilledLength = dataLength;
+        data = null;
+        offsets = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (dataChannel != null) {
+                dataChannel.close();
+                offsetsChannel.close();
+            } else if (dataOut != null) {
+                dataOut.close();
+                offsetsOut.close();
+            }
+        } finally {
+            if (dataFile != null) {
+                Files.deleteIfExists(dataFile);
+                Files.deleteIfExists(offsetsFile);
+            }
+        }
+    }
+}
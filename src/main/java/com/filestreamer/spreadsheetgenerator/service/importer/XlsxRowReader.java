@@ -0,0 +1,381 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+
+/**
+ * Leitor XLSX em streaming: o XML da planilha é percorrido com StAX direto da entrada do zip,
+ * uma linha por chamada, sem montar o workbook em memória.
+ * <p>
+ * Lê apenas a primeira planilha do workbook. As strings compartilhadas são carregadas antes
+ * numa {@link SharedStringsTable}, que vai para o disco acima do limite de memória. Células
+ * numéricas são devolvidas com o valor gravado no arquivo (ex.: {@code 10.5}), sem a
+ * formatação de exibição; booleanos viram {@code TRUE}/{@code FALSE}. Colunas ausentes no
+ * meio da linha viram campos vazios.
+ * <p>
+ * Precisa de acesso aleatório ao zip (a tabela de strings costuma vir depois da planilha),
+ * por isso lê de um arquivo, não de um stream.
+ */
+public class XlsxRowReader implements ImportRowReader {
+
+    /**
+     * Limite de colunas por planilha do Excel
+     */
+    static final int MAX_COLUMNS = 16_384;
+
+    private static final String ROOT_RELATIONSHIPS = "_rels/.rels";
+    private static final String DEFAULT_WORKBOOK = "xl/workbook.xml";
+
+    private final ZipFile zipFile;
+    private final SharedStringsTable sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+
+    private final List<String> cells = new ArrayList<>();
+    private long rowNumber;
+
+    /**
+     * @param sharedStringsMemoryLimit Bytes da tabela de strings em memória antes de ir para o disco
+     */
+    public XlsxRowReader(Path file, long sharedStringsMemoryLimit) throws IOException {
+        try {
+            this.zipFile = new ZipFile(file.toFile());
+        } catch (ZipException e) {
+            throw new ImportFormatException("Arquivo XLSX inválido: " + e.getMessage(), e);
+        }
+
+        SharedStringsTable strings = new SharedStringsTable(sharedStringsMemoryLimit);
+        InputStream stream = null;
+        try {
+            String workbook = relationshipTarget(ROOT_RELATIONSHIPS, "", "/officeDocument", null);
+            workbook = workbook != null ? workbook : DEFAULT_WORKBOOK;
+            String sheetPart = relationshipTarget(relationshipsOf(workbook), workbook, "/worksheet",
+                    firstSheetRelationshipId(workbook));
+            if (sheetPart == null) {
+                throw new ImportFormatException("Arquivo XLSX sem planilhas", null);
+            }
+
+            String sharedStringsPart = relationshipTarget(relationshipsOf(workbook), workbook, "/sharedStrings", null);
+            if (sharedStringsPart != null) {
+                loadSharedStrings(sharedStringsPart, strings);
+            }
+            strings.finishLoading();
+
+            stream = zipFile.getInputStream(entry(sheetPart));
+            this.sheet = createReader(stream);
+            this.sheetStream = stream;
+            this.sharedStrings = strings;
+        } catch (XMLStreamException e) {
+            ImportFormatException failure = malformed(e);
+            closeAfterFailure(failure, stream, strings, zipFile);
+            throw failure;
+        } catch (IOException | RuntimeException e) {
+            closeAfterFailure(e, stream, strings, zipFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public String[] readRow() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() != XMLStreamConstants.START_ELEMENT || !"row".equals(sheet.getLocalName())) {
+                    continue;
+                }
+                String reference = sheet.getAttributeValue(null, "r");
+                rowNumber = reference != null ? parseIndex(reference, "linha") : rowNumber + 1;
+                if (readCells()) {
+                    return cells.toArray(String[]::new);
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw malformed(e);
+        }
+    }
+
+    @Override
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Lê as células da linha atual em {@link #cells}
+     *
+     * @return false se a linha não tiver nenhum valor
+     */
+    private boolean readCells() throws XMLStreamException, IOException {
+        cells.clear();
+        boolean hasValue = false;
+        int nextColumn = 0;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT || !"c".equals(sheet.getLocalName())) {
+                continue;
+            }
+
+            String reference = sheet.getAttributeValue(null, "r");
+            int column = reference != null ? columnIndex(reference) : nextColumn;
+            nextColumn = column + 1;
+            String value = readCell(sheet.getAttributeValue(null, "t"));
+            if (value.isEmpty()) {
+                continue;
+            }
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(value);
+            hasValue = true;
+        }
+        return hasValue;
+    }
+
+    /**
+     * Valor da célula atual como texto, conforme o tipo ({@code t}) da célula
+     */
+    private String readCell(String type) throws XMLStreamException, IOException {
+        String value = null;
+        String inline = null;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (sheet.getLocalName()) {
+                    case "v" -> value = sheet.getElementText();
+                    case "is" -> inline = readText(sheet, "is");
+                    default -> { }
+                }
+            }
+        }
+
+        if ("inlineStr".equals(type)) {
+            return inline != null ? inline : "";
+        }
+        if (value == null) {
+            return "";
+        }
+        return switch (type == null ? "n" : type) {
+            case "s" -> sharedStrings.get(parseIndex(value, "string compartilhada"));
+            case "b" -> "1".equals(value.trim()) ? "TRUE" : "FALSE";
+            default -> value;
+        };
+    }
+
+    private void loadSharedStrings(String part, SharedStringsTable strings) throws IOException, XMLStreamException {
+        try (InputStream stream = zipFile.getInputStream(entry(part))) {
+            XMLStreamReader reader = createReader(stream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "si".equals(reader.getLocalName())) {
+                        strings.add(readText(reader, "si"));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Texto de um elemento com texto simples ({@code <t>}) ou rico ({@code <r><t>}), ignorando
+     * a transcrição fonética ({@code <rPh>})
+     */
+    private static String readText(XMLStreamReader reader, String elementName) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && elementName.equals(reader.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "t" -> text.append(reader.getElementText());
+                    case "rPh" -> skipElement(reader);
+                    default -> { }
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Id da relação da primeira planilha listada em {@code <sheets>} do workbook
+     */
+    private String firstSheetRelationshipId(String workbook) throws IOException, XMLStreamException {
+        try (InputStream stream = zipFile.getInputStream(entry(workbook))) {
+            XMLStreamReader reader = createReader(stream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(reader.getLocalName())) {
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            // r:id, no namespace de relações (o sheetId não tem namespace)
+                            if ("id".equals(reader.getAttributeLocalName(i))
+                                    && !reader.getAttributeNamespace(i).isEmpty()) {
+                                return reader.getAttributeValue(i);
+                            }
+                        }
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Caminho no zip do alvo da primeira relação com o tipo (ou, se informado, o id) pedido
+     *
+     * @param source Parte dona das relações, base para os alvos relativos
+     */
+    private String relationshipTarget(String relationships, String source, String typeSuffix, String id)
+            throws IOException, XMLStreamException {
+        ZipEntry entry = zipFile.getEntry(relationships);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream stream = zipFile.getInputStream(entry)) {
+            XMLStreamReader reader = createReader(stream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT
+                            || !"Relationship".equals(reader.getLocalName())) {
+                        continue;
+                    }
+                    String type = reader.getAttributeValue(null, "Type");
+                    boolean matches = id != null
+                            ? id.equals(reader.getAttributeValue(null, "Id"))
+                            : type != null && type.endsWith(typeSuffix);
+                    if (matches) {
+                        String target = reader.getAttributeValue(null, "Target");
+                        return URI.create("/" + source).resolve(target).getPath().substring(1);
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Arquivo de relações de uma parte (ex.: xl/_rels/workbook.xml.rels)
+     */
+    private static String relationshipsOf(String part) {
+        int slash = part.lastIndexOf('/');
+        return part.substring(0, slash + 1) + "_rels/" + part.substring(slash + 1) + ".rels";
+    }
+
+    private ZipEntry entry(String name) throws ImportFormatException {
+        ZipEntry entry = zipFile.getEntry(name);
+        if (entry == null) {
+            throw new ImportFormatException("Arquivo XLSX sem a parte " + name, null);
+        }
+        return entry;
+    }
+
+    /**
+     * Índice da coluna (a partir de 0) pela referência da célula (ex.: B12 → 1)
+     */
+    static int columnIndex(String reference) throws ImportFormatException {
+        int column = 0;
+        int i = 0;
+        while (i < reference.length() && Character.isLetter(reference.charAt(i))) {
+            column = column * 26 + (Character.toUpperCase(reference.charAt(i)) - 'A' + 1);
+            if (column > MAX_COLUMNS) {
+                break;
+            }
+            i++;
+        }
+        if (column == 0 || column > MAX_COLUMNS) {
+            throw new ImportFormatException("Referência de célula inválida: " + reference, null);
+        }
+        return column - 1;
+    }
+
+    private static int parseIndex(String value, String description) throws ImportFormatException {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ImportFormatException("Índice de " + description + " inválido: " + value, e);
+        }
+    }
+
+    /**
+     * Leitor StAX sem DTD nem entidades externas, que não são usados em XLSX
+     */
+    private static XMLStreamReader createReader(InputStream stream) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        return factory.createXMLStreamReader(stream);
+    }
+
+    /**
+     * Fecha o que já foi aberto quando a abertura do arquivo falha, sem esconder a falha original
+     */
+    private static void closeAfterFailure(Exception failure, Closeable... resources) {
+        for (Closeable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private static ImportFormatException malformed(XMLStreamException e) {
+        return new ImportFormatException("XLSX malformado: " + e.getMessage(), e);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            throw malformed(e);
+        } finally {
+            try {
+                sheetStream.close();
+                sharedStrings.close();
+            } finally {
+                zipFile.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+-- Jobs de exportação assíncrona: parâmetros, progresso e resultado
+
+CREATE TABLE export_jobs (
+    id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    exporter_type VARCHAR(20) NOT NULL,
+    min_price DECIMAL(10,2),
+    base_path VARCHAR(1024),
+    format VARCHAR(10) NOT NULL,
+    compression VARCHAR(10) NOT NULL,
+    compression_level INTEGER,
+    rows_exported BIGINT NOT NULL DEFAULT 0,
+    bytes_written BIGINT NOT NULL DEFAULT 0,
+    file_name VARCHAR(255),
+    file_path VARCHAR(1024),
+    file_url VARCHAR(1024),
+    file_size_bytes BIGINT,
+    raw_size_bytes BIGINT,
+    execution_time_ms BIGINT,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Recuperação dos jobs interrompidos na inicialização
+CREATE INDEX idx_export_jobs_status ON export_jobs (status);
@@ -0,0 +1,3 @@
+-- Caminho de leitura escolhido para o job (AUTO, JPA ou COPY)
+
+ALTER TABLE export_jobs ADD COLUMN mode VARCHAR(10) NOT NULL DEFAULT 'AUTO';
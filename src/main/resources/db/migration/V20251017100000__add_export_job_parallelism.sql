@@ -0,0 +1,4 @@
+-- Paralelismo da exportação via COPY (NULL = automático) e forma de gravação das faixas
+
+ALTER TABLE export_jobs ADD COLUMN parallelism INTEGER;
+ALTER TABLE export_jobs ADD COLUMN parallel_output VARCHAR(10) NOT NULL DEFAULT 'MERGED';
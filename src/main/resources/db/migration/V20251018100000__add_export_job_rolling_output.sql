@@ -0,0 +1,6 @@
+-- Divisão da exportação em vários arquivos (NULL = sem limite) e localização do manifesto das partes
+
+ALTER TABLE export_jobs ADD COLUMN max_rows_per_file BIGINT;
+ALTER TABLE export_jobs ADD COLUMN max_bytes_per_file BIGINT;
+ALTER TABLE export_jobs ADD COLUMN manifest_path VARCHAR(1024);
+ALTER TABLE export_jobs ADD COLUMN manifest_url VARCHAR(1024);
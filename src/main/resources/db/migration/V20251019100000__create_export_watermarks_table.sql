@@ -0,0 +1,10 @@
+-- Marca d'água das exportações incrementais: último (updated_at, id) exportado por definição
+
+CREATE TABLE export_watermarks (
+    definition_name VARCHAR(100) PRIMARY KEY,
+    last_updated_at TIMESTAMP NOT NULL,
+    last_id UUID NOT NULL,
+    rows_exported BIGINT NOT NULL,
+    exported_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL
+);
@@ -0,0 +1,8 @@
+-- Leitura das alterações posteriores à marca d'água em ordem de (updated_at, id)
+-- CONCURRENTLY não bloqueia as escritas em products durante a construção e não roda numa
+-- transação (ver o .conf). Se a construção falhar, o índice fica inválido; o DROP permite
+-- repetir a migração.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_updated_at_id;
+
+CREATE INDEX CONCURRENTLY idx_products_updated_at_id ON products (updated_at, id);
@@ -0,0 +1,8 @@
+-- Listagem por cursor: WHERE (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT n
+-- percorre o índice a partir da posição do cursor, sem descartar as linhas das páginas anteriores
+-- Construído com CONCURRENTLY, fora de transação (ver o .conf), para não bloquear as escritas;
+-- o DROP remove o índice inválido deixado por uma construção que falhou.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_created_at_id;
+
+CREATE INDEX CONCURRENTLY idx_products_created_at_id ON products (created_at, id);
@@ -0,0 +1,11 @@
+-- Busca por parte do nome: índice de trigramas sobre lower(name), usado por
+-- lower(name) LIKE '%termo%' (termos com 3 caracteres ou mais)
+-- Construído com CONCURRENTLY, fora de transação (ver o .conf), para não bloquear as escritas
+-- durante a construção, que é longa num índice GIN; o DROP remove o índice inválido deixado
+-- por uma construção que falhou.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_name_trgm;
+
+CREATE INDEX CONCURRENTLY idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
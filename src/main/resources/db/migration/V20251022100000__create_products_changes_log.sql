@@ -0,0 +1,25 @@
+-- Versão dos dados de produtos para o cache de exportações: cada INSERT, UPDATE, DELETE,
+-- TRUNCATE ou COPY em products acrescenta, por um trigger de instrução, uma linha em
+-- products_changes na mesma transação, e a versão é a soma de changes das linhas visíveis.
+-- A linha nova só aparece quando a transação que alterou os dados é confirmada, e então a
+-- soma muda.
+-- O trigger só insere, sem atualizar uma linha compartilhada, então escritores concorrentes
+-- não esperam uns pelos outros. A aplicação compacta a tabela periodicamente, trocando as
+-- linhas confirmadas por uma só com a soma delas (ProductCopyRepository.compactDataVersion).
+
+CREATE TABLE products_changes (
+    id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    changes BIGINT NOT NULL DEFAULT 1
+);
+
+CREATE FUNCTION log_products_change() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO products_changes DEFAULT VALUES;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_products_changes
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON products
+FOR EACH STATEMENT EXECUTE FUNCTION log_products_change();
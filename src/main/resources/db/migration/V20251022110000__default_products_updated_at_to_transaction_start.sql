@@ -0,0 +1,9 @@
+-- updated_at de products é o início da transação que grava a linha, no relógio do banco: é o
+-- padrão da coluna, usado pelas cargas em massa (o COPY e os INSERTs em lote não enviam a
+-- coluna), e o valor que o Hibernate grava nas escritas via JPA (@UpdateTimestamp com
+-- source = DB). Uma linha ainda não confirmada tem então updated_at igual ao xact_start da sua
+-- transação, o que permite às exportações incrementais não passar por cima dela (ver
+-- ProductCopyRepository.findDeltaCutoff). localtimestamp é estável, então o COPY continua
+-- inserindo em lotes, o que um padrão volátil como clock_timestamp() impediria.
+
+ALTER TABLE products ALTER COLUMN updated_at SET DEFAULT localtimestamp;
@@ -1,5 +1,7 @@
 package com.filestreamer.spreadsheetgenerator.controller;
 
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+import com.filestreamer.spreadsheetgenerator.service.BulkLoadResult;
 import com.filestreamer.spreadsheetgenerator.service.DataGeneratorService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +10,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -67,6 +71,60 @@ class DataGeneratorControllerTest {
         verify(dataGeneratorService).generateRandomProducts(quantity);
     }
 
+    @Test
+    void shouldBulkLoadProductsAndReportRowsPerSecond() throws Exception {
+        // Given
+        when(dataGeneratorService.getProductCount())
+                .thenReturn(0L)
+                .thenReturn(100_000L);
+        when(dataGeneratorService.bulkLoadRandomProducts(100_000))
+                .thenReturn(new BulkLoadResult(100_000, 500, BulkLoadMethod.COPY, 50_000, 5));
+
+        // When & Then
+        mockMvc.perform(post("/api/data-generator/products/{quantity}", 100_000).param("mode", "BULK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value("BULK"))
+                .andExpect(jsonPath("$.generated_quantity").value(100_000))
+                .andExpect(jsonPath("$.load_method").value("COPY"))
+                .andExpect(jsonPath("$.load_time_ms").value(500))
+                .andExpect(jsonPath("$.rows_per_second").value(200_000))
+                .andExpect(jsonPath("$.chunk_size").value(50_000))
+                .andExpect(jsonPath("$.parallelism").value(5))
+                .andExpect(jsonPath("$.final_count").value(100_000));
+
+        verify(dataGeneratorService).bulkLoadRandomProducts(100_000);
+        verify(dataGeneratorService, never()).generateRandomProducts(anyInt());
+    }
+
+    @Test
+    void shouldAcceptLargerQuantitiesInBulkMode() throws Exception {
+        // Given
+        when(dataGeneratorService.getProductCount()).thenReturn(0L);
+        when(dataGeneratorService.bulkLoadRandomProducts(50_000_000))
+                .thenReturn(new BulkLoadResult(50_000_000, 100_000, BulkLoadMethod.COPY, 50_000, 8));
+
+        // When & Then
+        mockMvc.perform(post("/api/data-generator/products/{quantity}", 50_000_000).param("mode", "BULK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows_per_second").value(500_000));
+
+        mockMvc.perform(post("/api/data-generator/products/{quantity}", 100_000_001).param("mode", "BULK"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Quantidade deve estar entre 1 e 100.000.000"));
+    }
+
+    @Test
+    void shouldReturnServerErrorWhenBulkLoadFails() throws Exception {
+        // Given
+        when(dataGeneratorService.bulkLoadRandomProducts(10)).thenThrow(new IOException("conexão perdida"));
+
+        // When & Then
+        mockMvc.perform(post("/api/data-generator/products/{quantity}", 10).param("mode", "BULK"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("Erro durante carga em massa: conexão perdida"))
+                .andExpect(jsonPath("$.requested_quantity").value(10));
+    }
+
     @Test
     void shouldReturnBadRequestForZeroQuantity() throws Exception {
         // When & Then
@@ -0,0 +1,151 @@
+package com.filestreamer.spreadsheetgenerator.controller;
+
+import com.filestreamer.spreadsheetgenerator.dto.ExportJobDto;
+import com.filestreamer.spreadsheetgenerator.exception.ExportJobNotFoundException;
+import com.filestreamer.spreadsheetgenerator.model.ExportJob;
+import com.filestreamer.spreadsheetgenerator.model.ExportJobStatus;
+import com.filestreamer.spreadsheetgenerator.service.export.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobControllerTest {
+
+    @Mock
+    private ExportJobService exportJobService;
+
+    private ExportJobController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ExportJobController(exportJobService);
+    }
+
+    private ExportJob pendingJob() {
+        ExportJob job = new ExportJob(ExporterType.LOCAL, null, null, ExportOptions.defaults());
+        job.setId(UUID.randomUUID());
+        return job;
+    }
+
+    @Test
+    void shouldAcceptJobAndReturnLocation() {
+        // Given
+        ExportJob job = pendingJob();
+        when(exportJobService.submitAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults())).thenReturn(job);
+
+        // When
+        ResponseEntity<ExportJobDto> response = controller.submitAllProducts(ExporterType.LOCAL, null,
+                ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null);
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/v2/export/jobs/" + job.getId(), response.getHeaders().getLocation().toString());
+        assertEquals(job.getId(), response.getBody().getId());
+        assertEquals(ExportJobStatus.PENDING, response.getBody().getStatus());
+        assertNull(response.getBody().getResult());
+    }
+
+    @Test
+    void shouldAcceptFilteredJob() {
+        // Given
+        ExportJob job = pendingJob();
+        BigDecimal minPrice = new BigDecimal("100.00");
+        ExportOptions options = ExportOptions.builder().format(ExportFormat.XLSX).build();
+        when(exportJobService.submitProductsByMinPrice(ExporterType.AWS_S3, minPrice, null, options)).thenReturn(job);
+
+        // When
+        ResponseEntity<ExportJobDto> response = controller.submitFilteredProducts(ExporterType.AWS_S3, minPrice, null,
+                ExportFormat.XLSX, CompressionCodec.NONE, null, ExportMode.AUTO, null, null);
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(exportJobService).submitProductsByMinPrice(ExporterType.AWS_S3, minPrice, null, options);
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidCompressionLevel() {
+        // When
+        ResponseEntity<ExportJobDto> response = controller.submitAllProducts(ExporterType.LOCAL, null,
+                ExportFormat.CSV, CompressionCodec.GZIP, 42, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(exportJobService);
+    }
+
+    @Test
+    void shouldReturnBadRequestForParallelXlsxExport() {
+        // When
+        ResponseEntity<ExportJobDto> response = controller.submitAllProducts(ExporterType.LOCAL, null,
+                ExportFormat.XLSX, CompressionCodec.NONE, null, ExportMode.AUTO, 4, ParallelOutput.PARTS, null, null);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(exportJobService);
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenQueueIsFull() {
+        // Given
+        when(exportJobService.submitAllProducts(any(), any(), any()))
+                .thenThrow(new RejectedExecutionException("Fila de exportações cheia"));
+
+        // When
+        ResponseEntity<ExportJobDto> response = controller.submitAllProducts(ExporterType.LOCAL, null,
+                ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(ExportJobController.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void shouldReturnJobProgressAndResult() {
+        // Given
+        ExportJob job = pendingJob();
+        job.markRunning();
+        job.updateProgress(5000, 320_000);
+        job.markCompleted(new ExportResult("products.csv", "./temp/products.csv", "./temp/products.csv",
+                10_000L, 640_000L, 900L, ExporterType.LOCAL));
+        when(exportJobService.getJob(job.getId())).thenReturn(job);
+
+        // When
+        ResponseEntity<ExportJobDto> response = controller.getJob(job.getId());
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ExportJobDto dto = response.getBody();
+        assertEquals(ExportJobStatus.COMPLETED, dto.getStatus());
+        assertEquals(10_000L, dto.getRowsExported());
+        assertEquals(640_000L, dto.getBytesWritten());
+        assertTrue(dto.getResult().isSuccess());
+        assertEquals("products.csv", dto.getResult().getFileName());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() {
+        // Given
+        UUID jobId = UUID.randomUUID();
+        when(exportJobService.getJob(jobId)).thenThrow(new ExportJobNotFoundException("não encontrado"));
+
+        // When
+        ResponseEntity<ExportJobDto> response = controller.getJob(jobId);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -1,16 +1,23 @@
 package com.filestreamer.spreadsheetgenerator.controller;
 
+import com.filestreamer.spreadsheetgenerator.exception.ExportRejectedException;
 import com.filestreamer.spreadsheetgenerator.service.export.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -25,11 +32,14 @@ class GenericExportControllerTest {
     @Mock
     private GenericStreamExportService exportService;
 
+    private ExportAdmission admission;
+
     private GenericExportController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new GenericExportController(exportService);
+        admission = new ExportAdmission(ExportMetrics.noop(), 1, 1, "", 0, Duration.ZERO, Duration.ofSeconds(30));
+        controller = new GenericExportController(exportService, admission);
     }
 
     @Test
@@ -40,10 +50,10 @@ class GenericExportControllerTest {
         ExportResult successResult = new ExportResult("test.csv", "./test/test.csv", 
                 "file://./test/test.csv", 100L, 2048L, 1500L, ExporterType.LOCAL);
 
-        when(exportService.exportAllProducts(exporterType, basePath)).thenReturn(successResult);
+        when(exportService.exportAllProducts(exporterType, basePath, ExportOptions.defaults())).thenReturn(successResult);
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath);
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -52,7 +62,200 @@ class GenericExportControllerTest {
         assertEquals(100L, response.getBody().getTotalRecords());
         assertEquals("test.csv", response.getBody().getFileName());
 
-        verify(exportService).exportAllProducts(exporterType, basePath);
+        verify(exportService).exportAllProducts(exporterType, basePath, ExportOptions.defaults());
+    }
+
+    @Test
+    void shouldPassRequestedFormatToExportService() throws IOException {
+        // Given
+        ExportOptions xlsxOptions = ExportOptions.builder().format(ExportFormat.XLSX).build();
+        ExportResult successResult = new ExportResult("test.xlsx", "./test/test.xlsx",
+                "file://./test/test.xlsx", 10L, 4096L, 800L, ExporterType.LOCAL);
+        when(exportService.exportAllProducts(ExporterType.LOCAL, null, xlsxOptions)).thenReturn(successResult);
+
+        // When
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(ExporterType.LOCAL, null, ExportFormat.XLSX, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("test.xlsx", response.getBody().getFileName());
+    }
+
+    @Test
+    void shouldPassRollingOptionsToExportService() throws IOException {
+        // Given
+        ExportOptions rollingOptions = ExportOptions.builder().maxRowsPerFile(500_000L).build();
+        ExportResult successResult = new ExportResult("test.csv", "./test/test_part-00001.csv",
+                "./test/test_part-00001.csv", 10L, 4096L, 800L, ExporterType.LOCAL)
+                .withManifest("./test/test_manifest.json", "./test/test_manifest.json");
+        when(exportService.exportAllProducts(ExporterType.LOCAL, null, rollingOptions)).thenReturn(successResult);
+
+        // When
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(ExporterType.LOCAL, null, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, 500_000L, null, false);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("./test/test_manifest.json", response.getBody().getManifestPath());
+    }
+
+    @Test
+    void shouldReturnBadRequestForRollingCopyExport() {
+        // When
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(ExporterType.LOCAL, null, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.COPY, null, ParallelOutput.MERGED, null, 1024L, false);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void shouldExportAllProductsToParsedTargets() throws IOException {
+        // Given
+        List<ExportTarget> targets = List.of(ExportTarget.parse("LOCAL:XLSX"), ExportTarget.parse("AWS_S3:CSV:GZIP"));
+        List<ExportResult> results = List.of(
+                new ExportResult("a.xlsx", "./a.xlsx", "./a.xlsx", 10L, 4096L, 800L, ExporterType.LOCAL),
+                new ExportResult(ExporterType.AWS_S3, "bucket inexistente"));
+        when(exportService.exportAllProductsToTargets(targets, null)).thenReturn(results);
+
+        // When
+        ResponseEntity<List<ExportResult>> response = controller.exportAllProductsToTargets(
+                List.of("LOCAL:XLSX", "AWS_S3:CSV:GZIP"), null);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenExporterHasNoFreeSlot() throws IOException {
+        // Given
+        ExportResult successResult = new ExportResult("test.csv", "./test/test.csv",
+                "file://./test/test.csv", 100L, 2048L, 1500L, ExporterType.LOCAL);
+        when(exportService.exportAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults())).thenReturn(successResult);
+
+        // When
+        ResponseEntity<ExportResult> rejected;
+        try (ExportAdmission.Permit running = admission.acquire(ExporterType.LOCAL)) {
+            rejected = controller.exportAllProducts(ExporterType.LOCAL, null, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
+        }
+        ResponseEntity<ExportResult> afterRelease = controller.exportAllProducts(ExporterType.LOCAL, null, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+        assertEquals("30", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(rejected.getBody().isSuccess());
+        assertEquals(HttpStatus.OK, afterRelease.getStatusCode());
+        verify(exportService, times(1)).exportAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults());
+    }
+
+    @Test
+    void shouldReturnTooManyRequestsWhenAnyTargetExporterIsBusy() {
+        // When
+        ResponseEntity<List<ExportResult>> response;
+        try (ExportAdmission.Permit running = admission.acquire(ExporterType.AWS_S3)) {
+            response = controller.exportAllProductsToTargets(List.of("LOCAL:XLSX", "AWS_S3:CSV"), null);
+        }
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidTarget() {
+        // When
+        ResponseEntity<List<ExportResult>> response = controller.exportAllProductsToTargets(List.of("FTP"), null);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void shouldStreamAllProductsIntoResponseBody() throws IOException {
+        // Given
+        ExportConfig exportConfig = ExportConfig.builder().fileName("products_export.csv").build();
+        when(exportService.createAllProductsDownloadConfig(ExportOptions.defaults())).thenReturn(exportConfig);
+        when(exportService.streamAllProducts(any(), eq(exportConfig))).thenAnswer(invocation -> {
+            java.io.OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("\"ID\"\n".getBytes());
+            return 0L;
+        });
+
+        // When
+        ResponseEntity<StreamingResponseBody> response =
+                controller.streamAllProducts(ExportFormat.CSV, CompressionCodec.NONE, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"products_export.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals(-1, response.getHeaders().getContentLength());
+        verify(exportService, never()).streamAllProducts(any(), any());
+
+        java.io.ByteArrayOutputStream body = new java.io.ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+        assertEquals("\"ID\"\n", body.toString());
+        verify(exportService).streamAllProducts(any(), eq(exportConfig));
+    }
+
+    @Test
+    void shouldAdmitStreamDownloadInsideResponseBody() throws IOException {
+        // Given
+        ExportConfig exportConfig = ExportConfig.builder().fileName("products_export.csv").build();
+        when(exportService.createAllProductsDownloadConfig(ExportOptions.defaults())).thenReturn(exportConfig);
+        ResponseEntity<StreamingResponseBody> response =
+                controller.streamAllProducts(ExportFormat.CSV, CompressionCodec.NONE, null);
+        ExportAdmission.Permit running = admission.acquire(ExporterType.LOCAL);
+
+        // When
+        ExportRejectedException exception = assertThrows(ExportRejectedException.class,
+                () -> response.getBody().writeTo(new java.io.ByteArrayOutputStream()));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        servletResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products_export.csv\"");
+        ResponseEntity<Void> rejected = controller.handleDownloadRejected(exception, servletResponse);
+
+        // Then
+        verify(exportService, never()).streamAllProducts(any(), any());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+        assertEquals("30", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(servletResponse.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        running.close();
+        when(exportService.streamAllProducts(any(), eq(exportConfig))).thenReturn(0L);
+        response.getBody().writeTo(new java.io.ByteArrayOutputStream());
+        admission.acquireDownload().close();
+    }
+
+    @Test
+    void shouldUseCompressionMediaTypeForCompressedStream() {
+        // Given
+        ExportOptions options = ExportOptions.builder().compression(CompressionCodec.GZIP).build();
+        when(exportService.createAllProductsDownloadConfig(options)).thenReturn(ExportConfig.builder()
+                .fileName("products_export.csv.gz")
+                .compression(CompressionCodec.GZIP)
+                .build());
+
+        // When
+        ResponseEntity<StreamingResponseBody> response =
+                controller.streamAllProducts(ExportFormat.CSV, CompressionCodec.GZIP, null);
+
+        // Then
+        assertEquals(MediaType.parseMediaType("application/gzip"), response.getHeaders().getContentType());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidStreamOptions() {
+        // When
+        ResponseEntity<StreamingResponseBody> response =
+                controller.streamAllProducts(ExportFormat.CSV, CompressionCodec.GZIP, 42);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNull(response.getBody());
+        verifyNoInteractions(exportService);
     }
 
     @Test
@@ -62,10 +265,10 @@ class GenericExportControllerTest {
         String basePath = "./test";
         ExportResult failureResult = new ExportResult(ExporterType.LOCAL, "Erro na exportação");
 
-        when(exportService.exportAllProducts(exporterType, basePath)).thenReturn(failureResult);
+        when(exportService.exportAllProducts(exporterType, basePath, ExportOptions.defaults())).thenReturn(failureResult);
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath);
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
 
         // Then
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -73,7 +276,7 @@ class GenericExportControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertEquals("Erro na exportação", response.getBody().getErrorMessage());
 
-        verify(exportService).exportAllProducts(exporterType, basePath);
+        verify(exportService).exportAllProducts(exporterType, basePath, ExportOptions.defaults());
     }
 
     @Test
@@ -82,11 +285,11 @@ class GenericExportControllerTest {
         ExporterType exporterType = ExporterType.GCP_STORAGE;
         String basePath = "./test";
 
-        when(exportService.exportAllProducts(exporterType, basePath))
+        when(exportService.exportAllProducts(exporterType, basePath, ExportOptions.defaults()))
                 .thenThrow(new IllegalStateException("Exportador não configurado"));
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath);
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
 
         // Then
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -94,7 +297,7 @@ class GenericExportControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertTrue(response.getBody().getErrorMessage().contains("Exportador não configurado"));
 
-        verify(exportService).exportAllProducts(exporterType, basePath);
+        verify(exportService).exportAllProducts(exporterType, basePath, ExportOptions.defaults());
     }
 
     @Test
@@ -106,10 +309,10 @@ class GenericExportControllerTest {
         ExportResult successResult = new ExportResult("filtered.csv", "s3://bucket/path/filtered.csv", 
                 "https://s3.amazonaws.com/bucket/path/filtered.csv", 25L, 1024L, 800L, ExporterType.AWS_S3);
 
-        when(exportService.exportProductsByMinPrice(exporterType, minPrice, basePath)).thenReturn(successResult);
+        when(exportService.exportProductsByMinPrice(exporterType, minPrice, basePath, ExportOptions.defaults())).thenReturn(successResult);
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportFilteredProducts(exporterType, minPrice, basePath);
+        ResponseEntity<ExportResult> response = controller.exportFilteredProducts(exporterType, minPrice, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, null, false);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -118,7 +321,7 @@ class GenericExportControllerTest {
         assertEquals(25L, response.getBody().getTotalRecords());
         assertEquals("filtered.csv", response.getBody().getFileName());
 
-        verify(exportService).exportProductsByMinPrice(exporterType, minPrice, basePath);
+        verify(exportService).exportProductsByMinPrice(exporterType, minPrice, basePath, ExportOptions.defaults());
     }
 
     @Test
@@ -129,10 +332,10 @@ class GenericExportControllerTest {
         String basePath = "s3://bucket/path";
         ExportResult failureResult = new ExportResult(ExporterType.AWS_S3, "Falha na exportação filtrada");
 
-        when(exportService.exportProductsByMinPrice(exporterType, minPrice, basePath)).thenReturn(failureResult);
+        when(exportService.exportProductsByMinPrice(exporterType, minPrice, basePath, ExportOptions.defaults())).thenReturn(failureResult);
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportFilteredProducts(exporterType, minPrice, basePath);
+        ResponseEntity<ExportResult> response = controller.exportFilteredProducts(exporterType, minPrice, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, null, false);
 
         // Then
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -140,7 +343,7 @@ class GenericExportControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertEquals("Falha na exportação filtrada", response.getBody().getErrorMessage());
 
-        verify(exportService).exportProductsByMinPrice(exporterType, minPrice, basePath);
+        verify(exportService).exportProductsByMinPrice(exporterType, minPrice, basePath, ExportOptions.defaults());
     }
 
     @Test
@@ -149,11 +352,11 @@ class GenericExportControllerTest {
         ExporterType exporterType = ExporterType.LOCAL;
         String basePath = "./test";
 
-        when(exportService.exportAllProducts(exporterType, basePath))
+        when(exportService.exportAllProducts(exporterType, basePath, ExportOptions.defaults()))
                 .thenThrow(new IOException("Erro de I/O"));
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath);
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
 
         // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -161,7 +364,7 @@ class GenericExportControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertTrue(response.getBody().getErrorMessage().contains("Erro de I/O"));
 
-        verify(exportService).exportAllProducts(exporterType, basePath);
+        verify(exportService).exportAllProducts(exporterType, basePath, ExportOptions.defaults());
     }
 
     @Test
@@ -244,11 +447,11 @@ class GenericExportControllerTest {
         ExporterType exporterType = ExporterType.LOCAL;
         String basePath = "./test";
 
-        when(exportService.exportAllProducts(exporterType, basePath))
+        when(exportService.exportAllProducts(exporterType, basePath, ExportOptions.defaults()))
                 .thenThrow(new RuntimeException("Erro inesperado"));
 
         // When
-        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath);
+        ResponseEntity<ExportResult> response = controller.exportAllProducts(exporterType, basePath, ExportFormat.CSV, CompressionCodec.NONE, null, ExportMode.AUTO, null, ParallelOutput.MERGED, null, null, false);
 
         // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -256,6 +459,38 @@ class GenericExportControllerTest {
         assertFalse(response.getBody().isSuccess());
         assertTrue(response.getBody().getErrorMessage().contains("Erro inesperado"));
 
-        verify(exportService).exportAllProducts(exporterType, basePath);
+        verify(exportService).exportAllProducts(exporterType, basePath, ExportOptions.defaults());
+    }
+
+    @Test
+    void shouldExportChangedProductsThroughJpa() throws IOException {
+        // Given
+        ExportOptions deltaOptions = ExportOptions.builder().mode(ExportMode.JPA).compression(CompressionCodec.GZIP).build();
+        when(exportService.exportChangedProducts(ExporterType.LOCAL, "erp", "./test", deltaOptions))
+                .thenReturn(new ExportResult("delta.csv.gz", "./test/delta.csv.gz", "./test/delta.csv.gz",
+                        7L, 512L, 30L, ExporterType.LOCAL));
+
+        // When
+        ResponseEntity<ExportResult> response = controller.exportChangedProducts(ExporterType.LOCAL, "erp", "./test",
+                ExportFormat.CSV, CompressionCodec.GZIP, null, null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7L, response.getBody().getTotalRecords());
+    }
+
+    @Test
+    void shouldReturnConflictWhenWatermarkWasAdvancedConcurrently() throws IOException {
+        // Given
+        when(exportService.exportChangedProducts(eq(ExporterType.LOCAL), eq("erp"), isNull(), any()))
+                .thenThrow(new OptimisticLockingFailureException("versão alterada"));
+
+        // When
+        ResponseEntity<ExportResult> response = controller.exportChangedProducts(ExporterType.LOCAL, "erp", null,
+                ExportFormat.CSV, CompressionCodec.NONE, null, null, null);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertFalse(response.getBody().isSuccess());
     }
-} 
\ No newline at end of file
+}
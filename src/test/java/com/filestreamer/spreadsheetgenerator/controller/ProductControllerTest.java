@@ -2,9 +2,11 @@ package com.filestreamer.spreadsheetgenerator.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.filestreamer.spreadsheetgenerator.dto.ProductCreateDto;
+import com.filestreamer.spreadsheetgenerator.dto.ProductCursor;
 import com.filestreamer.spreadsheetgenerator.dto.ProductDto;
 import com.filestreamer.spreadsheetgenerator.dto.ProductUpdateDto;
 import com.filestreamer.spreadsheetgenerator.exception.ProductNotFoundException;
+import com.filestreamer.spreadsheetgenerator.service.ProductJsonStreamWriter;
 import com.filestreamer.spreadsheetgenerator.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +16,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -180,11 +185,42 @@ class ProductControllerTest {
         verify(productService).findAll(any(Pageable.class));
     }
 
+    @Test
+    void shouldListProductsByCursorWithNextCursor() throws Exception {
+        // Given
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2025, 1, 1, 10, 0), UUID.randomUUID());
+        when(productService.findAllByCursor(cursor, 1))
+                .thenReturn(new SliceImpl<>(List.of(productDto), Pageable.ofSize(1), true));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/cursor")
+                        .param("cursor", cursor.encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(productId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(ProductCursor.after(productDto).encode()))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        verify(productService).findAllByCursor(cursor, 1);
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidCursorOrSize() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/products/cursor").param("cursor", "não-é-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/cursor").param("size", "5000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
     @Test
     void shouldFindProductsByName() throws Exception {
         // Given
         List<ProductDto> products = List.of(productDto);
-        when(productService.findByName("Test")).thenReturn(products);
+        when(productService.findByName("Test", 50)).thenReturn(products);
 
         // When & Then
         mockMvc.perform(get("/api/products/search")
@@ -193,7 +229,7 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].name").value("Test Product"));
 
-        verify(productService).findByName("Test");
+        verify(productService).findByName("Test", 50);
     }
 
     @Test
@@ -203,7 +239,25 @@ class ProductControllerTest {
                         .param("name", "   "))
                 .andExpect(status().isBadRequest());
 
-        verify(productService, never()).findByName(anyString());
+        verify(productService, never()).findByName(anyString(), anyInt());
+    }
+
+    @Test
+    void shouldLimitSearchResults() throws Exception {
+        // Given
+        when(productService.findByName("Test", 5)).thenReturn(List.of(productDto));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/search")
+                        .param("name", "Test")
+                        .param("limit", "5"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/search")
+                        .param("name", "Test")
+                        .param("limit", "501"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService).findByName("Test", 5);
     }
 
     @Test
@@ -240,6 +294,78 @@ class ProductControllerTest {
         verify(productService).findByPriceRange(any(BigDecimal.class), any(BigDecimal.class));
     }
 
+    @Test
+    void shouldStreamPriceRangeAsNdjson() throws Exception {
+        // Given
+        when(productService.streamByPriceRange(any(BigDecimal.class), any(BigDecimal.class),
+                any(ProductJsonStreamWriter.class))).thenAnswer(invocation -> {
+                    ProductJsonStreamWriter writer = invocation.getArgument(2);
+                    writer.write(productDto);
+                    writer.write(productDto);
+                    writer.finish();
+                    return writer.getCount();
+                });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/price-range/stream")
+                        .param("priceMin", "50.00")
+                        .param("priceMax", "150.00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Test Product", objectMapper.readTree(lines[0]).get("name").asText());
+    }
+
+    @Test
+    void shouldStreamSearchAsJsonArray() throws Exception {
+        // Given
+        when(productService.streamByName(eq("Test"), eq(1000), any(ProductJsonStreamWriter.class)))
+                .thenAnswer(invocation -> {
+                    ProductJsonStreamWriter writer = invocation.getArgument(2);
+                    writer.write(productDto);
+                    writer.finish();
+                    return writer.getCount();
+                });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/products/search/stream")
+                        .param("name", "Test")
+                        .param("format", "JSON_ARRAY"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].name").value("Test Product"));
+    }
+
+    @Test
+    void shouldValidateStreamRequestsBeforeStreaming() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/products/price-range/stream")
+                        .param("priceMin", "150.00")
+                        .param("priceMax", "50.00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Preço mínimo não pode ser maior que preço máximo"));
+        mockMvc.perform(get("/api/products/search/stream")
+                        .param("name", "Test")
+                        .param("limit", "100001"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).streamByPriceRange(any(), any(), any());
+        verify(productService, never()).streamByName(any(), anyInt(), any());
+    }
+
     @Test
     void shouldUpdateProductSuccessfully() throws Exception {
         // Given
@@ -0,0 +1,142 @@
+package com.filestreamer.spreadsheetgenerator.controller;
+
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+import com.filestreamer.spreadsheetgenerator.service.importer.ImportFormatException;
+import com.filestreamer.spreadsheetgenerator.service.importer.ProductImportResult;
+import com.filestreamer.spreadsheetgenerator.service.importer.ProductImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ProductImportController.class)
+class ProductImportControllerTest {
+
+    private static final String IMPORT_ID = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductImportService importService;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldImportCsvSentInBody() throws Exception {
+        // Given
+        when(importService.importCsv(any(), eq(';')))
+                .thenReturn(new ProductImportResult(IMPORT_ID, 100, 98, 2, 50, BulkLoadMethod.COPY, 50_000));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .param("delimiter", ";")
+                        .content("name;price\nMouse;10\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.import_id").value(IMPORT_ID))
+                .andExpect(jsonPath("$.rows_read").value(100))
+                .andExpect(jsonPath("$.accepted").value(98))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.rows_per_second").value(2000))
+                .andExpect(jsonPath("$.load_method").value("COPY"))
+                .andExpect(jsonPath("$.rejected_report").value("/api/products/import/reports/" + IMPORT_ID));
+    }
+
+    @Test
+    void shouldImportCsvSentAsMultipartFile() throws Exception {
+        // Given
+        when(importService.importCsv(any(), eq(',')))
+                .thenReturn(new ProductImportResult(IMPORT_ID, 1, 1, 0, 5, BulkLoadMethod.JDBC_BATCH, 50_000));
+        MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv",
+                "name,price\nMouse,10\n".getBytes());
+
+        // When & Then
+        mockMvc.perform(multipart("/api/products/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected_report").doesNotExist());
+    }
+
+    @Test
+    void shouldImportXlsxByContentTypeOrFileExtension() throws Exception {
+        // Given
+        when(importService.importXlsx(any()))
+                .thenReturn(new ProductImportResult(IMPORT_ID, 10, 10, 0, 5, BulkLoadMethod.COPY, 50_000));
+        MockMultipartFile file = new MockMultipartFile("file", "catalogo.XLSX", "application/octet-stream",
+                new byte[]{1, 2, 3});
+
+        // When & Then
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(10));
+        mockMvc.perform(multipart("/api/products/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(10));
+
+        verify(importService, times(2)).importXlsx(any());
+        verify(importService, never()).importCsv(any(), anyChar());
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidFileOrDelimiter() throws Exception {
+        // Given
+        when(importService.importCsv(any(), eq(',')))
+                .thenThrow(new ImportFormatException("CSV malformado a partir da linha 3: aspas", null));
+
+        // When & Then
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content("name,price\n\"Mouse,10\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("CSV malformado a partir da linha 3: aspas"));
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .param("delimiter", ";;")
+                        .content("name,price\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Separador deve ser um único caractere"));
+    }
+
+    @Test
+    void shouldDownloadRejectedReport() throws Exception {
+        // Given
+        Path report = Files.writeString(tempDir.resolve(IMPORT_ID + "_rejected.csv"),
+                "\"Linha\",\"Erros\"\n\"2\",\"Nome é obrigatório\"\n");
+        when(importService.findRejectedReport(IMPORT_ID)).thenReturn(Optional.of(report));
+
+        // When & Then
+        mockMvc.perform(get("/api/products/import/reports/{importId}", IMPORT_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"" + IMPORT_ID + "_rejected.csv\""))
+                .andExpect(content().string("\"Linha\",\"Erros\"\n\"2\",\"Nome é obrigatório\"\n"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownReport() throws Exception {
+        // Given
+        when(importService.findRejectedReport("desconhecido")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/products/import/reports/{importId}", "desconhecido"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,8 +1,13 @@
 package com.filestreamer.spreadsheetgenerator.dto;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,6 +42,25 @@ class ProductCreateDtoTest {
         assertEquals(price, createDto.getPrice());
     }
 
+    @Test
+    void shouldRejectPriceWithMoreThanTwoDecimalPlaces() {
+        // Given
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = validatorFactory.getValidator();
+
+            // When
+            Set<ConstraintViolation<ProductCreateDto>> tooPrecise =
+                    validator.validate(new ProductCreateDto("Mouse", null, new BigDecimal("10.001")));
+            Set<ConstraintViolation<ProductCreateDto>> valid =
+                    validator.validate(new ProductCreateDto("Mouse", null, new BigDecimal("99999999.99")));
+
+            // Then
+            assertEquals(1, tooPrecise.size());
+            assertEquals("Preço deve ter no máximo 2 casas decimais", tooPrecise.iterator().next().getMessage());
+            assertTrue(valid.isEmpty());
+        }
+    }
+
     @Test
     void shouldSetAndGetName() {
         // Given
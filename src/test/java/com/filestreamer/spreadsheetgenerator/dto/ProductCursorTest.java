@@ -0,0 +1,38 @@
+package com.filestreamer.spreadsheetgenerator.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCursorTest {
+
+    @Test
+    void shouldRoundTripThroughOpaqueToken() {
+        // Given
+        ProductDto product = new ProductDto(UUID.randomUUID(), "Produto", null, BigDecimal.TEN,
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000), LocalDateTime.now());
+
+        // When
+        String token = ProductCursor.after(product).encode();
+        ProductCursor decoded = ProductCursor.decode(token);
+
+        // Then
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(product.getCreatedAt(), decoded.createdAt());
+        assertEquals(product.getId(), decoded.id());
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() {
+        // When & Then
+        assertEquals("Cursor inválido",
+                assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("%%%")).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("c2VtLXNlcGFyYWRvcg"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(
+                new ProductCursor(LocalDateTime.now(), UUID.randomUUID()).encode().substring(4)));
+    }
+}
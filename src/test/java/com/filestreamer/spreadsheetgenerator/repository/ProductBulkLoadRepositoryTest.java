@@ -0,0 +1,174 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkLoadRepositoryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private ProductBulkLoadRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ProductBulkLoadRepository(dataSource);
+    }
+
+    @Test
+    void shouldCopyProductsInChunksCommittingEachOne() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(ProductBulkLoadRepository.COPY_PRODUCTS_IN)).thenReturn(copyIn);
+        when(copyIn.isActive()).thenReturn(true);
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            copied.write(invocation.<byte[]>getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        List<Product> products = List.of(product("A", "Descrição"), product("B", null), product("C", "Com \"aspas\""));
+
+        // When
+        long rows = repository.load(products.iterator(), 2);
+
+        // Then
+        assertEquals(3, rows);
+        verify(copyManager, times(2)).copyIn(ProductBulkLoadRepository.COPY_PRODUCTS_IN);
+        verify(copyIn, times(2)).endCopy();
+        verify(connection, times(2)).commit();
+        verify(connection, never()).rollback();
+        verify(connection).setAutoCommit(true);
+        String csv = copied.toString(StandardCharsets.UTF_8);
+        assertEquals(
+                "\"" + products.get(0).getId() + "\",\"A\",\"Descrição\",\"10.50\",\"2025-01-02T03:04:05\"\n" +
+                "\"" + products.get(1).getId() + "\",\"B\",,\"10.50\",\"2025-01-02T03:04:05\"\n" +
+                "\"" + products.get(2).getId() + "\",\"C\",\"Com \"\"aspas\"\"\",\"10.50\",\"2025-01-02T03:04:05\"\n",
+                csv);
+    }
+
+    @Test
+    void shouldFallBackToJdbcBatchWhenCopyIsNotSupported() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+        when(connection.prepareStatement(ProductBulkLoadRepository.INSERT_PRODUCT)).thenReturn(statement);
+        List<Product> products = List.of(product("A", "Descrição"), product("B", null), product("C", "Outra"));
+
+        // When
+        long rows = repository.load(products.iterator(), 2);
+
+        // Then
+        assertEquals(3, rows);
+        verify(statement, times(3)).addBatch();
+        verify(statement, times(2)).executeBatch();
+        verify(statement).setString(3, null);
+        verify(connection, times(2)).commit();
+        verify(connection, never()).unwrap(PGConnection.class);
+    }
+
+    @Test
+    void shouldRollbackCurrentChunkAndWrapSqlErrors() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+        when(connection.prepareStatement(ProductBulkLoadRepository.INSERT_PRODUCT)).thenReturn(statement);
+        when(statement.executeBatch()).thenThrow(new SQLException("violação de restrição"));
+
+        // When & Then
+        IOException exception = assertThrows(IOException.class,
+                () -> repository.load(List.of(product("A", "Descrição")).iterator(), 10));
+        assertEquals("Erro durante carga de produtos: violação de restrição", exception.getMessage());
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(connection).rollback();
+        inOrder.verify(connection).setAutoCommit(true);
+        inOrder.verify(connection).close();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    void shouldDetectLoadMethodOnce() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+
+        // When
+        BulkLoadMethod first = repository.getLoadMethod();
+        BulkLoadMethod second = repository.getLoadMethod();
+
+        // Then
+        assertEquals(BulkLoadMethod.COPY, first);
+        assertEquals(BulkLoadMethod.COPY, second);
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldGenerateIdForProductsWithoutOne() {
+        // Given
+        Product product = product("A", null);
+        product.setId(null);
+
+        // When
+        String[] row = ProductBulkLoadRepository.toCsvRow(product);
+
+        // Then
+        assertDoesNotThrow(() -> UUID.fromString(row[0]));
+        assertNull(row[2]);
+        assertEquals("10.50", row[3]);
+    }
+
+    private static Product product(String name, String description) {
+        Product product = new Product(name, description, new BigDecimal("10.50"));
+        product.setId(UUID.randomUUID());
+        product.setCreatedAt(CREATED_AT);
+        return product;
+    }
+}
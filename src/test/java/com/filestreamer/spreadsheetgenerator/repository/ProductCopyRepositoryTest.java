@@ -0,0 +1,307 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCopyRepositoryTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    private ProductCopyRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ProductCopyRepository(dataSource);
+    }
+
+    @Test
+    void shouldCopyAllProductsThroughCopyManager() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyOut(ProductCopyRepository.COPY_ALL_PRODUCTS, outputStream)).thenReturn(42L);
+
+        // When
+        long rows = repository.copyAllProducts(outputStream);
+
+        // Then
+        assertEquals(42L, rows);
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldWrapSqlErrorsAsIOException() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyOut(anyString(), any(java.io.OutputStream.class))).thenThrow(new SQLException("conexão perdida"));
+
+        // When & Then
+        IOException exception = assertThrows(IOException.class,
+                () -> repository.copyProductsByMinPrice(BigDecimal.ONE, new ByteArrayOutputStream()));
+        assertEquals("Erro durante COPY: conexão perdida", exception.getMessage());
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldDetectCopySupportOnce() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        // When
+        boolean first = repository.isCopySupported();
+        boolean second = repository.isCopySupported();
+
+        // Then
+        assertFalse(first);
+        assertFalse(second);
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReadDataVersionFromChangeLog() throws SQLException {
+        // Given
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(contains("products_changes"))).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(17L);
+
+        // When
+        Optional<ProductDataVersion> version = repository.findDataVersion();
+
+        // Then
+        assertEquals(Optional.of(new ProductDataVersion(17)), version);
+    }
+
+    @Test
+    void shouldHaveNoDataVersionOutsidePostgres() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        // When
+        Optional<ProductDataVersion> version = repository.findDataVersion();
+
+        // Then
+        assertTrue(version.isEmpty());
+        verify(connection, never()).createStatement();
+    }
+
+    @Test
+    void shouldNotCompactDataVersionOutsidePostgres() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        // When
+        boolean compacted = repository.compactDataVersion();
+
+        // Then
+        assertFalse(compacted);
+        verify(connection, never()).createStatement();
+    }
+
+    @Test
+    void shouldBoundDeltaCutoffByOpenWriteTransactions() throws Exception {
+        // Given
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 10, 30);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.prepareStatement(ProductCopyRepository.DELTA_CUTOFF)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getObject(1, LocalDateTime.class)).thenReturn(cutoff);
+
+        // When
+        Optional<LocalDateTime> result = repository.findDeltaCutoff(Duration.ofMillis(5500));
+
+        // Then
+        assertEquals(Optional.of(cutoff), result);
+        verify(statement).setDouble(1, 5.5);
+        assertTrue(ProductCopyRepository.DELTA_CUTOFF.contains("backend_xid IS NOT NULL"));
+    }
+
+    @Test
+    void shouldFailDeltaCutoffWhenWritersOfOtherUsersAreHidden() throws Exception {
+        // Given
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.prepareStatement(ProductCopyRepository.DELTA_CUTOFF)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getLong(2)).thenReturn(1L);
+
+        // When & Then
+        IOException exception = assertThrows(IOException.class,
+                () -> repository.findDeltaCutoff(Duration.ofSeconds(5)));
+        assertTrue(exception.getMessage().contains("pg_read_all_stats"));
+        verify(resultSet, never()).getObject(1, LocalDateTime.class);
+    }
+
+    @Test
+    void shouldReportMissingReadAllStatsPrivilege() throws Exception {
+        // Given
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ProductCopyRepository.CAN_READ_ALL_STATS)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(false);
+
+        // When
+        boolean privileged = repository.checkDeltaCutoffPrivilege();
+
+        // Then
+        assertFalse(privileged);
+    }
+
+    @Test
+    void shouldNotCheckReadAllStatsPrivilegeOutsidePostgres() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        // When
+        boolean privileged = repository.checkDeltaCutoffPrivilege();
+
+        // Then
+        assertTrue(privileged);
+        verify(connection, never()).createStatement();
+    }
+
+    @Test
+    void shouldHaveNoDeltaCutoffOutsidePostgres() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        // When & Then
+        assertTrue(repository.findDeltaCutoff(Duration.ofSeconds(5)).isEmpty());
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    void shouldInlineMinPriceAsPlainNumber() {
+        // When
+        String sql = ProductCopyRepository.copyProductsByMinPriceSql(new BigDecimal("1E+2"));
+
+        // Then
+        assertTrue(sql.contains("WHERE price >= 100 ORDER BY price"));
+        assertTrue(sql.endsWith("TO STDOUT WITH (FORMAT csv, FORCE_QUOTE *)"));
+    }
+
+    @Test
+    void shouldCopyRangeInsideImportedSnapshot() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenReturn(connection);
+        java.sql.Statement statement = mock(java.sql.Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        CreatedAtRange range = new CreatedAtRange(LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        when(copyManager.copyOut(ProductCopyRepository.copyCreatedAtRangeSql(range), outputStream)).thenReturn(7L);
+
+        // When
+        long rows = repository.copyCreatedAtRange(new ExportedSnapshot("00000003-0000001B-1", connection), range, outputStream);
+
+        // Then
+        assertEquals(7L, rows);
+        InOrder inOrder = inOrder(connection, statement, copyManager);
+        inOrder.verify(connection).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        inOrder.verify(statement).execute("SET TRANSACTION SNAPSHOT '00000003-0000001B-1'");
+        inOrder.verify(copyManager).copyOut(anyString(), eq(outputStream));
+        inOrder.verify(connection).rollback();
+        inOrder.verify(connection).close();
+    }
+
+    @Test
+    void shouldBuildRangeConditionsWithOpenEnds() {
+        // Given
+        List<CreatedAtRange> ranges = CreatedAtRange.fromBounds(List.of(
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 6, 1, 12, 30)));
+
+        // When & Then
+        assertEquals(3, ranges.size());
+        assertEquals("created_at < TIMESTAMP '2025-01-01T00:00'", ranges.get(0).toSqlCondition());
+        assertEquals("created_at >= TIMESTAMP '2025-01-01T00:00' AND created_at < TIMESTAMP '2025-06-01T12:30'",
+                ranges.get(1).toSqlCondition());
+        assertEquals("created_at >= TIMESTAMP '2025-06-01T12:30'", ranges.get(2).toSqlCondition());
+        assertTrue(ProductCopyRepository.copyCreatedAtRangeSql(ranges.get(2))
+                .contains("WHERE created_at >= TIMESTAMP '2025-06-01T12:30' ORDER BY created_at)"));
+    }
+
+    @Test
+    void shouldPickEvenlySpacedDistinctBoundsFromHistogram() {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<LocalDateTime> histogram = java.util.stream.IntStream.rangeClosed(0, 100)
+                .mapToObj(start::plusDays)
+                .toList();
+
+        // When
+        List<LocalDateTime> bounds = ProductCopyRepository.pickBounds(histogram, 4);
+
+        // Then
+        assertEquals(List.of(start.plusDays(25), start.plusDays(50), start.plusDays(75)), bounds);
+        assertEquals(List.of(start), ProductCopyRepository.pickBounds(List.of(start, start, start), 3));
+    }
+
+    @Test
+    void shouldSplitMinMaxEvenlyWithoutStatistics() {
+        // Given
+        LocalDateTime min = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        // When & Then
+        assertEquals(List.of(min.plusHours(6), min.plusHours(12), min.plusHours(18)),
+                ProductCopyRepository.splitEvenly(min, min.plusDays(1), 4));
+        assertTrue(ProductCopyRepository.splitEvenly(min, min, 4).isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Versão dos dados de produtos contra um PostgreSQL real, com as migrações aplicadas:
+ * escritores concorrentes não esperam uns pelos outros e a versão só muda no commit.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductDataVersionIT {
+
+    /**
+     * Espera máxima por locks nas escritas: um escritor bloqueado pelo outro falha em vez de esperar
+     */
+    private static final String LOCK_TIMEOUT = "SET lock_timeout = '1s'";
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (id, name, price, created_at, updated_at) VALUES (?, ?, 10.00, now(), now())";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static PGSimpleDataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        // Sem o lock transacional, como em application.yml, para os índices CONCURRENTLY
+        Flyway.configure().dataSource(dataSource)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load().migrate();
+    }
+
+    @Test
+    void shouldNotBlockConcurrentWritersAndCountBothOnCommit() throws Exception {
+        // Given
+        ProductCopyRepository repository = new ProductCopyRepository(dataSource);
+        long before = repository.findDataVersion().orElseThrow().changes();
+
+        try (Connection first = writer(); Connection second = writer()) {
+            // When: as escritas se intercalam com as duas transações abertas
+            insertProduct(first);
+            UUID secondId = insertProduct(second);
+            insertProduct(first);
+            try (PreparedStatement update = second.prepareStatement("UPDATE products SET price = 20.00 WHERE id = ?")) {
+                update.setObject(1, secondId);
+                update.executeUpdate();
+            }
+
+            // Then
+            assertEquals(before, repository.findDataVersion().orElseThrow().changes());
+            first.commit();
+            assertEquals(before + 2, repository.findDataVersion().orElseThrow().changes());
+            second.commit();
+            assertEquals(before + 4, repository.findDataVersion().orElseThrow().changes());
+        }
+    }
+
+    @Test
+    void shouldKeepVersionWhenCompactingWithOpenWriter() throws Exception {
+        // Given
+        ProductCopyRepository repository = new ProductCopyRepository(dataSource);
+        try (Connection connection = dataSource.getConnection()) {
+            for (int i = 0; i < 5; i++) {
+                insertProduct(connection);
+            }
+        }
+        long before = repository.findDataVersion().orElseThrow().changes();
+
+        try (Connection open = writer()) {
+            insertProduct(open);
+
+            // When
+            boolean compacted = repository.compactDataVersion();
+
+            // Then
+            assertTrue(compacted);
+            assertEquals(before, repository.findDataVersion().orElseThrow().changes());
+            open.commit();
+        }
+        assertEquals(before + 1, repository.findDataVersion().orElseThrow().changes());
+        assertEquals(2, countChangeRows());
+    }
+
+    private static Connection writer() throws Exception {
+        Connection connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(LOCK_TIMEOUT);
+        }
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static UUID insertProduct(Connection connection) throws Exception {
+        UUID id = UUID.randomUUID();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_PRODUCT)) {
+            statement.setObject(1, id);
+            statement.setString(2, "Produto " + id);
+            statement.executeUpdate();
+        }
+        return id;
+    }
+
+    private static long countChangeRows() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM products_changes")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limite das exportações incrementais contra um PostgreSQL real, com as migrações aplicadas:
+ * uma linha de transação ainda aberta fica depois do limite e só entra na execução seguinte, e
+ * transações de outros usuários só são vistas com o papel pg_read_all_stats.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductDeltaCutoffIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static PGSimpleDataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        // Sem o lock transacional, como em application.yml, para os índices CONCURRENTLY
+        Flyway.configure().dataSource(dataSource)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load().migrate();
+    }
+
+    @Test
+    void shouldKeepRowOfOpenTransactionAfterCutoffUntilItCommits() throws Exception {
+        // Given
+        ProductCopyRepository repository = new ProductCopyRepository(dataSource);
+        UUID committedId;
+        try (Connection connection = dataSource.getConnection()) {
+            committedId = insertProduct(connection);
+        }
+
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            UUID lateId = insertProduct(writer);
+            Thread.sleep(50);
+
+            // When
+            LocalDateTime cutoff = repository.findDeltaCutoff(Duration.ZERO).orElseThrow();
+            LocalDateTime lateUpdatedAt = updatedAt(writer, lateId);
+            LocalDateTime writerStart = transactionStart(writer);
+            writer.commit();
+
+            // Then
+            try (Connection reader = dataSource.getConnection()) {
+                assertFalse(updatedAt(reader, committedId).isAfter(cutoff));
+            }
+            assertEquals(writerStart, lateUpdatedAt);
+            assertTrue(lateUpdatedAt.isAfter(cutoff));
+        }
+    }
+
+    @Test
+    void shouldRequireReadAllStatsToSeeWritersOfOtherUsers() throws Exception {
+        // Given: a aplicação e outro escritor usam usuários distintos, sem pg_read_all_stats
+        try (Connection admin = dataSource.getConnection(); Statement statement = admin.createStatement()) {
+            statement.execute("CREATE ROLE delta_app LOGIN PASSWORD 'delta_app'");
+            statement.execute("CREATE ROLE delta_writer LOGIN PASSWORD 'delta_writer'");
+            statement.execute("GRANT INSERT ON products, products_changes TO delta_writer");
+        }
+        ProductCopyRepository repository = new ProductCopyRepository(dataSourceFor("delta_app"));
+        assertFalse(repository.checkDeltaCutoffPrivilege());
+
+        try (Connection writer = dataSourceFor("delta_writer").getConnection()) {
+            writer.setAutoCommit(false);
+            insertProduct(writer);
+            LocalDateTime writerStart = transactionStart(writer);
+
+            // When & Then: o início da transação do outro usuário não aparece para a aplicação
+            IOException exception = assertThrows(IOException.class, () -> repository.findDeltaCutoff(Duration.ZERO));
+            assertTrue(exception.getMessage().contains("pg_read_all_stats"));
+
+            try (Connection admin = dataSource.getConnection(); Statement statement = admin.createStatement()) {
+                statement.execute("GRANT pg_read_all_stats TO delta_app");
+            }
+            assertTrue(repository.checkDeltaCutoffPrivilege());
+            assertTrue(repository.findDeltaCutoff(Duration.ZERO).orElseThrow().isBefore(writerStart));
+            writer.rollback();
+        }
+    }
+
+    private static PGSimpleDataSource dataSourceFor(String role) {
+        PGSimpleDataSource roleDataSource = new PGSimpleDataSource();
+        roleDataSource.setUrl(postgres.getJdbcUrl());
+        roleDataSource.setUser(role);
+        roleDataSource.setPassword(role);
+        return roleDataSource;
+    }
+
+    /**
+     * Insere um produto como a carga em massa, sem updated_at, que vem do padrão da coluna
+     */
+    private static UUID insertProduct(Connection connection) throws Exception {
+        UUID id = UUID.randomUUID();
+        try (PreparedStatement statement = connection.prepareStatement(ProductBulkLoadRepository.INSERT_PRODUCT)) {
+            statement.setObject(1, id);
+            statement.setString(2, "Produto " + id);
+            statement.setString(3, null);
+            statement.setBigDecimal(4, new BigDecimal("10.00"));
+            statement.setObject(5, LocalDateTime.now());
+            statement.executeUpdate();
+        }
+        return id;
+    }
+
+    private static LocalDateTime transactionStart(Connection connection) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT localtimestamp");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getObject(1, LocalDateTime.class);
+        }
+    }
+
+    private static LocalDateTime updatedAt(Connection connection, UUID id) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT updated_at FROM products WHERE id = ?")) {
+            statement.setObject(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getObject(1, LocalDateTime.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.service.export.DataFormatter;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductDataFormatter;
+import com.filestreamer.spreadsheetgenerator.service.export.ProductExportRowFormatter;
+import com.filestreamer.spreadsheetgenerator.service.export.RowWriter;
+import com.filestreamer.spreadsheetgenerator.service.export.Utf8CsvRowWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saída do COPY contra a dos formatadores do caminho via JPA, num PostgreSQL real com as
+ * migrações aplicadas: as duas devem gerar os mesmos bytes para os mesmos produtos.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductExportFormatIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shouldCopySameRowsAsJpaFormatters() throws IOException {
+        // Given: preços distintos para a mesma ordem nos dois caminhos
+        productRepository.saveAllAndFlush(List.of(
+                new Product("Notebook", "Tela 15\", teclado \"ABNT2\"", new BigDecimal("3499.90")),
+                new Product("Mouse", null, new BigDecimal("0.01")),
+                new Product("Cadeira; escritório", "Linha 1\nLinha 2, com vírgula", new BigDecimal("12345678.00")),
+                new Product("Câmera 📷", "", new BigDecimal("10.50"))));
+        ProductCopyRepository copyRepository = new ProductCopyRepository(dataSource);
+        BigDecimal minPrice = BigDecimal.ZERO;
+
+        // When
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        long copiedRows = copyRepository.copyProductsByMinPrice(minPrice, copied);
+
+        String projection;
+        try (Stream<ProductExportRow> rows = productRepository.findExportRowsByPriceGreaterThanEqualStream(minPrice)) {
+            projection = write(new ProductExportRowFormatter(), rows);
+        }
+        String entities;
+        try (Stream<Product> products = productRepository.findByPriceGreaterThanEqualStream(minPrice)) {
+            entities = write(new ProductDataFormatter(), products);
+        }
+
+        // Then
+        assertEquals(4, copiedRows);
+        assertEquals(projection, copied.toString(StandardCharsets.UTF_8));
+        assertEquals(projection, entities);
+    }
+
+    private static <T> String write(DataFormatter<T> formatter, Stream<T> data) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (RowWriter writer = new Utf8CsvRowWriter(output)) {
+            for (String[] row : (Iterable<String[]>) formatter.formatToRows(data)::iterator) {
+                writer.writeRow(row);
+            }
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,212 @@
+package com.filestreamer.spreadsheetgenerator.repository;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração do stream de produtos: o heap deve ficar estável durante a leitura
+ * de milhões de linhas. Usa H2 em arquivo para que os dados não ocupem o heap medido.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/stream-it/products;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+@DisplayName("ProductStreamRepository Integration Tests")
+class ProductStreamRepositoryIT {
+
+    private static final int TOTAL_ROWS = 2_000_000;
+    private static final int WARMUP_ROWS = 200_000;
+    private static final int CHECK_INTERVAL = 100_000;
+
+    /**
+     * Crescimento máximo tolerado do heap entre o fim do aquecimento e o fim da leitura
+     */
+    private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Heap e contexto de persistência ficam estáveis durante o stream")
+    void shouldKeepHeapFlatWhileStreamingMillionsOfRows() {
+        // Given
+        entityManager.createNativeQuery(
+                "INSERT INTO products (id, name, description, price, created_at, updated_at) " +
+                "SELECT RANDOM_UUID(), CONCAT('Produto ', X), CONCAT('Descrição do produto ', X), 10.00, " +
+                "DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'), TIMESTAMP '2025-01-01 00:00:00' " +
+                "FROM SYSTEM_RANGE(1, " + TOTAL_ROWS + ")")
+                .executeUpdate();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+
+        // When
+        long rows = 0;
+        long heapAfterWarmup = 0;
+        try (Stream<Product> products = productRepository.findAllByOrderByCreatedAtStream()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                assertNotNull(product.getName());
+                rows++;
+
+                if (rows % CHECK_INTERVAL == 0) {
+                    // Then: nenhuma entidade lida continua gerenciada
+                    assertFalse(entityManager.contains(product));
+                    assertEquals(0, session.getPersistenceContext().getNumberOfManagedEntities());
+                }
+                if (rows == WARMUP_ROWS) {
+                    heapAfterWarmup = usedHeapAfterGc();
+                }
+            }
+        }
+        long heapAtEnd = usedHeapAfterGc();
+
+        // Then
+        assertEquals(TOTAL_ROWS, rows);
+        long growth = heapAtEnd - heapAfterWarmup;
+        assertTrue(growth < MAX_HEAP_GROWTH_BYTES,
+                String.format("Heap cresceu %d MB durante o stream", growth / (1024 * 1024)));
+    }
+
+    @Test
+    @DisplayName("Projeção de exportação traz as mesmas colunas sem criar entidades")
+    void shouldStreamExportRowsWithoutManagedEntities() {
+        // Given
+        entityManager.createNativeQuery(
+                "INSERT INTO products (id, name, description, price, created_at, updated_at) " +
+                "SELECT RANDOM_UUID(), CONCAT('Produto ', X), CASEWHEN(MOD(X, 2) = 0, NULL, 'Descrição'), X, " +
+                "DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'), TIMESTAMP '2025-01-02 00:00:00' " +
+                "FROM SYSTEM_RANGE(1, 1000)")
+                .executeUpdate();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        List<Product> expected;
+        try (Stream<Product> products = productRepository.findByPriceGreaterThanEqualStream(BigDecimal.valueOf(500))) {
+            expected = products.toList();
+        }
+
+        // When
+        List<ProductExportRow> rows;
+        try (Stream<ProductExportRow> exportRows =
+                     productRepository.findExportRowsByPriceGreaterThanEqualStream(BigDecimal.valueOf(500))) {
+            rows = exportRows.toList();
+        }
+
+        // Then
+        assertEquals(0, session.getPersistenceContext().getNumberOfManagedEntities());
+        assertEquals(expected.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Product product = expected.get(i);
+            assertEquals(new ProductExportRow(product.getId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getCreatedAt(), product.getUpdatedAt()), rows.get(i));
+        }
+        try (Stream<ProductExportRow> exportRows = productRepository.findAllExportRowsOrderByCreatedAtStream()) {
+            assertEquals(1000, exportRows.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Leitura incremental retoma depois da marca d'água, inclusive com updated_at repetido")
+    void shouldStreamRowsChangedAfterWatermarkInUpdatedAtAndIdOrder() {
+        // Given: 10 produtos por updated_at, de minuto em minuto
+        entityManager.createNativeQuery(
+                "INSERT INTO products (id, name, description, price, created_at, updated_at) " +
+                "SELECT RANDOM_UUID(), CONCAT('Produto ', X), 'Descrição', 10.00, TIMESTAMP '2025-01-01 00:00:00', " +
+                "DATEADD('MINUTE', X / 10, TIMESTAMP '2025-01-01 00:00:00') FROM SYSTEM_RANGE(0, 999)")
+                .executeUpdate();
+        LocalDateTime until = LocalDateTime.of(2025, 1, 1, 1, 39);
+        List<ProductExportRow> all;
+        try (Stream<ProductExportRow> rows = productRepository.findExportRowsChangedSinceStream(null, null, until)) {
+            all = rows.toList();
+        }
+        ProductExportRow watermark = all.get(14);
+
+        // When
+        List<ProductExportRow> changed;
+        try (Stream<ProductExportRow> rows = productRepository.findExportRowsChangedSinceStream(
+                watermark.updatedAt(), watermark.id(), until)) {
+            changed = rows.toList();
+        }
+
+        // Then: até 01:39 inclusive são 100 minutos de 10 produtos
+        assertEquals(1000, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            ProductExportRow previous = all.get(i - 1);
+            ProductExportRow current = all.get(i);
+            assertTrue(previous.updatedAt().isBefore(current.updatedAt())
+                    || previous.updatedAt().equals(current.updatedAt()) && previous.id().compareTo(current.id()) != 0);
+        }
+        assertEquals(all.subList(15, all.size()), changed);
+        try (Stream<ProductExportRow> rows = productRepository.findExportRowsChangedSinceStream(
+                watermark.updatedAt(), watermark.id(), LocalDateTime.of(2025, 1, 1, 0, 1))) {
+            assertEquals(5, rows.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Buscas em stream devolvem o mesmo que as buscas em lista, sem entidades gerenciadas")
+    void shouldStreamSearchAndPriceRangeLikeListQueries() {
+        // Given
+        entityManager.createNativeQuery(
+                "INSERT INTO products (id, name, description, price, created_at, updated_at) " +
+                "SELECT RANDOM_UUID(), CONCAT('Produto ', X), 'Descrição', X, TIMESTAMP '2025-01-01 00:00:00', " +
+                "TIMESTAMP '2025-01-01 00:00:00' FROM SYSTEM_RANGE(1, 1000)")
+                .executeUpdate();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        List<Product> expectedRange = productRepository.findByPriceRange(BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+        List<Product> expectedSearch = productRepository.searchByName("Produto 5", "Produto 5%", "%Produto 5%",
+                PageRequest.ofSize(20));
+        entityManager.clear();
+
+        // When
+        List<Product> range;
+        try (Stream<Product> products = productRepository.findByPriceRangeStream(BigDecimal.valueOf(100),
+                BigDecimal.valueOf(200))) {
+            range = products.toList();
+        }
+        List<Product> search;
+        try (Stream<Product> products = productRepository.searchByNameStream("Produto 5", "Produto 5%",
+                "%Produto 5%", 20)) {
+            search = products.toList();
+        }
+
+        // Then
+        assertEquals(0, session.getPersistenceContext().getNumberOfManagedEntities());
+        assertEquals(101, range.size());
+        assertEquals(expectedRange.stream().map(Product::getId).toList(), range.stream().map(Product::getId).toList());
+        assertEquals(20, search.size());
+        assertEquals("Produto 5", search.get(0).getName());
+        assertEquals(expectedSearch.stream().map(Product::getId).toList(), search.stream().map(Product::getId).toList());
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
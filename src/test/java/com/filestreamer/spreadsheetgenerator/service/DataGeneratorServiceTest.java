@@ -1,6 +1,8 @@
 package com.filestreamer.spreadsheetgenerator.service;
 
 import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+import com.filestreamer.spreadsheetgenerator.repository.ProductBulkLoadRepository;
 import com.filestreamer.spreadsheetgenerator.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,9 +10,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -22,6 +29,9 @@ class DataGeneratorServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductBulkLoadRepository productBulkLoadRepository;
+
     @InjectMocks
     private DataGeneratorService dataGeneratorService;
 
@@ -85,7 +95,8 @@ class DataGeneratorServiceTest {
             assertNotNull(product.getDescription());
             assertNotNull(product.getPrice());
             assertNotNull(product.getCreatedAt());
-            assertNotNull(product.getUpdatedAt());
+            // updated_at é gravado pelo banco
+            assertNull(product.getUpdatedAt());
             
             // Verifica se o nome do produto contém elementos esperados
             assertTrue(product.getName().contains(" ")); // Deve ter marca + produto + sufixo
@@ -98,9 +109,9 @@ class DataGeneratorServiceTest {
             assertTrue(product.getPrice().compareTo(BigDecimal.valueOf(10.0)) >= 0);
             assertTrue(product.getPrice().compareTo(BigDecimal.valueOf(9999.99)) <= 0);
             
-            // Verifica se updatedAt é posterior ao createdAt
-            assertTrue(product.getUpdatedAt().isAfter(product.getCreatedAt()) ||
-                      product.getUpdatedAt().isEqual(product.getCreatedAt()));
+            // Verifica se a data de criação está nos últimos 30 dias
+            assertFalse(product.getCreatedAt().isAfter(LocalDateTime.now()));
+            assertTrue(product.getCreatedAt().isAfter(LocalDateTime.now().minusDays(31)));
             
             return true;
         }));
@@ -238,6 +249,93 @@ class DataGeneratorServiceTest {
         verify(productRepository, never()).saveAll(anyList());
     }
 
+    @Test
+    void shouldBulkLoadGeneratedProductsInChunks() throws IOException {
+        // Given
+        when(productBulkLoadRepository.getLoadMethod()).thenReturn(BulkLoadMethod.COPY);
+        when(productBulkLoadRepository.load(any(), eq(1234))).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            long rows = 0;
+            while (products.hasNext()) {
+                Product product = products.next();
+                assertNotNull(product.getName());
+                assertNotNull(product.getCreatedAt());
+                rows++;
+            }
+            return rows;
+        });
+
+        // When
+        BulkLoadResult result = dataGeneratorService.bulkLoadRandomProducts(1234);
+
+        // Then
+        assertEquals(1234, result.rows());
+        assertEquals(BulkLoadMethod.COPY, result.method());
+        assertEquals(50_000, result.chunkSize());
+        assertTrue(result.rowsPerSecond() > 0);
+        verify(productRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldLoadChunksInParallelUpToTheLimit() throws IOException {
+        // Given
+        ReflectionTestUtils.setField(dataGeneratorService, "bulkChunkSize", 100);
+        ReflectionTestUtils.setField(dataGeneratorService, "parallelism", 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(productBulkLoadRepository.getLoadMethod()).thenReturn(BulkLoadMethod.JDBC_BATCH);
+        when(productBulkLoadRepository.load(any(), anyInt())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                Iterator<Product> products = invocation.getArgument(0);
+                long rows = 0;
+                while (products.hasNext()) {
+                    products.next();
+                    rows++;
+                }
+                return rows;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        // When
+        BulkLoadResult result = dataGeneratorService.bulkLoadRandomProducts(1050);
+
+        // Then
+        assertEquals(1050, result.rows());
+        assertEquals(3, result.parallelism());
+        assertTrue(maxRunning.get() <= 3, "No máximo 3 blocos simultâneos");
+        verify(productBulkLoadRepository, times(11)).load(any(), anyInt());
+        verify(productBulkLoadRepository).load(any(), eq(50));
+    }
+
+    @Test
+    void shouldResolveParallelismWithinConnectionPool() {
+        // Given
+        ReflectionTestUtils.setField(dataGeneratorService, "connectionPoolSize", 10);
+
+        // When & Then
+        assertEquals(5, dataGeneratorService.resolveParallelism());
+        ReflectionTestUtils.setField(dataGeneratorService, "parallelism", 32);
+        assertEquals(10, dataGeneratorService.resolveParallelism());
+        ReflectionTestUtils.setField(dataGeneratorService, "connectionPoolSize", 1);
+        ReflectionTestUtils.setField(dataGeneratorService, "parallelism", 0);
+        assertEquals(1, dataGeneratorService.resolveParallelism());
+    }
+
+    @Test
+    void shouldPropagateBulkLoadErrors() throws IOException {
+        // Given
+        when(productBulkLoadRepository.getLoadMethod()).thenReturn(BulkLoadMethod.JDBC_BATCH);
+        when(productBulkLoadRepository.load(any(), anyInt())).thenThrow(new IOException("conexão perdida"));
+
+        // When & Then
+        IOException exception = assertThrows(IOException.class, () -> dataGeneratorService.bulkLoadRandomProducts(10));
+        assertEquals("conexão perdida", exception.getMessage());
+    }
+
     // Método auxiliar para capturar todas as chamadas de saveAll
     @SuppressWarnings("unchecked")
     private List<List<Product>> captureAllSaveAllCalls() {
@@ -0,0 +1,84 @@
+package com.filestreamer.spreadsheetgenerator.service;
+
+import com.filestreamer.spreadsheetgenerator.dto.ProductCreateDto;
+import com.filestreamer.spreadsheetgenerator.dto.ProductDto;
+import com.filestreamer.spreadsheetgenerator.dto.ProductUpdateDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Escritas via JPA contra um PostgreSQL real, com as migrações aplicadas: o updated_at
+ * devolvido no DTO é o gravado pelo banco, o início da transação.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductServiceIT {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldReturnUpdatedAtStoredByDatabase() {
+        // Given
+        ProductCreateDto createDto = new ProductCreateDto();
+        createDto.setName("Teclado");
+        createDto.setPrice(new BigDecimal("150.00"));
+
+        UUID id = productService.createProduct(createDto).getId();
+        ProductUpdateDto updateDto = new ProductUpdateDto();
+        updateDto.setName("Teclado mecânico");
+        updateDto.setPrice(new BigDecimal("250.00"));
+
+        // When
+        ProductDto updated = productService.updateProduct(id, updateDto);
+
+        // Then
+        assertEquals(storedUpdatedAt(id), updated.getUpdatedAt());
+        assertEquals(transactionStart(), updated.getUpdatedAt());
+    }
+
+    private LocalDateTime storedUpdatedAt(UUID id) {
+        return (LocalDateTime) entityManager.createNativeQuery("SELECT updated_at FROM products WHERE id = :id",
+                        LocalDateTime.class)
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+
+    private LocalDateTime transactionStart() {
+        return (LocalDateTime) entityManager.createNativeQuery("SELECT localtimestamp", LocalDateTime.class)
+                .getSingleResult();
+    }
+}
@@ -1,6 +1,9 @@
 package com.filestreamer.spreadsheetgenerator.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.filestreamer.spreadsheetgenerator.dto.ProductCreateDto;
+import com.filestreamer.spreadsheetgenerator.dto.ProductCursor;
 import com.filestreamer.spreadsheetgenerator.dto.ProductDto;
 import com.filestreamer.spreadsheetgenerator.dto.ProductUpdateDto;
 import com.filestreamer.spreadsheetgenerator.exception.ProductNotFoundException;
@@ -18,12 +21,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -74,7 +83,7 @@ class ProductServiceTest {
     void shouldCreateProductSuccessfully() {
         // Given
         when(productRepository.existsByNameIgnoreCase(productCreateDto.getName())).thenReturn(false);
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
 
         // When
         ProductDto result = productService.createProduct(productCreateDto);
@@ -85,7 +94,7 @@ class ProductServiceTest {
         assertEquals(product.getDescription(), result.getDescription());
         assertEquals(product.getPrice(), result.getPrice());
         
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).saveAndFlush(any(Product.class));
     }
 
     @Test
@@ -141,13 +150,120 @@ class ProductServiceTest {
         verify(productRepository).findAll(pageable);
     }
 
+    @Test
+    @DisplayName("Deve listar a primeira página por cursor sem contagem")
+    void shouldListFirstPageByCursor() {
+        // Given
+        Pageable limit = PageRequest.ofSize(1);
+        when(productRepository.findFirstByCursor(limit)).thenReturn(new SliceImpl<>(List.of(product), limit, true));
+
+        // When
+        Slice<ProductDto> result = productService.findAllByCursor(null, 1);
+
+        // Then
+        assertTrue(result.hasNext());
+        assertEquals(product.getId(), result.getContent().get(0).getId());
+        verify(productRepository, never()).count();
+        verify(productRepository, never()).findAfterCursor(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem depois da posição do cursor")
+    void shouldListNextPageAfterCursor() {
+        // Given
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2025, 1, 1, 10, 0), UUID.randomUUID());
+        Pageable limit = PageRequest.ofSize(10);
+        when(productRepository.findAfterCursor(cursor.createdAt(), cursor.id(), limit))
+                .thenReturn(new SliceImpl<>(List.of(product), limit, false));
+
+        // When
+        Slice<ProductDto> result = productService.findAllByCursor(cursor, 10);
+
+        // Then
+        assertFalse(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+        verify(productRepository, never()).findFirstByCursor(any());
+    }
+
+    @Test
+    @DisplayName("Deve buscar por nome escapando curingas e limitando os resultados")
+    void shouldSearchByNameEscapingWildcards() {
+        // Given
+        when(productRepository.searchByName("50%_off\\", "50\\%\\_off\\\\%", "%50\\%\\_off\\\\%",
+                PageRequest.ofSize(20))).thenReturn(List.of(product));
+
+        // When
+        List<ProductDto> result = productService.findByName("  50%_off\\ ", 20);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(product.getId(), result.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Deve escrever a faixa de preço em NDJSON conforme lê o stream")
+    void shouldStreamPriceRangeAsNdjson() throws IOException {
+        // Given
+        Product other = new Product("Other Product", null, BigDecimal.valueOf(120));
+        other.setId(UUID.randomUUID());
+        when(productRepository.findByPriceRangeStream(BigDecimal.ONE, BigDecimal.TEN))
+                .thenReturn(Stream.of(product, other));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // When
+        long written = productService.streamByPriceRange(BigDecimal.ONE, BigDecimal.TEN,
+                new ProductJsonStreamWriter(output, JsonStreamFormat.NDJSON, objectMapper));
+
+        // Then
+        assertEquals(2, written);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Test Product", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("Other Product", objectMapper.readTree(lines[1]).get("name").asText());
+        assertTrue(output.toString(StandardCharsets.UTF_8).endsWith("\n"));
+    }
+
+    @Test
+    @DisplayName("Deve escrever a busca por nome como array JSON")
+    void shouldStreamSearchAsJsonArray() throws IOException {
+        // Given
+        when(productRepository.searchByNameStream("Test", "Test%", "%Test%", 100))
+                .thenReturn(Stream.of(product));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // When
+        long written = productService.streamByName(" Test ", 100,
+                new ProductJsonStreamWriter(output, JsonStreamFormat.JSON_ARRAY, objectMapper));
+
+        // Then
+        assertEquals(1, written);
+        JsonNode array = objectMapper.readTree(output.toByteArray());
+        assertTrue(array.isArray());
+        assertEquals(product.getId().toString(), array.get(0).get("id").asText());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar faixa de preço invertida antes de consultar o stream")
+    void shouldRejectInvertedPriceRangeBeforeStreaming() {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> productService.streamByPriceRange(BigDecimal.TEN,
+                BigDecimal.ONE, new ProductJsonStreamWriter(output, JsonStreamFormat.NDJSON, new ObjectMapper())));
+        verify(productRepository, never()).findByPriceRangeStream(any(), any());
+        assertEquals(0, output.size());
+    }
+
     @Test
     @DisplayName("Deve atualizar produto com sucesso")
     void shouldUpdateProductSuccessfully() {
         // Given
         UUID productId = product.getId();
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
         when(productRepository.existsByNameIgnoreCase(productUpdateDto.getName())).thenReturn(false);
 
         // When
@@ -156,7 +272,7 @@ class ProductServiceTest {
         // Then
         assertNotNull(result);
         verify(productRepository).findById(productId);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).saveAndFlush(any(Product.class));
     }
 
     @Test
@@ -0,0 +1,74 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionCodecTest {
+
+    private static final byte[] CONTENT = "\"id\",\"name\"\n\"1\",\"Produto\"\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldCompressWithGzip() throws IOException {
+        // When
+        byte[] compressed = compress(CompressionCodec.GZIP, 9);
+
+        // Then
+        assertTrue(compressed.length < CONTENT.length);
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldCompressWithZstd() throws IOException {
+        // When
+        byte[] compressed = compress(CompressionCodec.ZSTD, 3);
+
+        // Then
+        assertTrue(compressed.length < CONTENT.length);
+        try (ZstdInputStream inputStream = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldPassBytesThroughWithoutCompression() throws IOException {
+        assertArrayEquals(CONTENT, compress(CompressionCodec.NONE, 0));
+    }
+
+    @Test
+    void shouldBuildFileExtensionAndContentEncoding() {
+        assertEquals("csv", CompressionCodec.NONE.fileExtension(ExportFormat.CSV));
+        assertEquals("csv.gz", CompressionCodec.GZIP.fileExtension(ExportFormat.CSV));
+        assertEquals("xlsx.zst", CompressionCodec.ZSTD.fileExtension(ExportFormat.XLSX));
+        assertNull(CompressionCodec.NONE.getContentEncoding());
+        assertEquals("gzip", CompressionCodec.GZIP.getContentEncoding());
+        assertEquals("zstd", CompressionCodec.ZSTD.getContentEncoding());
+    }
+
+    @Test
+    void shouldValidateLevels() {
+        assertTrue(CompressionCodec.GZIP.isValidLevel(1));
+        assertTrue(CompressionCodec.GZIP.isValidLevel(9));
+        assertFalse(CompressionCodec.GZIP.isValidLevel(10));
+        assertTrue(CompressionCodec.ZSTD.isValidLevel(22));
+        assertFalse(CompressionCodec.ZSTD.isValidLevel(0));
+    }
+
+    private byte[] compress(CompressionCodec codec, int level) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream outputStream = codec.wrap(output, level)) {
+            outputStream.write(CONTENT);
+        }
+        return output.toByteArray();
+    }
+}
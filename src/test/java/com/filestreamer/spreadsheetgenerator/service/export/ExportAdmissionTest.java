@@ -0,0 +1,186 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.exception.ExportRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportAdmissionTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExportMetrics exportMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exportMetrics = new ExportMetrics(meterRegistry);
+    }
+
+    @Test
+    void shouldRejectImmediatelyWhenExporterIsFullAndQueueHasNoRoom() {
+        // Given
+        ExportAdmission admission = admission(4, 1, 0, Duration.ofSeconds(5));
+        ExportAdmission.Permit running = admission.acquire(ExporterType.AWS_S3);
+
+        // When
+        ExportRejectedException exception = assertThrows(ExportRejectedException.class,
+                () -> admission.acquire(ExporterType.AWS_S3));
+        ExportAdmission.Permit otherExporter = admission.acquire(ExporterType.LOCAL);
+
+        // Then
+        assertEquals(30L, exception.getRetryAfterSeconds());
+        assertEquals(1.0, rejections("AWS_S3", ExportAdmission.QUEUE_FULL));
+        assertEquals(2.0, inUse(ExportAdmission.GLOBAL));
+        running.close();
+        otherExporter.close();
+    }
+
+    @Test
+    void shouldRejectWhenGlobalLimitIsReachedAcrossExporters() {
+        // Given
+        ExportAdmission admission = admission(2, 2, 0, Duration.ofSeconds(5));
+        ExportAdmission.Permit first = admission.acquire(ExporterType.LOCAL);
+        ExportAdmission.Permit second = admission.acquire(ExporterType.AWS_S3);
+
+        // When
+        assertThrows(ExportRejectedException.class, () -> admission.acquire(ExporterType.GCP_STORAGE));
+
+        // Then
+        assertEquals(1.0, rejections(ExportAdmission.GLOBAL, ExportAdmission.QUEUE_FULL));
+        assertEquals(0.0, inUse("GCP_STORAGE"));
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void shouldAdmitQueuedExportWhenSlotIsReleased() throws Exception {
+        // Given
+        ExportAdmission admission = admission(1, 1, 1, Duration.ofSeconds(10));
+        ExportAdmission.Permit running = admission.acquire(ExporterType.LOCAL);
+
+        // When
+        CompletableFuture<ExportAdmission.Permit> waiting = CompletableFuture.supplyAsync(
+                () -> admission.acquire(ExporterType.LOCAL));
+        while (admission.getQueued() == 0) {
+            Thread.sleep(10);
+        }
+        double queuedWhileWaiting = meterRegistry.get(ExportMetrics.ADMISSION_QUEUED).gauge().value();
+        assertThrows(ExportRejectedException.class, () -> admission.acquire(ExporterType.LOCAL));
+        running.close();
+        ExportAdmission.Permit admitted = waiting.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1.0, queuedWhileWaiting);
+        assertEquals(0, admission.getQueued());
+        assertEquals(1.0, inUse("LOCAL"));
+        assertEquals(1.0, rejections("LOCAL", ExportAdmission.QUEUE_FULL));
+        admitted.close();
+        assertEquals(0.0, inUse("LOCAL"));
+    }
+
+    @Test
+    void shouldRejectAfterTimeoutAndReleasePartialSlots() {
+        // Given
+        ExportAdmission admission = admission(1, 1, 1, Duration.ofMillis(50));
+        ExportAdmission.Permit running = admission.acquire(ExporterType.GCP_STORAGE);
+
+        // When
+        assertThrows(ExportRejectedException.class,
+                () -> admission.acquire(List.of(ExporterType.AWS_S3, ExporterType.LOCAL)));
+
+        // Then
+        assertEquals(1.0, rejections(ExportAdmission.GLOBAL, ExportAdmission.TIMEOUT));
+        assertEquals(0.0, inUse("LOCAL"));
+        assertEquals(0.0, inUse("AWS_S3"));
+        assertEquals(0, admission.getQueued());
+        running.close();
+    }
+
+    @Test
+    void shouldReleaseSlotsOnlyOnce() {
+        // Given
+        ExportAdmission admission = admission(1, 1, 0, Duration.ZERO);
+        ExportAdmission.Permit permit = admission.acquire(ExporterType.LOCAL);
+
+        // When
+        permit.close();
+        permit.close();
+
+        // Then
+        assertEquals(0.0, inUse(ExportAdmission.GLOBAL));
+        admission.acquire(ExporterType.LOCAL);
+        assertThrows(ExportRejectedException.class, () -> admission.acquire(ExporterType.AWS_S3));
+    }
+
+    @Test
+    void shouldAdmitDownloadAgainstGlobalLimitOnly() {
+        // Given
+        ExportAdmission admission = admission(2, 1, 0, Duration.ZERO);
+        ExportAdmission.Permit export = admission.acquire(ExporterType.LOCAL);
+
+        // When
+        ExportAdmission.Permit download = admission.acquireDownload();
+
+        // Then
+        assertEquals(2.0, inUse(ExportAdmission.GLOBAL));
+        assertEquals(1.0, inUse("LOCAL"));
+        assertThrows(ExportRejectedException.class, admission::acquireDownload);
+        export.close();
+        download.close();
+    }
+
+    @Test
+    void shouldLetJobWaitBeyondTimeoutAndQueueCapacity() throws Exception {
+        // Given
+        ExportAdmission admission = admission(1, 1, 0, Duration.ZERO);
+        ExportAdmission.Permit running = admission.acquire(ExporterType.LOCAL);
+
+        // When
+        CompletableFuture<ExportAdmission.Permit> job = CompletableFuture.supplyAsync(
+                () -> admission.acquireForJob(ExporterType.LOCAL));
+        Thread.sleep(100);
+        boolean admittedWhileFull = job.isDone();
+        running.close();
+        ExportAdmission.Permit admitted = job.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(admittedWhileFull);
+        assertEquals(0, admission.getQueued());
+        assertEquals(1.0, inUse("LOCAL"));
+        admitted.close();
+    }
+
+    @Test
+    void shouldParseExporterSpecificLimits() {
+        // When
+        Map<ExporterType, Integer> limits = ExportAdmission.parseExporterLimits(" aws_s3=4, LOCAL=1 ");
+
+        // Then
+        assertEquals(Map.of(ExporterType.AWS_S3, 4, ExporterType.LOCAL, 1), limits);
+        assertTrue(ExportAdmission.parseExporterLimits("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ExportAdmission.parseExporterLimits("LOCAL"));
+        assertThrows(IllegalArgumentException.class, () -> ExportAdmission.parseExporterLimits("LOCAL=0"));
+    }
+
+    private ExportAdmission admission(int maxConcurrent, int perExporter, int queueCapacity, Duration timeout) {
+        return new ExportAdmission(exportMetrics, maxConcurrent, perExporter, "", queueCapacity, timeout,
+                Duration.ofSeconds(30));
+    }
+
+    private double rejections(String bulkhead, String reason) {
+        return meterRegistry.get(ExportMetrics.ADMISSION_REJECTIONS).tags("bulkhead", bulkhead, "reason", reason)
+                .counter().count();
+    }
+
+    private double inUse(String bulkhead) {
+        return meterRegistry.get(ExportMetrics.ADMISSION_IN_USE).tags("bulkhead", bulkhead).gauge().value();
+    }
+}
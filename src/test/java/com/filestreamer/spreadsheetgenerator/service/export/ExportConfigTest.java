@@ -122,6 +122,228 @@ class ExportConfigTest {
         assertEquals(customBatchSize, config.getBatchSize());
     }
 
+    @Test
+    void testBuilderWithDefaultUploadPartSize() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("parts.csv")
+                .build();
+
+        // Then
+        assertEquals(ExportConfig.DEFAULT_UPLOAD_PART_SIZE, config.getUploadPartSize());
+    }
+
+    @Test
+    void testBuilderFailsWithUploadPartSizeBelowS3Minimum() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> ExportConfig.builder().fileName("parts.csv").uploadPartSize(1024).build()
+        );
+        
+        assertEquals("Tamanho da parte de upload deve ser de no mínimo 5 MB", exception.getMessage());
+    }
+
+    @Test
+    void testBuilderWithDefaultUploadConcurrency() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("parts.csv")
+                .build();
+
+        // Then
+        assertEquals(1, config.getUploadConcurrency());
+    }
+
+    @Test
+    void testBuilderFailsWithInvalidUploadConcurrency() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> ExportConfig.builder().fileName("parts.csv").uploadConcurrency(0).build()
+        );
+        
+        assertEquals("Concorrência de upload deve estar entre 1 e 64", exception.getMessage());
+    }
+
+    @Test
+    void testBuilderWithDefaultCsvEncoder() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("encoder.csv")
+                .build();
+
+        // Then
+        assertEquals(CsvEncoder.UTF8_DIRECT, config.getCsvEncoder());
+    }
+
+    @Test
+    void testBuilderWithOpenCsvEncoder() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("encoder.csv")
+                .csvEncoder(CsvEncoder.OPENCSV)
+                .build();
+
+        // Then
+        assertEquals(CsvEncoder.OPENCSV, config.getCsvEncoder());
+    }
+
+    @Test
+    void testBuilderWithXlsxFormatUsesFormatContentType() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("planilha.xlsx")
+                .format(ExportFormat.XLSX)
+                .build();
+
+        // Then
+        assertEquals(ExportFormat.XLSX, config.getFormat());
+        assertEquals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", config.getContentType());
+    }
+
+    @Test
+    void testBuilderWithCompressionUsesCodecDefaults() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("compressed.csv.gz")
+                .compression(CompressionCodec.GZIP)
+                .build();
+
+        // Then
+        assertEquals(CompressionCodec.GZIP, config.getCompression());
+        assertEquals(CompressionCodec.GZIP.getDefaultLevel(), config.getCompressionLevel());
+        assertEquals("gzip", config.getContentEncoding());
+        assertEquals("text/csv", config.getContentType());
+    }
+
+    @Test
+    void testBuilderWithoutCompressionHasNoContentEncoding() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("plain.csv")
+                .build();
+
+        // Then
+        assertEquals(CompressionCodec.NONE, config.getCompression());
+        assertNull(config.getContentEncoding());
+    }
+
+    @Test
+    void testBuilderFailsWithCompressionLevelOutOfRange() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> ExportConfig.builder().fileName("compressed.csv.zst")
+                    .compression(CompressionCodec.ZSTD)
+                    .compressionLevel(30)
+                    .build()
+        );
+        
+        assertEquals("Nível de compressão ZSTD deve estar entre 1 e 22", exception.getMessage());
+    }
+
+    @Test
+    void testOptionsBuilderFailsWithCompressionLevelOutOfRange() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> ExportOptions.builder().compression(CompressionCodec.GZIP).compressionLevel(0).build()
+        );
+        
+        assertEquals("Nível de compressão GZIP deve estar entre 1 e 9", exception.getMessage());
+    }
+
+    @Test
+    void testOptionsBuilderFailsWithParallelismOutsideCopyPath() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().parallelism(0).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().mode(ExportMode.JPA).parallelism(4).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().format(ExportFormat.XLSX).parallelism(4).build());
+        assertEquals(ParallelOutput.MERGED, ExportOptions.builder().mode(ExportMode.JPA).parallelism(1).build()
+            .getParallelOutput());
+    }
+
+    @Test
+    void testOptionsBuilderFailsWithRollingOutsideSequentialJpaPath() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().maxRowsPerFile(0L).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().maxBytesPerFile(-1L).build());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().mode(ExportMode.COPY).maxRowsPerFile(1000L).build());
+        assertEquals("Divisão em arquivos não suportada no modo COPY nem na exportação paralela", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportOptions.builder().parallelism(4).maxBytesPerFile(1024L).build());
+        assertTrue(ExportOptions.builder().format(ExportFormat.XLSX).maxRowsPerFile(1000L).build().isRolling());
+    }
+
+    @Test
+    void testBuilderFailsWithNegativeRollingLimits() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportConfig.builder().fileName("f.csv").maxRowsPerFile(-1).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> ExportConfig.builder().fileName("f.csv").maxBytesPerFile(-1).build());
+        assertFalse(ExportConfig.builder().fileName("f.csv").build().isRolling());
+    }
+
+    @Test
+    void testParseExportTargetWithDefaults() {
+        // When & Then
+        assertEquals(new ExportTarget(ExporterType.AWS_S3, ExportFormat.CSV, CompressionCodec.GZIP),
+            ExportTarget.parse("aws_s3:csv:gzip"));
+        assertEquals(new ExportTarget(ExporterType.LOCAL, ExportFormat.CSV, CompressionCodec.NONE),
+            ExportTarget.parse("LOCAL"));
+        assertEquals("xlsx.zst", ExportTarget.parse("GCP_STORAGE:XLSX:ZSTD").fileExtension());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> ExportTarget.parse("FTP:CSV"));
+        assertEquals("Destino inválido: FTP:CSV", exception.getMessage());
+    }
+
+    @Test
+    void testToBuilderCopiesConfiguration() {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("products.csv.gz")
+                .basePath("./exports")
+                .headers(new String[]{"ID"})
+                .compression(CompressionCodec.GZIP)
+                .compressionLevel(9)
+                .uploadConcurrency(8)
+                .maxRowsPerFile(1000)
+                .build();
+
+        // When
+        ExportConfig copy = config.toBuilder().fileName("products_part-00001.csv.gz").build();
+
+        // Then
+        assertEquals("products_part-00001.csv.gz", copy.getFileName());
+        assertEquals("./exports", copy.getBasePath());
+        assertArrayEquals(config.getHeaders(), copy.getHeaders());
+        assertEquals(CompressionCodec.GZIP, copy.getCompression());
+        assertEquals(9, copy.getCompressionLevel());
+        assertEquals(8, copy.getUploadConcurrency());
+        assertEquals(1000, copy.getMaxRowsPerFile());
+        assertEquals(config.getContentType(), copy.getContentType());
+    }
+
+    @Test
+    void testBuilderDefaultsToNoProgressListener() {
+        // When
+        ExportConfig config = ExportConfig.builder()
+                .fileName("progress.csv")
+                .progressListener(null)
+                .build();
+
+        // Then
+        assertSame(ExportProgressListener.NONE, config.getProgressListener());
+    }
+
     @Test
     void testBuilderWithCustomContentType() {
         // Given
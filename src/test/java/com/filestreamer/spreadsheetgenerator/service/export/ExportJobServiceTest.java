@@ -0,0 +1,240 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.exception.ExportJobNotFoundException;
+import com.filestreamer.spreadsheetgenerator.model.ExportJob;
+import com.filestreamer.spreadsheetgenerator.model.ExportJobStatus;
+import com.filestreamer.spreadsheetgenerator.repository.ExportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    @Mock
+    private ExportJobRepository exportJobRepository;
+
+    @Mock
+    private GenericStreamExportService exportService;
+
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+
+    private final Map<UUID, ExportJob> storedJobs = new ConcurrentHashMap<>();
+
+    private ExportAdmission admission;
+
+    private ExportJobService exportJobService;
+
+    @BeforeEach
+    void setUp() {
+        admission = new ExportAdmission(ExportMetrics.noop(), 1, 1, "", 0, Duration.ZERO, Duration.ofSeconds(30));
+        // Executor manual: as tarefas só rodam quando o teste pede
+        exportJobService = new ExportJobService(exportJobRepository, exportService, admission, queuedTasks::add);
+    }
+
+    private void stubRepositoryStorage() {
+        when(exportJobRepository.save(any(ExportJob.class))).thenAnswer(invocation -> {
+            ExportJob job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(UUID.randomUUID());
+            }
+            storedJobs.put(job.getId(), job);
+            return job;
+        });
+        lenient().when(exportJobRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(storedJobs.get(invocation.<UUID>getArgument(0))));
+    }
+
+    @Test
+    void shouldCreatePendingJobWithoutRunningExport() {
+        // Given
+        stubRepositoryStorage();
+
+        // When
+        ExportJob job = exportJobService.submitAllProducts(ExporterType.LOCAL, "./temp", ExportOptions.defaults());
+
+        // Then
+        assertNotNull(job.getId());
+        assertEquals(ExportJobStatus.PENDING, job.getStatus());
+        assertEquals(1, queuedTasks.size());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void shouldRunQueuedJobAndStoreResult() throws IOException {
+        // Given
+        stubRepositoryStorage();
+        ExportOptions options = ExportOptions.builder().compression(CompressionCodec.GZIP).build();
+        ExportResult result = new ExportResult("products.csv.gz", "/tmp/products.csv.gz", "/tmp/products.csv.gz",
+                1500L, 400L, 2000L, 120L, ExporterType.LOCAL);
+        when(exportService.exportAllProducts(eq(ExporterType.LOCAL), eq("./temp"), eq(options), any()))
+                .thenReturn(result);
+        ExportJob job = exportJobService.submitAllProducts(ExporterType.LOCAL, "./temp", options);
+
+        // When
+        queuedTasks.get(0).run();
+
+        // Then
+        ExportJob finished = exportJobService.getJob(job.getId());
+        assertEquals(ExportJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(1500L, finished.getRowsExported());
+        assertEquals(2000L, finished.getBytesWritten());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getFinishedAt());
+        ExportResult storedResult = finished.toResult();
+        assertTrue(storedResult.isSuccess());
+        assertEquals("products.csv.gz", storedResult.getFileName());
+        assertEquals(400L, storedResult.getFileSizeBytes());
+    }
+
+    @Test
+    void shouldRunFilteredJobWithMinPrice() throws IOException {
+        // Given
+        stubRepositoryStorage();
+        BigDecimal minPrice = new BigDecimal("50.00");
+        when(exportService.exportProductsByMinPrice(eq(ExporterType.AWS_S3), eq(minPrice), isNull(),
+                eq(ExportOptions.defaults()), any()))
+                .thenReturn(new ExportResult(ExporterType.AWS_S3, "Bucket inexistente"));
+        ExportJob job = exportJobService.submitProductsByMinPrice(ExporterType.AWS_S3, minPrice, null,
+                ExportOptions.defaults());
+
+        // When
+        queuedTasks.get(0).run();
+
+        // Then
+        ExportJob finished = exportJobService.getJob(job.getId());
+        assertEquals(ExportJobStatus.FAILED, finished.getStatus());
+        assertEquals("Bucket inexistente", finished.getErrorMessage());
+        assertFalse(finished.toResult().isSuccess());
+    }
+
+    @Test
+    void shouldMarkJobAsFailedOnException() throws IOException {
+        // Given
+        stubRepositoryStorage();
+        when(exportService.exportAllProducts(any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("Exportador Local não está configurado corretamente"));
+        ExportJob job = exportJobService.submitAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults());
+
+        // When
+        queuedTasks.get(0).run();
+
+        // Then
+        ExportJob finished = exportJobService.getJob(job.getId());
+        assertEquals(ExportJobStatus.FAILED, finished.getStatus());
+        assertTrue(finished.getErrorMessage().contains("não está configurado"));
+    }
+
+    @Test
+    void shouldPersistProgressReportedDuringExport() throws IOException {
+        // Given
+        stubRepositoryStorage();
+        ReflectionTestUtils.setField(exportJobService, "progressIntervalMs", 0L);
+        when(exportService.exportAllProducts(any(), any(), any(), any())).thenAnswer(invocation -> {
+            ExportProgressListener listener = invocation.getArgument(3);
+            listener.onProgress(1000, 64_000);
+            return new ExportResult(ExporterType.LOCAL, "Erro de I/O");
+        });
+        ExportJob job = exportJobService.submitAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults());
+
+        // When
+        queuedTasks.get(0).run();
+
+        // Then
+        verify(exportJobRepository).updateProgress(eq(job.getId()), eq(1000L), eq(64_000L), any());
+        ExportJob finished = exportJobService.getJob(job.getId());
+        assertEquals(1000L, finished.getRowsExported());
+        assertEquals(64_000L, finished.getBytesWritten());
+    }
+
+    @Test
+    void shouldKeepJobPendingUntilAdmissionHasSlot() throws Exception {
+        // Given
+        stubRepositoryStorage();
+        when(exportService.exportAllProducts(any(), any(), any(), any()))
+                .thenReturn(new ExportResult("products.csv", "/tmp/products.csv", "/tmp/products.csv",
+                        10L, 100L, 5L, ExporterType.LOCAL));
+        ExportJob job = exportJobService.submitAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults());
+        ExportAdmission.Permit synchronousExport = admission.acquire(ExporterType.AWS_S3);
+
+        // When
+        CompletableFuture<Void> running = CompletableFuture.runAsync(queuedTasks.get(0));
+        assertThrows(TimeoutException.class, () -> running.get(200, TimeUnit.MILLISECONDS));
+        ExportJobStatus statusWhileWaiting = exportJobService.getJob(job.getId()).getStatus();
+        synchronousExport.close();
+        running.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(ExportJobStatus.PENDING, statusWhileWaiting);
+        assertEquals(ExportJobStatus.COMPLETED, exportJobService.getJob(job.getId()).getStatus());
+        admission.acquire(ExporterType.LOCAL).close();
+    }
+
+    @Test
+    void shouldMarkJobAsFailedWhenQueueIsFull() {
+        // Given
+        stubRepositoryStorage();
+        exportJobService = new ExportJobService(exportJobRepository, exportService, admission, task -> {
+            throw new RejectedExecutionException("fila cheia");
+        });
+
+        // When & Then
+        assertThrows(RejectedExecutionException.class,
+                () -> exportJobService.submitAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults()));
+        ExportJob job = storedJobs.values().iterator().next();
+        assertEquals(ExportJobStatus.FAILED, job.getStatus());
+        assertEquals("Fila de exportações cheia", job.getErrorMessage());
+    }
+
+    @Test
+    void shouldThrowWhenJobDoesNotExist() {
+        // Given
+        UUID jobId = UUID.randomUUID();
+        when(exportJobRepository.findById(jobId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ExportJobNotFoundException.class, () -> exportJobService.getJob(jobId));
+    }
+
+    @Test
+    void shouldRecoverInterruptedJobsOnStartup() {
+        // Given
+        stubRepositoryStorage();
+        ExportJob running = new ExportJob(ExporterType.LOCAL, null, null, ExportOptions.defaults());
+        running.setId(UUID.randomUUID());
+        running.markRunning();
+        ExportJob pending = new ExportJob(ExporterType.LOCAL, null, null, ExportOptions.defaults());
+        pending.setId(UUID.randomUUID());
+        when(exportJobRepository.findByStatusOrderByCreatedAt(ExportJobStatus.RUNNING)).thenReturn(List.of(running));
+        when(exportJobRepository.findByStatusOrderByCreatedAt(ExportJobStatus.PENDING)).thenReturn(List.of(pending));
+
+        // When
+        exportJobService.recoverInterruptedJobs();
+
+        // Then
+        assertEquals(ExportJobStatus.FAILED, running.getStatus());
+        assertEquals(ExportJobStatus.PENDING, pending.getStatus());
+        assertEquals(1, queuedTasks.size());
+    }
+}
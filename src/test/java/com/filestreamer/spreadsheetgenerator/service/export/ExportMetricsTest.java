@@ -0,0 +1,110 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExportMetrics exportMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exportMetrics = new ExportMetrics(meterRegistry);
+    }
+
+    @Test
+    void shouldPublishBytesAndRowsOnFlushAndClose() throws IOException {
+        // Given
+        ExportMetrics.Recording recording = exportMetrics.start(ExporterType.LOCAL, ExportFormat.CSV);
+        AtomicLong totalExported = new AtomicLong();
+        OutputStream outputStream = recording.meter(new ByteArrayOutputStream(), totalExported);
+
+        // When
+        outputStream.write("1,A\n2,B\n".getBytes(StandardCharsets.UTF_8));
+        totalExported.set(2);
+        outputStream.flush();
+        double bytesAfterFlush = bytes();
+        outputStream.write("3,C\n".getBytes(StandardCharsets.UTF_8));
+        totalExported.set(3);
+        outputStream.close();
+
+        // Then
+        assertEquals(8.0, bytesAfterFlush);
+        assertEquals(12.0, bytes());
+        assertEquals(3.0, meterRegistry.get(ExportMetrics.ROWS).tags("exporter", "LOCAL", "format", "CSV")
+                .counter().count());
+        assertEquals(1L, meterRegistry.get(ExportMetrics.TIME_TO_FIRST_BYTE).timer().count());
+    }
+
+    @Test
+    void shouldTrackActiveExportsAndDurationBySuccess() {
+        // Given
+        ExportMetrics.Recording first = exportMetrics.start(ExporterType.AWS_S3, ExportFormat.CSV);
+        ExportMetrics.Recording second = exportMetrics.start(ExporterType.AWS_S3, ExportFormat.CSV);
+
+        // When
+        double activeWhileRunning = active();
+        first.success();
+        second.success();
+        second.success();
+
+        // Then
+        assertEquals(2.0, activeWhileRunning);
+        assertEquals(0.0, active());
+        assertEquals(2L, meterRegistry.get(ExportMetrics.DURATION).tags("outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldCountFailuresByCause() {
+        // Given
+        ExportMetrics.Recording recording = exportMetrics.start(ExporterType.GCP_STORAGE, ExportFormat.XLSX);
+
+        // When
+        recording.failure(new IOException("conexão perdida"));
+        recording.success();
+        exportMetrics.recordFailure(ExporterType.GCP_STORAGE, ExportFormat.XLSX, new IllegalStateException());
+
+        // Then
+        assertEquals(1.0, meterRegistry.get(ExportMetrics.FAILURES).tags("cause", "IOException").counter().count());
+        assertEquals(1.0, meterRegistry.get(ExportMetrics.FAILURES).tags("cause", "IllegalStateException")
+                .counter().count());
+        assertEquals(1L, meterRegistry.get(ExportMetrics.DURATION).tags("outcome", "failure").timer().count());
+        assertTrue(meterRegistry.find(ExportMetrics.DURATION).tags("outcome", "success").timers().isEmpty());
+    }
+
+    @Test
+    void shouldNotPublishAnythingWhenNoop() throws IOException {
+        // Given
+        ExportMetrics.Recording recording = ExportMetrics.noop().start(ExporterType.LOCAL, ExportFormat.CSV);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        // When
+        try (OutputStream outputStream = recording.meter(written, new AtomicLong())) {
+            outputStream.write(42);
+        }
+        recording.success();
+
+        // Then
+        assertEquals(1, written.size());
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    private double bytes() {
+        return meterRegistry.get(ExportMetrics.BYTES).counter().count();
+    }
+
+    private double active() {
+        return meterRegistry.get(ExportMetrics.ACTIVE).tags("exporter", "AWS_S3").gauge().value();
+    }
+}
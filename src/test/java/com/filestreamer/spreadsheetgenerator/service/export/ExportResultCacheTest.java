@@ -0,0 +1,164 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.repository.ProductDataVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportResultCacheTest {
+
+    private static final ProductDataVersion VERSION = new ProductDataVersion(42);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReturnCachedResultUntilTtlExpires() {
+        // Given
+        MutableClock clock = new MutableClock();
+        ExportResultCache cache = new ExportResultCache(10, Duration.ofMinutes(30), clock);
+        ExportCacheKey key = key("all");
+        cache.put(key, s3Result("products.csv"));
+
+        // When
+        clock.advance(Duration.ofMinutes(29));
+        boolean hitBeforeExpiry = cache.get(key).isPresent();
+        clock.advance(Duration.ofMinutes(1));
+        boolean hitAfterExpiry = cache.get(key).isPresent();
+
+        // Then
+        assertTrue(hitBeforeExpiry);
+        assertFalse(hitAfterExpiry);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        // Given
+        ExportResultCache cache = new ExportResultCache(2, Duration.ofHours(1), new MutableClock());
+        cache.put(key("a"), s3Result("a.csv"));
+        cache.put(key("b"), s3Result("b.csv"));
+        cache.get(key("a"));
+
+        // When
+        cache.put(key("c"), s3Result("c.csv"));
+
+        // Then
+        assertTrue(cache.get(key("a")).isPresent());
+        assertFalse(cache.get(key("b")).isPresent());
+        assertTrue(cache.get(key("c")).isPresent());
+    }
+
+    @Test
+    void shouldMarkHitsAsCached() {
+        // Given
+        ExportResultCache cache = new ExportResultCache(10, Duration.ofHours(1), new MutableClock());
+        cache.put(key("all"), s3Result("products.csv"));
+
+        // When
+        ExportResult hit = cache.get(key("all")).orElseThrow();
+
+        // Then
+        assertTrue(hit.isCached());
+        assertEquals("s3://bucket/products.csv", hit.getFilePath());
+    }
+
+    @Test
+    void shouldDropLocalEntryWhenFileWasRemoved() throws IOException {
+        // Given
+        ExportResultCache cache = new ExportResultCache(10, Duration.ofHours(1), new MutableClock());
+        Path file = Files.writeString(tempDir.resolve("products.csv"), "ID\n");
+        ExportCacheKey key = new ExportCacheKey(ExporterType.LOCAL, tempDir.toString(), "all", ExportFormat.CSV,
+                CompressionCodec.NONE, null, null, ParallelOutput.MERGED, null, null, VERSION);
+        cache.put(key, new ExportResult("products.csv", file.toString(), file.toUri().toString(), 0L, 3L, 1L,
+                ExporterType.LOCAL));
+
+        // When
+        boolean hitWithFile = cache.get(key).isPresent();
+        Files.delete(file);
+        boolean hitWithoutFile = cache.get(key).isPresent();
+
+        // Then
+        assertTrue(hitWithFile);
+        assertFalse(hitWithoutFile);
+    }
+
+    @Test
+    void shouldIgnoreFailuresAndDisabledCache() {
+        // Given
+        ExportResultCache cache = new ExportResultCache(10, Duration.ofHours(1), new MutableClock());
+        ExportResultCache disabled = new ExportResultCache(0, Duration.ofHours(1), new MutableClock());
+
+        // When
+        cache.put(key("all"), new ExportResult(ExporterType.AWS_S3, "falha"));
+        disabled.put(key("all"), s3Result("products.csv"));
+
+        // Then
+        assertFalse(cache.get(key("all")).isPresent());
+        assertFalse(disabled.isEnabled());
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void shouldIncludeOptionsAndDataVersionInKey() {
+        // Given
+        ExportOptions csv = ExportOptions.builder().build();
+        ExportOptions gzip = ExportOptions.builder().compression(CompressionCodec.GZIP).build();
+
+        // When & Then
+        assertEquals(ExportCacheKey.of(ExporterType.AWS_S3, "exports", "all", csv, VERSION),
+                ExportCacheKey.of(ExporterType.AWS_S3, "exports", "all",
+                        ExportOptions.builder().mode(ExportMode.JPA).bypassCache(true).build(), VERSION));
+        assertNotEquals(ExportCacheKey.of(ExporterType.AWS_S3, "exports", "all", csv, VERSION),
+                ExportCacheKey.of(ExporterType.AWS_S3, "exports", "all", gzip, VERSION));
+        assertNotEquals(ExportCacheKey.of(ExporterType.AWS_S3, "exports", "all", csv, VERSION),
+                ExportCacheKey.of(ExporterType.AWS_S3, "exports", "all", csv,
+                        new ProductDataVersion(43)));
+    }
+
+    private static ExportCacheKey key(String query) {
+        return ExportCacheKey.of(ExporterType.AWS_S3, "exports", query, ExportOptions.defaults(), VERSION);
+    }
+
+    private static ExportResult s3Result(String fileName) {
+        return new ExportResult(fileName, "s3://bucket/" + fileName, "https://bucket/" + fileName,
+                42L, 1024L, 100L, ExporterType.AWS_S3);
+    }
+
+    /**
+     * Relógio controlado pelo teste
+     */
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExportTest {
+
+    @Test
+    void shouldWriteEveryRowToEverySinkInItsOwnFormat() throws IOException {
+        // Given
+        InMemoryExporter csvExporter = new InMemoryExporter();
+        InMemoryExporter xlsxExporter = new InMemoryExporter();
+        List<FanOutExport.Sink> sinks = List.of(
+                new FanOutExport.Sink(csvExporter, config("products.csv", ExportFormat.CSV)),
+                new FanOutExport.Sink(xlsxExporter, config("products.xlsx", ExportFormat.XLSX)));
+
+        // When
+        List<ExportResult> results = FanOutExport.export(rows(25), sinks, 4, 2);
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals("products.csv", results.get(0).getFileName());
+        assertEquals("products.xlsx", results.get(1).getFileName());
+        assertTrue(results.stream().allMatch(ExportResult::isSuccess));
+        assertTrue(results.stream().allMatch(result -> result.getTotalRecords() == 25));
+        String csv = csvExporter.written.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("\"ID\"\n\"0\"\n\"1\"\n"));
+        assertTrue(csv.endsWith("\"24\"\n"));
+        assertEquals('P', (char) xlsxExporter.written.toByteArray()[0]);
+    }
+
+    @Test
+    void shouldKeepExportingToOtherSinksWhenOneFails() throws IOException {
+        // Given
+        InMemoryExporter healthyExporter = new InMemoryExporter();
+        InMemoryExporter failingExporter = new InMemoryExporter() {
+            @Override
+            public ExportResult exportContent(ExportContent content, ExportConfig exportConfig) {
+                return new ExportResult(ExporterType.AWS_S3, "bucket inexistente");
+            }
+        };
+        List<FanOutExport.Sink> sinks = List.of(
+                new FanOutExport.Sink(failingExporter, config("products.csv", ExportFormat.CSV)),
+                new FanOutExport.Sink(healthyExporter, config("products.csv", ExportFormat.CSV)));
+
+        // When
+        List<ExportResult> results = FanOutExport.export(rows(1_000), sinks, 10, 1);
+
+        // Then
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("bucket inexistente", results.get(0).getErrorMessage());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(1_000, results.get(1).getTotalRecords());
+    }
+
+    @Test
+    void shouldStopReadingWhileSlowestSinkQueueIsFull() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryExporter slowExporter = new InMemoryExporter() {
+            @Override
+            public ExportResult exportContent(ExportContent content, ExportConfig exportConfig) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.exportContent(content, exportConfig);
+            }
+        };
+        AtomicLong rowsRead = new AtomicLong();
+        Stream<String[]> rows = rows(10_000).peek(row -> rowsRead.incrementAndGet());
+        List<FanOutExport.Sink> sinks = List.of(new FanOutExport.Sink(slowExporter, config("products.csv", ExportFormat.CSV)));
+
+        // When
+        Thread exportThread = Thread.ofVirtual().start(() -> {
+            try {
+                FanOutExport.export(rows, sinks, 10, 2);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        TimeUnit.MILLISECONDS.sleep(200);
+        long readWhileBlocked = rowsRead.get();
+        release.countDown();
+        exportThread.join();
+
+        // Then
+        // 2 lotes na fila + 1 lote aguardando vaga
+        assertTrue(readWhileBlocked <= 30, "Linhas lidas com a fila cheia: " + readWhileBlocked);
+        assertEquals(10_000, rowsRead.get());
+    }
+
+    @Test
+    void shouldFailAllSinksWhenReadingFails() {
+        // Given
+        InMemoryExporter exporter = new InMemoryExporter();
+        Stream<String[]> rows = rows(100).peek(row -> {
+            if (row[0].equals("50")) {
+                throw new IllegalStateException("conexão perdida");
+            }
+        });
+        List<FanOutExport.Sink> sinks = List.of(new FanOutExport.Sink(exporter, config("products.csv", ExportFormat.CSV)));
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> FanOutExport.export(rows, sinks, 10, 2));
+        assertEquals("conexão perdida", exception.getMessage());
+        assertFalse(exporter.lastResult.isSuccess());
+    }
+
+    private static Stream<String[]> rows(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new String[]{String.valueOf(i)});
+    }
+
+    private static ExportConfig config(String fileName, ExportFormat format) {
+        return ExportConfig.builder()
+                .fileName(fileName)
+                .format(format)
+                .headers(new String[]{"ID"})
+                .batchSize(10)
+                .build();
+    }
+
+    /**
+     * Exportador que grava em memória, com o mesmo tratamento de erro dos exportadores reais
+     */
+    private static class InMemoryExporter extends AbstractStreamExporter {
+
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        volatile ExportResult lastResult;
+
+        @Override
+        public ExportResult exportContent(ExportContent content, ExportConfig exportConfig) {
+            try {
+                AtomicLong totalExported = new AtomicLong();
+                long rawSize = content.writeTo(written, totalExported);
+                lastResult = new ExportResult(exportConfig.getFileName(), "mem://" + exportConfig.getFileName(),
+                        "mem://" + exportConfig.getFileName(), totalExported.get(), rawSize, 1L, ExporterType.LOCAL);
+            } catch (Exception e) {
+                lastResult = new ExportResult(ExporterType.LOCAL, e.getMessage());
+            }
+            return lastResult;
+        }
+
+        @Override
+        public String getExporterInfo() {
+            return "Memória";
+        }
+
+        @Override
+        public boolean isConfigured() {
+            return true;
+        }
+
+        @Override
+        public ExporterType getType() {
+            return ExporterType.LOCAL;
+        }
+    }
+}
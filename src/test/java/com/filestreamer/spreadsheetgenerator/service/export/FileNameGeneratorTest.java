@@ -166,4 +166,20 @@ class FileNameGeneratorTest {
             LocalDateTime.parse(timestampPart, TIMESTAMP_FORMATTER);
         });
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testPartFileNameInsertsPartNumberBeforeExtension() {
+        // When & Then
+        assertEquals("products_20250101_120000_part-00001.csv.gz",
+                FileNameGenerator.partFileName("products_20250101_120000.csv.gz", 1));
+        assertEquals("products_part-00012", FileNameGenerator.partFileName("products", 12));
+    }
+
+    @Test
+    void testManifestFileNameDropsExtensions() {
+        // When & Then
+        assertEquals("products_20250101_120000_manifest.json",
+                FileNameGenerator.manifestFileName("products_20250101_120000.csv.gz"));
+        assertEquals("products_manifest.json", FileNameGenerator.manifestFileName("products"));
+    }
+}
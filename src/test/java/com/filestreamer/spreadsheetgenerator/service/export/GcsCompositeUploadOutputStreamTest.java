@@ -0,0 +1,154 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GcsCompositeUploadOutputStreamTest {
+
+    private static final int PART_SIZE = 16;
+
+    private static final BlobInfo TARGET = BlobInfo.newBuilder("test-bucket", "exports/file.csv")
+            .setContentType("text/csv")
+            .build();
+
+    @Mock
+    private Storage storage;
+
+    @Test
+    void shouldCreateObjectDirectlyWhenContentFitsInOnePart() throws IOException {
+        // Given
+        GcsCompositeUploadOutputStream stream = newStream();
+
+        // When
+        stream.write("small".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        // Then
+        verify(storage).create(eq(TARGET), any(byte[].class), eq(0), eq(5));
+        verify(storage, never()).compose(any(Storage.ComposeRequest.class));
+        assertEquals(0, stream.getUploadedParts());
+    }
+
+    @Test
+    void shouldUploadPartsInParallelAndComposeInOrder() throws IOException {
+        // Given
+        Map<String, String> partContents = mockPartUploads();
+        GcsCompositeUploadOutputStream stream = newStream();
+        byte[] data = new byte[PART_SIZE * 2 + 3];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+
+        // When
+        stream.write(data);
+        stream.close();
+
+        // Then
+        assertEquals(3, partContents.size());
+        ArgumentCaptor<Storage.ComposeRequest> composeCaptor = ArgumentCaptor.forClass(Storage.ComposeRequest.class);
+        verify(storage).compose(composeCaptor.capture());
+        Storage.ComposeRequest request = composeCaptor.getValue();
+        assertEquals(TARGET, request.getTarget());
+
+        List<String> sources = request.getSourceBlobs().stream().map(Storage.ComposeRequest.SourceBlob::getName).toList();
+        assertEquals(3, sources.size());
+        assertEquals("abcdefghijklmnop", partContents.get(sources.get(0)));
+        assertEquals("qrstuvwxyzabcdef", partContents.get(sources.get(1)));
+        assertEquals("ghi", partContents.get(sources.get(2)));
+        assertTrue(sources.stream().allMatch(name -> name.startsWith("exports/file.csv.parts-")));
+
+        verifyTemporaryObjectsDeleted(3);
+        assertEquals(3, stream.getUploadedParts());
+    }
+
+    @Test
+    void shouldComposeInLevelsWhenPartsExceedComposeLimit() throws IOException {
+        // Given
+        mockPartUploads();
+        GcsCompositeUploadOutputStream stream = newStream();
+        int parts = GcsCompositeUploadOutputStream.MAX_COMPOSE_SOURCES + 2;
+
+        // When
+        stream.write(new byte[PART_SIZE * parts]);
+        stream.close();
+
+        // Then
+        ArgumentCaptor<Storage.ComposeRequest> composeCaptor = ArgumentCaptor.forClass(Storage.ComposeRequest.class);
+        verify(storage, times(3)).compose(composeCaptor.capture());
+        List<Storage.ComposeRequest> requests = composeCaptor.getAllValues();
+        assertEquals(GcsCompositeUploadOutputStream.MAX_COMPOSE_SOURCES, requests.get(0).getSourceBlobs().size());
+        assertEquals(2, requests.get(1).getSourceBlobs().size());
+        assertEquals(2, requests.get(2).getSourceBlobs().size());
+        assertEquals(TARGET, requests.get(2).getTarget());
+
+        // Partes e objetos intermediários são removidos
+        verifyTemporaryObjectsDeleted(parts + 2);
+    }
+
+    @Test
+    void shouldDeleteTemporaryPartsWhenAborted() throws Exception {
+        // Given
+        CountDownLatch partsUploaded = new CountDownLatch(2);
+        when(storage.create(any(BlobInfo.class), any(byte[].class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    partsUploaded.countDown();
+                    return null;
+                });
+        GcsCompositeUploadOutputStream stream = newStream();
+        stream.write(new byte[PART_SIZE * 2]);
+        assertTrue(partsUploaded.await(5, TimeUnit.SECONDS));
+
+        // When
+        stream.abort();
+        stream.close();
+
+        // Then
+        verify(storage, never()).compose(any(Storage.ComposeRequest.class));
+        verifyTemporaryObjectsDeleted(2);
+    }
+
+    private GcsCompositeUploadOutputStream newStream() {
+        return new GcsCompositeUploadOutputStream(storage, TARGET, PART_SIZE, 2);
+    }
+
+    private Map<String, String> mockPartUploads() {
+        Map<String, String> partContents = new ConcurrentHashMap<>();
+        when(storage.create(any(BlobInfo.class), any(byte[].class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    BlobInfo blobInfo = invocation.getArgument(0);
+                    byte[] data = invocation.getArgument(1);
+                    int length = invocation.getArgument(3);
+                    // Copia o conteúdo durante o upload, pois o buffer é reutilizado depois
+                    partContents.put(blobInfo.getName(), new String(data, 0, length, StandardCharsets.UTF_8));
+                    return null;
+                });
+        return partContents;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyTemporaryObjectsDeleted(int expected) {
+        ArgumentCaptor<List<BlobId>> deleteCaptor = ArgumentCaptor.forClass(List.class);
+        verify(storage).delete(deleteCaptor.capture());
+        assertEquals(expected, deleteCaptor.getValue().size());
+        assertTrue(deleteCaptor.getValue().stream().noneMatch(blobId -> blobId.getName().equals(TARGET.getName())));
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -121,6 +122,53 @@ class GenericGcpStreamExporterTest {
         assertTrue(result.getErrorMessage().contains("GCS Error"));
     }
 
+    @Test
+    void shouldDeletePartsWithoutComposingWhenRowStreamFailsMidway() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("test.csv")
+                .uploadPartSize(ExportConfig.MIN_UPLOAD_PART_SIZE)
+                .uploadConcurrency(2)
+                .build();
+        CountDownLatch partUploaded = new CountDownLatch(1);
+        when(storage.create(any(BlobInfo.class), any(byte[].class), anyInt(), anyInt())).thenAnswer(invocation -> {
+            partUploaded.countDown();
+            return mock(Blob.class);
+        });
+
+        // When
+        ExportResult result = exporter.exportData(
+                GenericS3StreamExporterTest.rowsFailingAfterFirstPart(partUploaded), config);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrorMessage().contains("Conexão com o banco perdida"));
+        verify(storage, never()).compose(any(Storage.ComposeRequest.class));
+        verify(storage).delete(anyList());
+        verify(storage, never()).create(argThat((BlobInfo info) -> info.getName().equals("test.csv")),
+                any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldNotFinalizeResumableUploadWhenRowStreamFails() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder().fileName("test.csv").build();
+        Stream<String[]> data = Stream.of(new String[]{"d1"}, null).map(row -> {
+            if (row == null) {
+                throw new IllegalStateException("Conexão com o banco perdida");
+            }
+            return row;
+        });
+        when(storage.writer(any(BlobInfo.class))).thenReturn(writeChannel);
+
+        // When
+        ExportResult result = exporter.exportData(data, config);
+
+        // Then
+        assertFalse(result.isSuccess());
+        verify(writeChannel, never()).close();
+    }
+
     @Test
     void shouldReturnCorrectExporterInfo() {
         // When
@@ -1,5 +1,6 @@
 package com.filestreamer.spreadsheetgenerator.service.export;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.CSVWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -66,6 +70,171 @@ class GenericLocalStreamExporterTest {
         assertTrue(Files.exists(Paths.get(TEST_PATH, "test.csv")));
     }
     
+    @Test
+    void shouldWriteSameFileWithBothCsvEncoders() throws IOException {
+        // Given
+        String[] headers = {"id", "name"};
+        String[][] rows = {{"1", "Café \"especial\""}, {"2", null}};
+
+        // When
+        for (CsvEncoder encoder : CsvEncoder.values()) {
+            ExportConfig config = ExportConfig.builder()
+                    .fileName(encoder.name() + ".csv")
+                    .headers(headers)
+                    .basePath(TEST_PATH)
+                    .csvEncoder(encoder)
+                    .build();
+            assertTrue(exporter.exportData(Stream.of(rows), config).isSuccess());
+        }
+
+        // Then
+        byte[] utf8Direct = Files.readAllBytes(Paths.get(TEST_PATH, "UTF8_DIRECT.csv"));
+        byte[] openCsv = Files.readAllBytes(Paths.get(TEST_PATH, "OPENCSV.csv"));
+        assertArrayEquals(openCsv, utf8Direct);
+        assertEquals("\"id\",\"name\"\n\"1\",\"Café \"\"especial\"\"\"\n\"2\",\n",
+                new String(utf8Direct, java.nio.charset.StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void shouldExportXlsxFile() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("test.xlsx")
+                .headers(new String[]{"h1", "h2"})
+                .basePath(TEST_PATH)
+                .format(ExportFormat.XLSX)
+                .build();
+
+        // When
+        ExportResult result = exporter.exportData(Stream.of(new String[][]{{"d1", "d2"}}), config);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getTotalRecords());
+        try (java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(Paths.get(TEST_PATH, "test.xlsx").toFile())) {
+            assertNotNull(zipFile.getEntry("xl/workbook.xml"));
+            assertNotNull(zipFile.getEntry("xl/worksheets/sheet1.xml"));
+        }
+    }
+    
+    @Test
+    void shouldExportGzipCompressedFileReportingRawAndCompressedSizes() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("test.csv.gz")
+                .headers(new String[]{"h1", "h2"})
+                .basePath(TEST_PATH)
+                .compression(CompressionCodec.GZIP)
+                .build();
+        String[][] rows = new String[500][];
+        java.util.Arrays.fill(rows, new String[]{"same value", "repeated content"});
+
+        // When
+        ExportResult result = exporter.exportData(Stream.of(rows), config);
+
+        // Then
+        assertTrue(result.isSuccess());
+        Path file = Paths.get(TEST_PATH, "test.csv.gz");
+        assertEquals(Files.size(file), result.getFileSizeBytes());
+        assertTrue(result.getRawSizeBytes() > result.getFileSizeBytes());
+        assertTrue(result.getCompressionRatio() > 1.0);
+        try (java.util.zip.GZIPInputStream inputStream = new java.util.zip.GZIPInputStream(Files.newInputStream(file))) {
+            byte[] content = inputStream.readAllBytes();
+            assertEquals(result.getRawSizeBytes(), content.length);
+            assertTrue(new String(content, java.nio.charset.StandardCharsets.UTF_8).startsWith("\"h1\",\"h2\"\n"));
+        }
+    }
+    
+    @Test
+    void shouldRollToNewPartEveryMaxRowsWithHeaderAndManifest() throws Exception {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("products.csv")
+                .headers(new String[]{"id"})
+                .basePath(TEST_PATH)
+                .maxRowsPerFile(2)
+                .build();
+        Stream<String[]> data = Stream.of(new String[]{"1"}, new String[]{"2"}, new String[]{"3"},
+                new String[]{"4"}, new String[]{"5"});
+
+        // When
+        ExportResult result = exporter.exportData(data, config);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(5, result.getTotalRecords());
+        assertEquals(List.of(TEST_PATH + "/products_part-00001.csv", TEST_PATH + "/products_part-00002.csv",
+                TEST_PATH + "/products_part-00003.csv"), result.getPartFiles());
+        Path lastPart = Paths.get(TEST_PATH, "products_part-00003.csv");
+        assertEquals("\"id\"\n\"1\"\n\"2\"\n", Files.readString(Paths.get(TEST_PATH, "products_part-00001.csv")));
+        assertEquals("\"id\"\n\"5\"\n", Files.readString(lastPart));
+
+        Path manifestPath = Paths.get(TEST_PATH, "products_manifest.json");
+        assertEquals(manifestPath.toString(), result.getManifestPath());
+        ExportManifest manifest = new ObjectMapper().readValue(manifestPath.toFile(), ExportManifest.class);
+        assertEquals(5, manifest.totalRecords());
+        assertEquals(3, manifest.parts().size());
+        ExportManifest.Part part = manifest.parts().get(2);
+        assertEquals("products_part-00003.csv", part.fileName());
+        assertEquals(1, part.records());
+        assertEquals(Files.size(lastPart), part.sizeBytes());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(lastPart))),
+                part.checksum());
+    }
+
+    @Test
+    void shouldRollCompressedPartsByRawBytes() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("products.csv.gz")
+                .headers(new String[]{"id", "name"})
+                .basePath(TEST_PATH)
+                .compression(CompressionCodec.GZIP)
+                .batchSize(10)
+                .maxBytesPerFile(100_000)
+                .build();
+        String[][] rows = new String[10_000][];
+        java.util.Arrays.fill(rows, new String[]{"42", "some repeated product name"});
+
+        // When
+        ExportResult result = exporter.exportData(Stream.of(rows), config);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(10_000, result.getTotalRecords());
+        assertTrue(result.getPartFiles().size() > 1);
+        long decompressedRows = 0;
+        for (String partFile : result.getPartFiles()) {
+            try (java.util.zip.GZIPInputStream inputStream = new java.util.zip.GZIPInputStream(
+                    Files.newInputStream(Paths.get(partFile)))) {
+                String content = new String(inputStream.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+                assertTrue(content.startsWith("\"id\",\"name\"\n"));
+                decompressedRows += content.lines().count() - 1;
+            }
+        }
+        assertEquals(10_000, decompressedRows);
+        assertTrue(Files.exists(Paths.get(TEST_PATH, "products_manifest.json")));
+    }
+
+    @Test
+    void shouldWriteSinglePartWithHeaderWhenRollingEmptyStream() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("empty.csv")
+                .headers(new String[]{"id"})
+                .basePath(TEST_PATH)
+                .maxRowsPerFile(10)
+                .build();
+
+        // When
+        ExportResult result = exporter.exportData(Stream.empty(), config);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(1, result.getPartFiles().size());
+        assertEquals("\"id\"\n", Files.readString(Paths.get(TEST_PATH, "empty_part-00001.csv")));
+    }
+
     @Test
     void shouldCreateDirectoryIfNotExists() throws IOException {
         // Given
@@ -96,6 +265,27 @@ class GenericLocalStreamExporterTest {
         assertTrue(result.getErrorMessage().contains("Erro durante exportação streaming"));
     }
 
+    @Test
+    void shouldNotLeaveFileWhenRowStreamFailsMidway() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder().fileName("test.csv").basePath(TEST_PATH).build();
+        Stream<String[]> data = Stream.of(new String[]{"d1"}, null).map(row -> {
+            if (row == null) {
+                throw new IllegalStateException("Conexão com o banco perdida");
+            }
+            return row;
+        });
+
+        // When
+        ExportResult result = exporter.exportData(data, config);
+
+        // Then
+        assertFalse(result.isSuccess());
+        try (Stream<Path> files = Files.list(Paths.get(TEST_PATH))) {
+            assertEquals(0, files.count());
+        }
+    }
+
     @Test
     void shouldUseCustomBasePathWhenProvided() throws IOException {
         // Given
@@ -10,9 +10,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,6 +94,70 @@ class GenericS3StreamExporterTest {
         assertTrue(result.getErrorMessage().contains("S3 Error"));
     }
 
+    @Test
+    void shouldAbortMultipartUploadWhenRowStreamFailsMidway() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder()
+                .fileName("test.csv")
+                .uploadPartSize(ExportConfig.MIN_UPLOAD_PART_SIZE)
+                .build();
+        CountDownLatch partUploaded = new CountDownLatch(1);
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            partUploaded.countDown();
+            return UploadPartResponse.builder().eTag("etag-1").build();
+        });
+
+        // When
+        ExportResult result = exporter.exportData(rowsFailingAfterFirstPart(partUploaded), config);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrorMessage().contains("Conexão com o banco perdida"));
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void shouldNotUploadTruncatedObjectWhenRowStreamFailsBeforeFirstPart() throws IOException {
+        // Given
+        ExportConfig config = ExportConfig.builder().fileName("test.csv").build();
+        Stream<String[]> data = Stream.of(new String[]{"d1"}, null).map(row -> {
+            if (row == null) {
+                throw new IllegalStateException("Conexão com o banco perdida");
+            }
+            return row;
+        });
+
+        // When
+        ExportResult result = exporter.exportData(data, config);
+
+        // Then
+        assertFalse(result.isSuccess());
+        verifyNoInteractions(s3Client);
+    }
+
+    /**
+     * Linhas suficientes para encher a primeira parte; a leitura falha depois que ela foi enviada
+     */
+    static Stream<String[]> rowsFailingAfterFirstPart(CountDownLatch partUploaded) {
+        String[] row = {"x".repeat(1000)};
+        int rowsPerPart = ExportConfig.MIN_UPLOAD_PART_SIZE / 1000;
+        return Stream.iterate(1, i -> i + 1).map(i -> {
+            if (i > rowsPerPart + 100) {
+                try {
+                    partUploaded.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Conexão com o banco perdida");
+            }
+            return row;
+        });
+    }
+
     @Test
     void shouldReturnCorrectExporterInfo() {
         // When
@@ -1,21 +1,35 @@
 package com.filestreamer.spreadsheetgenerator.service.export;
 
+import com.filestreamer.spreadsheetgenerator.model.ExportWatermark;
+import com.filestreamer.spreadsheetgenerator.repository.ExportWatermarkRepository;
+import com.filestreamer.spreadsheetgenerator.repository.ProductCopyRepository;
+import com.filestreamer.spreadsheetgenerator.repository.ProductDataVersion;
+import com.filestreamer.spreadsheetgenerator.repository.ProductExportRow;
 import com.filestreamer.spreadsheetgenerator.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,7 +39,13 @@ class GenericStreamExportServiceTest {
     private ProductRepository productRepository;
 
     @Mock
-    private ProductDataFormatter productFormatter;
+    private ProductCopyRepository productCopyRepository;
+
+    @Mock
+    private ParallelCopyExportService parallelCopyExportService;
+
+    @Mock
+    private ProductExportRowFormatter productFormatter;
 
     @Mock
     private FileNameGenerator fileNameGenerator;
@@ -39,17 +59,28 @@ class GenericStreamExportServiceTest {
     @Mock
     private GenericGcpStreamExporter gcpExporter;
 
+    @Mock
+    private ExportWatermarkRepository watermarkRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private GenericStreamExportService exportService;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         exportService = new GenericStreamExportService(
                 productRepository,
+                productCopyRepository,
+                parallelCopyExportService,
                 productFormatter,
                 fileNameGenerator,
                 localExporter,
                 s3Exporter,
-                gcpExporter
+                gcpExporter,
+                new ExportMetrics(meterRegistry),
+                new ExportResultCache(0, Duration.ofHours(1)),
+                watermarkRepository
         );
     }
 
@@ -65,8 +96,8 @@ class GenericStreamExportServiceTest {
                 "file://./test/" + fileName, 2L, 1024L, 500L, ExporterType.LOCAL);
 
         // Mocks
-        when(productRepository.findAllByOrderByCreatedAtStream()).thenReturn(Stream.empty());
-        when(fileNameGenerator.generateCsvFileName("products_export")).thenReturn(fileName);
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(fileNameGenerator.generateFileName("products_export", "csv")).thenReturn(fileName);
         when(productFormatter.getHeaders()).thenReturn(headers);
         when(localExporter.isConfigured()).thenReturn(true);
         when(localExporter.exportData(any(), any())).thenReturn(expectedResult);
@@ -80,13 +111,247 @@ class GenericStreamExportServiceTest {
         assertEquals(fileName, result.getFileName());
         
         // Verificar chamadas dos mocks
-        verify(productRepository).findAllByOrderByCreatedAtStream();
-        verify(fileNameGenerator).generateCsvFileName("products_export");
+        verify(productRepository).findAllExportRowsOrderByCreatedAtStream();
+        verify(fileNameGenerator).generateFileName("products_export", "csv");
         verify(productFormatter).getHeaders();
         verify(localExporter).isConfigured();
         verify(localExporter).exportData(any(), any());
     }
 
+    @Test
+    void shouldExportAllProductsAsXlsx() throws IOException {
+        // Given
+        String fileName = "products_export_20240624.xlsx";
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(fileNameGenerator.generateFileName("products_export", "xlsx")).thenReturn(fileName);
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(localExporter.exportData(any(), any())).thenReturn(new ExportResult(fileName, "./test/" + fileName,
+                "file://./test/" + fileName, 0L, 1024L, 100L, ExporterType.LOCAL));
+
+        // When
+        exportService.exportAllProducts(ExporterType.LOCAL, "./test",
+                ExportOptions.builder().format(ExportFormat.XLSX).build());
+
+        // Then
+        ArgumentCaptor<ExportConfig> configCaptor = ArgumentCaptor.forClass(ExportConfig.class);
+        verify(localExporter).exportData(any(), configCaptor.capture());
+        assertEquals(ExportFormat.XLSX, configCaptor.getValue().getFormat());
+        assertEquals(fileName, configCaptor.getValue().getFileName());
+        assertEquals(ExportFormat.XLSX.getContentType(), configCaptor.getValue().getContentType());
+    }
+
+    @Test
+    void shouldExportAllProductsWithCompression() throws IOException {
+        // Given
+        String fileName = "products_export_20240624.csv.zst";
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(fileNameGenerator.generateFileName("products_export", "csv.zst")).thenReturn(fileName);
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(localExporter.exportData(any(), any())).thenReturn(new ExportResult(fileName, "./test/" + fileName,
+                "file://./test/" + fileName, 0L, 128L, 1024L, 100L, ExporterType.LOCAL));
+
+        // When
+        exportService.exportAllProducts(ExporterType.LOCAL, "./test",
+                ExportOptions.builder().compression(CompressionCodec.ZSTD).compressionLevel(10).build());
+
+        // Then
+        ArgumentCaptor<ExportConfig> configCaptor = ArgumentCaptor.forClass(ExportConfig.class);
+        verify(localExporter).exportData(any(), configCaptor.capture());
+        assertEquals(CompressionCodec.ZSTD, configCaptor.getValue().getCompression());
+        assertEquals(10, configCaptor.getValue().getCompressionLevel());
+        assertEquals("zstd", configCaptor.getValue().getContentEncoding());
+    }
+
+    @Test
+    void shouldStreamAllProductsWithoutClosingOutputStream() throws IOException {
+        // Given
+        when(fileNameGenerator.generateFileName("products_export", "csv")).thenReturn("products_export.csv");
+        when(productFormatter.getHeaders()).thenReturn(new String[]{"ID", "Nome"});
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(productFormatter.formatToRows(any())).thenReturn(Stream.of(new String[]{"1", "A"}, new String[]{"2", "B"}));
+        ExportConfig exportConfig = exportService.createAllProductsDownloadConfig(ExportOptions.defaults());
+        boolean[] closed = {false};
+        java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // When
+        long total = exportService.streamAllProducts(outputStream, exportConfig);
+
+        // Then
+        assertEquals(2, total);
+        assertEquals("\"ID\",\"Nome\"\n\"1\",\"A\"\n\"2\",\"B\"\n", outputStream.toString());
+        assertFalse(closed[0]);
+        verifyNoInteractions(localExporter, s3Exporter, gcpExporter);
+        assertEquals(2.0, meterRegistry.get(ExportMetrics.ROWS).tags("exporter", "HTTP").counter().count());
+        assertEquals(outputStream.size(), meterRegistry.get(ExportMetrics.BYTES).tags("exporter", "HTTP").counter().count());
+        assertEquals(1L, meterRegistry.get(ExportMetrics.DURATION).tags("outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldReportProgressPerBatchAndAtTheEnd() throws IOException {
+        // Given
+        List<long[]> progress = new java.util.ArrayList<>();
+        ExportConfig exportConfig = ExportConfig.builder()
+                .fileName("progress.csv")
+                .batchSize(2)
+                .progressListener((rows, bytes) -> progress.add(new long[]{rows, bytes}))
+                .build();
+        Stream<String[]> rows = Stream.of(new String[]{"1"}, new String[]{"2"}, new String[]{"3"});
+
+        // When
+        long rawSize = ExportWriter.write(rows, exportConfig, new java.io.ByteArrayOutputStream(),
+                new java.util.concurrent.atomic.AtomicLong());
+
+        // Then
+        assertEquals(2, progress.size());
+        assertArrayEquals(new long[]{2, 8}, progress.get(0));
+        assertArrayEquals(new long[]{3, rawSize}, progress.get(1));
+    }
+
+    @Test
+    void shouldExportAllProductsViaCopyWhenDatabaseSupportsIt() throws IOException {
+        // Given
+        when(fileNameGenerator.generateFileName("products_export", "csv")).thenReturn("products_export.csv");
+        when(productFormatter.getHeaders()).thenReturn(new String[]{"ID", "Nome"});
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(productCopyRepository.isCopySupported()).thenReturn(true);
+        when(productCopyRepository.copyAllProducts(any())).thenAnswer(invocation -> {
+            java.io.OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("\"1\",\"A\"\n\"2\",\"B\"\n".getBytes());
+            return 2L;
+        });
+        java.io.ByteArrayOutputStream written = new java.io.ByteArrayOutputStream();
+        when(localExporter.exportContent(any(), any())).thenAnswer(invocation -> {
+            ExportContent content = invocation.getArgument(0);
+            java.util.concurrent.atomic.AtomicLong total = new java.util.concurrent.atomic.AtomicLong();
+            long rawSize = content.writeTo(written, total);
+            return new ExportResult("products_export.csv", "./products_export.csv", "./products_export.csv",
+                    total.get(), rawSize, 10L, ExporterType.LOCAL);
+        });
+
+        // When
+        ExportResult result = exportService.exportAllProducts(ExporterType.LOCAL, null, ExportOptions.defaults());
+
+        // Then
+        assertEquals(2L, result.getTotalRecords());
+        assertEquals("\"ID\",\"Nome\"\n\"1\",\"A\"\n\"2\",\"B\"\n", written.toString());
+        assertEquals(written.size(), result.getFileSizeBytes());
+        verify(localExporter, never()).exportData(any(), any());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldExportAllProductsInParallelWhenMoreThanOnePartitionIsResolved() throws IOException {
+        // Given
+        ExportOptions options = ExportOptions.builder().parallelism(3).parallelOutput(ParallelOutput.PARTS).build();
+        ExportResult expectedResult = new ExportResult("products_export.csv", "./products_export_part-00001.csv",
+                "./products_export_part-00001.csv", 30L, 300L, 10L, ExporterType.LOCAL);
+        when(fileNameGenerator.generateFileName("products_export", "csv")).thenReturn("products_export.csv");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(productCopyRepository.isCopySupported()).thenReturn(true);
+        when(parallelCopyExportService.resolveParallelism(3)).thenReturn(3);
+        when(parallelCopyExportService.exportAllProducts(eq(localExporter), any(ExportConfig.class), eq(3),
+                eq(ParallelOutput.PARTS))).thenReturn(expectedResult);
+
+        // When
+        ExportResult result = exportService.exportAllProducts(ExporterType.LOCAL, null, options);
+
+        // Then
+        assertSame(expectedResult, result);
+        verify(productCopyRepository, never()).copyAllProducts(any());
+        verify(localExporter, never()).exportContent(any(), any());
+    }
+
+    @Test
+    void shouldReadProductsOnceForAllTargets() throws IOException {
+        // Given
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(productFormatter.formatToRows(any())).thenReturn(Stream.of(new String[]{"1"}, new String[]{"2"}));
+        when(fileNameGenerator.generateFileName("products_export", "csv")).thenReturn("products_export.csv");
+        when(fileNameGenerator.generateFileName("products_export", "xlsx.gz")).thenReturn("products_export.xlsx.gz");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(s3Exporter.isConfigured()).thenReturn(true);
+        when(localExporter.exportData(any(), any())).thenAnswer(invocation -> consumedRowsResult(invocation.getArgument(0),
+                invocation.getArgument(1), ExporterType.LOCAL));
+        when(s3Exporter.exportData(any(), any())).thenAnswer(invocation -> consumedRowsResult(invocation.getArgument(0),
+                invocation.getArgument(1), ExporterType.AWS_S3));
+
+        // When
+        List<ExportResult> results = exportService.exportAllProductsToTargets(List.of(
+                new ExportTarget(ExporterType.LOCAL, ExportFormat.CSV, CompressionCodec.NONE),
+                new ExportTarget(ExporterType.AWS_S3, ExportFormat.XLSX, CompressionCodec.GZIP)), null);
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals("products_export.csv", results.get(0).getFileName());
+        assertEquals(2L, results.get(0).getTotalRecords());
+        assertEquals("products_export.xlsx.gz", results.get(1).getFileName());
+        assertEquals(2L, results.get(1).getTotalRecords());
+        verify(productRepository, times(1)).findAllExportRowsOrderByCreatedAtStream();
+        verify(productFormatter, times(1)).formatToRows(any());
+        ArgumentCaptor<ExportConfig> configCaptor = ArgumentCaptor.forClass(ExportConfig.class);
+        verify(s3Exporter).exportData(any(), configCaptor.capture());
+        assertEquals(ExportFormat.XLSX, configCaptor.getValue().getFormat());
+        assertEquals(CompressionCodec.GZIP, configCaptor.getValue().getCompression());
+    }
+
+    @Test
+    void shouldRejectDuplicatedTargets() {
+        // Given
+        ExportTarget target = ExportTarget.parse("LOCAL:CSV");
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportAllProductsToTargets(List.of(target, target), null));
+        assertEquals("Destinos repetidos", exception.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldUseJpaPathForXlsxEvenWhenCopyIsAvailable() throws IOException {
+        // Given
+        ExportOptions options = ExportOptions.builder().format(ExportFormat.XLSX).build();
+        when(fileNameGenerator.generateFileName("products_export", "xlsx")).thenReturn("products_export.xlsx");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(localExporter.exportData(any(), any())).thenReturn(new ExportResult(ExporterType.LOCAL, "ok"));
+
+        // When
+        exportService.exportAllProducts(ExporterType.LOCAL, null, options);
+
+        // Then
+        verify(localExporter, never()).exportContent(any(), any());
+        verifyNoInteractions(productCopyRepository);
+    }
+
+    @Test
+    void shouldRejectCopyModeWhenDatabaseIsNotPostgres() {
+        // Given
+        ExportOptions options = ExportOptions.builder().mode(ExportMode.COPY).build();
+        when(fileNameGenerator.generateFilteredFileName(anyString(), anyString(), anyString())).thenReturn("f.csv");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(productCopyRepository.isCopySupported()).thenReturn(false);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportProductsByMinPrice(ExporterType.LOCAL, BigDecimal.TEN, null, options));
+        assertEquals("Modo COPY requer banco PostgreSQL", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get(ExportMetrics.FAILURES)
+                .tags("exporter", "LOCAL", "format", "CSV", "cause", "IllegalArgumentException")
+                .counter().count());
+    }
+
+    @Test
+    void shouldRejectCopyModeForXlsx() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> ExportOptions.builder().format(ExportFormat.XLSX).mode(ExportMode.COPY).build());
+    }
+
     @Test
     void shouldExportFilteredProductsByPriceSuccessfully() throws IOException {
         // Given
@@ -100,7 +365,7 @@ class GenericStreamExportServiceTest {
                 "file://./test/" + fileName, 1L, 512L, 300L, ExporterType.LOCAL);
 
         // Mocks
-        when(productRepository.findByPriceGreaterThanEqualStream(minPrice)).thenReturn(Stream.empty());
+        when(productRepository.findExportRowsByPriceGreaterThanEqualStream(minPrice)).thenReturn(Stream.empty());
         when(fileNameGenerator.generateFilteredFileName("products", "price_min_" + minPrice, "csv")).thenReturn(fileName);
         when(productFormatter.getHeaders()).thenReturn(headers);
         when(localExporter.isConfigured()).thenReturn(true);
@@ -115,7 +380,7 @@ class GenericStreamExportServiceTest {
         assertEquals(fileName, result.getFileName());
         
         // Verificar chamadas dos mocks
-        verify(productRepository).findByPriceGreaterThanEqualStream(minPrice);
+        verify(productRepository).findExportRowsByPriceGreaterThanEqualStream(minPrice);
         verify(fileNameGenerator).generateFilteredFileName("products", "price_min_" + minPrice, "csv");
         verify(productFormatter).getHeaders();
         verify(localExporter).isConfigured();
@@ -244,8 +509,8 @@ class GenericStreamExportServiceTest {
         ExportResult mockResult = new ExportResult("test.csv", "./test/test.csv", 
                 "file://./test/test.csv", 0L, 0L, 0L, ExporterType.LOCAL);
 
-        when(productRepository.findAllByOrderByCreatedAtStream()).thenReturn(Stream.empty());
-        when(fileNameGenerator.generateCsvFileName(anyString())).thenReturn("test.csv");
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(fileNameGenerator.generateFileName(anyString(), anyString())).thenReturn("test.csv");
         when(productFormatter.getHeaders()).thenReturn(new String[]{"ID"});
 
         // Test LOCAL
@@ -327,10 +592,10 @@ class GenericStreamExportServiceTest {
         // Given
         ExporterType exporterType = ExporterType.LOCAL;
         String basePath = "./test";
-        when(productRepository.findAllByOrderByCreatedAtStream()).thenReturn(Stream.empty());
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenReturn(Stream.empty());
         when(localExporter.isConfigured()).thenReturn(true);
         when(productFormatter.getHeaders()).thenReturn(new String[]{"header"});
-        when(fileNameGenerator.generateCsvFileName(anyString())).thenReturn("empty_export.csv");
+        when(fileNameGenerator.generateFileName(anyString(), anyString())).thenReturn("empty_export.csv");
         
         ExportResult emptyResult = new ExportResult("empty_export.csv", "", "", 0L, 0L, 0L, ExporterType.LOCAL);
         when(localExporter.exportData(any(), any())).thenReturn(emptyResult);
@@ -341,7 +606,7 @@ class GenericStreamExportServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(0, result.getTotalRecords());
-        verify(productRepository).findAllByOrderByCreatedAtStream();
+        verify(productRepository).findAllExportRowsOrderByCreatedAtStream();
         verify(localExporter).exportData(any(), any());
     }
     
@@ -351,7 +616,7 @@ class GenericStreamExportServiceTest {
         ExporterType exporterType = ExporterType.AWS_S3;
         BigDecimal minPrice = BigDecimal.valueOf(999);
         String basePath = "s3://test";
-        when(productRepository.findByPriceGreaterThanEqualStream(minPrice)).thenReturn(Stream.empty());
+        when(productRepository.findExportRowsByPriceGreaterThanEqualStream(minPrice)).thenReturn(Stream.empty());
         when(s3Exporter.isConfigured()).thenReturn(true);
         when(productFormatter.getHeaders()).thenReturn(new String[]{"header"});
         when(fileNameGenerator.generateFilteredFileName(anyString(), anyString(), anyString())).thenReturn("empty_filtered.csv");
@@ -365,7 +630,259 @@ class GenericStreamExportServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(0, result.getTotalRecords());
-        verify(productRepository).findByPriceGreaterThanEqualStream(minPrice);
+        verify(productRepository).findExportRowsByPriceGreaterThanEqualStream(minPrice);
         verify(s3Exporter).exportData(any(), any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldReuseCachedResultWhileDataVersionIsUnchanged() throws IOException {
+        // Given
+        GenericStreamExportService cachingService = serviceWithCache();
+        BigDecimal minPrice = new BigDecimal("150.00");
+        when(productCopyRepository.findDataVersion()).thenReturn(Optional.of(new ProductDataVersion(42)));
+        when(productRepository.findExportRowsByPriceGreaterThanEqualStream(any())).thenReturn(Stream.empty());
+        when(fileNameGenerator.generateFilteredFileName(anyString(), anyString(), anyString())).thenReturn("filtered.csv");
+        when(s3Exporter.isConfigured()).thenReturn(true);
+        when(s3Exporter.exportData(any(), any())).thenReturn(new ExportResult("filtered.csv", "s3://bucket/filtered.csv",
+                "https://bucket/filtered.csv", 42L, 1024L, 100L, ExporterType.AWS_S3));
+
+        // When
+        ExportResult first = cachingService.exportProductsByMinPrice(ExporterType.AWS_S3, minPrice, "exports");
+        ExportResult second = cachingService.exportProductsByMinPrice(ExporterType.AWS_S3, new BigDecimal("150"), "exports");
+
+        // Then
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertEquals("s3://bucket/filtered.csv", second.getFilePath());
+        assertEquals(42L, second.getTotalRecords());
+        verify(s3Exporter, times(1)).exportData(any(), any());
+        assertEquals(1.0, meterRegistry.get(ExportMetrics.REQUESTS).tag("path", "cache").counter().count());
+    }
+
+    @Test
+    void shouldExportAgainWhenDataChangesOrCacheIsBypassed() throws IOException {
+        // Given
+        GenericStreamExportService cachingService = serviceWithCache();
+        when(productCopyRepository.findDataVersion()).thenReturn(
+                Optional.of(new ProductDataVersion(42)),
+                Optional.of(new ProductDataVersion(43)),
+                Optional.of(new ProductDataVersion(43)));
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenAnswer(invocation -> Stream.empty());
+        when(fileNameGenerator.generateFileName(anyString(), anyString())).thenReturn("products_export.csv");
+        when(s3Exporter.isConfigured()).thenReturn(true);
+        when(s3Exporter.exportData(any(), any())).thenReturn(new ExportResult("products_export.csv",
+                "s3://bucket/products_export.csv", "https://bucket/products_export.csv", 42L, 1024L, 100L,
+                ExporterType.AWS_S3));
+        ExportOptions jpa = ExportOptions.builder().mode(ExportMode.JPA).build();
+
+        // When
+        cachingService.exportAllProducts(ExporterType.AWS_S3, "exports", jpa);
+        ExportResult afterChange = cachingService.exportAllProducts(ExporterType.AWS_S3, "exports", jpa);
+        ExportResult bypassed = cachingService.exportAllProducts(ExporterType.AWS_S3, "exports",
+                ExportOptions.builder().mode(ExportMode.JPA).bypassCache(true).build());
+
+        // Then
+        assertFalse(afterChange.isCached());
+        assertFalse(bypassed.isCached());
+        verify(s3Exporter, times(3)).exportData(any(), any());
+    }
+
+    @Test
+    void shouldNotUseCacheWithoutDataVersion() throws IOException {
+        // Given
+        GenericStreamExportService cachingService = serviceWithCache();
+        when(productCopyRepository.findDataVersion()).thenReturn(Optional.empty());
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenAnswer(invocation -> Stream.empty());
+        when(fileNameGenerator.generateFileName(anyString(), anyString())).thenReturn("products_export.csv");
+        when(s3Exporter.isConfigured()).thenReturn(true);
+        when(s3Exporter.exportData(any(), any())).thenReturn(new ExportResult("products_export.csv",
+                "s3://bucket/products_export.csv", "https://bucket/products_export.csv", 42L, 1024L, 100L,
+                ExporterType.AWS_S3));
+        ExportOptions jpa = ExportOptions.builder().mode(ExportMode.JPA).build();
+
+        // When
+        cachingService.exportAllProducts(ExporterType.AWS_S3, "exports", jpa);
+        ExportResult second = cachingService.exportAllProducts(ExporterType.AWS_S3, "exports", jpa);
+
+        // Then
+        assertFalse(second.isCached());
+        verify(s3Exporter, times(2)).exportData(any(), any());
+    }
+
+    @Test
+    void shouldNotCacheFailedExports() throws IOException {
+        // Given
+        GenericStreamExportService cachingService = serviceWithCache();
+        when(productCopyRepository.findDataVersion()).thenReturn(Optional.of(new ProductDataVersion(0)));
+        when(productRepository.findAllExportRowsOrderByCreatedAtStream()).thenAnswer(invocation -> Stream.empty());
+        when(fileNameGenerator.generateFileName(anyString(), anyString())).thenReturn("products_export.csv");
+        when(s3Exporter.isConfigured()).thenReturn(true);
+        when(s3Exporter.exportData(any(), any())).thenReturn(new ExportResult(ExporterType.AWS_S3, "falha no upload"));
+        ExportOptions jpa = ExportOptions.builder().mode(ExportMode.JPA).build();
+
+        // When
+        cachingService.exportAllProducts(ExporterType.AWS_S3, "exports", jpa);
+        cachingService.exportAllProducts(ExporterType.AWS_S3, "exports", jpa);
+
+        // Then
+        verify(s3Exporter, times(2)).exportData(any(), any());
+    }
+
+    @Test
+    void shouldExportAllProductsOnFirstDeltaRunAndStoreWatermark() throws IOException {
+        // Given
+        ProductExportRow first = exportRow(LocalDateTime.of(2025, 1, 1, 10, 0));
+        ProductExportRow last = exportRow(LocalDateTime.of(2025, 1, 1, 11, 0));
+        when(watermarkRepository.findById("erp")).thenReturn(Optional.empty());
+        when(productRepository.findExportRowsChangedSinceStream(isNull(), isNull(), any()))
+                .thenReturn(Stream.of(first, last));
+        when(productFormatter.formatToRows(any())).thenAnswer(invocation ->
+                invocation.<Stream<ProductExportRow>>getArgument(0).map(row -> new String[]{row.id().toString()}));
+        when(fileNameGenerator.generateFilteredFileName("products_delta", "erp", "csv")).thenReturn("delta.csv");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(localExporter.exportData(any(), any())).thenAnswer(invocation ->
+                iteratedRowsResult(invocation.getArgument(0), invocation.getArgument(1)));
+
+        // When
+        ExportResult result = exportService.exportChangedProducts(ExporterType.LOCAL, "erp", "./test",
+                ExportOptions.defaults());
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getTotalRecords());
+        ArgumentCaptor<ExportWatermark> saved = ArgumentCaptor.forClass(ExportWatermark.class);
+        verify(watermarkRepository).save(saved.capture());
+        assertEquals("erp", saved.getValue().getDefinitionName());
+        assertEquals(last.updatedAt(), saved.getValue().getLastUpdatedAt());
+        assertEquals(last.id(), saved.getValue().getLastId());
+        assertEquals(2, saved.getValue().getRowsExported());
+        assertEquals(1.0, meterRegistry.get(ExportMetrics.REQUESTS).tag("path", "delta").counter().count());
+    }
+
+    @Test
+    void shouldResumeDeltaFromWatermarkAndKeepItWhenNothingChanged() throws IOException {
+        // Given
+        ExportWatermark watermark = new ExportWatermark("erp");
+        UUID lastId = UUID.randomUUID();
+        watermark.advance(LocalDateTime.of(2025, 1, 1, 11, 0), lastId, 2);
+        when(watermarkRepository.findById("erp")).thenReturn(Optional.of(watermark));
+        when(productRepository.findExportRowsChangedSinceStream(eq(LocalDateTime.of(2025, 1, 1, 11, 0)), eq(lastId),
+                any())).thenReturn(Stream.empty());
+        when(productFormatter.formatToRows(any())).thenAnswer(invocation ->
+                invocation.<Stream<ProductExportRow>>getArgument(0).map(row -> new String[]{row.id().toString()}));
+        when(fileNameGenerator.generateFilteredFileName(anyString(), anyString(), anyString())).thenReturn("delta.csv");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(localExporter.exportData(any(), any())).thenAnswer(invocation ->
+                iteratedRowsResult(invocation.getArgument(0), invocation.getArgument(1)));
+
+        // When
+        ExportResult result = exportService.exportChangedProducts(ExporterType.LOCAL, "erp", "./test",
+                ExportOptions.defaults());
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(0, result.getTotalRecords());
+        verify(watermarkRepository, never()).save(any());
+        assertEquals(lastId, watermark.getLastId());
+    }
+
+    @Test
+    void shouldExportLateCommittedRowOnNextDeltaRun() throws IOException {
+        // Given: uma importação abriu um bloco às 10:30 e só confirmou depois da primeira execução,
+        // com uma linha gravada às 10:45; o banco recua o limite para antes do bloco aberto
+        LocalDateTime openChunkStart = LocalDateTime.of(2025, 1, 1, 10, 30);
+        ProductExportRow committed = exportRow(LocalDateTime.of(2025, 1, 1, 10, 0));
+        ProductExportRow lateCommitted = exportRow(LocalDateTime.of(2025, 1, 1, 10, 45));
+        ExportWatermark watermark = new ExportWatermark("erp");
+        when(watermarkRepository.findById("erp")).thenReturn(Optional.of(watermark));
+        when(productCopyRepository.findDeltaCutoff(any())).thenReturn(
+                Optional.of(openChunkStart.minusNanos(1000)),
+                Optional.of(LocalDateTime.of(2025, 1, 1, 11, 0)));
+        when(productRepository.findExportRowsChangedSinceStream(isNull(), isNull(), eq(openChunkStart.minusNanos(1000))))
+                .thenReturn(Stream.of(committed));
+        when(productRepository.findExportRowsChangedSinceStream(eq(committed.updatedAt()), eq(committed.id()),
+                eq(LocalDateTime.of(2025, 1, 1, 11, 0)))).thenReturn(Stream.of(lateCommitted));
+        when(productFormatter.formatToRows(any())).thenAnswer(invocation ->
+                invocation.<Stream<ProductExportRow>>getArgument(0).map(row -> new String[]{row.id().toString()}));
+        when(fileNameGenerator.generateFilteredFileName(anyString(), anyString(), anyString())).thenReturn("delta.csv");
+        when(localExporter.isConfigured()).thenReturn(true);
+        when(localExporter.exportData(any(), any())).thenAnswer(invocation ->
+                iteratedRowsResult(invocation.getArgument(0), invocation.getArgument(1)));
+
+        // When
+        ExportResult first = exportService.exportChangedProducts(ExporterType.LOCAL, "erp", "./test",
+                ExportOptions.defaults());
+        LocalDateTime watermarkAfterFirst = watermark.getLastUpdatedAt();
+        ExportResult second = exportService.exportChangedProducts(ExporterType.LOCAL, "erp", "./test",
+                ExportOptions.defaults());
+
+        // Then
+        assertEquals(1, first.getTotalRecords());
+        assertEquals(committed.updatedAt(), watermarkAfterFirst);
+        assertEquals(1, second.getTotalRecords());
+        assertEquals(lateCommitted.id(), watermark.getLastId());
+    }
+
+    @Test
+    void shouldNotAdvanceWatermarkWhenDeltaExportFails() throws IOException {
+        // Given
+        when(watermarkRepository.findById("erp")).thenReturn(Optional.empty());
+        when(productRepository.findExportRowsChangedSinceStream(isNull(), isNull(), any()))
+                .thenReturn(Stream.of(exportRow(LocalDateTime.of(2025, 1, 1, 10, 0))));
+        when(productFormatter.formatToRows(any())).thenAnswer(invocation ->
+                invocation.<Stream<ProductExportRow>>getArgument(0).map(row -> new String[]{row.id().toString()}));
+        when(fileNameGenerator.generateFilteredFileName(anyString(), anyString(), anyString())).thenReturn("delta.csv");
+        when(s3Exporter.isConfigured()).thenReturn(true);
+        when(s3Exporter.exportData(any(), any())).thenAnswer(invocation -> {
+            invocation.<Stream<String[]>>getArgument(0).iterator().forEachRemaining(row -> { });
+            return new ExportResult(ExporterType.AWS_S3, "falha no upload");
+        });
+
+        // When
+        ExportResult result = exportService.exportChangedProducts(ExporterType.AWS_S3, "erp", "exports",
+                ExportOptions.defaults());
+
+        // Then
+        assertFalse(result.isSuccess());
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectInvalidDeltaDefinitionAndCopyMode() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> exportService.exportChangedProducts(ExporterType.LOCAL,
+                "../erp", "./test", ExportOptions.defaults()));
+        assertThrows(IllegalArgumentException.class, () -> exportService.exportChangedProducts(ExporterType.LOCAL,
+                "erp", "./test", ExportOptions.builder().mode(ExportMode.COPY).build()));
+        verifyNoInteractions(watermarkRepository, productRepository);
+    }
+
+    private static ProductExportRow exportRow(LocalDateTime updatedAt) {
+        return new ProductExportRow(UUID.randomUUID(), "Produto", "Descrição", new BigDecimal("10.00"),
+                updatedAt, updatedAt);
+    }
+
+    /**
+     * Consome as linhas uma a uma, como os exportadores, e devolve um resultado com o total lido
+     */
+    private static ExportResult iteratedRowsResult(Stream<String[]> rows, ExportConfig exportConfig) {
+        long count = 0;
+        for (Iterator<String[]> iterator = rows.iterator(); iterator.hasNext(); iterator.next()) {
+            count++;
+        }
+        return new ExportResult(exportConfig.getFileName(), "./" + exportConfig.getFileName(),
+                "./" + exportConfig.getFileName(), count, 10L, 1L, ExporterType.LOCAL);
+    }
+
+    private GenericStreamExportService serviceWithCache() {
+        return new GenericStreamExportService(productRepository, productCopyRepository, parallelCopyExportService,
+                productFormatter, fileNameGenerator, localExporter, s3Exporter, gcpExporter,
+                new ExportMetrics(meterRegistry), new ExportResultCache(10, Duration.ofHours(1)), watermarkRepository);
+    }
+
+    private static ExportResult consumedRowsResult(Stream<String[]> rows, ExportConfig exportConfig, ExporterType type) {
+        long count = rows.count();
+        return new ExportResult(exportConfig.getFileName(), "./" + exportConfig.getFileName(),
+                "./" + exportConfig.getFileName(), count, 10L, 1L, type);
+    }
+}
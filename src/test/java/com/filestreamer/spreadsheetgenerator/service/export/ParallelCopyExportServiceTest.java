@@ -0,0 +1,212 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.repository.CreatedAtRange;
+import com.filestreamer.spreadsheetgenerator.repository.ExportedSnapshot;
+import com.filestreamer.spreadsheetgenerator.repository.ProductCopyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelCopyExportServiceTest {
+
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 1, 0, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    @Mock
+    private ProductCopyRepository productCopyRepository;
+
+    @Mock
+    private ExportedSnapshot snapshot;
+
+    @Mock
+    private StreamExporter exporter;
+
+    private ParallelCopyExportService parallelCopyExportService;
+
+    @BeforeEach
+    void setUp() {
+        parallelCopyExportService = new ParallelCopyExportService(productCopyRepository);
+    }
+
+    @Test
+    void shouldResolveParallelismFromTableSizeEstimate() {
+        // Given
+        ReflectionTestUtils.setField(parallelCopyExportService, "connectionPoolSize", 20);
+        when(productCopyRepository.estimateRowCount()).thenReturn(2_500_000L, 0L, 50_000_000L);
+
+        // When & Then
+        assertEquals(3, parallelCopyExportService.resolveParallelism(null));
+        assertEquals(1, parallelCopyExportService.resolveParallelism(null));
+        assertEquals(4, parallelCopyExportService.resolveParallelism(null));
+    }
+
+    @Test
+    void shouldClampRequestedParallelismToMaximum() {
+        // Given
+        ReflectionTestUtils.setField(parallelCopyExportService, "connectionPoolSize", 20);
+
+        // When & Then
+        assertEquals(2, parallelCopyExportService.resolveParallelism(2));
+        assertEquals(4, parallelCopyExportService.resolveParallelism(32));
+        verify(productCopyRepository, never()).estimateRowCount();
+    }
+
+    @Test
+    void shouldClampParallelismToHalfOfConnectionPool() {
+        // Given
+        when(productCopyRepository.estimateRowCount()).thenReturn(50_000_000L);
+
+        // When
+        int defaultPool = parallelCopyExportService.resolveParallelism(32);
+        int automaticDefaultPool = parallelCopyExportService.resolveParallelism(null);
+        ReflectionTestUtils.setField(parallelCopyExportService, "connectionPoolSize", 4);
+        int smallPool = parallelCopyExportService.resolveParallelism(32);
+
+        // Then
+        assertEquals(3, defaultPool);
+        assertEquals(3, automaticDefaultPool);
+        assertEquals(1, smallPool);
+    }
+
+    @Test
+    void shouldMergeRangesInCreatedAtOrder() throws IOException {
+        // Given
+        givenThreeRangesWithRows();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        when(exporter.exportContent(any(), any())).thenAnswer(invocation -> {
+            ExportContent content = invocation.getArgument(0);
+            AtomicLong totalExported = new AtomicLong();
+            long rawSize = content.writeTo(written, totalExported);
+            return new ExportResult("products.csv", "./products.csv", "./products.csv",
+                    totalExported.get(), rawSize, 10L, ExporterType.LOCAL);
+        });
+
+        // When
+        ExportResult result = parallelCopyExportService.exportAllProducts(exporter, exportConfig("products.csv"), 3,
+                ParallelOutput.MERGED);
+
+        // Then
+        assertEquals(5L, result.getTotalRecords());
+        assertEquals("\"ID\"\n\"jan-1\"\n\"jan-2\"\n\"feb-1\"\n\"mar-1\"\n\"mar-2\"\n",
+                written.toString(StandardCharsets.UTF_8));
+        verify(productCopyRepository).findCreatedAtBounds(3);
+        verify(snapshot).close();
+    }
+
+    @Test
+    void shouldWriteRangesAsIndependentParts() throws IOException {
+        // Given
+        givenThreeRangesWithRows();
+        Map<String, String> writtenParts = new ConcurrentHashMap<>();
+        when(exporter.getType()).thenReturn(ExporterType.LOCAL);
+        when(exporter.exportContent(any(), any())).thenAnswer(invocation -> {
+            ExportContent content = invocation.getArgument(0);
+            ExportConfig partConfig = invocation.getArgument(1);
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            AtomicLong totalExported = new AtomicLong();
+            long rawSize = content.writeTo(written, totalExported);
+            writtenParts.put(partConfig.getFileName(), written.toString(StandardCharsets.UTF_8));
+            return new ExportResult(partConfig.getFileName(), "./" + partConfig.getFileName(),
+                    "./" + partConfig.getFileName(), totalExported.get(), rawSize, 10L, ExporterType.LOCAL);
+        });
+        AtomicLong reportedRows = new AtomicLong();
+        ExportConfig exportConfig = exportConfig("products.csv").toBuilder()
+                .progressListener((rowsExported, bytesWritten) -> reportedRows.set(rowsExported))
+                .build();
+
+        // When
+        ExportResult result = parallelCopyExportService.exportAllProducts(exporter, exportConfig, 3,
+                ParallelOutput.PARTS);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals("products.csv", result.getFileName());
+        assertEquals(5L, result.getTotalRecords());
+        assertEquals(5L, reportedRows.get());
+        assertEquals(List.of("./products_part-00001.csv", "./products_part-00002.csv", "./products_part-00003.csv"),
+                result.getPartFiles());
+        assertEquals("\"ID\"\n\"jan-1\"\n\"jan-2\"\n", writtenParts.get("products_part-00001.csv"));
+        assertEquals("\"ID\"\n\"feb-1\"\n", writtenParts.get("products_part-00002.csv"));
+        assertEquals("\"ID\"\n\"mar-1\"\n\"mar-2\"\n", writtenParts.get("products_part-00003.csv"));
+        verify(snapshot).close();
+    }
+
+    @Test
+    void shouldFailWhenAnyPartFails() throws IOException {
+        // Given
+        when(productCopyRepository.findCreatedAtBounds(2)).thenReturn(List.of(FEBRUARY));
+        when(productCopyRepository.exportSnapshot()).thenReturn(snapshot);
+        when(exporter.getType()).thenReturn(ExporterType.LOCAL);
+        when(exporter.exportContent(any(), any())).thenAnswer(invocation -> {
+            ExportConfig partConfig = invocation.getArgument(1);
+            return partConfig.getFileName().contains("part-00002")
+                    ? new ExportResult(ExporterType.LOCAL, "disco cheio")
+                    : new ExportResult(partConfig.getFileName(), "./p", "./p", 1L, 1L, 1L, ExporterType.LOCAL);
+        });
+
+        // When
+        ExportResult result = parallelCopyExportService.exportAllProducts(exporter, exportConfig("products.csv"), 2,
+                ParallelOutput.PARTS);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals("Falha na parte 2 de 2: disco cheio", result.getErrorMessage());
+        verify(snapshot).close();
+    }
+
+    @Test
+    void shouldPropagateRangeCopyErrorsWhenMerging() throws IOException {
+        // Given
+        when(productCopyRepository.copyCreatedAtRange(eq(snapshot), any(CreatedAtRange.class), any(OutputStream.class)))
+                .thenReturn(0L)
+                .thenThrow(new IOException("conexão perdida"));
+
+        // When & Then
+        IOException exception = assertThrows(IOException.class, () -> parallelCopyExportService.copyMerged(snapshot,
+                CreatedAtRange.fromBounds(List.of(FEBRUARY)), new ByteArrayOutputStream()));
+        assertEquals("conexão perdida", exception.getMessage());
+    }
+
+    private void givenThreeRangesWithRows() throws IOException {
+        when(productCopyRepository.findCreatedAtBounds(3)).thenReturn(List.of(FEBRUARY, MARCH));
+        when(productCopyRepository.exportSnapshot()).thenReturn(snapshot);
+        givenRangeRows(new CreatedAtRange(null, FEBRUARY), "\"jan-1\"\n\"jan-2\"\n", 2);
+        givenRangeRows(new CreatedAtRange(FEBRUARY, MARCH), "\"feb-1\"\n", 1);
+        givenRangeRows(new CreatedAtRange(MARCH, null), "\"mar-1\"\n\"mar-2\"\n", 2);
+    }
+
+    private void givenRangeRows(CreatedAtRange range, String rows, long count) throws IOException {
+        when(productCopyRepository.copyCreatedAtRange(eq(snapshot), eq(range), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream outputStream = invocation.getArgument(2);
+                    outputStream.write(rows.getBytes(StandardCharsets.UTF_8));
+                    return count;
+                });
+    }
+
+    private ExportConfig exportConfig(String fileName) {
+        return ExportConfig.builder()
+                .fileName(fileName)
+                .headers(new String[]{"ID"})
+                .build();
+    }
+}
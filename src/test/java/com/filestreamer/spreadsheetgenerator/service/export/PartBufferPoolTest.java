@@ -0,0 +1,58 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartBufferPoolTest {
+
+    @Test
+    void shouldReuseReleasedBuffers() throws IOException {
+        // Given
+        PartBufferPool pool = new PartBufferPool(8, 2);
+
+        // When
+        byte[] first = pool.acquire();
+        pool.release(first);
+        byte[] second = pool.acquire();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(8, second.length);
+        assertEquals(1, pool.getAllocated());
+    }
+
+    @Test
+    void shouldBlockWhenAllBuffersAreInUse() throws Exception {
+        // Given
+        PartBufferPool pool = new PartBufferPool(8, 2);
+        byte[] first = pool.acquire();
+        pool.acquire();
+
+        // When
+        CompletableFuture<byte[]> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.acquire();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        // Then
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+        pool.release(first);
+        assertSame(first, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(2, pool.getAllocated());
+    }
+
+    @Test
+    void shouldRejectInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new PartBufferPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PartBufferPool(8, 0));
+    }
+}
@@ -0,0 +1,90 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.repository.ProductExportRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductExportRowFormatterTest {
+
+    private ProductExportRowFormatter formatter;
+
+    @BeforeEach
+    void setUp() {
+        formatter = new ProductExportRowFormatter();
+    }
+
+    @Test
+    void shouldFormatRowLikeEntityFormatter() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 6, 23, 14, 30, 22);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 6, 24, 8, 5, 1);
+        ProductExportRow row = new ProductExportRow(productId, "Test Product", "Test product description",
+                new BigDecimal("99.99"), createdAt, updatedAt);
+
+        Product product = new Product("Test Product", "Test product description", new BigDecimal("99.99"));
+        product.setId(productId);
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(updatedAt);
+
+        // When
+        String[] formatted = formatter.formatToRow(row);
+
+        // Then
+        assertArrayEquals(new String[]{productId.toString(), "Test Product", "Test product description", "99.99",
+                "2024-06-23 14:30:22", "2024-06-24 08:05:01"}, formatted);
+        assertArrayEquals(new ProductDataFormatter().formatToRow(product), formatted);
+    }
+
+    @Test
+    void shouldFormatNullDescriptionAsEmpty() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2024, 6, 23, 14, 30, 22);
+        ProductExportRow row = new ProductExportRow(UUID.randomUUID(), "Sem descrição", null,
+                new BigDecimal("50.00"), now, now);
+
+        // When
+        String[] formatted = formatter.formatToRow(row);
+
+        // Then
+        assertEquals("", formatted[2]);
+        assertEquals("50.00", formatted[3]);
+    }
+
+    @Test
+    void shouldUseSameHeadersAsEntityFormatter() {
+        // When
+        String[] headers = formatter.getHeaders();
+        headers[0] = "alterado";
+
+        // Then
+        assertArrayEquals(new ProductDataFormatter().getHeaders(), formatter.getHeaders());
+    }
+
+    @Test
+    void shouldFormatRowsInOrder() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2024, 6, 23, 14, 30, 22);
+        Stream<ProductExportRow> rows = Stream.of(
+                new ProductExportRow(UUID.randomUUID(), "Product 1", "Desc 1", new BigDecimal("10.00"), now, now),
+                new ProductExportRow(UUID.randomUUID(), "Product 2", null, new BigDecimal("20.00"), now, now));
+
+        // When
+        List<String[]> formatted = formatter.formatToRows(rows).toList();
+
+        // Then
+        assertEquals(2, formatted.size());
+        assertEquals("Product 1", formatted.get(0)[1]);
+        assertEquals("Product 2", formatted.get(1)[1]);
+        assertEquals("", formatted.get(1)[2]);
+    }
+}
@@ -0,0 +1,179 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3MultipartUploadOutputStreamTest {
+
+    private static final int PART_SIZE = 16;
+
+    @Mock
+    private S3Client s3Client;
+
+    @Test
+    void shouldUsePutObjectWhenContentFitsInOnePart() throws IOException {
+        // Given
+        S3MultipartUploadOutputStream stream = newStream();
+
+        // When
+        stream.write("small".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        // Then
+        ArgumentCaptor<PutObjectRequest> requestCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(requestCaptor.capture(), any(RequestBody.class));
+        assertEquals(5L, requestCaptor.getValue().contentLength());
+        assertEquals("exports/file.csv", requestCaptor.getValue().key());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        assertEquals(5, stream.getBytesWritten());
+        assertEquals(0, stream.getUploadedParts());
+    }
+
+    @Test
+    void shouldSetContentEncodingOnUploadedObject() throws IOException {
+        // Given
+        S3MultipartUploadOutputStream stream = new S3MultipartUploadOutputStream(
+                s3Client, "test-bucket", "exports/file.csv.gz", "text/csv", "gzip", PART_SIZE, 2);
+
+        // When
+        stream.write("small".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        // Then
+        ArgumentCaptor<PutObjectRequest> requestCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(requestCaptor.capture(), any(RequestBody.class));
+        assertEquals("gzip", requestCaptor.getValue().contentEncoding());
+        assertEquals("text/csv", requestCaptor.getValue().contentType());
+    }
+
+    @Test
+    void shouldUploadPartsAsTheyFillAndCompleteInOrder() throws IOException {
+        // Given
+        Map<Integer, String> uploadedContents = mockMultipartUpload();
+        S3MultipartUploadOutputStream stream = newStream();
+        byte[] data = new byte[PART_SIZE * 3 + 5];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+        // When
+        stream.write(data, 0, 10);
+        stream.write(data, 10, data.length - 10);
+        stream.close();
+
+        // Then
+        verify(s3Client, times(4)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        assertEquals(4, uploadedContents.size());
+        assertEquals("abcdefghijklmnop", uploadedContents.get(1));
+        assertEquals("qrstuvwxyzabcdef", uploadedContents.get(2));
+        assertEquals("wxyza", uploadedContents.get(4));
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(completeCaptor.capture());
+        List<CompletedPart> parts = completeCaptor.getValue().multipartUpload().parts();
+        assertEquals(List.of(1, 2, 3, 4), parts.stream().map(CompletedPart::partNumber).toList());
+        assertEquals("upload-1", completeCaptor.getValue().uploadId());
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertEquals(data.length, stream.getBytesWritten());
+        assertEquals(4, stream.getUploadedParts());
+    }
+
+    @Test
+    void shouldRecordLatencyOfEachUploadedPart() throws IOException {
+        // Given
+        mockMultipartUpload();
+        Timer partUploadTimer = Timer.builder("export.upload.part").register(new SimpleMeterRegistry());
+        S3MultipartUploadOutputStream stream = newStream();
+        stream.setPartUploadTimer(partUploadTimer);
+
+        // When
+        stream.write(new byte[PART_SIZE * 2 + 1]);
+        stream.close();
+
+        // Then
+        assertEquals(3, partUploadTimer.count());
+    }
+
+    @Test
+    void shouldAbortMultipartUploadWhenPartFails() {
+        // Given
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(new RuntimeException("S3 part error"));
+        S3MultipartUploadOutputStream stream = newStream();
+
+        // When
+        IOException exception = assertThrows(IOException.class, () -> {
+            stream.write(new byte[PART_SIZE * 3]);
+            stream.close();
+        });
+
+        // Then
+        assertTrue(exception.getMessage().contains("S3 part error"));
+        stream.abort();
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void shouldNotUploadAnythingAfterAbort() throws IOException {
+        // Given
+        S3MultipartUploadOutputStream stream = newStream();
+        stream.write("data".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        stream.abort();
+        stream.close();
+
+        // Then
+        verifyNoInteractions(s3Client);
+        assertThrows(IOException.class, () -> stream.write(1));
+    }
+
+    private S3MultipartUploadOutputStream newStream() {
+        return new S3MultipartUploadOutputStream(s3Client, "test-bucket", "exports/file.csv", "text/csv", null, PART_SIZE, 2);
+    }
+
+    private Map<Integer, String> mockMultipartUpload() {
+        // Partes podem terminar fora de ordem; o conteúdo é indexado pelo número da parte
+        Map<Integer, String> uploadedContents = new ConcurrentHashMap<>();
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> {
+                    UploadPartRequest request = invocation.getArgument(0);
+                    // Lê o corpo durante o upload, pois o buffer é reutilizado depois
+                    uploadedContents.put(request.partNumber(), readBody(invocation.getArgument(1)));
+                    return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+                });
+        return uploadedContents;
+    }
+
+    private String readBody(RequestBody body) throws IOException {
+        try (InputStream inputStream = body.contentStreamProvider().newStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
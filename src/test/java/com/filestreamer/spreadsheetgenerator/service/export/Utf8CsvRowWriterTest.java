@@ -0,0 +1,126 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import com.opencsv.CSVWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8CsvRowWriterTest {
+
+    private static final List<String[]> ROWS = List.of(
+            new String[]{"id", "name", "price"},
+            new String[]{"1", "Simple", "10.50"},
+            new String[]{"2", "With, comma", "With \"quotes\""},
+            new String[]{"3", "Line\nbreak", "Carriage\r\nreturn"},
+            new String[]{"4", null, ""},
+            new String[]{"5", "Ação café ñ", "€ 1.000,00"},
+            new String[]{"6", "Emoji 😀 e 𝄞", "中文"},
+            new String[]{"7", "Órfão \uD83D fim", "\uDE00 início"},
+            new String[]{},
+            new String[]{"\"\"\"", "'single'", "tab\there"}
+    );
+
+    @Test
+    void shouldProduceSameBytesAsOpenCsvWriter() throws IOException {
+        // Given
+        byte[] expected = writeWithOpenCsv(ROWS);
+
+        // When
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (Utf8CsvRowWriter writer = new Utf8CsvRowWriter(output)) {
+            for (String[] row : ROWS) {
+                writer.writeRow(row);
+            }
+        }
+
+        // Then
+        assertArrayEquals(expected, output.toByteArray());
+    }
+
+    @Test
+    void shouldProduceSameBytesWhenFieldsSpanBufferBoundaries() throws IOException {
+        // Given
+        String longField = "x\"é😀".repeat(1000);
+        List<String[]> rows = List.of(new String[]{longField, "a"}, new String[]{"b", longField});
+        byte[] expected = writeWithOpenCsv(rows);
+
+        // When
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (Utf8CsvRowWriter writer = new Utf8CsvRowWriter(output, 7)) {
+            for (String[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+
+        // Then
+        assertArrayEquals(expected, output.toByteArray());
+    }
+
+    @Test
+    void shouldQuoteAllFieldsAndSkipNullRows() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Utf8CsvRowWriter writer = new Utf8CsvRowWriter(output);
+
+        // When
+        writer.writeRow(new String[]{"a", null, "say \"hi\""});
+        writer.writeRow(null);
+        writer.close();
+
+        // Then
+        assertEquals("\"a\",,\"say \"\"hi\"\"\"\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldKeepBytesBufferedUntilFlush() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Utf8CsvRowWriter writer = new Utf8CsvRowWriter(output);
+
+        // When
+        writer.writeRow(new String[]{"a"});
+
+        // Then
+        assertEquals(0, output.size());
+        writer.flush();
+        assertEquals("\"a\"\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldCloseUnderlyingStream() throws IOException {
+        // Given
+        boolean[] closed = {false};
+        OutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // When
+        new Utf8CsvRowWriter(outputStream).close();
+
+        // Then
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void shouldRejectTooSmallBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> new Utf8CsvRowWriter(new ByteArrayOutputStream(), 3));
+    }
+
+    private byte[] writeWithOpenCsv(List<String[]> rows) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            rows.forEach(csvWriter::writeNext);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package com.filestreamer.spreadsheetgenerator.service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxRowWriterTest {
+
+    @Test
+    void shouldWriteWorkbookWithInlineStrings() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        try (XlsxRowWriter writer = new XlsxRowWriter(output)) {
+            writer.writeHeader(new String[]{"ID", "Nome"});
+            writer.writeRow(new String[]{"1", "Café & <Chá>"});
+            writer.writeRow(new String[]{"2", null});
+        }
+
+        // Then
+        Map<String, String> entries = unzip(output.toByteArray());
+        assertTrue(entries.containsKey("[Content_Types].xml"));
+        assertTrue(entries.containsKey("_rels/.rels"));
+        assertTrue(entries.containsKey("xl/workbook.xml"));
+        assertTrue(entries.containsKey("xl/_rels/workbook.xml.rels"));
+        assertTrue(entries.containsKey("xl/styles.xml"));
+        assertFalse(entries.containsKey("xl/sharedStrings.xml"));
+
+        String sheet = entries.get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<row r=\"1\"><c t=\"inlineStr\"><is><t xml:space=\"preserve\">ID</t></is></c>"));
+        assertTrue(sheet.contains("<t xml:space=\"preserve\">Café &amp; &lt;Chá&gt;</t>"));
+        assertTrue(sheet.contains("<row r=\"3\"><c t=\"inlineStr\"><is><t xml:space=\"preserve\">2</t></is></c><c/></row>"));
+        assertTrue(sheet.endsWith("</sheetData></worksheet>"));
+        assertTrue(entries.get("xl/workbook.xml").contains("<sheet name=\"Planilha1\" sheetId=\"1\" r:id=\"rId1\"/>"));
+    }
+
+    @Test
+    void shouldRollOverToNewSheetRepeatingHeader() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XlsxRowWriter writer = new XlsxRowWriter(output, 3);
+
+        // When
+        writer.writeHeader(new String[]{"ID"});
+        for (int i = 1; i <= 5; i++) {
+            writer.writeRow(new String[]{String.valueOf(i)});
+        }
+        writer.close();
+
+        // Then: 2 linhas de dados + cabeçalho por planilha
+        assertEquals(3, writer.getSheetCount());
+        Map<String, String> entries = unzip(output.toByteArray());
+        String secondSheet = entries.get("xl/worksheets/sheet2.xml");
+        assertTrue(secondSheet.contains("<row r=\"1\"><c t=\"inlineStr\"><is><t xml:space=\"preserve\">ID</t></is></c></row>"));
+        assertTrue(secondSheet.contains("<t xml:space=\"preserve\">3</t>"));
+        assertTrue(secondSheet.contains("<t xml:space=\"preserve\">4</t>"));
+        assertFalse(secondSheet.contains("<row r=\"4\">"));
+        assertTrue(entries.get("xl/worksheets/sheet3.xml").contains("<t xml:space=\"preserve\">5</t>"));
+
+        String workbook = entries.get("xl/workbook.xml");
+        assertTrue(workbook.contains("Planilha3"));
+        assertTrue(entries.get("[Content_Types].xml").contains("/xl/worksheets/sheet3.xml"));
+    }
+
+    @Test
+    void shouldDropCharactersNotAllowedInXml() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        try (XlsxRowWriter writer = new XlsxRowWriter(output)) {
+            writer.writeRow(new String[]{"a\u0000b\u0007c\td"});
+        }
+
+        // Then
+        String sheet = unzip(output.toByteArray()).get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("<t xml:space=\"preserve\">abc\td</t>"));
+    }
+
+    @Test
+    void shouldWriteEmptySheetWhenThereAreNoRows() throws IOException {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        new XlsxRowWriter(output).close();
+
+        // Then
+        Map<String, String> entries = unzip(output.toByteArray());
+        assertTrue(entries.get("xl/worksheets/sheet1.xml").contains("<sheetData></sheetData>"));
+    }
+
+    private Map<String, String> unzip(byte[] content) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(content))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zipInputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,108 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowReaderTest {
+
+    @Test
+    void shouldReadQuotedFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        // Given
+        String csv = "name,description,price\r\n" +
+                "\"Mouse, sem fio\",\"Com \"\"aspas\"\"\",10.50\r\n" +
+                "Teclado,\"Duas\nlinhas\",20\r\n";
+
+        try (CsvRowReader reader = reader(csv, ',')) {
+            // When
+            String[] header = reader.readRow();
+            String[] first = reader.readRow();
+            String[] second = reader.readRow();
+            String[] end = reader.readRow();
+
+            // Then
+            assertArrayEquals(new String[]{"name", "description", "price"}, header);
+            assertArrayEquals(new String[]{"Mouse, sem fio", "Com \"aspas\"", "10.50"}, first);
+            assertArrayEquals(new String[]{"Teclado", "Duas\nlinhas", "20"}, second);
+            assertNull(end);
+        }
+    }
+
+    @Test
+    void shouldStripBomAndSkipBlankLines() throws IOException {
+        // Given
+        String csv = "\uFEFFNome;Preço\n\nMouse;10,50\n";
+
+        try (CsvRowReader reader = reader(csv, ';')) {
+            // When
+            String[] header = reader.readRow();
+            String[] row = reader.readRow();
+
+            // Then
+            assertArrayEquals(new String[]{"Nome", "Preço"}, header);
+            assertArrayEquals(new String[]{"Mouse", "10,50"}, row);
+            assertEquals(3, reader.getRowNumber());
+            assertNull(reader.readRow());
+        }
+    }
+
+    @Test
+    void shouldNumberRowsByPhysicalLine() throws IOException {
+        // Given
+        String csv = "name,price\n\"Multi\nlinha\",1\nMouse,2\n";
+
+        try (CsvRowReader reader = reader(csv, ',')) {
+            // When
+            reader.readRow();
+            reader.readRow();
+            long multiLineRow = reader.getRowNumber();
+            reader.readRow();
+            long nextRow = reader.getRowNumber();
+
+            // Then
+            assertEquals(2, multiLineRow);
+            assertEquals(4, nextRow);
+        }
+    }
+
+    @Test
+    void shouldFailOnUnterminatedQuote() throws IOException {
+        // Given
+        String csv = "name,price\nMouse,1\n\"Aberto,2\n";
+
+        try (CsvRowReader reader = reader(csv, ',')) {
+            reader.readRow();
+            reader.readRow();
+
+            // When & Then
+            ImportFormatException exception = assertThrows(ImportFormatException.class, reader::readRow);
+            assertTrue(exception.getMessage().startsWith("CSV malformado a partir da linha 3"));
+        }
+    }
+
+    @Test
+    void shouldFailWhenRowSpansMoreLinesThanLimit() throws IOException {
+        // Given
+        String csv = "name,description,price\nMouse,\"a\nb\",1\nTeclado,\"Aberto\n1\n2\n3\n";
+
+        try (CsvRowReader reader = new CsvRowReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ',', 2)) {
+            reader.readRow();
+            String[] withinLimit = reader.readRow();
+
+            // When & Then
+            ImportFormatException exception = assertThrows(ImportFormatException.class, reader::readRow);
+            assertArrayEquals(new String[]{"Mouse", "a\nb", "1"}, withinLimit);
+            assertEquals("CSV malformado a partir da linha 4: registro com mais de 2 linhas (aspas sem fechamento?)",
+                    exception.getMessage());
+        }
+    }
+
+    private static CsvRowReader reader(String csv, char separator) {
+        return new CsvRowReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), separator);
+    }
+}
@@ -0,0 +1,239 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import com.filestreamer.spreadsheetgenerator.model.Product;
+import com.filestreamer.spreadsheetgenerator.repository.BulkLoadMethod;
+import com.filestreamer.spreadsheetgenerator.repository.ProductBulkLoadRepository;
+import com.filestreamer.spreadsheetgenerator.service.export.XlsxRowWriter;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductBulkLoadRepository bulkLoadRepository;
+
+    @TempDir
+    Path reportDirectory;
+
+    private ValidatorFactory validatorFactory;
+
+    private ProductImportService importService;
+
+    private final List<Product> loaded = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new ProductImportService(bulkLoadRepository, validatorFactory.getValidator());
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "reportDirectory", reportDirectory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void shouldLoadValidRowsAndReportRejectedOnes() throws IOException {
+        // Given
+        mockLoad();
+        String csv = "name,description,price\n" +
+                "Mouse,Sem fio,10.50\n" +
+                ",Sem nome,5\n" +
+                "Teclado,,abc\n" +
+                "Monitor,  ,-1\n" +
+                "Cadeira,Gamer,1200\n";
+
+        // When
+        ProductImportResult result = importService.importCsv(stream(csv), ',');
+
+        // Then
+        assertEquals(5, result.rowsRead());
+        assertEquals(2, result.accepted());
+        assertEquals(3, result.rejected());
+        assertEquals(BulkLoadMethod.JDBC_BATCH, result.method());
+        assertEquals(2, result.chunkSize());
+        verify(bulkLoadRepository).load(any(), eq(2));
+
+        assertEquals(List.of("Mouse", "Cadeira"), loaded.stream().map(Product::getName).toList());
+        Product mouse = loaded.get(0);
+        assertEquals("Sem fio", mouse.getDescription());
+        assertEquals(new BigDecimal("10.50"), mouse.getPrice());
+        assertNotNull(mouse.getCreatedAt());
+        assertNull(mouse.getUpdatedAt());
+
+        Path report = importService.findRejectedReport(result.importId()).orElseThrow();
+        assertEquals(List.of(
+                "\"Linha\",\"Erros\",\"name\",\"description\",\"price\"",
+                "\"3\",\"Nome é obrigatório\",\"\",\"Sem nome\",\"5\"",
+                "\"4\",\"Preço inválido: abc\",\"Teclado\",\"\",\"abc\"",
+                "\"5\",\"Preço deve ser maior que zero\",\"Monitor\",\"  \",\"-1\""),
+                Files.readAllLines(report));
+    }
+
+    @Test
+    void shouldMapPortugueseHeaderAndIgnoreExtraColumns() throws IOException {
+        // Given
+        mockLoad();
+        String csv = "\"ID\",\"Nome\",\"Descrição\",\"Preço\",\"Data Criação\"\n" +
+                "\"1\",\"Mouse\",\"\",\"10,50\",\"2025-01-01T10:00:00\"\n";
+
+        // When
+        ProductImportResult result = importService.importCsv(stream(csv), ',');
+
+        // Then
+        assertEquals(1, result.accepted());
+        assertFalse(result.hasRejectedReport());
+        assertNull(loaded.get(0).getId());
+        assertNull(loaded.get(0).getDescription());
+        assertEquals(new BigDecimal("10.50"), loaded.get(0).getPrice());
+        assertTrue(importService.findRejectedReport(result.importId()).isEmpty());
+    }
+
+    @Test
+    void shouldImportFirstSheetOfXlsx() throws IOException {
+        // Given
+        mockLoad();
+        ByteArrayOutputStream xlsx = new ByteArrayOutputStream();
+        try (XlsxRowWriter writer = new XlsxRowWriter(xlsx)) {
+            writer.writeHeader(new String[]{"Nome", "Descrição", "Preço"});
+            writer.writeRow(new String[]{"Mouse", "Sem fio", "10.5"});
+            writer.writeRow(new String[]{"Teclado", null, "zero"});
+        }
+
+        // When
+        ProductImportResult result = importService.importXlsx(new ByteArrayInputStream(xlsx.toByteArray()));
+
+        // Then
+        assertEquals(2, result.rowsRead());
+        assertEquals(1, result.accepted());
+        assertEquals(1, result.rejected());
+        assertEquals(new BigDecimal("10.5"), loaded.get(0).getPrice());
+        Path report = importService.findRejectedReport(result.importId()).orElseThrow();
+        assertEquals("\"3\",\"Preço inválido: zero\",\"Teclado\",\"\",\"zero\"", Files.readAllLines(report).get(1));
+    }
+
+    @Test
+    void shouldRejectHeaderWithoutRequiredColumns() {
+        // Given
+        String csv = "name,description\nMouse,Sem fio\n";
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> importService.importCsv(stream(csv), ','));
+        assertEquals("Cabeçalho deve ter as colunas de nome (name) e preço (price)", exception.getMessage());
+        verifyNoInteractions(bulkLoadRepository);
+    }
+
+    @Test
+    void shouldRejectEmptyFile() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(stream(""), ','));
+        verifyNoInteractions(bulkLoadRepository);
+    }
+
+    @Test
+    void shouldPropagateMalformedCsvFoundWhileLoading() throws IOException {
+        // Given
+        mockLoad();
+        String csv = "name,price\nMouse,1\n\"Aberto,2\n";
+
+        // When & Then
+        assertThrows(ImportFormatException.class, () -> importService.importCsv(stream(csv), ','));
+    }
+
+    @Test
+    void shouldNotResolveReportForInvalidImportId() {
+        // When & Then
+        assertTrue(importService.findRejectedReport("../../etc/passwd").isEmpty());
+    }
+
+    @Test
+    void shouldDeleteOnlyExpiredRejectedReports() throws IOException {
+        // Given
+        String expiredId = UUID.randomUUID().toString();
+        String recentId = UUID.randomUUID().toString();
+        Path expired = Files.writeString(reportDirectory.resolve(expiredId + "_rejected.csv"), "Linha,Erros\n");
+        Path recent = Files.writeString(reportDirectory.resolve(recentId + "_rejected.csv"), "Linha,Erros\n");
+        Path other = Files.writeString(reportDirectory.resolve("outro.csv"), "id\n");
+        FileTime old = FileTime.from(Instant.now().minus(Duration.ofHours(25)));
+        Files.setLastModifiedTime(expired, old);
+        Files.setLastModifiedTime(other, old);
+
+        // When
+        int deleted = importService.deleteExpiredReports();
+
+        // Then
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(expired));
+        assertTrue(importService.findRejectedReport(expiredId).isEmpty());
+        assertEquals(Optional.of(recent), importService.findRejectedReport(recentId));
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    void shouldKeepReportsWhenTtlIsZero() throws IOException {
+        // Given
+        ReflectionTestUtils.setField(importService, "reportTtl", Duration.ZERO);
+        Path report = Files.writeString(reportDirectory.resolve(UUID.randomUUID() + "_rejected.csv"), "Linha\n");
+        Files.setLastModifiedTime(report, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+
+        // When
+        int deleted = importService.deleteExpiredReports();
+
+        // Then
+        assertEquals(0, deleted);
+        assertTrue(Files.exists(report));
+    }
+
+    /**
+     * Simula o carregador consumindo o iterator como o repositório real
+     */
+    private void mockLoad() throws IOException {
+        when(bulkLoadRepository.getLoadMethod()).thenReturn(BulkLoadMethod.JDBC_BATCH);
+        when(bulkLoadRepository.load(any(), anyInt())).thenAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            long rows = 0;
+            while (products.hasNext()) {
+                loaded.add(products.next());
+                rows++;
+            }
+            return rows;
+        });
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,64 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedStringsTableTest {
+
+    @Test
+    void shouldKeepSmallTableInMemory() throws IOException {
+        // Given
+        try (SharedStringsTable table = new SharedStringsTable(1024 * 1024)) {
+            table.add("Mouse");
+            table.add("");
+            table.add("Descrição com acentuação");
+
+            // When
+            table.finishLoading();
+
+            // Then
+            assertFalse(table.isSpilled());
+            assertEquals(3, table.size());
+            assertEquals("Mouse", table.get(0));
+            assertEquals("", table.get(1));
+            assertEquals("Descrição com acentuação", table.get(2));
+        }
+    }
+
+    @Test
+    void shouldSpillToDiskAboveMemoryLimit() throws IOException {
+        // Given
+        try (SharedStringsTable table = new SharedStringsTable(256)) {
+            for (int i = 0; i < 10_000; i++) {
+                table.add("Produto " + i + " ç");
+            }
+
+            // When
+            table.finishLoading();
+
+            // Then
+            assertTrue(table.isSpilled());
+            assertEquals(10_000, table.size());
+            assertEquals("Produto 0 ç", table.get(0));
+            assertEquals("Produto 9999 ç", table.get(9_999));
+            assertEquals("Produto 4242 ç", table.get(4_242));
+            assertEquals("Produto 4242 ç", table.get(4_242));
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownIndex() throws IOException {
+        // Given
+        try (SharedStringsTable table = new SharedStringsTable(1024)) {
+            table.add("Mouse");
+            table.finishLoading();
+
+            // When & Then
+            ImportFormatException exception = assertThrows(ImportFormatException.class, () -> table.get(1));
+            assertEquals("Índice de string compartilhada inválido: 1", exception.getMessage());
+        }
+    }
+}
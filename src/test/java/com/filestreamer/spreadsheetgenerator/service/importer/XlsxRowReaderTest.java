@@ -0,0 +1,162 @@
+package com.filestreamer.spreadsheetgenerator.service.importer;
+
+import com.filestreamer.spreadsheetgenerator.service.export.XlsxRowWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxRowReaderTest {
+
+    private static final String NS = "xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+            "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"";
+
+    private static final String REL_NS = "xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\"";
+
+    private static final String REL_TYPE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadSharedInlineNumericAndSparseCells() throws IOException {
+        // Given
+        Path file = workbook(
+                "<sst " + NS + ">" +
+                "<si><t>name</t></si>" +
+                "<si><t>price</t></si>" +
+                "<si><r><t>Mouse </t></r><r><t>sem fio</t></r><rPh><t>ignorado</t></rPh></si>" +
+                "</sst>",
+                "<worksheet " + NS + "><sheetData>" +
+                "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c></row>" +
+                "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>2</v></c><c r=\"B2\"><v>10.5</v></c></row>" +
+                "<row r=\"3\"><c r=\"A3\"/></row>" +
+                "<row r=\"5\"><c r=\"A5\" t=\"inlineStr\"><is><t>Teclado &amp; Cia</t></is></c>" +
+                "<c r=\"C5\" t=\"b\"><v>1</v></c></row>" +
+                "</sheetData></worksheet>");
+
+        try (XlsxRowReader reader = new XlsxRowReader(file, 1024 * 1024)) {
+            // When
+            String[] header = reader.readRow();
+            String[] first = reader.readRow();
+            long firstRowNumber = reader.getRowNumber();
+            String[] second = reader.readRow();
+            long secondRowNumber = reader.getRowNumber();
+            String[] end = reader.readRow();
+
+            // Then
+            assertArrayEquals(new String[]{"name", "price"}, header);
+            assertArrayEquals(new String[]{"Mouse sem fio", "10.5"}, first);
+            assertEquals(2, firstRowNumber);
+            assertArrayEquals(new String[]{"Teclado & Cia", "", "TRUE"}, second);
+            assertEquals(5, secondRowNumber);
+            assertNull(end);
+        }
+    }
+
+    @Test
+    void shouldReadWorkbookWrittenByExporter() throws IOException {
+        // Given
+        Path file = tempDir.resolve("export.xlsx");
+        try (OutputStream outputStream = Files.newOutputStream(file);
+             XlsxRowWriter writer = new XlsxRowWriter(outputStream)) {
+            writer.writeHeader(new String[]{"ID", "Nome", "Descrição", "Preço"});
+            writer.writeRow(new String[]{"1", "Mouse <USB>", null, "10.50"});
+        }
+
+        try (XlsxRowReader reader = new XlsxRowReader(file, 1024 * 1024)) {
+            // When
+            String[] header = reader.readRow();
+            String[] row = reader.readRow();
+
+            // Then
+            assertArrayEquals(new String[]{"ID", "Nome", "Descrição", "Preço"}, header);
+            assertArrayEquals(new String[]{"1", "Mouse <USB>", "", "10.50"}, row);
+            assertNull(reader.readRow());
+        }
+    }
+
+    @Test
+    void shouldResolveSharedStringsSpilledToDisk() throws IOException {
+        // Given
+        StringBuilder strings = new StringBuilder("<sst " + NS + ">");
+        StringBuilder rows = new StringBuilder("<worksheet " + NS + "><sheetData>");
+        for (int i = 0; i < 1_000; i++) {
+            strings.append("<si><t>Produto ").append(i).append("</t></si>");
+            rows.append("<row><c t=\"s\"><v>").append(999 - i).append("</v></c></row>");
+        }
+        Path file = workbook(strings.append("</sst>").toString(),
+                rows.append("</sheetData></worksheet>").toString());
+
+        try (XlsxRowReader reader = new XlsxRowReader(file, 512)) {
+            // When
+            String[] first = reader.readRow();
+            String[] last = null;
+            for (String[] row = first; row != null; row = reader.readRow()) {
+                last = row;
+            }
+
+            // Then
+            assertArrayEquals(new String[]{"Produto 999"}, first);
+            assertArrayEquals(new String[]{"Produto 0"}, last);
+            assertEquals(1_000, reader.getRowNumber());
+        }
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotWorkbooks() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("produtos.xlsx"), "name,price\n");
+
+        // When & Then
+        assertThrows(ImportFormatException.class, () -> new XlsxRowReader(file, 1024));
+    }
+
+    @Test
+    void shouldConvertCellReferenceToColumnIndex() throws IOException {
+        // When & Then
+        assertEquals(0, XlsxRowReader.columnIndex("A1"));
+        assertEquals(27, XlsxRowReader.columnIndex("AB12"));
+        assertEquals(XlsxRowReader.MAX_COLUMNS - 1, XlsxRowReader.columnIndex("XFD1"));
+        assertThrows(ImportFormatException.class, () -> XlsxRowReader.columnIndex("XFE1"));
+        assertThrows(ImportFormatException.class, () -> XlsxRowReader.columnIndex("12"));
+    }
+
+    /**
+     * Workbook mínimo com uma planilha e, opcionalmente, a tabela de strings compartilhadas
+     */
+    private Path workbook(String sharedStrings, String sheet) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("_rels/.rels", "<Relationships " + REL_NS + ">" +
+                "<Relationship Id=\"rId1\" Type=\"" + REL_TYPE + "officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                "</Relationships>");
+        entries.put("xl/workbook.xml", "<workbook " + NS + "><sheets>" +
+                "<sheet name=\"Produtos\" sheetId=\"1\" r:id=\"rId7\"/></sheets></workbook>");
+        entries.put("xl/_rels/workbook.xml.rels", "<Relationships " + REL_NS + ">" +
+                "<Relationship Id=\"rId7\" Type=\"" + REL_TYPE + "worksheet\" Target=\"worksheets/produtos.xml\"/>" +
+                "<Relationship Id=\"rId8\" Type=\"" + REL_TYPE + "sharedStrings\" Target=\"/xl/sharedStrings.xml\"/>" +
+                "</Relationships>");
+        entries.put("xl/worksheets/produtos.xml", sheet);
+        entries.put("xl/sharedStrings.xml", sharedStrings);
+
+        Path file = tempDir.resolve("workbook.xlsx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}